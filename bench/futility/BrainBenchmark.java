@@ -0,0 +1,114 @@
+/** @file BrainBenchmark.java
+ * Benchmarks of message parsing, localization and strategy selection.
+ * 
+ * @author Team F(utility)
+ */
+
+package futility;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the work a brain does in each cycle, on the messages of a recorded match. Parsing a
+ * `see` includes the brain's response to it, as it does in a match.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BrainBenchmark {
+    private Client client;
+    private Brain brain;
+    private ByteBuffer[] sees;
+    private ByteBuffer[] senseBodies;
+    private ByteBuffer[] hears;
+    private int nextSee = 0;
+    private int nextSenseBody = 0;
+    private int nextHear = 0;
+    
+    /**
+     * Replays the corpus into a fresh brain.
+     * 
+     * @throws IOException if the corpus cannot be read
+     */
+    @Setup
+    public void setUp() throws IOException {
+        Corpus corpus = new Corpus(Corpus.MATCH);
+        this.client = corpus.replay();
+        this.brain = this.client.player.brain;
+        this.sees = corpus.buffers("(see");
+        this.senseBodies = corpus.buffers("(sense_body");
+        this.hears = corpus.buffers("(hear");
+    }
+    
+    /**
+     * Closes the client's channel.
+     */
+    @TearDown
+    public void tearDown() {
+        this.client.quit();
+    }
+    
+    /**
+     * Parses and responds to the next `see` message.
+     */
+    @Benchmark
+    public void parseSee() {
+        this.brain.parseMessage(this.sees[this.nextSee]);
+        this.nextSee = (this.nextSee + 1) % this.sees.length;
+    }
+    
+    /**
+     * Parses the next `sense_body` message.
+     */
+    @Benchmark
+    public void parseSenseBody() {
+        this.brain.parseMessage(this.senseBodies[this.nextSenseBody]);
+        this.nextSenseBody = (this.nextSenseBody + 1) % this.senseBodies.length;
+    }
+    
+    /**
+     * Parses the next `hear` message.
+     */
+    @Benchmark
+    public void parseHear() {
+        this.brain.parseMessage(this.hears[this.nextHear]);
+        this.nextHear = (this.nextHear + 1) % this.hears.length;
+        // Keep the queue of heard messages from growing without bound
+        this.brain.hearMessages.clear();
+    }
+    
+    /**
+     * Localizes the player from the flags seen in the last `see`.
+     */
+    @Benchmark
+    public void updatePositionAndDirection() {
+        this.brain.updatePositionAndDirection();
+    }
+    
+    /**
+     * Assesses every strategy's utility.
+     * 
+     * @return the chosen strategy
+     */
+    @Benchmark
+    public Brain.Strategy determineOptimalStrategy() {
+        return this.brain.determineOptimalStrategy();
+    }
+}
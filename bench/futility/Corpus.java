@@ -0,0 +1,88 @@
+/** @file Corpus.java
+ * Recorded server messages for benchmarks.
+ * 
+ * @author Team F(utility)
+ */
+
+package futility;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+
+/**
+ * A sequence of messages as sent by the server to one player, read from a resource with one
+ * message per line. The bundled `match.log` follows player 7 of the left team through sixty
+ * cycles after kick-off.
+ */
+public class Corpus {
+    public static final String MATCH = "/futility/match.log";
+    
+    public final ArrayList<String> messages = new ArrayList<String>();
+    
+    /**
+     * Reads a corpus from a classpath resource.
+     * 
+     * @param resource the name of the resource
+     * @throws IOException if the resource cannot be read
+     */
+    public Corpus(String resource) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(
+                Corpus.class.getResourceAsStream(resource), "US-ASCII"));
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isEmpty()) {
+                    this.messages.add(line);
+                }
+            }
+        }
+        finally {
+            reader.close();
+        }
+    }
+    
+    /**
+     * Gets the messages of one kind, e.g. "(see", as direct buffers laid out the way the client
+     * receives them.
+     * 
+     * @param prefix the prefix of the messages to select
+     * @return the selected messages, in order
+     */
+    public ByteBuffer[] buffers(String prefix) {
+        ArrayList<ByteBuffer> buffers = new ArrayList<ByteBuffer>();
+        for (String message : this.messages) {
+            if (message.startsWith(prefix)) {
+                ByteBuffer buffer = ByteBuffer.allocateDirect(message.length() + 1);
+                Futil.putAscii(buffer, message);
+                buffer.put((byte) 0);
+                buffer.flip();
+                buffers.add(buffer);
+            }
+        }
+        return buffers.toArray(new ByteBuffer[buffers.size()]);
+    }
+    
+    /**
+     * Builds a client whose brain has parsed the whole corpus, ending on the final `see`. Commands
+     * the brain sends are discarded rather than sent.
+     * 
+     * @return the client
+     */
+    public Client replay() {
+        Replay.FakeClient client = new Replay.FakeClient(new String[] {"--team", "futility"});
+        client.capturing = false;
+        client.init();
+        String lastSee = null;
+        for (String message : this.messages) {
+            client.player.brain.parseMessage(message);
+            if (message.startsWith("(see")) {
+                lastSee = message;
+            }
+        }
+        client.player.brain.parseMessage(lastSee);
+        return client;
+    }
+}
@@ -0,0 +1,112 @@
+/** @file FutilBenchmark.java
+ * Benchmarks of `Futil` parsing and estimation routines.
+ * 
+ * @author Team F(utility)
+ */
+
+package futility;
+
+import java.io.IOException;
+import java.util.LinkedList;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks `Futil` on the state of a brain that has replayed a recorded match.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FutilBenchmark {
+    /** Number of time steps to estimate ahead. */
+    @Param({"1", "3", "10"})
+    public int horizon;
+    
+    private Client client;
+    private Brain brain;
+    private FieldObject ball;
+    private String seeObjects;
+    private final Scratch scratch = new Scratch();
+    
+    /**
+     * Replays the corpus into a fresh brain.
+     * 
+     * @throws IOException if the corpus cannot be read
+     */
+    @Setup
+    public void setUp() throws IOException {
+        Corpus corpus = new Corpus(Corpus.MATCH);
+        this.client = corpus.replay();
+        this.brain = this.client.player.brain;
+        this.ball = this.brain.fieldObjects[ObjectIds.BALL];
+        for (String message : corpus.messages) {
+            if (message.startsWith("(see")) {
+                // The object list, as passed to stringToList by extractInfos
+                this.seeObjects = message.substring(message.indexOf("(("), message.length() - 1);
+            }
+        }
+    }
+    
+    /**
+     * Closes the client's channel.
+     */
+    @TearDown
+    public void tearDown() {
+        this.client.quit();
+    }
+    
+    /**
+     * Splits the objects of a `see` message into strings.
+     * 
+     * @return the object strings
+     */
+    @Benchmark
+    public LinkedList<String> stringToList() {
+        return Futil.stringToList(this.seeObjects);
+    }
+    
+    /**
+     * Estimates the ball's position, allocating the estimate.
+     * 
+     * @return the estimate
+     */
+    @Benchmark
+    public PositionEstimate estimateBallPosition() {
+        return Futil.estimatePositionOf(this.ball, this.horizon, this.brain.time);
+    }
+    
+    /**
+     * Estimates the ball's position into scratch registers.
+     * 
+     * @return the estimate
+     */
+    @Benchmark
+    public PositionEstimate estimateBallPositionInPlace() {
+        return Futil.estimatePositionOf(this.ball, this.horizon, this.brain.time, this.scratch);
+    }
+    
+    /**
+     * Estimates the player's own position, which accounts for its dashes, into scratch registers.
+     * 
+     * @return the estimate
+     */
+    @Benchmark
+    public PositionEstimate estimatePlayerPositionInPlace() {
+        return Futil.estimatePositionOf(this.client.player, this.horizon, this.brain.time, this.scratch);
+    }
+}
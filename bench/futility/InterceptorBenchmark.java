@@ -0,0 +1,81 @@
+/** @file InterceptorBenchmark.java
+ * Benchmarks of `Interceptor` for every player on the field.
+ *
+ * @author Team F(utility)
+ */
+
+package futility;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks finding when each of 22 players scattered over the field reaches a rolling ball.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InterceptorBenchmark {
+    private static final int PLAYERS = 22;
+    private static final int BALLS = 64;
+    private static final PlayerType TYPE = ServerParams.DEFAULT.PLAYER_TYPE;
+
+    private final Interceptor interceptor = new Interceptor(ServerParams.DEFAULT);
+    private final double[] x = new double[PLAYERS];
+    private final double[] y = new double[PLAYERS];
+    private final double[] direction = new double[PLAYERS];
+    private final double[][] balls = new double[BALLS][4];
+    private int ball = 0;
+
+    /**
+     * Scatters the players, and the balls with speeds up to a full kick's.
+     */
+    @Setup
+    public void setUp() {
+        Random random = new Random(1L);
+        Rectangle field = Settings.FIELD;
+        for (int i = 0; i < PLAYERS; i++) {
+            this.x[i] = field.getLeft() + random.nextDouble() * (field.getRight() - field.getLeft());
+            this.y[i] = field.getTop() + random.nextDouble() * (field.getBottom() - field.getTop());
+            this.direction[i] = random.nextDouble() * 360.0 - 180.0;
+        }
+        for (double[] ball : this.balls) {
+            double speed = random.nextDouble() * ServerParams.DEFAULT.BALL_PARAMS.BALL_SPEED_MAX;
+            double heading = random.nextDouble() * 2.0 * Math.PI;
+            ball[0] = field.getLeft() + random.nextDouble() * (field.getRight() - field.getLeft());
+            ball[1] = field.getTop() + random.nextDouble() * (field.getBottom() - field.getTop());
+            ball[2] = speed * Math.cos(heading);
+            ball[3] = speed * Math.sin(heading);
+        }
+    }
+
+    /**
+     * Finds when each player reaches the next ball.
+     *
+     * @return the sum of the cycles
+     */
+    @Benchmark
+    public int allPlayers() {
+        double[] ball = this.balls[this.ball++ & (BALLS - 1)];
+        this.interceptor.setBall(ball[0], ball[1], ball[2], ball[3]);
+        int sum = 0;
+        for (int i = 0; i < PLAYERS; i++) {
+            sum += this.interceptor.cycles(TYPE, this.x[i], this.y[i], 0.0, 0.0, this.direction[i]);
+        }
+        return sum;
+    }
+}
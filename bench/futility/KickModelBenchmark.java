@@ -0,0 +1,76 @@
+/** @file KickModelBenchmark.java
+ * Benchmarks of `KickModel` planning.
+ *
+ * @author Team F(utility)
+ */
+
+package futility;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks setting a kicking state, and planning kicks toward many targets from it.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class KickModelBenchmark {
+    private static final int TARGETS = 256;
+
+    private final KickModel model = new KickModel(ServerParams.DEFAULT, ServerParams.DEFAULT.PLAYER_TYPE);
+    private final double[] targetX = new double[TARGETS];
+    private final double[] targetY = new double[TARGETS];
+    private int target = 0;
+
+    /**
+     * Places the ball beside the player, and scatters target velocities up to the ball's fastest.
+     */
+    @Setup
+    public void setUp() {
+        Random random = new Random(1L);
+        for (int i = 0; i < TARGETS; i++) {
+            double speed = random.nextDouble() * ServerParams.DEFAULT.BALL_PARAMS.BALL_SPEED_MAX;
+            double heading = random.nextDouble() * 2.0 * Math.PI;
+            this.targetX[i] = speed * Math.cos(heading);
+            this.targetY[i] = speed * Math.sin(heading);
+        }
+        this.setState();
+    }
+
+    /**
+     * Sets a state with the ball to the player's side, tabulating what kicks can do from it.
+     *
+     * @return the model
+     */
+    @Benchmark
+    public KickModel setState() {
+        this.model.setState(0.0, 0.0, 0.2, 0.1, 30.0, 0.3, 0.6, -0.4, 0.2);
+        return this.model;
+    }
+
+    /**
+     * Plans the kicks toward one target velocity.
+     *
+     * @return the number of kicks
+     */
+    @Benchmark
+    public int plan() {
+        int i = this.target++ & (TARGETS - 1);
+        return this.model.plan(this.targetX[i], this.targetY[i]);
+    }
+}
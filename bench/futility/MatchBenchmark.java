@@ -0,0 +1,85 @@
+/** @file MatchBenchmark.java
+ * Benchmarks of whole clients playing against the stand-in server.
+ * 
+ * @author Team F(utility)
+ */
+
+package futility;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures how long a whole cycle takes when teams of clients play a lockstep StandInServer over
+ * loopback UDP: receiving and parsing `sense_body` and `see`, choosing and sending a command, and
+ * the server's simulation step.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MatchBenchmark {
+    @Param({"2", "22"})
+    public int players;
+    
+    private StandInServer server;
+    private AgentRuntime host;
+    
+    /**
+     * Starts the server and the clients, split between two teams, and kicks off.
+     * 
+     * @throws IOException if the server or a client cannot be started
+     * @throws InterruptedException if interrupted while waiting for kick-off
+     */
+    @Setup
+    public void setUp() throws IOException, InterruptedException {
+        this.server = StandInServer.start(0, true);
+        String port = Integer.toString(this.server.getPort());
+        this.host = new ThreadedAgentHost();
+        for (int i = 0; i < this.players; i++) {
+            String team = i % 2 == 0 ? Settings.TEAM_NAME : Settings.OTHER_TEAM_NAME;
+            this.host.add(new Client(new String[] {"--synch", "--team", team, "--port", port}));
+        }
+        new Thread(this.host, "match-host").start();
+        Thread.sleep(500);
+        this.server.kickOff();
+        this.server.awaitTime(1, 10000);
+    }
+    
+    /**
+     * Stops the clients and the server.
+     */
+    @TearDown
+    public void tearDown() {
+        this.host.stop();
+        this.server.stop();
+    }
+    
+    /**
+     * Waits for the next cycle.
+     * 
+     * @return the new time step
+     * @throws InterruptedException if interrupted while waiting
+     */
+    @Benchmark
+    public int cycle() throws InterruptedException {
+        int next = this.server.time() + 1;
+        this.server.awaitTime(next, 10000);
+        return next;
+    }
+}
@@ -0,0 +1,72 @@
+/** @file PassEvaluatorBenchmark.java
+ * Benchmarks of `PassEvaluator` on a full field.
+ *
+ * @author Team F(utility)
+ */
+
+package futility;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks evaluating every pass and shot from the ball at the center spot, with 10 teammates
+ * and 11 opponents tracked around it, on the shared pool and on the calling thread alone.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PassEvaluatorBenchmark {
+    private final PlayerTracker tracker = new PlayerTracker();
+    private final KickModel kicks = new KickModel(ServerParams.DEFAULT, ServerParams.DEFAULT.PLAYER_TYPE);
+    private final PassEvaluator parallel = new PassEvaluator(ServerParams.DEFAULT);
+    private final PassEvaluator sequential = new PassEvaluator(ServerParams.DEFAULT, null);
+
+    /**
+     * Scatters the players within 40 meters of the ball, and puts the ball at the kicker's feet.
+     */
+    @Setup
+    public void setUp() {
+        Random random = new Random(1L);
+        for (int i = 0; i < 21; i++) {
+            int team = i < 10 ? PlayerTracker.TEAMMATE : PlayerTracker.OPPONENT;
+            this.tracker.see(team, i % 11 + 1, 3.0 + random.nextDouble() * 37.0, random.nextDouble() * 360.0 - 180.0);
+        }
+        this.tracker.update(0, 0.0, 0.0, 0.0, 0.0, 180.0);
+        this.kicks.setState(-0.5, 0.0, 0.0, 0.0, 0.0, 0.0, 0.0, 0.0, 0.0);
+    }
+
+    /**
+     * Evaluates the kicks on the shared pool.
+     *
+     * @return the best candidate
+     */
+    @Benchmark
+    public int parallel() {
+        return this.parallel.evaluate(this.tracker, this.kicks, 0.0, 0.0, Settings.FIELD_WIDTH / 2.0, PassEvaluator.NO_DEADLINE);
+    }
+
+    /**
+     * Evaluates the kicks on the calling thread.
+     *
+     * @return the best candidate
+     */
+    @Benchmark
+    public int sequential() {
+        return this.sequential.evaluate(this.tracker, this.kicks, 0.0, 0.0, Settings.FIELD_WIDTH / 2.0, PassEvaluator.NO_DEADLINE);
+    }
+}
@@ -0,0 +1,163 @@
+/** @file SpatialGridBenchmark.java
+ * Benchmarks of `SpatialGrid` queries against a scan over every object.
+ *
+ * @author Team F(utility)
+ */
+
+package futility;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks queries of objects scattered uniformly over the field, from random points.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SpatialGridBenchmark {
+    /** Number of objects: the players, or sampled points such as pass targets. */
+    @Param({"22", "200"})
+    public int objects;
+
+    private static final int QUERIES = 64;
+    private static final double RADIUS = 10.0;
+
+    private SpatialGrid grid;
+    private double[] x;
+    private double[] y;
+    private final double[] queryX = new double[QUERIES];
+    private final double[] queryY = new double[QUERIES];
+    private int[] out;
+    private int query = 0;
+
+    /**
+     * Scatters the objects and the query points.
+     */
+    @Setup
+    public void setUp() {
+        Random random = new Random(1L);
+        Rectangle field = Settings.FIELD;
+        this.grid = new SpatialGrid(this.objects);
+        this.x = new double[this.objects];
+        this.y = new double[this.objects];
+        this.out = new int[this.objects];
+        for (int i = 0; i < this.objects; i++) {
+            this.x[i] = field.getLeft() + random.nextDouble() * (field.getRight() - field.getLeft());
+            this.y[i] = field.getTop() + random.nextDouble() * (field.getBottom() - field.getTop());
+            this.grid.put(i, this.x[i], this.y[i], 1);
+        }
+        for (int q = 0; q < QUERIES; q++) {
+            this.queryX[q] = field.getLeft() + random.nextDouble() * (field.getRight() - field.getLeft());
+            this.queryY[q] = field.getTop() + random.nextDouble() * (field.getBottom() - field.getTop());
+        }
+    }
+
+    /**
+     * Finds the objects within a radius of the next query point by scanning them all.
+     *
+     * @return the number found
+     */
+    @Benchmark
+    public int scanWithin() {
+        int q = this.query++ & (QUERIES - 1);
+        int count = 0;
+        for (int i = 0; i < this.objects; i++) {
+            double dx = this.x[i] - this.queryX[q];
+            double dy = this.y[i] - this.queryY[q];
+            if (dx * dx + dy * dy <= RADIUS * RADIUS) {
+                this.out[count++] = i;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Finds the objects within a radius of the next query point with the grid.
+     *
+     * @return the number found
+     */
+    @Benchmark
+    public int gridWithin() {
+        int q = this.query++ & (QUERIES - 1);
+        return this.grid.within(this.queryX[q], this.queryY[q], RADIUS, 0, this.out);
+    }
+
+    /**
+     * Finds the three objects nearest to the next query point by scanning them all.
+     *
+     * @return the nearest
+     */
+    @Benchmark
+    public int scanNearest() {
+        int q = this.query++ & (QUERIES - 1);
+        double d0 = Double.POSITIVE_INFINITY, d1 = d0, d2 = d0;
+        int i0 = -1, i1 = -1, i2 = -1;
+        for (int i = 0; i < this.objects; i++) {
+            double dx = this.x[i] - this.queryX[q];
+            double dy = this.y[i] - this.queryY[q];
+            double d = dx * dx + dy * dy;
+            if (d < d2) {
+                if (d < d1) {
+                    d2 = d1;
+                    i2 = i1;
+                    if (d < d0) {
+                        d1 = d0;
+                        i1 = i0;
+                        d0 = d;
+                        i0 = i;
+                    }
+                    else {
+                        d1 = d;
+                        i1 = i;
+                    }
+                }
+                else {
+                    d2 = d;
+                    i2 = i;
+                }
+            }
+        }
+        return i0 + i1 + i2;
+    }
+
+    /**
+     * Finds the three objects nearest to the next query point with the grid.
+     *
+     * @return the number found
+     */
+    @Benchmark
+    public int gridNearest() {
+        int q = this.query++ & (QUERIES - 1);
+        return this.grid.nearest(this.queryX[q], this.queryY[q], 3, 0, this.out);
+    }
+
+    /**
+     * Moves one object a little, as a track moves in a cycle.
+     *
+     * @return the grid
+     */
+    @Benchmark
+    public SpatialGrid gridPut() {
+        int i = this.query++ % this.objects;
+        double dx = (this.query & 1) == 0 ? 0.5 : -0.5;
+        this.x[i] += dx;
+        this.grid.put(i, this.x[i], this.y[i], 1);
+        return this.grid;
+    }
+}
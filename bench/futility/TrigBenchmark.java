@@ -0,0 +1,140 @@
+/** @file TrigBenchmark.java
+ * Microbenchmark of the trigonometric lookup tables against `Math`.
+ * 
+ * @author Team F(utility)
+ */
+
+package futility;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Times the `Futil` degree-based trigonometric functions against the equivalent `Math` calls on
+ * the kind of angles a brain sees: whole-degree directions from `see` messages and arbitrary
+ * absolute directions.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TrigBenchmark {
+    private static final int SIZE = 4096;
+    private final double[] whole = new double[SIZE];
+    private final double[] fractional = new double[SIZE];
+    private final double[] xs = new double[SIZE];
+    private final double[] ys = new double[SIZE];
+    
+    /**
+     * Draws the input angles and points.
+     */
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        for (int i = 0; i < SIZE; i++) {
+            this.whole[i] = random.nextInt(361) - 180;
+            this.fractional[i] = (random.nextDouble() - 0.5) * 360.0;
+            this.xs[i] = (random.nextDouble() - 0.5) * 100.0;
+            this.ys[i] = (random.nextDouble() - 0.5) * 100.0;
+        }
+    }
+    
+    /**
+     * Sines and cosines of whole degrees with `Math`.
+     */
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public double mathSinCosWhole() {
+        return mathSinCos(this.whole);
+    }
+    
+    /**
+     * Sines and cosines of whole degrees with `Futil`.
+     */
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public double futilSinCosWhole() {
+        return futilSinCos(this.whole);
+    }
+    
+    /**
+     * Sines and cosines of fractional degrees with `Math`.
+     */
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public double mathSinCosFractional() {
+        return mathSinCos(this.fractional);
+    }
+    
+    /**
+     * Sines and cosines of fractional degrees with `Futil`.
+     */
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public double futilSinCosFractional() {
+        return futilSinCos(this.fractional);
+    }
+    
+    /**
+     * Angles of points with `Math`.
+     */
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public double mathAtan2() {
+        double sum = 0.0;
+        for (int i = 0; i < SIZE; i++) {
+            sum += Math.toDegrees(Math.atan2(this.ys[i], this.xs[i]));
+        }
+        return sum;
+    }
+    
+    /**
+     * Angles of points with `Futil`.
+     */
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public double futilAtan2() {
+        double sum = 0.0;
+        for (int i = 0; i < SIZE; i++) {
+            sum += Futil.atan2Deg(this.ys[i], this.xs[i]);
+        }
+        return sum;
+    }
+    
+    /**
+     * Sums sines and cosines computed with `Math`.
+     */
+    private static double mathSinCos(double[] angles) {
+        double sum = 0.0;
+        for (int i = 0; i < SIZE; i++) {
+            double r = Math.toRadians(angles[i]);
+            sum += Math.sin(r) + Math.cos(r);
+        }
+        return sum;
+    }
+    
+    /**
+     * Sums sines and cosines computed with `Futil`.
+     */
+    private static double futilSinCos(double[] angles) {
+        double sum = 0.0;
+        for (int i = 0; i < SIZE; i++) {
+            sum += Futil.sinDeg(angles[i]) + Futil.cosDeg(angles[i]);
+        }
+        return sum;
+    }
+}
@@ -42,6 +42,34 @@ case "$1" in
     start_three "--team" "futility" "${@:2}"
     start_three "--team" "adversary" "${@:2}"
     ;;
+  host)
+    echo "Starting both teams in one process with arguments: ${@:2}..."
+    java -cp bin/ futility.Main --compete "${@:2}" &
+    ;;
+  threaded)
+    echo "Starting both teams in one process, one thread per player, with arguments: ${@:2}..."
+    java -cp bin/ futility.Main --compete --threaded "${@:2}" &
+    ;;
+  standin)
+    echo "Starting the stand-in server with arguments: ${@:2}..."
+    java -cp bin/ futility.StandInServer "${@:2}"
+    ;;
+  simulate)
+    echo "Simulating a headless match with arguments: ${@:2}..."
+    java -cp bin/ futility.Simulator "${@:2}"
+    ;;
+  batch)
+    echo "Playing a batch of matches with arguments: ${@:2}..."
+    java -cp bin/ futility.MatchRunner "${@:2}"
+    ;;
+  replay)
+    echo "Replaying recording $2 with arguments: ${@:3}..."
+    java -cp bin/ futility.Replay "${@:2}"
+    ;;
+  bench)
+    echo "Building and running the benchmarks with arguments: ${@:2}..."
+    mvn -B -q -P bench package -DskipTests && java -jar target/benchmarks.jar -prof gc "${@:2}"
+    ;;
   start)
     start_team "${@:2}"
     ;;
@@ -52,7 +80,7 @@ case "$1" in
     stop_players
     ;;
   *)
-    echo $"Usage: $0 {compete|scrimmage|start|startone|stop}"
+    echo $"Usage: $0 {compete|scrimmage|host|threaded|standin|simulate|batch|replay|bench|start|startone|stop}"
     exit 1
 esac
 
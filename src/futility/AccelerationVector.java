@@ -29,21 +29,19 @@ public class AccelerationVector extends Vector2D {
      */
     public AccelerationVector(double x, double y) {
         super(x, y);
-        this.normalize();
     }
     
     ///////////////////////////////////////////////////////////////////////////
     // METHODS
     ///////////////////////////////////////////////////////////////////////////
     /**
-     * Normalizes this vector's magnitude.
+     * Normalizes this vector's magnitude to a player's greatest acceleration. Call after in-place
+     * operations that may exceed it.
+     * 
+     * @param params the server parameters in effect
      */
-    private final void normalize() {
-        double ratio = this.magnitude() / Settings.PLAYER_ACCEL_MAX;
-        if (ratio > 1.0) {
-            this.setX(this.getX() / ratio);
-            this.setY(this.getY() / ratio);
-        }
+    public final void normalize(ServerParams params) {
+        this.clampInPlace(params.PLAYER_PARAMS.PLAYER_ACCEL_MAX);
     }
     
     /**
@@ -0,0 +1,148 @@
+/** @file AgentHost.java
+ * Runs many player agents inside a single process.
+ *
+ * @author Team F(utility)
+ */
+
+package futility;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.Iterator;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Hosts any number of clients in one process. A single selector thread waits on every client's
+ * channel; when one becomes readable, its pending messages are handed to a worker pool, which
+ * parses them with the client's brain. A client's messages are always handled in order by one
+ * worker at a time, because its channel is not selected again until the worker is done.
+ */
+public class AgentHost implements AgentRuntime {
+    private final Selector selector;
+    private final ExecutorService workers;
+    private volatile boolean running = true;
+
+    /**
+     * Builds a host with one worker per available processor.
+     *
+     * @throws IOException if the selector cannot be opened
+     */
+    public AgentHost() throws IOException {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Builds a host with the given number of workers.
+     *
+     * @param numWorkers the number of threads running brains
+     * @throws IOException if the selector cannot be opened
+     */
+    public AgentHost(int numWorkers) throws IOException {
+        this.selector = Selector.open();
+        this.workers = Executors.newFixedThreadPool(numWorkers);
+    }
+
+    /**
+     * Connects a client to the server and starts multiplexing its messages. The client must not
+     * have been initialized yet.
+     *
+     * @param client the client to host
+     * @throws IOException if the client's channel cannot be registered
+     */
+    public void add(Client client) throws IOException {
+        client.init();
+        client.soccerServerChannel.configureBlocking(false);
+        client.soccerServerChannel.register(this.selector, SelectionKey.OP_READ, client);
+        this.selector.wakeup();
+    }
+
+    /**
+     * Runs the selector loop until {@link #stop()} is called.
+     */
+    public void run() {
+        while (this.running) {
+            try {
+                this.selector.select();
+            }
+            catch (IOException e) {
+                Log.e("Agent host selector failed: " + e);
+                break;
+            }
+            Iterator<SelectionKey> keys = this.selector.selectedKeys().iterator();
+            while (keys.hasNext()) {
+                SelectionKey key = keys.next();
+                keys.remove();
+                if (key.isValid() && key.isReadable()) {
+                    // Stop selecting this client until its messages have been handled
+                    key.interestOps(0);
+                    this.workers.execute(new Dispatch(key));
+                }
+            }
+        }
+        this.workers.shutdown();
+        try {
+            this.selector.close();
+        }
+        catch (IOException e) {
+            Log.e("Agent host selector failed to close: " + e);
+        }
+    }
+
+    /**
+     * Stops the selector loop and the workers.
+     */
+    public void stop() {
+        this.running = false;
+        this.selector.wakeup();
+    }
+
+    /**
+     * Worker task that drains a readable client's channel into its brain.
+     */
+    private class Dispatch implements Runnable {
+        private final SelectionKey key;
+
+        /**
+         * Primary constructor.
+         *
+         * @param key the readable client's selection key
+         */
+        Dispatch(SelectionKey key) {
+            this.key = key;
+        }
+
+        /**
+         * Parses every message waiting for the client, then resumes selecting it.
+         */
+        public void run() {
+            Client client = (Client) this.key.attachment();
+            synchronized (client) {
+                try {
+                    ByteBuffer message = client.receive();
+                    while (message.hasRemaining()) {
+                        client.player.brain.parseMessage(message);
+                        message = client.receive();
+                    }
+                }
+                catch (RuntimeException e) {
+                    StringWriter trace = new StringWriter();
+                    e.printStackTrace(new PrintWriter(trace));
+                    Log.e(client.player.render() + " failed to handle a message: " + trace);
+                }
+            }
+            try {
+                this.key.interestOps(SelectionKey.OP_READ);
+                selector.wakeup();
+            }
+            catch (RuntimeException e) {
+                // The channel was closed while the message was handled
+                this.key.cancel();
+            }
+        }
+    }
+}
@@ -0,0 +1,34 @@
+/** @file AgentRuntime.java
+ * Common interface for running many player agents inside a single process.
+ *
+ * @author Team F(utility)
+ */
+
+package futility;
+
+import java.io.IOException;
+
+/**
+ * A way of running several clients side by side in one process.
+ */
+public interface AgentRuntime extends Runnable {
+
+    /**
+     * Connects a client to the server and schedules it to be run. The client must not have been
+     * initialized yet.
+     *
+     * @param client the client to run
+     * @throws IOException if the client could not be set up
+     */
+    public void add(Client client) throws IOException;
+
+    /**
+     * Runs the added clients until {@link #stop()} is called.
+     */
+    public void run();
+
+    /**
+     * Stops running the clients.
+     */
+    public void stop();
+}
@@ -11,4 +11,19 @@ package futility;
  */
 public class Ball extends MobileObject {
 	public static final String ID = "(b)";
+	public final BallTracker tracker = new BallTracker(ServerParams.DEFAULT);
+	
+	/**
+	 * Stores the estimated velocity of the ball as of its last sighting in a given vector.
+	 * 
+	 * @param out the vector to store the velocity in
+	 * @return out
+	 */
+	public VelocityVector velocity(VelocityVector out) {
+		if (this.tracker.isTracking()) {
+			this.tracker.velocity(this.tracker.time(), out);
+			return out;
+		}
+		return super.velocity(out);
+	}
 }
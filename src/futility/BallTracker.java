@@ -0,0 +1,393 @@
+/** @file BallTracker.java
+ * Kalman filter estimate of the ball's position and velocity.
+ *
+ * @author Team F(utility)
+ */
+
+package futility;
+
+import java.util.Arrays;
+
+/**
+ * Keeps an estimate of the ball's position and velocity, with their covariance, from every
+ * sighting of it. A sighting gives the ball's position from its distance and direction, and, when
+ * the ball is close enough, its velocity from its distChange and dirChange: the rates at which
+ * its distance and direction change, relative to the seeing player's own velocity.
+ *
+ * The ball moves by its velocity each cycle, perturbed by up to BALL_RAND of its speed, and its
+ * velocity then decays by BALL_DECAY. After n cycles without a kick, the ball has travelled its
+ * velocity times (1 - decay^n) / (1 - decay) and its velocity has decayed by decay^n, and the
+ * noise of every cycle adds up to geometric series too. So a prediction for any horizon costs the
+ * same few multiplications, with no loop over cycles.
+ *
+ * A sighting that the estimate cannot explain, such as after someone else kicked the ball, resets
+ * the velocity. When this player kicks, call kicked() so that the next sighting is trusted.
+ */
+public final class BallTracker {
+    // Squared Mahalanobis distance beyond which a sighting means the ball was kicked; the 99.9%
+    // quantile of the chi-square distribution with two degrees of freedom
+    private static final double KICK_GATE = 13.8;
+    // Variance, in square meters per square cycle, of a velocity nobody has measured
+    private static final double UNKNOWN_VELOCITY_VARIANCE = 9.0;
+    // Half-widths of the rounding of distances (after the logarithmic step) and directions
+    private static final double DISTANCE_ROUNDING = 0.05;
+    private static final double DIRECTION_ROUNDING = Math.toRadians(0.5);
+    // Half-widths of the rounding of distance changes and of direction changes
+    private static final double DIST_CHANGE_ROUNDING = 0.005;
+    private static final double DIR_CHANGE_ROUNDING = Math.toRadians(0.05);
+    // Variance of the seeing player's own velocity, which is itself rounded
+    private static final double OWN_VELOCITY_VARIANCE = 0.01 * 0.01;
+    // Horizons for which powers of the decay are tabulated rather than computed
+    private static final int TABULATED_CYCLES = 100;
+
+    private double decay;
+    private double rand;
+    private double logRounding;  // half-width of the logarithmic rounding of distances, relative
+    private final double[] powers = new double[TABULATED_CYCLES];  // decay^n
+
+    // Position and velocity as of time
+    private double x, y, vx, vy;
+    private int time = -1;
+    // Covariance of (x, y, vx, vy), row-major
+    private final double[] p = new double[16];
+    private final double[] scratch = new double[16];
+
+    /**
+     * Creates a tracker that has not seen the ball.
+     *
+     * @param params the server parameters
+     */
+    public BallTracker(ServerParams params) {
+        this.setParams(params);
+    }
+
+    ///////////////////////////////////////////////////////////////////////////
+    // STATIC FUNCTIONS
+    ///////////////////////////////////////////////////////////////////////////
+    /**
+     * Gets how far a ball travels in some cycles, per unit of its current velocity.
+     *
+     * @param decay the ball's decay
+     * @param cycles the number of cycles
+     * @return (1 - decay^cycles) / (1 - decay)
+     */
+    public static final double travel(double decay, int cycles) {
+        return (1.0 - Math.pow(decay, cycles)) / (1.0 - decay);
+    }
+
+    ///////////////////////////////////////////////////////////////////////////
+    // METHODS
+    ///////////////////////////////////////////////////////////////////////////
+    /**
+     * Sets the ball's parameters and the rounding of what is seen of it, such as those the server
+     * sends in `server_param`. The current estimate is kept, and predicted with them from now on.
+     *
+     * @param params the server parameters
+     */
+    public final void setParams(ServerParams params) {
+        this.decay = params.BALL_PARAMS.BALL_DECAY;
+        this.rand = params.BALL_PARAMS.BALL_RAND;
+        this.logRounding = Math.exp(params.QUANTIZE_STEP / 2.0) - 1.0;
+        this.powers[0] = 1.0;
+        for (int i = 1; i < TABULATED_CYCLES; i++) {
+            this.powers[i] = this.powers[i - 1] * this.decay;
+        }
+    }
+
+    /**
+     * Returns whether the ball has been seen since the tracker was created or reset.
+     *
+     * @return true if there is an estimate
+     */
+    public final boolean isTracking() {
+        return this.time >= 0;
+    }
+
+    /**
+     * Forgets the ball, such as when the referee moves it.
+     */
+    public final void reset() {
+        this.time = -1;
+    }
+
+    /**
+     * Marks the ball's velocity as unknown, such as after this player kicked it, so that the next
+     * sighting determines it.
+     */
+    public final void kicked() {
+        for (int i = 0; i < 4; i++) {
+            for (int j = 0; j < 4; j++) {
+                if (i >= 2 || j >= 2) {
+                    this.p[4 * i + j] = i == j ? UNKNOWN_VELOCITY_VARIANCE : 0.0;
+                }
+            }
+        }
+    }
+
+    /**
+     * Updates the estimate with a sighting of the ball.
+     *
+     * @param time the time step of the sighting
+     * @param seer the player that saw the ball, with its current position, direction and velocity
+     * @param seerVariance the variance of the seeing player's position, in square meters
+     * @param distance the reported distance to the ball
+     * @param direction the reported direction to the ball relative to the seer's body, in degrees
+     * @param distChange the reported distance change, or NaN if none was reported; the seer's
+     *                   velocity must be known for the changes to be used
+     * @param dirChange the reported direction change, in degrees, or NaN if none was reported
+     */
+    public final void observe(int time, Player seer, double seerVariance, double distance, double direction,
+            double distChange, double dirChange) {
+        double angle = Math.toRadians(seer.direction.getDirection() + direction);
+        double ex = Math.cos(angle);
+        double ey = Math.sin(angle);
+        double zx = seer.position.getX() + distance * ex;
+        double zy = seer.position.getY() + distance * ey;
+        // Rounding is uniform, so each half-width h contributes h * h / 3
+        double radial = distance * this.logRounding + DISTANCE_ROUNDING;
+        double lateral = distance * DIRECTION_ROUNDING;
+        double along = radial * radial / 3.0 + seerVariance;
+        double across = lateral * lateral / 3.0 + seerVariance;
+        if (this.isTracking()) {
+            this.advance(time);
+        }
+        if (!this.isTracking() || !this.update(0, zx, zy, along, across, ex, ey)) {
+            // First seen, or kicked since: believe the sighting and forget the velocity
+            this.x = zx;
+            this.y = zy;
+            this.vx = this.vy = 0.0;
+            Arrays.fill(this.p, 0.0);
+            this.p[0] = along * ex * ex + across * ey * ey;
+            this.p[1] = this.p[4] = (along - across) * ex * ey;
+            this.p[5] = along * ey * ey + across * ex * ex;
+            this.p[10] = this.p[15] = UNKNOWN_VELOCITY_VARIANCE;
+            this.time = time;
+        }
+        VelocityVector own = seer.velocity();
+        if (Double.isNaN(distChange) || Double.isNaN(dirChange) || Double.isNaN(own.getX())) {
+            return;
+        }
+        double sideways = Math.toRadians(dirChange) * distance;
+        double zvx = own.getX() + distChange * ex - sideways * ey;
+        double zvy = own.getY() + distChange * ey + sideways * ex;
+        double rounding = DIR_CHANGE_ROUNDING * distance;
+        double alongSpeed = DIST_CHANGE_ROUNDING * DIST_CHANGE_ROUNDING / 3.0 + OWN_VELOCITY_VARIANCE;
+        // The direction change is scaled by the distance, which is itself uncertain
+        double acrossSpeed = rounding * rounding / 3.0 + OWN_VELOCITY_VARIANCE
+                + sideways * sideways * along / (distance * distance + 1.0);
+        if (!this.update(2, zvx, zvy, alongSpeed, acrossSpeed, ex, ey)) {
+            this.kicked();
+            this.update(2, zvx, zvy, alongSpeed, acrossSpeed, ex, ey);
+        }
+    }
+
+    /**
+     * Gets the time step of the estimate, that of the last sighting.
+     *
+     * @return the time step, or -1 if the ball has not been seen
+     */
+    public final int time() {
+        return this.time;
+    }
+
+    /**
+     * Gets the estimated x-coordinate, as of time().
+     *
+     * @return the x-coordinate
+     */
+    public final double getX() {
+        return this.x;
+    }
+
+    /**
+     * Gets the estimated y-coordinate, as of time().
+     *
+     * @return the y-coordinate
+     */
+    public final double getY() {
+        return this.y;
+    }
+
+    /**
+     * Stores the estimated velocity at a time step in a given vector.
+     *
+     * @param time the time step, no earlier than time()
+     * @param out the vector to store the velocity in
+     * @return out
+     */
+    public final Vector2D velocity(int time, Vector2D out) {
+        double dn = this.power(time - this.time);
+        return out.set(this.vx * dn, this.vy * dn);
+    }
+
+    /**
+     * Stores the predicted position at a time step in a given point, if the ball is not kicked.
+     *
+     * @param time the time step, no earlier than time()
+     * @param out the point to store the position in
+     * @return out
+     */
+    public final Point position(int time, Point out) {
+        double s = (1.0 - this.power(time - this.time)) / (1.0 - this.decay);
+        out.update(this.x + s * this.vx, this.y + s * this.vy);
+        return out;
+    }
+
+    /**
+     * Gets the expected error of the predicted position at a time step.
+     *
+     * @param time the time step, no earlier than time()
+     * @return the root of the trace of the predicted position's covariance, in meters
+     */
+    public final double getError(int time) {
+        int n = Math.max(0, time - this.time);
+        double dn = this.power(n);
+        double s = (1.0 - dn) / (1.0 - this.decay);
+        double[] p = this.p;
+        double variance = 2.0 * this.positionNoise(n, dn, s);
+        for (int i = 0; i < 2; i++) {
+            variance += p[5 * i] + 2.0 * s * p[4 * i + i + 2] + s * s * p[4 * (i + 2) + i + 2];
+        }
+        return Math.sqrt(variance);
+    }
+
+    /**
+     * Gets a power of the decay.
+     *
+     * @param n the exponent; negative exponents count as 0
+     * @return decay^n
+     */
+    private final double power(int n) {
+        if (n < TABULATED_CYCLES) {
+            return this.powers[Math.max(0, n)];
+        }
+        return Math.pow(this.decay, n);
+    }
+
+    /**
+     * Gets the variance, along each axis, that n cycles of movement noise add to the position.
+     * The noise of cycle k has a variance proportional to the squared speed, decay^2k, and moves
+     * the ball by (1 - decay^(n-k)) / (1 - decay) by cycle n.
+     *
+     * @param n the number of cycles
+     * @param dn decay^n
+     * @param s (1 - decay^n) / (1 - decay)
+     * @return the variance, in square meters
+     */
+    private final double positionNoise(int n, double dn, double s) {
+        double d = this.decay;
+        double dn2 = dn * dn;
+        double sum = (1.0 - dn2) / (1.0 - d * d) - 2.0 * dn * s + n * dn2;
+        return this.noise() * sum / ((1.0 - d) * (1.0 - d));
+    }
+
+    /**
+     * Gets the variance, along each axis, of the movement noise of one cycle at the current speed.
+     * The server perturbs each component by a uniform amount of up to rand times the speed.
+     *
+     * @return the variance, in square meters per square cycle
+     */
+    private final double noise() {
+        double spread = this.rand * Math.hypot(this.vx, this.vy);
+        return spread * spread / 3.0;
+    }
+
+    /**
+     * Predicts the state at a later time step, in place, in closed form.
+     *
+     * @param time the time step, no earlier than the estimate's
+     */
+    private final void advance(int time) {
+        int n = time - this.time;
+        if (n <= 0) {
+            return;
+        }
+        double d = this.decay;
+        double dn = this.power(n);
+        double dn2 = dn * dn;
+        double s = (1.0 - dn) / (1.0 - d);
+        double noise = this.noise();
+        double qxx = this.positionNoise(n, dn, s);
+        double qxv = noise * (dn * s - n * dn2) / (1.0 - d);
+        double qvv = noise * n * dn2;
+        // P = F P F' + Q, with F = [I, s I; 0, dn I], a block at a time
+        double[] p = this.p;
+        double[] next = this.scratch;
+        for (int i = 0; i < 2; i++) {
+            for (int j = 0; j < 2; j++) {
+                double a = p[4 * i + j];
+                double b = p[4 * i + j + 2];
+                double c = p[4 * (i + 2) + j];
+                double v = p[4 * (i + 2) + j + 2];
+                double q = i == j ? 1.0 : 0.0;
+                next[4 * i + j] = a + s * (b + c) + s * s * v + q * qxx;
+                next[4 * i + j + 2] = dn * (b + s * v) + q * qxv;
+                next[4 * (i + 2) + j] = dn * (c + s * v) + q * qxv;
+                next[4 * (i + 2) + j + 2] = dn2 * v + q * qvv;
+            }
+        }
+        System.arraycopy(next, 0, p, 0, 16);
+        this.x += s * this.vx;
+        this.y += s * this.vy;
+        this.vx *= dn;
+        this.vy *= dn;
+        this.time = time;
+    }
+
+    /**
+     * Corrects the state with a sighting of two of its components, whose error has different
+     * variances along and across the line of sight.
+     *
+     * @param o 0 to correct with a position, or 2 to correct with a velocity
+     * @param zx the sighting's x-component
+     * @param zy the sighting's y-component
+     * @param along the sighting's variance along the line of sight
+     * @param across the sighting's variance across the line of sight
+     * @param ex the x-component of the unit vector along the line of sight
+     * @param ey the y-component of the unit vector along the line of sight
+     * @return false if the sighting is too unlikely to be explained by the estimate, in which
+     *         case the estimate is unchanged
+     */
+    private final boolean update(int o, double zx, double zy, double along, double across, double ex, double ey) {
+        double[] p = this.p;
+        double rx = zx - (o == 0 ? this.x : this.vx);
+        double ry = zy - (o == 0 ? this.y : this.vy);
+        // Innovation covariance S and its inverse
+        double s00 = p[5 * o] + along * ex * ex + across * ey * ey;
+        double s01 = p[5 * o + 1] + (along - across) * ex * ey;
+        double s11 = p[5 * o + 5] + along * ey * ey + across * ex * ex;
+        double det = s00 * s11 - s01 * s01;
+        if (det <= 0.0) {
+            return true;
+        }
+        double i00 = s11 / det;
+        double i01 = -s01 / det;
+        double i11 = s00 / det;
+        if (rx * (i00 * rx + i01 * ry) + ry * (i01 * rx + i11 * ry) > KICK_GATE) {
+            return false;
+        }
+        // Rows o and o + 1 of P, then the gain K = P H' S^-1
+        double[] h = this.scratch;
+        for (int j = 0; j < 4; j++) {
+            h[j] = p[4 * o + j];
+            h[4 + j] = p[4 * (o + 1) + j];
+        }
+        for (int i = 0; i < 4; i++) {
+            h[8 + 2 * i] = h[i] * i00 + h[4 + i] * i01;
+            h[9 + 2 * i] = h[i] * i01 + h[4 + i] * i11;
+        }
+        this.x += h[8] * rx + h[9] * ry;
+        this.y += h[10] * rx + h[11] * ry;
+        this.vx += h[12] * rx + h[13] * ry;
+        this.vy += h[14] * rx + h[15] * ry;
+        // P -= K H P, keeping P exactly symmetric
+        for (int i = 0; i < 4; i++) {
+            for (int j = i; j < 4; j++) {
+                double value = p[4 * i + j] - h[8 + 2 * i] * h[j] - h[9 + 2 * i] * h[4 + j];
+                p[4 * i + j] = value;
+                p[4 * j + i] = value;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,107 @@
+/** @file BallTrackerTest.java
+ * Unit tests for the BallTracker class.
+ *
+ * @author Team F(utility)
+ */
+
+package futility;
+
+import static org.junit.Assert.*;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for the BallTracker class. The ball is seen by a player standing still at the center
+ * spot, facing along the x-axis.
+ */
+public class BallTrackerTest {
+    private static final double DECAY = ServerParams.DEFAULT.BALL_PARAMS.BALL_DECAY;
+
+    private Player seer;
+    private BallTracker tracker;
+
+    @Before
+    public void setUp() {
+        Replay.FakeClient client = new Replay.FakeClient(new String[] {"--team", "futility"});
+        client.init();
+        this.seer = client.player;
+        this.seer.position.update(0.0, 0.0, 1.0, 0);
+        this.seer.direction.update(0.0, 1.0, 0);
+        this.seer.brain.velocity.set(0.0, 0.0);
+        this.tracker = new BallTracker(ServerParams.DEFAULT);
+    }
+
+    /**
+     * Records a sighting of a ball, quantized the way the server quantizes it.
+     */
+    private void see(int time, double x, double y, double vx, double vy) {
+        double distance = Math.hypot(x, y);
+        double ex = x / distance;
+        double ey = y / distance;
+        this.tracker.observe(time, this.seer, 0.0, World.quantizeDistance(distance, World.QUANTIZE_STEP),
+                Math.rint(Math.toDegrees(Math.atan2(y, x))), World.quantize(vx * ex + vy * ey, 0.01),
+                World.quantize(Math.toDegrees((vy * ex - vx * ey) / distance), 0.1));
+    }
+
+    /**
+     * Tests that a rolling ball's velocity is estimated and its decayed motion predicted.
+     */
+    @Test
+    public void testPredictsRollingBall() {
+        double x = 5.0, y = 3.0, vx = 1.5, vy = -0.5;
+        for (int time = 0; time < 8; time++) {
+            this.see(time, x, y, vx, vy);
+            x += vx;
+            y += vy;
+            vx *= DECAY;
+            vy *= DECAY;
+        }
+        assertEquals(7, this.tracker.time());
+        Vector2D velocity = this.tracker.velocity(7, new Vector2D());
+        assertEquals(1.5 * Math.pow(DECAY, 7), velocity.getX(), 0.02);
+        assertEquals(-0.5 * Math.pow(DECAY, 7), velocity.getY(), 0.02);
+        // Twenty cycles after the last sighting
+        double s = BallTracker.travel(DECAY, 20);
+        Point predicted = this.tracker.position(27, new Point());
+        assertEquals(x - vx / DECAY + s * vx / DECAY, predicted.getX(), 0.3);
+        assertEquals(y - vy / DECAY + s * vy / DECAY, predicted.getY(), 0.3);
+        assertTrue(this.tracker.getError(27) > this.tracker.getError(7));
+    }
+
+    /**
+     * Tests that a ball is predicted with the decay of the server's parameters once they are set.
+     */
+    @Test
+    public void testFollowsServerParameters() {
+        double decay = 0.8;
+        this.tracker.setParams(ServerParams.parse("(server_param (ball_decay 0.8))"));
+        double x = 5.0, y = 3.0, vx = 1.5, vy = -0.5;
+        for (int time = 0; time < 4; time++) {
+            this.see(time, x, y, vx, vy);
+            x += vx;
+            y += vy;
+            vx *= decay;
+            vy *= decay;
+        }
+        double s = BallTracker.travel(decay, 20);
+        Point predicted = this.tracker.position(23, new Point());
+        assertEquals(x - vx / decay + s * vx / decay, predicted.getX(), 0.3);
+        assertEquals(y - vy / decay + s * vy / decay, predicted.getY(), 0.3);
+    }
+
+    /**
+     * Tests that a ball seen somewhere it could not have rolled to is believed where it is seen.
+     */
+    @Test
+    public void testKickResetsEstimate() {
+        for (int time = 0; time < 5; time++) {
+            this.see(time, 10.0, 0.0, 0.0, 0.0);
+        }
+        this.see(5, 10.0, 8.0, 2.0, 0.0);
+        // Within the server's rounding of the distance, about 5%
+        assertEquals(10.0, this.tracker.getX(), 0.7);
+        assertEquals(8.0, this.tracker.getY(), 0.7);
+        assertEquals(2.0, this.tracker.velocity(5, new Vector2D()).getX(), 0.05);
+    }
+}
@@ -6,8 +6,8 @@
 
 package futility;
 
+import java.nio.ByteBuffer;
 import java.util.ArrayDeque;
-import java.util.HashMap;
 import java.util.LinkedList;
 
 import futility.PlayerRole.Role;
@@ -24,6 +24,7 @@ public class Brain implements Runnable {
     	PRE_KICK_OFF_POSITION,
     	PRE_KICK_OFF_ANGLE,
         DRIBBLE_KICK,
+        PASS_OR_SHOOT,
         ACTIVE_INTERCEPT,
         DASH_TOWARDS_BALL_AND_KICK,
         LOOK_AROUND,
@@ -42,6 +43,10 @@ public class Brain implements Runnable {
     Player player;
     public int time;
     public PlayerRole.Role role;
+    public ServerParams params = ServerParams.DEFAULT;
+    public PlayerTypes playerTypes = new PlayerTypes(ServerParams.DEFAULT);
+    public PlayerType playerType = ServerParams.DEFAULT.PLAYER_TYPE;
+    private int playerTypeId = 0;
     
     // Self info & Play mode
     private String playMode;
@@ -51,16 +56,43 @@ public class Brain implements Runnable {
     public VelocityVector velocity;
     private boolean isPositioned = false;
     
-    HashMap<String, FieldObject> fieldObjects = new HashMap<String, FieldObject>(100);
+    final ObjectIds objectIds = new ObjectIds();
+    FieldObject[] fieldObjects = new FieldObject[ObjectIds.CAPACITY];  // indexed by objectIds
     ArrayDeque<String> hearMessages = new ArrayDeque<String>();
-    LinkedList<Player> lastSeenOpponents = new LinkedList<Player>();
     LinkedList<Settings.RESPONSE>responseHistory = new LinkedList<Settings.RESPONSE>();
+    private final SeeParser seeParser = new SeeParser(objectIds);
+    private final Localizer localizer = new Localizer();
+    private final ParticleFilter particleFilter = new ParticleFilter();
+    private double positionError = 0.0;
+    final PlayerTracker playerTracker = new PlayerTracker();
+    private Interceptor interceptor = new Interceptor(ServerParams.DEFAULT);
+    // When this player and its fastest tracked teammate can first reach the ball, as of interceptTime
+    private int interceptCycles = Interceptor.NEVER;
+    private int teammateInterceptCycles = Interceptor.NEVER;
+    private final Point interceptPoint = new Point();
+    private int interceptTime = -1;
+    private KickModel kickModel = new KickModel(ServerParams.DEFAULT, ServerParams.DEFAULT.PLAYER_TYPE);
+    private PassEvaluator passEvaluator = new PassEvaluator(ServerParams.DEFAULT);
+    // The best kick found at passTime, or PassEvaluator.NONE
+    private int pass = PassEvaluator.NONE;
+    private int passTime = -1;
+    // Time into a cycle, from its message, by which the pass evaluation must be done, or 0 for none
+    private long passBudgetNanos = 20000000L;
+    // How much a kick must be worth beyond the ball where it is for the player to pass or shoot
+    private final double passMargin = 0.05;
+    private final Scratch scratch = new Scratch();
     private long timeLastSee = 0;
     private long timeLastSenseBody = 0;
     private int lastRan = -1;
+    private long timeReceivedNanos = 0;
+    private long timeLastSenseBodyNanos = 0;
+    private long runNanos = 0;
+    public final CycleMetrics metrics = new CycleMetrics();
 
     private int noSeeBallCount = 0;
     private final int noSeeBallCountMax = 45;
+    // Opponents farther than this from the player do not steer its dribbling
+    private final double dribbleThreatRadius = 20.0;
     
     private Strategy currentStrategy = Strategy.LOOK_AROUND;
     private boolean updateStrategy = true;
@@ -81,11 +113,10 @@ public class Brain implements Runnable {
         this.lastSenseInfo = new SenseInfo();
         this.velocity = new VelocityVector();
         this.acceleration = new AccelerationVector();
-        // Load the HashMap
+        // Load the stationary objects. Each brain gets its own copies since their see info changes.
         for (int i = 0; i < Settings.STATIONARY_OBJECTS.length; i++) {
             StationaryObject object = Settings.STATIONARY_OBJECTS[i];
-            //client.log(Log.DEBUG, String.format("Adding %s to my HashMap...", object.id));
-            fieldObjects.put(object.id, object);
+            fieldObjects[i] = new StationaryObject(object.id, object.position.getX(), object.position.getY());
         }
         // Load the response history
         this.responseHistory.add(Settings.RESPONSE.NONE);
@@ -147,6 +178,30 @@ public class Brain implements Runnable {
         				  0.95 : 0.0;
         	}
         	break;
+        case PASS_OR_SHOOT:
+            // Kick the ball on if a pass or shot is worth more than keeping it where it is.
+            if (this.canKickBall()) {
+                this.updatePass();
+                if (this.pass != PassEvaluator.NONE && this.passEvaluator.getScore(this.pass) >
+                        PassEvaluator.value(ball.position.getX(), ball.position.getY(), this.opponentGoalX())
+                        + this.passMargin) {
+                    utility = 0.985;
+                }
+            }
+            break;
+        case ACTIVE_INTERCEPT:
+            // Whoever of the team can get to a loose ball first should go and get it.
+            if (this.role == Role.GOALIE || this.canKickBall()) {
+                utility = 0.0;
+            }
+            else {
+                this.updateIntercept();
+                if (this.interceptCycles != Interceptor.NEVER && (this.teammateInterceptCycles == Interceptor.NEVER
+                        || this.interceptCycles <= this.teammateInterceptCycles)) {
+                    utility = 0.975;
+                }
+            }
+            break;
         case DASH_TOWARDS_BALL_AND_KICK:
             // The striker(s) should usually execute this strategy.
             // The wings, mid-fielders and defenders should generally execute this strategy when
@@ -240,7 +295,7 @@ public class Brain implements Runnable {
     public final boolean canKickBall() {
         FieldObject ball = this.getOrCreate(Ball.ID);
         return this.player.inRectangle(Settings.FIELD) && ball.curInfo.time >= this.time - 1 &&
-                ball.curInfo.distance < Futil.kickable_radius();
+                ball.curInfo.distance < Futil.kickable_radius(this.playerType);
     }
 
     /**
@@ -259,8 +314,9 @@ public class Brain implements Runnable {
      */
     private final void dash(double power) {
         // Update this player's acceleration
-        this.acceleration.addPolar(this.dir(), this.effort());
-        this.client.sendCommand(Settings.Commands.DASH, Double.toString(power));
+        this.acceleration.addPolarInPlace(this.dir(), this.edp(power));
+        this.acceleration.normalize(this.params);
+        this.client.sendCommand(Settings.Commands.DASH, power);
     }
 
     /**
@@ -268,12 +324,13 @@ public class Brain implements Runnable {
      * angle.
      * 
      * @param power the power of the acceleration (0 to 100)
-     * @param offset an offset to be applied to the player's direction,
+     * @param offset an offset in degrees to be applied to the player's direction,
      * yielding the direction of acceleration
      */
     public final void dash(double power, double offset) {
-        this.acceleration.addPolar(this.dir() + offset, this.edp(power));
-        client.sendCommand(Settings.Commands.DASH, Double.toString(power), Double.toString(offset));
+        this.acceleration.addPolarInPlace(this.dir() + Math.toRadians(offset), this.edp(power));
+        this.acceleration.normalize(this.params);
+        client.sendCommand(Settings.Commands.DASH, power, offset);
     }
     
     /**
@@ -281,7 +338,7 @@ public class Brain implements Runnable {
      * 
      * @return the strategy this brain thinks is optimal for the current time step
      */
-    private final Strategy determineOptimalStrategy() {
+    final Strategy determineOptimalStrategy() {
         Strategy optimalStrategy = this.currentStrategy;
         double bestUtility = 0;
         if (this.updateStrategy) {
@@ -293,7 +350,9 @@ public class Brain implements Runnable {
                 }
             }
         }
-        Log.d("Picked strategy " + optimalStrategy + " with utility " + bestUtility);
+        if (Log.isEnabled(Log.DEBUG)) {
+            Log.d("Picked strategy %s with utility %f", optimalStrategy, bestUtility);
+        }
         return optimalStrategy;
     }
     /**
@@ -302,13 +361,16 @@ public class Brain implements Runnable {
      * @return this player's effective dash power
      */
     private final double edp(double power) {
-        return this.effort() * Settings.DASH_POWER_RATE * power;
+        return this.effort() * this.playerType.DASH_POWER_RATE * power;
     }
     
     /**
      * Returns an effort value for this player. If one wasn't received this time step, we guess.
      */
     private final double effort() {
+        if (Double.isNaN(this.curSenseInfo.effort)) {
+            return this.playerType.EFFORT_MAX;
+        }
         return this.curSenseInfo.effort;
     }
     
@@ -347,7 +409,7 @@ public class Brain implements Runnable {
         	this.turn(30);
         	break;
         case WING_POSITION:
-        	Point position = Futil.estimatePositionOf(ball, 3, this.time).getPosition();
+        	Point position = Futil.estimatePositionOf(ball, 3, this.time, this.scratch).getPosition();
         	if (this.role == PlayerRole.Role.LEFT_WING) {
         	    position.update(position.getX(), position.getY() + 4.0);
         	}
@@ -364,21 +426,38 @@ public class Brain implements Runnable {
         	 */
         	
 			// Predict next position:
-        	Vector2D v_new = Futil.estimatePositionOf(this.player, 2, this.time).getPosition().asVector();
-			Vector2D v_target = v_new.add( findDribbleAngle() );
-        	Vector2D v_ball = v_target.add( new Vector2D( -1 * ball.position.getX(),
-        			                        -1 * ball.position.getY() ) );
+        	PositionEstimate p_new = Futil.estimatePositionOf(this.player, 2, this.time, this.scratch);
+        	Vector2D v_ball = this.scratch.vector.set(p_new.getX(), p_new.getY());
+			addDribbleVector(v_ball);
+        	v_ball.addInPlace( -1 * ball.position.getX(), -1 * ball.position.getY() );
         	
-			double traj_power = Math.min(Settings.PLAYER_PARAMS.POWER_MAX,
-	                ( v_ball.magnitude() / (1 + Settings.BALL_PARAMS.BALL_DECAY ) ) * 10); // values of 1 or 2 do not give very useful kicks.
-			this.kick(traj_power, Futil.simplifyAngle(Math.toDegrees(v_ball.direction())));
+			// Cover the distance in two cycles: v + v * decay
+			double decay = this.params.BALL_PARAMS.BALL_DECAY;
+			this.kickTo(v_ball.getX() / (1 + decay), v_ball.getY() / (1 + decay));
         	break;
+        case PASS_OR_SHOOT:
+            this.updatePass();
+            if (this.pass != PassEvaluator.NONE) {
+                this.kickTo(this.passEvaluator.getVelocityX(this.pass), this.passEvaluator.getVelocityY(this.pass));
+            }
+            break;
+        case ACTIVE_INTERCEPT:
+            this.updateIntercept();
+            if (this.interceptCycles != Interceptor.NEVER) {
+                this.dashTo(this.interceptPoint, 100.0);
+            }
+            break;
         case DASH_TOWARDS_BALL_AND_KICK:
             if (this.canKickBall()) {
-                this.kick(100.0, this.player.relativeAngleTo(opponentGoal));
+                double shot = Futil.atan2Deg(opponentGoal.position.getY() - ball.position.getY(),
+                        opponentGoal.position.getX() - ball.position.getX());
+                this.kickToward(this.params.BALL_PARAMS.BALL_SPEED_MAX, shot);
             }
             else {
-                double approachAngle = this.player.relativeAngleTo(ball);
+                // Head for where the ball can first be reached, rather than where it is
+                this.updateIntercept();
+                double approachAngle = this.interceptCycles == Interceptor.NEVER ? this.player.relativeAngleTo(ball)
+                        : this.player.relativeAngleTo(this.interceptPoint);
                 double dashPower = Math.min(100.0, Math.max(40.0, 800.0 / ball.curInfo.distance));
                 double tolerance = Math.max(10.0, 100.0 / ball.curInfo.distance);
                 if (Math.abs(approachAngle) > tolerance) {
@@ -404,15 +483,16 @@ public class Brain implements Runnable {
                     this.turnTo(targetFacingDir);
                 }
                 else {
-                    double y = ball.position.getY() / (Settings.FIELD_HEIGHT / Settings.GOAL_HEIGHT);
-                    Point target = new Point(x, y);
+                    double y = ball.position.getY() / (Settings.FIELD_HEIGHT / this.params.GOAL_HEIGHT);
+                    Point target = this.scratch.point;
+                    target.update(x, y);
                     if (this.player.position.getPosition().distanceTo(target) > 1.0) {
                         this.dash(60.0, this.player.relativeAngleTo(target));
                     }                   
                 }
             }
             else {
-            	Point midpoint = ownGoal.position.getPosition().midpointTo(ball.position.getPosition());
+            	Point midpoint = ownGoal.position.getPosition().midpointTo(ball.position.getPosition(), this.scratch.point);
             	double distanceAway = this.player.position.getPosition().distanceTo(midpoint);
             	if (distanceAway > 5.0) {
             	    this.dashTo(midpoint, Math.min(100.0, distanceAway * 10.0));
@@ -421,25 +501,21 @@ public class Brain implements Runnable {
         	break;
         case CLEAR_BALL:
    			if (canKickBall()) {
-   			    double kickDir;
-   			    if (this.player.position.getY() > 0.0) {
-   			        kickDir = this.player.relativeAngleTo(90.0);
-   			    }
-   			    else {
-   			        kickDir = this.player.relativeAngleTo(-90.0);
-   			    }
-   				this.kick(80.0, kickDir);
+   			    double kickDir = this.player.position.getY() > 0.0 ? 90.0 : -90.0;
+   				this.kickToward(this.params.BALL_PARAMS.BALL_SPEED_MAX, kickDir);
    			}
    			else {
-   			    Point target = Futil.estimatePositionOf(ball, 1, this.time).getPosition();
-   			    if (this.player.position.getPosition().distanceTo(target) > Futil.kickable_radius()) {
+   			    Point target = Futil.estimatePositionOf(ball, 1, this.time, this.scratch).getPosition();
+   			    if (this.player.position.getPosition().distanceTo(target) > Futil.kickable_radius(this.playerType)) {
    			        this.dashTo(target, 80.0);
    			    }
    			}
         	break;
         case RUN_TO_STARTING_POSITION:
         	//TODO remove this call
-        	System.out.println("player " + player.number + " running to starting point");
+        	if (Log.isEnabled(Log.DEBUG)) {
+        	    Log.d("Player %d running to starting point", player.number);
+        	}
         	if(noSeeBallCount > noSeeBallCountMax){
         		//wall run bandaid
         		this.turn(180);
@@ -457,29 +533,35 @@ public class Brain implements Runnable {
     }
     
     /**
-     * Finds the optimal angle to kick the ball toward within a kickable area.
+     * Finds the optimal angle to kick the ball toward within a kickable area, and adds the
+     * vector to dribble toward to the given vector.
      * 
-     * @param p Point to build angle from
-     * @return the vector to dribble toward.
+     * @param v the vector to add the dribble vector to
      */
-    private final Vector2D findDribbleAngle() {
+    private final void addDribbleVector(Vector2D v) {
     	// TODO STUB: Need algorithm for a weighted dribble angle.
-    	double d_length = Math.max(1.0, Futil.kickable_radius() );
+    	double d_length = Math.max(1.0, Futil.kickable_radius(this.playerType) );
     	
     	// 5.0 is arbitrary in case nothing is visible; attempt to kick
     	//   toward the lateral center of the field.
     	double d_angle = 5.0 * -1.0 * Math.signum( this.player.position.getY() );
     	
-    	// If opponents are visible, try to kick away from them.
-    	if ( !lastSeenOpponents.isEmpty() )
+    	// If opponents are tracked nearby, try to kick away from them.
+    	int[] threats = this.scratch.tracks;
+    	int numThreats = this.playerTracker.within(PlayerTracker.OPPONENT, this.player.position.getX(),
+    			this.player.position.getY(), this.dribbleThreatRadius, threats);
+    	if ( numThreats > 0 )
     	{
     		double weight = 0.0d;
     		double w_angle = 0.0d;
-    		for ( Player i : lastSeenOpponents )
+    		Point p = this.scratch.point;
+    		for ( int k = 0; k < numThreats; k++ )
     		{
-    			double i_angle = player.relativeAngleTo(i);
+    			int i = threats[k];
+    			p.update(this.playerTracker.getX(i), this.playerTracker.getY(i));
+    			double i_angle = player.relativeAngleTo(p);
     			double new_weight = Math.max(weight, Math.min(1.0,
-    					    1 / player.distanceTo(i) * Math.abs(
+    					    1 / player.position.getPosition().distanceTo(p) * Math.abs(
     					    		1 / ( i_angle == 0.0 ? 1.0 : i_angle ) ) ) );
     			if ( new_weight > weight )
     				w_angle = i_angle;
@@ -492,9 +574,7 @@ public class Brain implements Runnable {
     	else if ( this.canSee( this.player.getOpponentGoalId() ) )
     		d_angle += this.player.relativeAngleTo(
     				this.getOrCreate(this.player.getOpponentGoalId()));
-    	Vector2D d_vec = new Vector2D(0.0, 0.0);
-    	d_vec = d_vec.addPolar(Math.toRadians(d_angle), d_length); // ?!
-    	return d_vec;	
+    	v.addPolarInPlace(Math.toRadians(d_angle), d_length);
     	
     	/*
     	 * Proposed algorithm:
@@ -515,47 +595,26 @@ public class Brain implements Runnable {
      * @return the field object
      */
     private final FieldObject getOrCreate(String id) {
-        if (this.fieldObjects.containsKey(id)) {
-            return this.fieldObjects.get(id);
-        }
-        else {
+        int index = this.objectIds.intern(id);
+        if (index < 0) {
             return FieldObject.create(id);
         }
+        return this.getOrCreate(index);
     }
     
     /**
-     * Infers the position and direction of this brain's associated player given two boundary flags
-     * on the same side seen in the current time step.
+     * Gets the requested `FieldObject` from fieldObjects, or creates it if it doesn't yet exist.
      * 
-     * @param o1 the first flag
-     * @param o2 the second flag
+     * @param index the object's index in objectIds
+     * @return the field object
      */
-    private final void inferPositionAndDirection(FieldObject o1, FieldObject o2) {
-        // x1, x2, y1 and y2 are relative Cartesian coordinates to the flags
-        double x1 = Math.cos(Math.toRadians(o1.curInfo.direction)) * o1.curInfo.distance;
-        double y1 = Math.sin(Math.toRadians(o1.curInfo.direction)) * o1.curInfo.distance;
-        double x2 = Math.cos(Math.toRadians(o2.curInfo.direction)) * o2.curInfo.distance;
-        double y2 = Math.sin(Math.toRadians(o2.curInfo.direction)) * o2.curInfo.distance;
-        double direction = -Math.toDegrees(Math.atan((y2 - y1) / (x2 - x1)));
-        // Need to reverse the direction if looking closer to west and using horizontal boundary flags
-        if (o1.position.getY() == o2.position.getY()) {
-            if (Math.signum(o2.position.getX() - o1.position.getX()) != Math.signum(x2 - x1)) {
-                direction += 180.0;
-            }
-        }
-        // Need to offset the direction by +/- 90 degrees if using vertical boundary flags
-        else if (o1.position.getX() == o1.position.getX()) {
-            if (Math.signum(o2.position.getY() - o1.position.getY()) != Math.signum(x2 - x1)) {
-                direction += 270.0;
-            }
-            else {
-                direction += 90.0;
-            }
+    private final FieldObject getOrCreate(int index) {
+        FieldObject obj = this.fieldObjects[index];
+        if (obj == null) {
+            obj = FieldObject.create(this.objectIds.name(index));
+            this.fieldObjects[index] = obj;
         }
-        this.player.direction.update(Futil.simplifyAngle(direction), 0.95, this.time);
-        double x = o1.position.getX() - o1.curInfo.distance * Math.cos(Math.toRadians(direction + o1.curInfo.direction));
-        double y = o1.position.getY() - o1.curInfo.distance * Math.sin(Math.toRadians(direction + o1.curInfo.direction));
-        this.player.position.update(x, y, 0.95, this.time);
+        return obj;
     }
     
     /**
@@ -584,8 +643,14 @@ public class Brain implements Runnable {
      * @param y y-coordinate
      */
     public void move(double x, double y) {
-        client.sendCommand(Settings.Commands.MOVE, Double.toString(x), Double.toString(y));
+        client.sendCommand(Settings.Commands.MOVE, x, y);
+        // Each team moves as if it were the left team
+        if (this.player.team.side == Settings.RIGHT_SIDE) {
+            x = -x;
+            y = -y;
+        }
         this.player.position.update(x, y, 1.0, this.time);
+        this.particleFilter.move(x, y);
     }
     
     /**
@@ -602,7 +667,8 @@ public class Brain implements Runnable {
      * @param power the level of power with which to kick (0 to 100)
      */
     public void kick(double power) {
-        client.sendCommand(Settings.Commands.KICK, Double.toString(power));
+        client.sendCommand(Settings.Commands.KICK, power);
+        this.kicked();
     }
     
     /**
@@ -612,7 +678,76 @@ public class Brain implements Runnable {
      * @param offset an angle in degrees to be added to the player's direction, yielding the direction of the kick
      */
     public void kick(double power, double offset) {
-        client.sendCommand(Settings.Commands.KICK, Double.toString(power), Double.toString(offset));
+        client.sendCommand(Settings.Commands.KICK, power, offset);
+        this.kicked();
+    }
+    
+    /**
+     * Tells the ball's tracker that the ball was kicked, if it was last seen within the kickable
+     * radius. The server ignores any other kick, so the tracker's velocity estimate still holds.
+     */
+    private final void kicked() {
+        Ball ball = (Ball) this.getOrCreate(Ball.ID);
+        if (ball.curInfo.time >= this.time - 1 && ball.curInfo.distance >= 0.0
+                && ball.curInfo.distance < Futil.kickable_radius(this.playerType)) {
+            ball.tracker.kicked();
+        }
+    }
+    
+    /**
+     * Kicks the ball so that it leaves at a velocity, with the kick that the KickModel plans for
+     * this player's type. If the ball cannot reach that velocity in one kick, this is the first of
+     * two, which moves the ball to where the second can.
+     * 
+     * @param vx the x-component of the velocity
+     * @param vy the y-component of the velocity
+     * @return the number of kicks planned, or 0 if the velocity is out of reach and the ball is
+     *   kicked as hard as possible toward it
+     */
+    final int kickTo(double vx, double vy) {
+        int kicks = this.updateKickModel().plan(vx, vy);
+        this.kick(this.kickModel.getPower(), this.kickModel.getDirection());
+        return kicks;
+    }
+    
+    /**
+     * Sets the KickModel to this player's and the ball's current state, replacing it first if
+     * this player's type or the server parameters have changed. The ball is placed relative to
+     * this player by this cycle's sighting of it, if there is one, since the error in two
+     * separately estimated positions is about as large as the kickable margin.
+     * 
+     * @return the kick model
+     */
+    private final KickModel updateKickModel() {
+        if (this.kickModel.getType() != this.playerType || this.kickModel.getParams() != this.params) {
+            this.kickModel = new KickModel(this.params, this.playerType);
+        }
+        Ball ball = (Ball) this.getOrCreate(Ball.ID);
+        Vector2D ballVelocity = ball.tracker.isTracking() ? ball.tracker.velocity(this.time, this.scratch.vector)
+                : this.scratch.vector.set(0.0, 0.0);
+        double x = this.player.position.getX();
+        double y = this.player.position.getY();
+        double direction = this.player.direction.getDirection();
+        double ballX = ball.position.getX();
+        double ballY = ball.position.getY();
+        if (ball.curInfo.time == this.time && ball.curInfo.distance >= 0.0) {
+            ballX = x + ball.curInfo.distance * Futil.cosDeg(direction + ball.curInfo.direction);
+            ballY = y + ball.curInfo.distance * Futil.sinDeg(direction + ball.curInfo.direction);
+        }
+        this.kickModel.setState(x, y, this.velocity.getX(), this.velocity.getY(), direction, ballX, ballY,
+                ballVelocity.getX(), ballVelocity.getY());
+        return this.kickModel;
+    }
+    
+    /**
+     * Kicks the ball so that it leaves at a speed in a direction. See kickTo(double, double).
+     * 
+     * @param speed the speed
+     * @param direction the direction in degrees, in field coordinates
+     * @return the number of kicks planned
+     */
+    final int kickToward(double speed, double direction) {
+        return this.kickTo(speed * Futil.cosDeg(direction), speed * Futil.sinDeg(direction));
     }
     
     /**
@@ -622,7 +757,28 @@ public class Brain implements Runnable {
      * @param message the message (string), exactly as it was received
      */
     public void parseMessage(String message) {
-        long timeReceived = System.currentTimeMillis();
+        this.parseMessage(message, System.currentTimeMillis());
+    }
+    
+    /**
+     * Parses a message from the soccer server that was received at a given time.
+     * 
+     * @param message the message (string), exactly as it was received
+     * @param timeReceived the system time, in milliseconds, at which the message was received
+     */
+    public void parseMessage(String message, long timeReceived) {
+        this.timeReceivedNanos = System.nanoTime();
+        this.runNanos = 0;
+        this.parseText(message, timeReceived);
+    }
+    
+    /**
+     * Parses a decoded message from the soccer server, once the time it arrived is noted.
+     * 
+     * @param message the message (string), exactly as it was received
+     * @param timeReceived the system time, in milliseconds, at which the message was received
+     */
+    private void parseText(String message, long timeReceived) {
         message = Futil.sanitize(message);
         // Handle `sense_body` messages
         if (message.startsWith("(sense_body")) {
@@ -630,6 +786,7 @@ public class Brain implements Runnable {
         	curSenseInfo.reset();
         	
             this.timeLastSenseBody = timeReceived;
+            this.timeLastSenseBodyNanos = this.timeReceivedNanos;
             curSenseInfo.time = Futil.extractTime(message);
             this.time = curSenseInfo.time;       
 
@@ -660,6 +817,8 @@ public class Brain implements Runnable {
             		// Update velocity variable
             		double dir = this.dir() + Math.toRadians(curSenseInfo.directionOfSpeed);
             		this.velocity.setPolar(dir, curSenseInfo.amountOfSpeed);
+            		this.particleFilter.predict(curSenseInfo.amountOfSpeed, curSenseInfo.directionOfSpeed,
+            		        this.playerType.PLAYER_DECAY, this.playerType.INERTIA_MOMENT);
             	}
             	else if ( nArgs[0].contains("head_angle") )
             	{ // Player's head angle
@@ -714,43 +873,7 @@ public class Brain implements Runnable {
         }
         // Handle `see` messages
         else if (message.startsWith("(see")) {
-            this.timeLastSee = timeReceived;
-            this.time = Futil.extractTime(message);
-            LinkedList<String> infos = Futil.extractInfos(message);
-            lastSeenOpponents.clear();
-            for (String info : infos) {
-                String id = Futil.extractId(info);
-                if (Futil.isUniqueFieldObject(id)) {
-                    FieldObject obj = this.getOrCreate(id);
-                    obj.update(this.player, info, this.time);
-                    this.fieldObjects.put(id, obj);
-                    if ( id.startsWith("(p \"") && !( id.startsWith(this.player.team.name, 4) ) )
-                    	lastSeenOpponents.add( (Player)obj );
-                }
-            }
-            // Immediately run for the current step. Since our computations takes only a few
-            // milliseconds, it's okay to start running over half-way into the 100ms cycle.
-            // That means two out of every three time steps will be executed here.
-            this.updatePositionAndDirection();
-            this.run();
-            // Make sure we stay in sync with the mid-way `see`s
-            if (this.timeLastSee - this.timeLastSenseBody > 30) {
-                this.responseHistory.clear();
-                this.responseHistory.add(Settings.RESPONSE.SEE);
-                this.responseHistory.add(Settings.RESPONSE.SEE);
-            }
-            else {
-                this.responseHistory.add(Settings.RESPONSE.SEE);
-                this.responseHistory.removeLast();
-            }
-            //Keep track of steps since the ball was last seen
-            if(canSee(Ball.ID)){
-            	noSeeBallCount = 0;
-            }
-            else{
-            	noSeeBallCount++;
-            }
-            
+            this.parseSee(ByteBuffer.wrap(message.getBytes()), timeReceived);
         }
         // Handle init messages
         else if (message.startsWith("(init")) {
@@ -775,6 +898,130 @@ public class Brain implements Runnable {
         else if (message.startsWith("(server_param")) {
         	parseServerParameters(message);
         }
+        else if (message.startsWith("(player_param")) {
+            this.playerTypes = PlayerTypes.parse(message, this.params);
+            this.playerType = this.playerTypes.get(this.playerTypeId);
+            this.playerTracker.setPlayerTypes(this.playerTypes);
+        }
+        else if (message.startsWith("(player_type")) {
+            this.playerTypes = this.playerTypes.with(PlayerType.parse(message, this.params));
+            this.playerType = this.playerTypes.get(this.playerTypeId);
+            this.playerTracker.setPlayerTypes(this.playerTypes);
+        }
+        // Handle substitutions, sent as (change_player_type <unum> <type>) for teammates
+        else if (message.startsWith("(change_player_type")) {
+            String[] parts = message.split("[\\s()]+");
+            try {
+                if (parts.length >= 4 && Integer.parseInt(parts[2]) == this.player.number) {
+                    this.playerTypeId = Integer.parseInt(parts[3]);
+                    this.playerType = this.playerTypes.get(this.playerTypeId);
+                }
+            }
+            catch (NumberFormatException e) {
+                Log.d("Player type change NaN.");
+            }
+        }
+    }
+    
+    /**
+     * Parses a raw message from the soccer server. `see` messages are parsed directly from the
+     * buffer's bytes; all other messages are decoded and passed to {@link #parseMessage(String)}.
+     * 
+     * @param message a buffer whose remaining bytes hold the message, exactly as it was received
+     */
+    public void parseMessage(ByteBuffer message) {
+        this.parseMessage(message, System.currentTimeMillis());
+    }
+    
+    /**
+     * Parses a raw message from the soccer server that was received at a given time. Replays pass
+     * the recorded time so that the brain's timing decisions are reproduced exactly.
+     * 
+     * @param message a buffer whose remaining bytes hold the message, exactly as it was received
+     * @param timeReceived the system time, in milliseconds, at which the message was received
+     */
+    public void parseMessage(ByteBuffer message, long timeReceived) {
+        if (!message.hasRemaining()) {
+            return;
+        }
+        this.timeReceivedNanos = System.nanoTime();
+        this.runNanos = 0;
+        if (SeeParser.isSee(message)) {
+            this.parseSee(message, timeReceived);
+        }
+        else {
+            this.parseText(Futil.decode(message), timeReceived);
+        }
+        // Parsing time excludes any response made while parsing
+        this.metrics.parse.record(System.nanoTime() - this.timeReceivedNanos - this.runNanos);
+    }
+    
+    /**
+     * Parses a `see` message and responds for the current time step.
+     * 
+     * @param message a buffer whose remaining bytes hold the `see` message
+     * @param timeReceived the system time at which the message was received
+     */
+    private void parseSee(ByteBuffer message, long timeReceived) {
+        if (!this.seeParser.reset(message)) {
+            return;
+        }
+        this.timeLastSee = timeReceived;
+        this.time = this.seeParser.time();
+        if (this.timeLastSenseBodyNanos != 0) {
+            this.metrics.seeOffset.record(this.timeReceivedNanos - this.timeLastSenseBodyNanos);
+        }
+        this.localizer.reset();
+        boolean ballMotionSeen = false;
+        while (this.seeParser.next()) {
+            int index = this.seeParser.objectIndex();
+            if (index < 0) {
+                continue;
+            }
+            String id = this.objectIds.name(index);
+            if ((id.startsWith("(p") || id.startsWith("(P")) && this.seeParser.numArgs() >= 2) {
+                this.playerTracker.see(PlayerTracker.teamOf(id, this.player.team.name), PlayerTracker.numberOf(id),
+                        this.seeParser.arg(0), this.seeParser.arg(1));
+            }
+            if (this.objectIds.isUnique(index)) {
+                FieldObject obj = this.getOrCreate(index);
+                obj.update(this.player, this.seeParser, this.time);
+                if (Localizer.isStationary(index) && this.seeParser.numArgs() >= 2) {
+                    this.localizer.add(index, this.seeParser.arg(0), this.seeParser.arg(1));
+                }
+                else if (index == ObjectIds.BALL) {
+                    ballMotionSeen = this.seeParser.numArgs() >= 4;
+                }
+            }
+        }
+        // Immediately run for the current step. Since our computations takes only a few
+        // milliseconds, it's okay to start running over half-way into the 100ms cycle.
+        // That means two out of every three time steps will be executed here.
+        this.updatePositionAndDirection();
+        this.playerTracker.update(this.time, this.player.position.getX(), this.player.position.getY(),
+                this.player.direction.getDirection(), this.positionError * this.positionError,
+                PlayerTracker.visibleAngle(this.curSenseInfo.viewWidth));
+        if (this.canSee(Ball.ID)) {
+            this.trackBall(ballMotionSeen);
+        }
+        this.run();
+        // Make sure we stay in sync with the mid-way `see`s
+        if (this.timeLastSee - this.timeLastSenseBody > 30) {
+            this.responseHistory.clear();
+            this.responseHistory.add(Settings.RESPONSE.SEE);
+            this.responseHistory.add(Settings.RESPONSE.SEE);
+        }
+        else {
+            this.responseHistory.add(Settings.RESPONSE.SEE);
+            this.responseHistory.removeLast();
+        }
+        //Keep track of steps since the ball was last seen
+        if(canSee(Ball.ID)){
+        	noSeeBallCount = 0;
+        }
+        else{
+        	noSeeBallCount++;
+        }
     }
     
     /**
@@ -784,30 +1031,17 @@ public class Brain implements Runnable {
      */
     public void parseServerParameters(String message)
     {
-        String parts[] = message.split("\\(");
-        for ( String i : parts ) // for each structured argument:
-        {
-        	// Clean the string, and break it down into the base arguments.
-        	String nMsg = i.split("\\)")[0].trim();
-        	if ( nMsg.isEmpty() ) continue;
-        	String nArgs[] = nMsg.split("\\s");
-        	
-        	// Check for specific argument types; ignore unknown arguments.
-        	if (nArgs[0].startsWith("dash_power_rate")) 
-        	    Settings.setDashPowerRate(Double.parseDouble(nArgs[1]));
-        	if ( nArgs[0].startsWith("goal_width") )
-        		Settings.setGoalHeight(Double.parseDouble(nArgs[1]));
-        	// Ball arguments:
-        	else if ( nArgs[0].startsWith("ball") )
-        		ServerParams_Ball.Builder.dataParser(nArgs);
-        	// Player arguments:
-        	else if ( nArgs[0].startsWith("player") || nArgs[0].startsWith("min")
-        			|| nArgs[0].startsWith("max") )
-        		ServerParams_Player.Builder.dataParser(nArgs);
-        }
-        
-        // Rebuild all parameter objects with updated parameters.
-        Settings.rebuildParams();
+        this.params = ServerParams.parse(message);
+        this.playerTypes = new PlayerTypes(this.params);
+        this.playerType = this.playerTypes.get(this.playerTypeId);
+        this.playerTracker.setPlayerTypes(this.playerTypes);
+        this.interceptor = new Interceptor(this.params);
+        this.interceptTime = -1;
+        this.passEvaluator = new PassEvaluator(this.params);
+        this.passTime = -1;
+        ((Ball) this.getOrCreate(Ball.ID)).tracker.setParams(this.params);
+        this.particleFilter.setParams(this.params);
+        this.playerTracker.setParams(this.params);
     }
     
     /**
@@ -837,14 +1071,26 @@ public class Brain implements Runnable {
      * Responds for the current time step.
      */
     public void run() {
+        long start = System.nanoTime();
         int expectedNextRun = this.lastRan + 1;
         if (this.time > this.lastRan + 1) {
-            Log.e("Brain for player " + this.player.render() + " did not run during time step " + expectedNextRun + ".");
+            Log.e("Brain for %s did not run during time step %d.", this.player, expectedNextRun);
         }
+        this.metrics.recordCycle(this.time, this.lastRan);
         this.lastRan = this.time;
         this.acceleration.reset();
         this.currentStrategy = this.determineOptimalStrategy();
+        long decided = System.nanoTime();
+        this.metrics.strategy.record(decided - start);
         this.executeStrategy(this.currentStrategy);
+        if (this.client.synchMode) {
+            this.client.sendCommand(Settings.Commands.DONE);
+        }
+        long end = System.nanoTime();
+        if (this.timeReceivedNanos != 0) {
+            this.metrics.latency.record(end - this.timeReceivedNanos);
+        }
+        this.runNanos += end - start;
     }
     
     /** 
@@ -853,8 +1099,9 @@ public class Brain implements Runnable {
      * @param offset an angle in degrees to add to the player's current direction
      */
     public final void turn(double offset) {
-        double moment = Futil.toValidMoment(offset);
+        double moment = Futil.toValidMoment(offset, this.params);
         client.sendCommand(Settings.Commands.TURN, moment);
+        this.particleFilter.turn(moment);
         // TODO Potentially take magnitude of offset into account in the
         // determination of the new confidence in the player's position.
         player.direction.update(player.direction.getDirection() + moment, 0.95 * player.direction.getConfidence(this.time), this.time);
@@ -897,28 +1144,136 @@ public class Brain implements Runnable {
     
     /**
      * Updates this this brain's belief about the associated player's position and direction
-     * at the current time step. This method should be called immediately after parsing a `see`
-     * message, and only then. 
-     */
-    private final void updatePositionAndDirection() {
-        // Infer from the most-recent `see` if it happened in the current time-step
-        for (int i = 0; i < 4; i++) {
-            LinkedList<FieldObject> flagsOnSide = new LinkedList<FieldObject>();
-            for (String id : Settings.BOUNDARY_FLAG_GROUPS[i]) {
-                FieldObject flag = this.fieldObjects.get(id);
-                if (flag.curInfo.time == this.time) {
-                    flagsOnSide.add(flag);
-                }
-                else {
-                    //Log.i("Flag " + id + "last updated at time " + flag.info.time + ", not " + this.time);
-                }
-                if (flagsOnSide.size() > 1) {
-                    this.inferPositionAndDirection(flagsOnSide.poll(), flagsOnSide.poll());
-                    return;
-                }
-            }
+     * at the current time step from every flag and goal seen in the most recent `see`. When the
+     * Localizer fixes the pose more precisely than the ParticleFilter has tracked it, or the
+     * filter has lost track, the fix is believed and the filter is restarted from it. Otherwise,
+     * such as when one flag or none is seen, the filter's tracked pose is corrected with whatever
+     * was seen and believed. This method should be called immediately after parsing a `see`
+     * message, and only then.
+     */
+    final void updatePositionAndDirection() {
+        double x, y, direction, confidence;
+        boolean fixed = this.localizer.solve();
+        if (!(fixed && this.localizer.getError() <= this.particleFilter.getError())
+                && this.particleFilter.correct(this.localizer)) {
+            x = this.particleFilter.getX();
+            y = this.particleFilter.getY();
+            direction = this.particleFilter.getDirection();
+            confidence = this.particleFilter.getConfidence();
+            this.positionError = this.particleFilter.getError();
+        }
+        else if (fixed) {
+            x = this.localizer.getX();
+            y = this.localizer.getY();
+            direction = this.localizer.getDirection();
+            confidence = this.localizer.getConfidence();
+            this.positionError = this.localizer.getError();
+            this.particleFilter.initialize(x, y, direction, this.positionError);
+        }
+        else {
+            return;
+        }
+        this.player.direction.update(direction, confidence, this.time);
+        this.player.position.update(x, y, confidence, this.time);
+    }
+    
+    /**
+     * Updates the ball's tracker with its sighting in the most recent `see`, seen from this
+     * player's updated position, and believes the tracker's filtered position. This method should
+     * be called after updatePositionAndDirection.
+     * 
+     * @param withMotion whether the sighting included the ball's distance and direction changes
+     */
+    private final void trackBall(boolean withMotion) {
+        Ball ball = (Ball) this.getOrCreate(Ball.ID);
+        SeeInfo info = ball.curInfo;
+        ball.tracker.observe(this.time, this.player, this.positionError * this.positionError, info.distance,
+                info.direction, withMotion ? info.distChange : Double.NaN, withMotion ? info.dirChange : Double.NaN);
+        ball.position.update(ball.tracker.getX(), ball.tracker.getY(), ball.position.getConfidence(this.time), this.time);
+    }
+    
+    /**
+     * Evaluates passes and shots from the ball, once per time step, by the deadline of
+     * passBudgetNanos after the cycle's message was received, if there is one.
+     */
+    private final void updatePass() {
+        if (this.passTime == this.time) {
+            return;
         }
-     }
+        this.passTime = this.time;
+        this.pass = PassEvaluator.NONE;
+        Ball ball = (Ball) this.getOrCreate(Ball.ID);
+        if (!this.canKickBall() || this.player.position.getPosition().isUnknown()
+                || ball.position.getPosition().isUnknown()) {
+            return;
+        }
+        long deadline = PassEvaluator.NO_DEADLINE;
+        if (this.passBudgetNanos > 0) {
+            long start = this.timeReceivedNanos != 0 ? this.timeReceivedNanos : System.nanoTime();
+            deadline = start + this.passBudgetNanos;
+        }
+        this.pass = this.passEvaluator.evaluate(this.playerTracker, this.updateKickModel(), ball.position.getX(),
+                ball.position.getY(), this.opponentGoalX(), deadline);
+    }
+    
+    /**
+     * Sets how long into a cycle, from the arrival of its message, passes and shots may be
+     * evaluated. Offline play, which must come out the same however fast it runs, turns the
+     * deadline off so that every candidate is scored in full.
+     * 
+     * @param nanos the time in nanoseconds, or 0 for no deadline
+     */
+    final void setPassBudget(long nanos) {
+        this.passBudgetNanos = nanos;
+    }
+    
+    /**
+     * Gets the x-coordinate of the opponent goal, from this player's side.
+     * 
+     * @return the x-coordinate
+     */
+    private final double opponentGoalX() {
+        return this.player.team.side == 'l' ? Settings.FIELD_WIDTH / 2.0 : -Settings.FIELD_WIDTH / 2.0;
+    }
+    
+    /**
+     * Finds how soon this player and its teammates can reach the ball, once per time step. This
+     * player's own type, velocity and direction are used; tracked teammates are assumed to be of
+     * the default type.
+     */
+    private final void updateIntercept() {
+        if (this.interceptTime == this.time) {
+            return;
+        }
+        this.interceptTime = this.time;
+        this.interceptCycles = Interceptor.NEVER;
+        this.teammateInterceptCycles = Interceptor.NEVER;
+        Ball ball = (Ball) this.getOrCreate(Ball.ID);
+        if (ball.tracker.isTracking()) {
+            Point position = ball.tracker.position(this.time, this.scratch.point);
+            Vector2D velocity = ball.tracker.velocity(this.time, this.scratch.vector);
+            this.interceptor.setBall(position.getX(), position.getY(), velocity.getX(), velocity.getY());
+        }
+        else if (!ball.position.getPosition().isUnknown()) {
+            this.interceptor.setBall(ball.position.getX(), ball.position.getY(), 0.0, 0.0);
+        }
+        else {
+            return;
+        }
+        this.interceptCycles = this.interceptor.cycles(this.playerType, this.player.position.getX(),
+                this.player.position.getY(), this.velocity.getX(), this.velocity.getY(),
+                this.player.direction.getDirection());
+        if (this.interceptCycles != Interceptor.NEVER) {
+            this.interceptPoint.update(this.interceptor.ballX(this.interceptCycles),
+                    this.interceptor.ballY(this.interceptCycles));
+        }
+        int[] cycles = this.scratch.tracks;
+        int teammate = this.interceptor.fastest(this.playerTracker, this.params.PLAYER_TYPE, PlayerTracker.TEAMMATE,
+                cycles);
+        if (teammate >= 0) {
+            this.teammateInterceptCycles = cycles[teammate];
+        }
+    }
     
     /**
      * @return {@link Settings#PENALTY_AREA_LEFT} if player is on the left team, or {@link Settings#PENALTY_AREA_RIGHT} if on the right team.
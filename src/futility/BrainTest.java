@@ -8,19 +8,32 @@ package futility;
 
 import static org.junit.Assert.*;
 
-import org.junit.After;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
 import org.junit.Before;
 import org.junit.Test;
 
 /**
- * Test class for the `Brain` class.
+ * Test class for the `Brain` class. Brains are driven offline through a Replay.FakeClient, so no
+ * soccer server is needed.
  * 
  * @author Team F(utility) *
  */
 public class BrainTest {
-    RCSSServer server;
-    Client client;
-    //Trainer trainer;
+    private static final String[] MESSAGES = {
+        "(init l 7 before_kick_off)",
+        "(sense_body 1 (view_mode high normal) (stamina 7988 1 130560) (speed 0.60 -2) (head_angle 0))",
+        "(see 1 ((f t 0) 47.9 -38) ((f t r 10) 52.7 -28) ((f t r 20) 58.9 -20) ((f c) 16.8 14) "
+                + "((b) 14.6 2 -0.200 0.3) ((p) 21.6 22))",
+        "(hear 1 referee play_on)",
+        "(sense_body 2 (view_mode high normal) (stamina 7976 1 130520) (speed 0.60 -3) (head_angle 0))",
+        "(see 2 ((f t 0) 47.4 -39) ((f t r 10) 52.2 -29) ((f t r 20) 58.3 -21) ((f c) 16.3 14) "
+                + "((b) 14.1 2 -0.200 0.3) ((p) 21.1 22))",
+    };
+    
+    Replay.FakeClient client;
     
     /**
      * Empty constructor.
@@ -30,17 +43,22 @@ public class BrainTest {
     
     @Before
     public void setUp() {
-        this.server = new RCSSServer();
-        this.server.start();
-        String[] args = {};
-        this.client = new Client(args);
+        String[] args = {"--team", "futility"};
+        this.client = new Replay.FakeClient(args);
         this.client.init();
     }
     
-    @After
-    public void tearDown() {
-        this.server.stop();
-        this.client.quit();
+    /**
+     * Builds a recording of the test messages, received 50 ms apart, with nothing sent.
+     * 
+     * @return the recorded entries
+     */
+    private static List<Recorder.Entry> record() {
+        List<Recorder.Entry> entries = new ArrayList<Recorder.Entry>();
+        for (int i = 0; i < MESSAGES.length; i++) {
+            entries.add(new Recorder.Entry(i * 50000000L, Recorder.RECEIVED, (MESSAGES[i] + "\0").getBytes()));
+        }
+        return entries;
     }
     
     /**
@@ -49,8 +67,69 @@ public class BrainTest {
      */
     @Test
     public void testTurnCommandsUpdateBeliefs() {
-        this.client.player.brain.parseMessage(this.client.receiveMessage());
-        // TODO
-        assertEquals(true, true);
+        Brain brain = this.client.player.brain;
+        brain.parseMessage(MESSAGES[0]);
+        double direction = this.client.player.direction.getDirection();
+        brain.turn(30.0);
+        String command = this.client.sent.get(this.client.sent.size() - 1);
+        assertTrue(command.startsWith("(turn "));
+        double moment = Double.parseDouble(command.substring(6, command.length() - 1));
+        assertEquals(30.0, moment, 1e-6);
+        assertEquals(direction + moment, this.client.player.direction.getDirection(), 1e-6);
+    }
+    
+    /**
+     * Tests that replaying the same messages makes the brain send the same commands.
+     */
+    @Test
+    public void testReplayIsDeterministic() {
+        Replay replay = new Replay(record());
+        Replay.Result first = replay.run(new String[] {"--team", "futility"});
+        Replay.Result second = replay.run(new String[] {"--team", "futility"});
+        assertEquals(MESSAGES.length, first.received);
+        assertTrue(first.client.sent.size() > 1);
+        assertEquals(first.client.sent, second.client.sent);
+    }
+    
+    /**
+     * Tests that a malformed substitution is ignored rather than thrown out of the brain.
+     */
+    @Test
+    public void testMalformedPlayerTypeChange() {
+        Brain brain = this.client.player.brain;
+        brain.parseMessage("(change_player_type x 3)");
+        brain.parseMessage("(change_player_type " + this.client.player.number + " y)");
+        assertSame(ServerParams.DEFAULT.PLAYER_TYPE, brain.playerType);
+    }
+    
+    /**
+     * Tests that a replay reports commands that differ from the recorded ones.
+     */
+    @Test
+    public void testReplayFindsDivergences() {
+        List<Recorder.Entry> entries = record();
+        Replay.Result baseline = new Replay(entries).run(new String[] {"--team", "futility"});
+        // The recording has no sent commands, so every response diverges
+        assertTrue(baseline.divergences > 0);
+        assertNotNull(baseline.firstDivergence);
+        
+        // Recording what the brain sent makes the replay match
+        List<Recorder.Entry> recorded = new ArrayList<Recorder.Entry>();
+        Replay.FakeClient client = new Replay.FakeClient(new String[] {"--team", "futility"});
+        client.init();
+        for (Recorder.Entry entry : entries) {
+            int sent = client.sent.size();
+            recorded.add(entry);
+            ByteBuffer buffer = ByteBuffer.wrap(entry.bytes);
+            client.player.brain.parseMessage(buffer, entry.nanos / 1000000);
+            for (String command : client.sent.subList(sent, client.sent.size())) {
+                recorded.add(new Recorder.Entry(entry.nanos, Recorder.SENT, (command + "\0").getBytes()));
+            }
+        }
+        // The `init` command comes first
+        recorded.add(0, new Recorder.Entry(0, Recorder.SENT, (client.sent.get(0) + "\0").getBytes()));
+        Replay replay = new Replay(recorded);
+        assertArrayEquals(new String[] {"--team", "futility"}, replay.clientArgs());
+        assertEquals(0, replay.run().divergences);
     }
 }
@@ -6,12 +6,15 @@
 
 package futility;
 
+import java.io.File;
 import java.io.IOException;
-import java.net.DatagramPacket;
-import java.net.DatagramSocket;
 import java.net.InetAddress;
-import java.net.SocketException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
 import java.net.UnknownHostException;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Network client that initializes a connection to the RoboCup 2D soccer server.
@@ -20,10 +23,19 @@ import java.net.UnknownHostException;
 public class Client {
     public boolean debugMode = Settings.DEBUG;
     public boolean hideReceivedMessages = false;
+    public boolean printMetrics = false;
+    public boolean synchMode = false;
+    public File recordDirectory = null;
+    public Recorder recorder = null;
     public Player player;
     public InetAddress soccerServerHost;
     public int soccerServerPort = Settings.INIT_PORT;
-    public DatagramSocket soccerServerSocket;
+    private int initPort = Settings.INIT_PORT;
+    public DatagramChannel soccerServerChannel;
+    private InetSocketAddress soccerServerAddress;
+    private final ByteBuffer receiveBuffer = ByteBuffer.allocateDirect(Settings.MSG_SIZE);
+    private final ByteBuffer sendBuffer = ByteBuffer.allocateDirect(Settings.MSG_SIZE);
+    private final ReentrantLock sendLock = new ReentrantLock();
 
     /**
      * Client constructor. Set up a client to play some virtual soccer!
@@ -36,7 +48,8 @@ public class Client {
         for (int i = 0; i < args.length; i++ ) {
             try {
                 if (args[i].equals("-d") || args[i].equals("--debug")) {
-                    // Run in debug mode (no specific functionality right now)
+                    // Run in debug mode (no specific functionality right now). The log
+                    // verbosity is process-wide, so this turns on debug logging for every agent.
                     this.debugMode = true;
                     if (Settings.VERBOSITY < Log.DEBUG) {
                         Settings.VERBOSITY = Log.DEBUG;
@@ -61,6 +74,23 @@ public class Client {
                 else if (args[i].equals("-h") || args[i].equals("--hide-received-messages")) {
                     this.hideReceivedMessages = true;
                 }
+                else if (args[i].equals("-r") || args[i].equals("--record")) {
+                    // Record all server traffic into a binary log in this directory
+                    this.recordDirectory = new File(args[i+1]);
+                }
+                else if (args[i].equals("-p") || args[i].equals("--port")) {
+                    // Connect to a server listening on another port
+                    this.initPort = Integer.parseInt(args[i+1]);
+                    this.soccerServerPort = this.initPort;
+                }
+                else if (args[i].equals("--synch")) {
+                    // Tell a synchronous server when each response is complete
+                    this.synchMode = true;
+                }
+                else if (args[i].equals("-m") || args[i].equals("--metrics")) {
+                    // Print per-cycle timing metrics on quitting
+                    this.printMetrics = true;
+                }
                 else if (args[i].equals("-v") || args[i].equals("--verbosity")) {
                     // Set the verbosity to a custom level:
                     //   * 0 is errors only
@@ -82,14 +112,14 @@ public class Client {
      * to the server.
      */
     public void init() {
-        try {
-            // Set up server connection
-            soccerServerHost = InetAddress.getByName(Settings.HOSTNAME);
-            soccerServerSocket = new DatagramSocket();
-        } catch (UnknownHostException e) {
-            e.printStackTrace();
-        } catch (SocketException e) {
-            e.printStackTrace();
+        this.connect();
+        if (this.recordDirectory != null) {
+            try {
+                this.recorder = Recorder.create(this.recordDirectory, this.player.team.name);
+            }
+            catch (IOException e) {
+                System.err.println("recording opening error " + e);
+            }
         }
         
         String version = String.format("(version %s)", Settings.SOCCER_SERVER_VERSION);
@@ -103,79 +133,219 @@ public class Client {
     }
     
     /**
-     * Puts the client into an infinite loop for gameplay.
+     * Opens the channel to the server.
+     */
+    protected void connect() {
+        try {
+            // Set up server connection
+            soccerServerHost = InetAddress.getByName(Settings.HOSTNAME);
+            soccerServerAddress = new InetSocketAddress(soccerServerHost, soccerServerPort);
+            soccerServerChannel = DatagramChannel.open();
+        } catch (UnknownHostException e) {
+            e.printStackTrace();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+    
+    /**
+     * Puts the client into an infinite loop for gameplay, until it quits.
      */
     public final void playForever() {
-        while(true){
-            player.brain.parseMessage(receiveMessage());
+        while(soccerServerChannel.isOpen()){
+            player.brain.parseMessage(receive());
         }
     }
 
     /**
-     * Disconnects from the server.
+     * Disconnects from the server. Commands are sent holding this client's send lock, so this may
+     * be called from another thread while the client's own thread is sending; closing the channel
+     * then wakes the client's thread from its blocking receive, which ends its loop.
      * 
      */
     public final void quit() {
-        sendCommand(Settings.Commands.BYE);
-        soccerServerSocket.close();
+        this.sendLock.lock();
+        try {
+            sendCommand(Settings.Commands.BYE);
+            if (this.recorder != null) {
+                this.recorder.close();
+            }
+            if (this.printMetrics) {
+                this.printMetrics();
+            }
+            if (soccerServerChannel == null) {
+                return;
+            }
+            try {
+                soccerServerChannel.close();
+            }
+            catch (IOException e) {
+                System.err.println("socket closing error " + e);
+            }
+        }
+        finally {
+            this.sendLock.unlock();
+        }
     }
     
     /**
-     * Receives a message from the server.
+     * Prints this client's per-cycle timing metrics. May be called at any time, from any thread.
+     */
+    public final void printMetrics() {
+        System.out.println("Metrics for " + this.player.render() + ": " + this.player.brain.metrics.render());
+    }
+    
+    /**
+     * Receives a message from the server into this client's receive buffer. The returned buffer
+     * is reused, so its contents are only valid until the next call. If the channel is in
+     * non-blocking mode and no message is waiting, the returned buffer is empty.
      * 
-     * @return message sent by the server
+     * @return a buffer whose remaining bytes hold the message sent by the server
      */
-    public String receiveMessage() {
-        byte[] buffer = new byte[Settings.MSG_SIZE];
-        DatagramPacket packet = new DatagramPacket(buffer, Settings.MSG_SIZE);
+    public ByteBuffer receive() {
+        this.receiveBuffer.clear();
         try {
-            soccerServerSocket.receive(packet);
-            if (soccerServerPort == Settings.INIT_PORT) {
-                soccerServerPort = packet.getPort();
+            SocketAddress sender = soccerServerChannel.receive(this.receiveBuffer);
+            if (sender != null && soccerServerPort == this.initPort) {
+                // The server answers `init` from a port dedicated to this player
+                soccerServerPort = ((InetSocketAddress) sender).getPort();
+                soccerServerAddress = new InetSocketAddress(soccerServerHost, soccerServerPort);
             }
         }
         catch (IOException e) {
-            System.err.println("socket receiving error " + e);
+            // Closing the channel from another thread interrupts a blocking receive
+            if (soccerServerChannel.isOpen()) {
+                System.err.println("socket receiving error " + e);
+            }
+            this.receiveBuffer.clear();
+        }
+        this.receiveBuffer.flip();
+        if (this.recorder != null && this.receiveBuffer.hasRemaining()) {
+            this.recorder.record(Recorder.RECEIVED, this.receiveBuffer);
         }
-        String message = new String(buffer);
-        if (!this.hideReceivedMessages) {
-            Log.d("RECEIVED: " + message);
+        if (!this.hideReceivedMessages && Log.isEnabled(Log.DEBUG)) {
+            Log.d("RECEIVED: " + Futil.decode(this.receiveBuffer));
         }
-        if (message.startsWith("(e")) {
-            Log.e(this.player.render() + " RECEIVED: " + message);
+        if (this.receiveBuffer.limit() > 1 && this.receiveBuffer.get(0) == '(' && this.receiveBuffer.get(1) == 'e') {
+            Log.e(this.player.render() + " RECEIVED: " + Futil.decode(this.receiveBuffer));
         }
-        return new String(buffer);
+        return this.receiveBuffer;
+    }
+    
+    /**
+     * Receives a message from the server.
+     * 
+     * @return message sent by the server
+     */
+    public String receiveMessage() {
+        return Futil.decode(this.receive());
     }
 
     /**
-     * Sends a properly-formatted message to the server.
+     * Sends a properly-formatted message to the server. Every command is encoded and sent holding
+     * this client's send lock, as it shares one send buffer. The lock is a `ReentrantLock` rather
+     * than a monitor so that a virtual thread blocked in the send does not pin its carrier.
      * 
      * @param command the command to send
      * @param args any amount of object arguments
      */
     public final void sendCommand(String command, Object... args) {
-        String partial = String.format("(%s", command);
-        for (Object arg : args) {
-            partial += ' ' + arg.toString();
+        this.sendLock.lock();
+        try {
+            this.beginCommand(command);
+            for (Object arg : args) {
+                this.sendBuffer.put((byte) ' ');
+                Futil.putAscii(this.sendBuffer, arg.toString());
+            }
+            this.endCommand();
+        }
+        finally {
+            this.sendLock.unlock();
+        }
+    }
+    
+    /**
+     * Sends a properly-formatted message with one numeric argument to the server.
+     * 
+     * @param command the command to send
+     * @param arg the argument
+     */
+    public final void sendCommand(String command, double arg) {
+        this.sendLock.lock();
+        try {
+            this.beginCommand(command);
+            this.sendBuffer.put((byte) ' ');
+            Futil.putDouble(this.sendBuffer, arg);
+            this.endCommand();
+        }
+        finally {
+            this.sendLock.unlock();
+        }
+    }
+    
+    /**
+     * Sends a properly-formatted message with two numeric arguments to the server.
+     * 
+     * @param command the command to send
+     * @param arg1 the first argument
+     * @param arg2 the second argument
+     */
+    public final void sendCommand(String command, double arg1, double arg2) {
+        this.sendLock.lock();
+        try {
+            this.beginCommand(command);
+            this.sendBuffer.put((byte) ' ');
+            Futil.putDouble(this.sendBuffer, arg1);
+            this.sendBuffer.put((byte) ' ');
+            Futil.putDouble(this.sendBuffer, arg2);
+            this.endCommand();
+        }
+        finally {
+            this.sendLock.unlock();
         }
-        partial += ")\0";
-        this.sendMessage(partial);
+    }
+    
+    /**
+     * Starts encoding a command into the send buffer.
+     * 
+     * @param command the command to send
+     */
+    private final void beginCommand(String command) {
+        this.sendBuffer.clear();
+        this.sendBuffer.put((byte) '(');
+        Futil.putAscii(this.sendBuffer, command);
+    }
+    
+    /**
+     * Finishes encoding the command in the send buffer and sends it.
+     */
+    private final void endCommand() {
+        this.sendBuffer.put((byte) ')');
+        this.sendBuffer.put((byte) 0);
+        this.sendBuffer.flip();
+        this.sendMessage(this.sendBuffer);
     }
     
     /**
      * Sends a message to the soccer server.
      * 
-     * @param message to send to the server
+     * @param message buffer whose remaining bytes hold the message to send
      */
-    private void sendMessage(String message) {
-    	Log.d("Sending: " + message);
-        byte[] buffer = message.getBytes();
-        DatagramPacket packet = new DatagramPacket(buffer, buffer.length, soccerServerHost, soccerServerPort);
+    protected void sendMessage(ByteBuffer message) {
+        if (Log.isEnabled(Log.DEBUG)) {
+            Log.d("Sending: " + Futil.decode(message));
+        }
+        if (this.recorder != null) {
+            this.recorder.record(Recorder.SENT, message);
+        }
         try {
-            soccerServerSocket.send(packet);
+            soccerServerChannel.send(message, soccerServerAddress);
         }
         catch (IOException e) {
-            System.err.println("socket sending error " + e);
+            // A command may still be sent after another thread has quit
+            if (soccerServerChannel.isOpen()) {
+                System.err.println("socket sending error " + e);
+            }
         }
     }
  }
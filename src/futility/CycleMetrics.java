@@ -0,0 +1,87 @@
+/** @file CycleMetrics.java
+ * Per-agent timing instrumentation.
+ * 
+ * @author Team F(utility)
+ */
+
+package futility;
+
+/**
+ * Measures how an agent keeps up with the server's 100 ms cycle: how long it takes to parse
+ * messages and pick a strategy, the latency from receiving a message to having sent the response,
+ * how `see` arrivals line up with `sense_body` arrivals, and how many time steps it skipped or
+ * responded to more than once. Durations are recorded in nanoseconds into histograms.
+ */
+public final class CycleMetrics {
+    /** Time from a message's receipt until the response to it was sent. */
+    public final Histogram latency = new Histogram();
+    /** Time spent parsing each message, excluding any response. */
+    public final Histogram parse = new Histogram();
+    /** Time spent determining the optimal strategy. */
+    public final Histogram strategy = new Histogram();
+    /** Time from a `sense_body` arrival to the next `see` arrival. */
+    public final Histogram seeOffset = new Histogram();
+    
+    private long cycles = 0;
+    private long missedCycles = 0;
+    private long doubledCycles = 0;
+    
+    /**
+     * Records that the brain responded in a time step.
+     * 
+     * @param time the time step responded in
+     * @param lastRan the time step of the previous response, or -1
+     */
+    public final void recordCycle(int time, int lastRan) {
+        this.cycles++;
+        if (lastRan < 0) {
+            return;
+        }
+        if (time > lastRan + 1) {
+            this.missedCycles += time - lastRan - 1;
+        }
+        else if (time == lastRan && time > 0) {
+            // Time stands still before kick-off, so only later repeats count
+            this.doubledCycles++;
+        }
+    }
+    
+    /**
+     * Gets the number of responses.
+     * 
+     * @return the number of time steps responded in
+     */
+    public final long cycles() {
+        return this.cycles;
+    }
+    
+    /**
+     * Gets the number of time steps skipped without a response.
+     * 
+     * @return the number of missed time steps
+     */
+    public final long missedCycles() {
+        return this.missedCycles;
+    }
+    
+    /**
+     * Gets the number of extra responses within an already-answered time step.
+     * 
+     * @return the number of doubled time steps
+     */
+    public final long doubledCycles() {
+        return this.doubledCycles;
+    }
+    
+    /**
+     * Renders a multi-line summary.
+     * 
+     * @return the summary
+     */
+    public final String render() {
+        return String.format("cycles=%d missed=%d doubled=%d%n  latency   %s%n  parse     %s%n"
+                + "  strategy  %s%n  see after sense_body %s", this.cycles, this.missedCycles,
+                this.doubledCycles, this.latency.renderMillis(), this.parse.renderMillis(),
+                this.strategy.renderMillis(), this.seeOffset.renderMillis());
+    }
+}
@@ -203,59 +203,51 @@ public abstract class FieldObject extends GameObject {
      * Updates this field object's last see info.
      * 
      * @param player the player whose brain is modeling this object
-     * @param info the object's info from the `see` message
+     * @param parser a `see` parser positioned on this object's entry
      * @param time the soccer server time from the `see` message
      */
-    public final void update(Player player, String info, int time) {
+    public final void update(Player player, SeeParser parser, int time) {
     	this.curInfo.copy(oldInfo);
         this.curInfo.reset();
         this.curInfo.time = time;
-        String[] args = Futil.extractArgs(info);
-        int offset = 0;  // indicates number of optional parameters read so far
-        if (args.length >= 3 && args[args.length - 1].equals("t")) {
-            this.curInfo.tackling = true;
-            offset++;
+        this.curInfo.tackling = parser.isTackling();
+        this.curInfo.kicking = parser.isKicking();
+        int numArgs = parser.numArgs();
+        // If there are at least three numeric arguments and an odd number of them, then the last
+        // one must be the pointingDir argument.
+        if (numArgs >= 3 && numArgs % 2 == 1) {
+            this.curInfo.pointingDir = parser.arg(numArgs - 1);
+            numArgs--;
         }
-        else if (args.length >= 3 && args[args.length - 1].equals("k")) {
-            this.curInfo.kicking = true;
-            offset++;
-        }
-        // If there was more than one argument and the number of arguments plus the offset mod 2
-        // is equal to 1, then the last argument (minus the current offset) must be the pointingDir
-        // argument.
-        if (args.length >= 3 && (args.length + offset) % 2 == 1) {
-            this.curInfo.pointingDir = Double.valueOf(args[args.length - 1 - offset]);
-            offset++;
-        }
-        switch(args.length - offset) {
+        switch(numArgs) {
         case 6:
-            this.curInfo.headFacingDir = Double.valueOf(args[5]);
+            this.curInfo.headFacingDir = parser.arg(5);
         case 5:
-            this.curInfo.bodyFacingDir = Double.valueOf(args[4]);
+            this.curInfo.bodyFacingDir = parser.arg(4);
         case 4:
-            this.curInfo.dirChange = Double.valueOf(args[3]);
+            this.curInfo.dirChange = parser.arg(3);
         case 3:
-            this.curInfo.distChange = Double.valueOf(args[2]);
+            this.curInfo.distChange = parser.arg(2);
         case 2:
-            this.curInfo.direction = Double.valueOf(args[1]);
-            this.curInfo.distance = Double.valueOf(args[0]);
+            this.curInfo.direction = parser.arg(1);
+            this.curInfo.distance = parser.arg(0);
             // Calculate this object's probable position
             if (!this.isStationaryObject()) {
-                double absDir = Math.toRadians(player.direction.getDirection() + this.curInfo.direction);
+                double absDir = player.direction.getDirection() + this.curInfo.direction;
                 double dist = this.curInfo.distance;
                 double px = player.position.getX();
                 double py = player.position.getY();
                 double confidence = player.position.getConfidence(time) * 0.95;
-                double x = px + dist * Math.cos(absDir);
-                double y = py + dist * Math.sin(absDir);
+                double x = px + dist * Futil.cosDeg(absDir);
+                double y = py + dist * Futil.sinDeg(absDir);
                 this.position.update(x, y, confidence, time);
             }
             break;   
         case 1:
-            this.curInfo.direction = Double.valueOf(args[0]);
+            this.curInfo.direction = parser.arg(0);
             break;
         default:
-            Log.e("Field object had " + args.length + " arguments.");
+            Log.e("Field object had %d arguments.", numArgs);
         }
         
         //calculate acceleration
@@ -271,7 +263,19 @@ public abstract class FieldObject extends GameObject {
      * @return the estimated velocity of this FieldObject
      */
     public VelocityVector velocity() {
-        return new VelocityVector(this.curInfo.distChange);
+        return this.velocity(new VelocityVector());
+    }
+    
+    /**
+     * Stores the estimated velocity of this FieldObject in a given vector. Overridden by Player class.
+     * The object's limits are unknown, so the observed distance change is not clamped to any.
+     * 
+     * @param out the vector to store the velocity in
+     * @return out
+     */
+    public VelocityVector velocity(VelocityVector out) {
+        out.set(this.curInfo.distChange, 0.0);
+        return out;
     }
     
     ///////////////////////////////////////////////////////////////////////////
@@ -6,6 +6,7 @@
 
 package futility;
 
+import java.nio.ByteBuffer;
 import java.util.LinkedList;
 
 /**
@@ -28,6 +29,94 @@ public final class Futil {
         return info.substring(beginIndex, endIndex).split("\\s");
     }
     
+    /**
+     * Decodes a raw message from the soccer server, stopping at the first NUL byte. The buffer's
+     * position and limit are not modified.
+     * 
+     * @param buffer a buffer whose remaining bytes hold the message
+     * @return the message as a string
+     */
+    public static final String decode(ByteBuffer buffer) {
+        int end = buffer.position();
+        while (end < buffer.limit() && buffer.get(end) != 0) {
+            end++;
+        }
+        char[] chars = new char[end - buffer.position()];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = (char) (buffer.get(buffer.position() + i) & 0xff);
+        }
+        return new String(chars);
+    }
+    
+    /**
+     * Writes a string into a buffer as ASCII bytes.
+     * 
+     * @param buffer the buffer to write to
+     * @param s the string to write
+     */
+    public static final void putAscii(ByteBuffer buffer, String s) {
+        for (int i = 0; i < s.length(); i++) {
+            buffer.put((byte) s.charAt(i));
+        }
+    }
+    
+    /**
+     * Writes a number into a buffer as ASCII decimal text with up to six decimal places, without
+     * allocating. Values that are not finite are written as 0.
+     * 
+     * @param buffer the buffer to write to
+     * @param value the number to write
+     */
+    public static final void putDouble(ByteBuffer buffer, double value) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            value = 0.0;
+        }
+        if (value < 0.0) {
+            buffer.put((byte) '-');
+            value = -value;
+        }
+        long scaled = Math.round(value * 1e6);
+        putLong(buffer, scaled / 1000000);
+        long fraction = scaled % 1000000;
+        if (fraction != 0) {
+            int digits = 6;
+            while (fraction % 10 == 0) {
+                fraction /= 10;
+                digits--;
+            }
+            buffer.put((byte) '.');
+            for (long div = pow10(digits - 1); div > 0; div /= 10) {
+                buffer.put((byte) ('0' + fraction / div));
+                fraction %= div;
+            }
+        }
+    }
+    
+    /**
+     * Writes a non-negative integer into a buffer as ASCII decimal text.
+     */
+    private static final void putLong(ByteBuffer buffer, long n) {
+        long div = 1;
+        while (div <= n / 10) {
+            div *= 10;
+        }
+        for (; div > 0; div /= 10) {
+            buffer.put((byte) ('0' + n / div));
+            n %= div;
+        }
+    }
+    
+    /**
+     * Returns 10 to the given non-negative power.
+     */
+    private static final long pow10(int n) {
+        long result = 1;
+        for (int i = 0; i < n; i++) {
+            result *= 10;
+        }
+        return result;
+    }
+    
     /**
      * Extracts object info strings from a `see` message.
      * 
@@ -73,21 +162,28 @@ public final class Futil {
      * @return estimated acceleration of the player in the given time step offset by the given offset
      */
     public static AccelerationVector estimateAccelerationOf(FieldObject obj, int timeOffset, int currentTime) {
-        if (timeOffset < -1) {
-            return AccelerationVector.ZeroVector();
-        }
-        else if (timeOffset == 1) {
-            if (obj.hasBrain()) {
-                Player player = (Player) obj;
-                return player.brain.acceleration;
-            }
-            else {
-                return AccelerationVector.ZeroVector();
-            }
+        return Futil.estimateAccelerationOf(obj, timeOffset, currentTime, new AccelerationVector());
+    }
+    
+    /**
+     * Estimates the acceleration of a FieldObject without allocating.
+     * 
+     * @param obj the object to estimate the acceleration of
+     * @param timeOffset time step offset from the current soccer server time step
+     * @param currentTime the current soccer server time step
+     * @param out the vector to store the estimate in
+     * @return out
+     */
+    public static AccelerationVector estimateAccelerationOf(FieldObject obj, int timeOffset, int currentTime,
+                                                           AccelerationVector out) {
+        if (timeOffset == 1 && obj.hasBrain()) {
+            Player player = (Player) obj;
+            out.set(player.brain.acceleration);
         }
         else {
-            return AccelerationVector.ZeroVector();
+            out.reset();
         }
+        return out;
     }
     
     /**
@@ -109,17 +205,48 @@ public final class Futil {
             return obj.position;
         }
         else {
-            PositionEstimate est = new PositionEstimate(obj.position);
+            return new PositionEstimate(Futil.estimatePositionOf(obj, timeOffset, currentTime, new Scratch()));
+        }
+    }
+    
+    /**
+     * Estimates the position of a FieldObject without allocating. The estimate is stored in the
+     * scratch's estimate register, and its velocity and acceleration registers are overwritten.
+     * A tracked ball is predicted in closed form by its BallTracker, which accounts for its decay.
+     * 
+     * @param obj the object to estimate the position of
+     * @param timeOffset time step offset from the current soccer server time step
+     * @param currentTime the current soccer server time step
+     * @param scratch the registers to work in
+     * @return the scratch's estimate register
+     */
+    public static PositionEstimate estimatePositionOf(FieldObject obj, int timeOffset, int currentTime,
+                                                      Scratch scratch) {
+        PositionEstimate est = scratch.estimate;
+        if (timeOffset < -1) {
+            est.update(Double.NaN, Double.NaN, 0.0, currentTime);
+        }
+        else if (timeOffset == -1) {
+            est.copy(obj.prevPosition);
+        }
+        else if (timeOffset > 0 && obj instanceof Ball && ((Ball) obj).tracker.isTracking()) {
+            // The same confidence a step at a time would arrive at
+            double confidence = obj.position.getConfidence(currentTime) * 0.95 * Math.pow(0.95 * 0.75, timeOffset - 1);
+            Point p = ((Ball) obj).tracker.position(currentTime + timeOffset, scratch.point);
+            est.update(p, confidence, currentTime + timeOffset - 1);
+        }
+        else {
+            est.copy(obj.position);
             for (int i=0; i<timeOffset; i++) {
-                VelocityVector v = Futil.estimateVelocityOf(obj, i, currentTime);
-                AccelerationVector a = Futil.estimateAccelerationOf(obj, i, currentTime);
+                VelocityVector v = Futil.estimateVelocityOf(obj, i, currentTime, scratch.velocity);
+                AccelerationVector a = Futil.estimateAccelerationOf(obj, i, currentTime, scratch.acceleration);
                 double x = est.getX() + v.getX() + a.getX();
                 double y = est.getY() + v.getY() + a.getY();
                 double confidence = est.getConfidence(currentTime + i) * 0.95;
                 est.update(x, y, confidence, currentTime + i);
             }
-            return est;
         }
+        return est;
     }
     
     /**
@@ -131,16 +258,28 @@ public final class Futil {
      * @return the estimated velocity of the object
      */
     public static VelocityVector estimateVelocityOf(FieldObject obj, int timeOffset, int currentTime) {
+        return Futil.estimateVelocityOf(obj, timeOffset, currentTime, new VelocityVector());
+    }
+    
+    /**
+     * Estimates the velocity of a FieldObject at some time offset without allocating.
+     * 
+     * @param obj the FieldObject to estimate the velocity for
+     * @param timeOffset offset from the current time step for the time step to estimate for
+     * @param currentTime the current soccer server time step
+     * @param out the vector to store the estimate in
+     * @return out
+     */
+    public static VelocityVector estimateVelocityOf(FieldObject obj, int timeOffset, int currentTime,
+                                                   VelocityVector out) {
         if (timeOffset < 0) {
-            return new VelocityVector();
-        }
-        else if (timeOffset == 0) {
-            return obj.velocity();
+            out.reset();
         }
         else {
             // Assume for now the object retains its current velocity vector into the future
-            return obj.velocity();
+            obj.velocity(out);
         }
+        return out;
     }
     
     /**
@@ -302,6 +441,123 @@ public final class Futil {
         return objects;
     }
     
+    // Trigonometric tables. The server reports directions in whole degrees, so sines and cosines
+    // are tabulated per degree and corrected for any fraction with a short Taylor series.
+    private static final double[] SIN_TABLE = new double[360];
+    private static final double[] COS_TABLE = new double[360];
+    // atan over [0, 1] in degrees, interpolated linearly; the error is below 1e-5 degrees.
+    private static final int ATAN_STEPS = 1024;
+    private static final double[] ATAN_TABLE = new double[ATAN_STEPS + 1];
+    static {
+        for (int i = 0; i < 360; i++) {
+            SIN_TABLE[i] = Math.sin(Math.toRadians(i));
+            COS_TABLE[i] = Math.cos(Math.toRadians(i));
+        }
+        for (int i = 0; i <= ATAN_STEPS; i++) {
+            ATAN_TABLE[i] = Math.toDegrees(Math.atan((double) i / ATAN_STEPS));
+        }
+    }
+    
+    /**
+     * Returns the sine of an angle in degrees, using a lookup table. Whole degrees are exact
+     * table entries; fractions of a degree are accurate to within 1e-12.
+     * 
+     * @param degrees an angle in degrees
+     * @return the sine of the angle
+     */
+    public static final double sinDeg(double degrees) {
+        if (Math.abs(degrees) > 1e9 || Double.isNaN(degrees)) {
+            return Math.sin(Math.toRadians(degrees));
+        }
+        double floor = Math.floor(degrees);
+        int i = (int) floor % 360;
+        if (i < 0) {
+            i += 360;
+        }
+        double d = Math.toRadians(degrees - floor);
+        if (d == 0.0) {
+            return SIN_TABLE[i];
+        }
+        double d2 = d * d;
+        // sin(a + d) = sin(a)cos(d) + cos(a)sin(d), with d below one degree
+        return SIN_TABLE[i] * (1.0 - d2 * (0.5 - d2 / 24.0)) + COS_TABLE[i] * d * (1.0 - d2 / 6.0 * (1.0 - d2 / 20.0));
+    }
+    
+    /**
+     * Returns the cosine of an angle in degrees, using a lookup table. Whole degrees are exact
+     * table entries; fractions of a degree are accurate to within 1e-12.
+     * 
+     * @param degrees an angle in degrees
+     * @return the cosine of the angle
+     */
+    public static final double cosDeg(double degrees) {
+        if (Math.abs(degrees) > 1e9 || Double.isNaN(degrees)) {
+            return Math.cos(Math.toRadians(degrees));
+        }
+        double floor = Math.floor(degrees);
+        int i = (int) floor % 360;
+        if (i < 0) {
+            i += 360;
+        }
+        double d = Math.toRadians(degrees - floor);
+        if (d == 0.0) {
+            return COS_TABLE[i];
+        }
+        double d2 = d * d;
+        // cos(a + d) = cos(a)cos(d) - sin(a)sin(d), with d below one degree
+        return COS_TABLE[i] * (1.0 - d2 * (0.5 - d2 / 24.0)) - SIN_TABLE[i] * d * (1.0 - d2 / 6.0 * (1.0 - d2 / 20.0));
+    }
+    
+    /**
+     * Returns the arc tangent of a value in degrees, using a lookup table. The result is within
+     * 1e-5 degrees of the exact value, and exact at 0, 1 and -1.
+     * 
+     * @param z the value
+     * @return the arc tangent of z, in degrees within [-90, 90]
+     */
+    public static final double atanDeg(double z) {
+        if (Double.isNaN(z)) {
+            return Double.NaN;
+        }
+        double a = Math.abs(z);
+        double angle = a <= 1.0 ? atanUnit(a) : 90.0 - atanUnit(1.0 / a);
+        return z < 0.0 ? -angle : angle;
+    }
+    
+    /**
+     * Returns the angle in degrees of the point (x, y) from the origin, using a lookup table. The
+     * result is within 1e-5 degrees of <code>Math.toDegrees(Math.atan2(y, x))</code>.
+     * 
+     * @param y the y-coordinate
+     * @param x the x-coordinate
+     * @return the angle of the point, in degrees within [-180, 180]
+     */
+    public static final double atan2Deg(double y, double x) {
+        if (x == 0.0 || y == 0.0 || Double.isNaN(x) || Double.isNaN(y)
+                || Double.isInfinite(x) || Double.isInfinite(y)) {
+            return Math.toDegrees(Math.atan2(y, x));
+        }
+        double ax = Math.abs(x);
+        double ay = Math.abs(y);
+        double angle = ay <= ax ? atanUnit(ay / ax) : 90.0 - atanUnit(ax / ay);
+        if (x < 0.0) {
+            angle = 180.0 - angle;
+        }
+        return y < 0.0 ? -angle : angle;
+    }
+    
+    /**
+     * Interpolates the arc tangent table for a value within [0, 1].
+     */
+    private static final double atanUnit(double z) {
+        double f = z * ATAN_STEPS;
+        int i = (int) f;
+        if (i >= ATAN_STEPS) {
+            return ATAN_TABLE[ATAN_STEPS];
+        }
+        return ATAN_TABLE[i] + (f - i) * (ATAN_TABLE[i + 1] - ATAN_TABLE[i]);
+    }
+    
     /**
      * Simplifies an angle to within [-180, 180] degrees.
      * 
@@ -323,15 +579,16 @@ public final class Futil {
      * moment. Assumes maximum moment <= 180.0 degrees and minimum moment >= -180.0 degrees.
      * 
      * @param angle target angle
+     * @param params the server parameters in effect
      * @return valid moment
      */
-    public static final double toValidMoment(double angle) {
+    public static final double toValidMoment(double angle, ServerParams params) {
         angle = simplifyAngle(angle);
-        if (angle > Settings.PLAYER_PARAMS.MOMENT_MAX) {
-            angle = Settings.PLAYER_PARAMS.MOMENT_MAX;
+        if (angle > params.PLAYER_PARAMS.MOMENT_MAX) {
+            angle = params.PLAYER_PARAMS.MOMENT_MAX;
         }
-        else if (angle < Settings.PLAYER_PARAMS.MOMENT_MIN) {
-            angle = Settings.PLAYER_PARAMS.MOMENT_MIN;
+        else if (angle < params.PLAYER_PARAMS.MOMENT_MIN) {
+            angle = params.PLAYER_PARAMS.MOMENT_MIN;
         }
         return angle;
     }
@@ -341,15 +598,12 @@ public final class Futil {
 	 * area. <br><br>
 	 * Uses the formula:<br>
 	 * \f$kickable_area = player_size + ball_size + kickable_margin\f$
-	 * <br><br>As defined by the server parameters.
+	 * <br><br>As defined by the player's type.
 	 * 
+	 * @param type the player's heterogeneous type
 	 * @return the kickable area radius.
 	 */
-	public static double kickable_radius() {
-		return  (
-			Settings.PLAYER_PARAMS.PLAYER_SIZE +
-			Settings.PLAYER_PARAMS.KICKABLE_MARGIN +
-            Settings.BALL_PARAMS.BALL_SIZE
-        );
+	public static double kickable_radius(PlayerType type) {
+		return type.KICKABLE_RADIUS;
 	}
 }
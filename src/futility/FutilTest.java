@@ -0,0 +1,65 @@
+/** @file FutilTest.java
+ * `Futil` trigonometry tests.
+ *
+ * @author Team F(utility)
+ */
+
+package futility;
+
+import static org.junit.Assert.*;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Container class for tests of the `Futil` trigonometric lookup tables.
+ */
+public class FutilTest {
+
+    /**
+     * Tests that sines and cosines of whole degrees match `Math`.
+     */
+    @Test
+    public void testWholeDegrees() {
+        for (int deg = -720; deg <= 720; deg++) {
+            assertEquals(Math.sin(Math.toRadians(deg)), Futil.sinDeg(deg), 1e-12);
+            assertEquals(Math.cos(Math.toRadians(deg)), Futil.cosDeg(deg), 1e-12);
+        }
+        assertEquals(1.0, Futil.sinDeg(90), 0);
+        assertEquals(1.0, Futil.cosDeg(0), 0);
+    }
+
+    /**
+     * Tests that sines and cosines of fractional angles match `Math`.
+     */
+    @Test
+    public void testFractionalDegrees() {
+        Random random = new Random(42);
+        for (int i = 0; i < 100000; i++) {
+            double deg = (random.nextDouble() - 0.5) * 1440.0;
+            assertEquals(Math.sin(Math.toRadians(deg)), Futil.sinDeg(deg), 1e-12);
+            assertEquals(Math.cos(Math.toRadians(deg)), Futil.cosDeg(deg), 1e-12);
+        }
+        assertTrue(Double.isNaN(Futil.sinDeg(Double.NaN)));
+    }
+
+    /**
+     * Tests that arc tangents are within the documented bound of `Math`.
+     */
+    @Test
+    public void testArcTangent() {
+        Random random = new Random(42);
+        for (int i = 0; i < 100000; i++) {
+            double x = (random.nextDouble() - 0.5) * 200.0;
+            double y = (random.nextDouble() - 0.5) * 200.0;
+            assertEquals(Math.toDegrees(Math.atan2(y, x)), Futil.atan2Deg(y, x), 1e-5);
+            assertEquals(Math.toDegrees(Math.atan(y / x)), Futil.atanDeg(y / x), 1e-5);
+        }
+        assertEquals(45.0, Futil.atanDeg(1.0), 0);
+        assertEquals(-45.0, Futil.atanDeg(-1.0), 0);
+        assertEquals(90.0, Futil.atanDeg(Double.POSITIVE_INFINITY), 0);
+        assertEquals(180.0, Futil.atan2Deg(0.0, -1.0), 0);
+        assertEquals(-90.0, Futil.atan2Deg(-3.0, 0.0), 0);
+    }
+}
@@ -27,14 +27,11 @@ public class Goal extends StationaryObject {
      * @return the goal's position
      */
     protected PositionEstimate setPosition() {
-    	//A switch{} would be better, but not sure if we will have JRE 1.7 available
-    	if (this.id == "(goal l)") {
-            return new PositionEstimate(-52.5, 0, 1.0, -1);
+        PositionEstimate position = StationaryObject.knownPosition(this.id);
+        if (position != null) {
+            return position;
         }
-    	else if (this.id == "(goal r)") {
-            return new PositionEstimate(52.5, 0, 1.0, -1);
-        }
-    	// Poor error handling
-    	return new PositionEstimate(-1.0, -1.0, 0.0, -1);
+        // Poor error handling
+        return new PositionEstimate(-1.0, -1.0, 0.0, -1);
     }
 }
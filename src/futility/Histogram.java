@@ -0,0 +1,148 @@
+/** @file Histogram.java
+ * Fixed-size log-linear histogram of durations.
+ * 
+ * @author Team F(utility)
+ */
+
+package futility;
+
+import java.util.Arrays;
+
+/**
+ * Histogram of non-negative long values, such as durations in nanoseconds, in the style of an
+ * HDR histogram: values below 128 get a bucket each, and every power of two above that is split
+ * into 64 equal buckets, so any value is reported within 1.6% of its true value. Recording is a
+ * few arithmetic operations on a preallocated array and never allocates.
+ * 
+ * A histogram is meant to be recorded by one thread. Reading it from another thread is safe but
+ * may see a recording in progress.
+ */
+public final class Histogram {
+    private static final int SUB_BUCKET_BITS = 6;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;  // per power of two
+    private static final int LINEAR_BUCKETS = 2 * SUB_BUCKETS;    // values recorded exactly
+    private static final int MAX_SHIFT = 40;  // values up to about 2^47 ns, or 39 hours
+    private static final int NUM_BUCKETS = LINEAR_BUCKETS + MAX_SHIFT * SUB_BUCKETS;
+    
+    private final long[] counts = new long[NUM_BUCKETS];
+    private long count = 0;
+    private long sum = 0;
+    private long max = 0;
+    
+    /**
+     * Records a value. Negative values are recorded as zero.
+     * 
+     * @param value the value to record
+     */
+    public final void record(long value) {
+        if (value < 0) {
+            value = 0;
+        }
+        this.counts[bucketOf(value)]++;
+        this.count++;
+        this.sum += value;
+        if (value > this.max) {
+            this.max = value;
+        }
+    }
+    
+    /**
+     * Clears every recorded value.
+     */
+    public final void reset() {
+        Arrays.fill(this.counts, 0);
+        this.count = 0;
+        this.sum = 0;
+        this.max = 0;
+    }
+    
+    /**
+     * Gets the number of recorded values.
+     * 
+     * @return the number of recorded values
+     */
+    public final long count() {
+        return this.count;
+    }
+    
+    /**
+     * Gets the largest recorded value.
+     * 
+     * @return the largest value, or 0 if nothing was recorded
+     */
+    public final long max() {
+        return this.max;
+    }
+    
+    /**
+     * Gets the mean of the recorded values.
+     * 
+     * @return the mean, or 0 if nothing was recorded
+     */
+    public final double mean() {
+        return this.count == 0 ? 0.0 : (double) this.sum / this.count;
+    }
+    
+    /**
+     * Gets the value at a percentile, as the upper bound of the bucket holding it.
+     * 
+     * @param percentile a percentile within [0, 100]
+     * @return the value at the percentile, or 0 if nothing was recorded
+     */
+    public final long percentile(double percentile) {
+        if (this.count == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(percentile / 100.0 * this.count);
+        if (rank < 1) {
+            rank = 1;
+        }
+        long seen = 0;
+        for (int i = 0; i < NUM_BUCKETS; i++) {
+            seen += this.counts[i];
+            if (seen >= rank) {
+                return Math.min(highestValueIn(i), this.max);
+            }
+        }
+        return this.max;
+    }
+    
+    /**
+     * Renders a one-line summary of durations recorded in nanoseconds, in milliseconds.
+     * 
+     * @return the summary
+     */
+    public final String renderMillis() {
+        return String.format("n=%d mean=%.3f p50=%.3f p90=%.3f p99=%.3f max=%.3f ms", this.count,
+                this.mean() / 1e6, this.percentile(50) / 1e6, this.percentile(90) / 1e6,
+                this.percentile(99) / 1e6, this.max / 1e6);
+    }
+    
+    /**
+     * Returns the index of the bucket holding a value.
+     */
+    private static int bucketOf(long value) {
+        if (value < LINEAR_BUCKETS) {
+            return (int) value;
+        }
+        // Keep the top SUB_BUCKET_BITS + 1 bits of the value
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        if (shift > MAX_SHIFT) {
+            return NUM_BUCKETS - 1;
+        }
+        int top = (int) (value >>> shift);  // within [SUB_BUCKETS, 2 * SUB_BUCKETS)
+        return LINEAR_BUCKETS + (shift - 1) * SUB_BUCKETS + (top - SUB_BUCKETS);
+    }
+    
+    /**
+     * Returns the largest value that falls in a bucket.
+     */
+    private static long highestValueIn(int bucket) {
+        if (bucket < LINEAR_BUCKETS) {
+            return bucket;
+        }
+        int shift = (bucket - LINEAR_BUCKETS) / SUB_BUCKETS + 1;
+        long top = SUB_BUCKETS + (bucket - LINEAR_BUCKETS) % SUB_BUCKETS;
+        return ((top + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,53 @@
+/** @file HistogramTest.java
+ * Unit tests for the Histogram class.
+ * 
+ * @author Team F(utility)
+ */
+
+package futility;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for the Histogram class.
+ */
+public class HistogramTest {
+
+    /**
+     * Tests that percentiles are reported within the histogram's precision.
+     */
+    @Test
+    public void testPercentile() {
+        Histogram histogram = new Histogram();
+        for (long i = 1; i <= 1000; i++) {
+            histogram.record(i * 1000);
+        }
+        assertEquals(1000, histogram.count());
+        assertEquals(1000000, histogram.max());
+        assertEquals(500500.0, histogram.mean(), 1e-9);
+        assertEquals(500000, histogram.percentile(50), 500000 * 0.016);
+        assertEquals(990000, histogram.percentile(99), 990000 * 0.016);
+        assertEquals(1000000, histogram.percentile(100));
+        assertEquals(1000, histogram.percentile(0), 1000 * 0.016);
+        histogram.reset();
+        assertEquals(0, histogram.percentile(50));
+    }
+    
+    /**
+     * Tests that missed and doubled time steps are counted.
+     */
+    @Test
+    public void testCycleCounts() {
+        CycleMetrics metrics = new CycleMetrics();
+        metrics.recordCycle(0, -1);
+        metrics.recordCycle(0, 0);
+        metrics.recordCycle(1, 0);
+        metrics.recordCycle(4, 1);
+        metrics.recordCycle(4, 4);
+        assertEquals(5, metrics.cycles());
+        assertEquals(2, metrics.missedCycles());
+        assertEquals(1, metrics.doubledCycles());
+    }
+}
@@ -0,0 +1,298 @@
+/** @file Interceptor.java
+ * Finds how soon players can reach a rolling ball.
+ *
+ * @author Team F(utility)
+ */
+
+package futility;
+
+/**
+ * Finds the earliest cycle at which a player can reach the ball, without simulating the player
+ * cycle by cycle. For each player type, a table holds the farthest a player can dash from a
+ * standstill in n cycles. A player reaches the ball after n cycles if the ball's position then,
+ * in closed form from its decay, is within that distance plus the kickable radius of where the
+ * player would drift to, once the cycles spent turning toward it are taken away.
+ *
+ * Once the ball is slower than a player can run, a player that can reach it can keep up with it,
+ * so whether the ball is reachable only changes once, from no to yes. The solver scans the few
+ * cycles before then and binary-searches the rest, checking each cycle in constant time. Positions
+ * and velocities are in field coordinates.
+ */
+public final class Interceptor {
+    /** The most cycles ahead that are searched. */
+    public static final int HORIZON = 100;
+    /** Returned for a player that cannot reach the ball within HORIZON cycles. */
+    public static final int NEVER = -1;
+
+    // Most turns a player takes to face anywhere, which one turn does from a standstill
+    private static final int MAX_TURNS = 3;
+    // Speed below which a player of unknown direction is assumed to need to turn
+    private static final double MOVING = 0.2;
+
+    private final double momentMax;
+    private final double ballDecay;
+    // Sum of the ball's decay over the first n cycles, the distance it rolls per unit of speed
+    private final double[] ballTravel = new double[HORIZON + 1];
+
+    // Tables of the player types seen so far, by ID
+    private PlayerType[] types = new PlayerType[0];
+    private double[][] dashTables = new double[0][];
+    private double[][] driftTables = new double[0][];
+
+    // The ball
+    private double ballX, ballY, ballVx, ballVy, ballSpeed;
+
+    // The player of the current query, its tables, and its body's direction as a unit vector
+    private PlayerType type;
+    private double[] dash, drift;
+    private double x, y, vx, vy, ux, uy;
+    private boolean facing;
+    // Cosines and sines of the angles the player's first one, two and three turns cover
+    private final double[] turnCos = new double[MAX_TURNS];
+    private final double[] turnSin = new double[MAX_TURNS];
+
+    /**
+     * Constructs an interceptor for the ball and turns of the given server parameters.
+     *
+     * @param params the server parameters in effect
+     */
+    public Interceptor(ServerParams params) {
+        this.momentMax = params.PLAYER_PARAMS.MOMENT_MAX;
+        this.ballDecay = params.BALL_PARAMS.BALL_DECAY;
+        for (int n = 0; n <= HORIZON; n++) {
+            this.ballTravel[n] = BallTracker.travel(this.ballDecay, n);
+        }
+    }
+
+    ///////////////////////////////////////////////////////////////////////////
+    // STATIC FUNCTIONS
+    ///////////////////////////////////////////////////////////////////////////
+    /**
+     * Tabulates the farthest a player can go in n cycles, starting at a standstill, by dashing
+     * at full power every cycle in a straight line.
+     *
+     * @param type the player's type
+     * @return the distances for n from 0 to HORIZON
+     */
+    public static final double[] dashTable(PlayerType type) {
+        double[] table = new double[HORIZON + 1];
+        double speed = 0.0;
+        for (int n = 1; n <= HORIZON; n++) {
+            speed = Math.min(type.PLAYER_SPEED_MAX, speed + type.DASH_ACCEL_MAX);
+            table[n] = table[n - 1] + speed;
+            speed *= type.PLAYER_DECAY;
+        }
+        return table;
+    }
+
+    ///////////////////////////////////////////////////////////////////////////
+    // METHODS
+    ///////////////////////////////////////////////////////////////////////////
+    /**
+     * Sets the ball's current position and velocity.
+     *
+     * @param x the ball's x-coordinate
+     * @param y the ball's y-coordinate
+     * @param vx the x-component of the ball's velocity
+     * @param vy the y-component of the ball's velocity
+     */
+    public final void setBall(double x, double y, double vx, double vy) {
+        this.ballX = x;
+        this.ballY = y;
+        this.ballVx = Double.isNaN(vx) ? 0.0 : vx;
+        this.ballVy = Double.isNaN(vy) ? 0.0 : vy;
+        this.ballSpeed = Math.hypot(this.ballVx, this.ballVy);
+    }
+
+    /**
+     * Gets the ball's x-coordinate after a number of cycles.
+     *
+     * @param n the number of cycles, up to HORIZON
+     * @return the x-coordinate
+     */
+    public final double ballX(int n) {
+        return this.ballX + this.ballVx * this.ballTravel[n];
+    }
+
+    /**
+     * Gets the ball's y-coordinate after a number of cycles.
+     *
+     * @param n the number of cycles, up to HORIZON
+     * @return the y-coordinate
+     */
+    public final double ballY(int n) {
+        return this.ballY + this.ballVy * this.ballTravel[n];
+    }
+
+    /**
+     * Finds the earliest cycle at which a player can have the ball within its kickable radius.
+     *
+     * @param type the player's type
+     * @param x the player's x-coordinate
+     * @param y the player's y-coordinate
+     * @param vx the x-component of the player's velocity
+     * @param vy the y-component of the player's velocity
+     * @param direction the player's body direction in degrees, or NaN if unknown
+     * @return the number of cycles from now, or NEVER
+     */
+    public final int cycles(PlayerType type, double x, double y, double vx, double vy, double direction) {
+        int id = this.tablesFor(type);
+        this.type = type;
+        this.dash = this.dashTables[id];
+        this.drift = this.driftTables[id];
+        this.x = x;
+        this.y = y;
+        this.vx = Double.isNaN(vx) || Double.isNaN(vy) ? 0.0 : vx;
+        this.vy = Double.isNaN(vx) || Double.isNaN(vy) ? 0.0 : vy;
+        double speed = Math.hypot(this.vx, this.vy);
+        if (Double.isNaN(direction) && speed > MOVING) {
+            direction = Futil.atan2Deg(this.vy, this.vx);
+        }
+        this.facing = !Double.isNaN(direction);
+        this.ux = this.facing ? Math.cos(Math.toRadians(direction)) : 0.0;
+        this.uy = this.facing ? Math.sin(Math.toRadians(direction)) : 0.0;
+        double covered = 0.0;
+        for (int k = 0; k < MAX_TURNS; k++) {
+            covered = Math.min(180.0, covered + this.momentMax / (1.0 + type.INERTIA_MOMENT * speed));
+            this.turnCos[k] = Math.cos(Math.toRadians(covered));
+            this.turnSin[k] = Math.sin(Math.toRadians(covered));
+            speed *= type.PLAYER_DECAY;
+        }
+        // Before the ball slows to the player's speed, it may pass within reach and then escape
+        int slow = this.ballSpeed <= type.REAL_SPEED_MAX ? 0
+                : (int) Math.ceil(Math.log(type.REAL_SPEED_MAX / this.ballSpeed) / Math.log(this.ballDecay));
+        slow = Math.min(slow, HORIZON);
+        for (int n = 0; n < slow; n++) {
+            if (this.canReach(n)) {
+                return n;
+            }
+        }
+        if (!this.canReach(HORIZON)) {
+            return NEVER;
+        }
+        int low = slow, high = HORIZON;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (this.canReach(mid)) {
+                high = mid;
+            }
+            else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Finds the earliest cycle at which each tracked player can reach the ball, assuming each is
+     * of the given type.
+     *
+     * @param tracker the tracked players
+     * @param type the type to assume
+     * @param team the team whose players to consider, or PlayerTracker.UNKNOWN for every track
+     * @param cycles the array to write each track's cycles into, indexed by track, or null
+     * @return the index of the track of the player that reaches the ball first, or -1 if none can
+     */
+    public final int fastest(PlayerTracker tracker, PlayerType type, int team, int[] cycles) {
+        int fastest = -1;
+        int best = Integer.MAX_VALUE;
+        for (int i = 0; i < tracker.size(); i++) {
+            if (team != PlayerTracker.UNKNOWN && tracker.getTeam(i) != team) {
+                continue;
+            }
+            int n = this.cycles(type, tracker.getX(i), tracker.getY(i), tracker.getVelocityX(i),
+                    tracker.getVelocityY(i), Double.NaN);
+            if (cycles != null) {
+                cycles[i] = n;
+            }
+            if (n != NEVER && n < best) {
+                best = n;
+                fastest = i;
+            }
+        }
+        return fastest;
+    }
+
+    /**
+     * Returns whether the player of the current query can reach the ball after a number of
+     * cycles.
+     *
+     * @param n the number of cycles
+     * @return true if the ball can be within the player's kickable radius
+     */
+    private final boolean canReach(int n) {
+        // Where the player would coast to, and how far the ball is from there
+        double dx = this.ballX + this.ballVx * this.ballTravel[n] - this.x - this.vx * this.drift[n];
+        double dy = this.ballY + this.ballVy * this.ballTravel[n] - this.y - this.vy * this.drift[n];
+        double distance = Math.sqrt(dx * dx + dy * dy);
+        double kickable = this.type.KICKABLE_RADIUS;
+        if (distance <= kickable) {
+            return true;
+        }
+        int dashes = n - this.turns(dx, dy, distance);
+        return dashes > 0 && distance <= this.dash[dashes] + kickable;
+    }
+
+    /**
+     * Counts the turns the player of the current query needs to face the ball closely enough to
+     * dash to it, comparing cosines with those of the angles its turns cover.
+     *
+     * @param dx the x-component of the offset to the ball from where the player coasts to
+     * @param dy the y-component of that offset
+     * @param distance the length of that offset, more than the kickable radius
+     * @return the number of turns
+     */
+    private final int turns(double dx, double dy, double distance) {
+        if (!this.facing) {
+            return 1;
+        }
+        // Facing closely enough when the angle to the ball is within a tolerance, whose sine is
+        // the kickable radius over the distance
+        double cos = (dx * this.ux + dy * this.uy) / distance;
+        double sinTolerance = this.type.KICKABLE_RADIUS / distance;
+        double cosTolerance = Math.sqrt(1.0 - sinTolerance * sinTolerance);
+        if (cos >= cosTolerance) {
+            return 0;
+        }
+        for (int k = 0; k < MAX_TURNS; k++) {
+            // Within k + 1 turns when the angle is within their width plus the tolerance
+            if (cosTolerance < -this.turnCos[k]
+                    || cos >= cosTolerance * this.turnCos[k] - sinTolerance * this.turnSin[k]) {
+                return k + 1;
+            }
+        }
+        return MAX_TURNS;
+    }
+
+    /**
+     * Gets the index of a player type's tables, building them the first time the type is seen.
+     *
+     * @param type the player type
+     * @return the index
+     */
+    private final int tablesFor(PlayerType type) {
+        int id = type.ID;
+        if (id < this.types.length && this.types[id] == type) {
+            return id;
+        }
+        if (id >= this.types.length) {
+            PlayerType[] types = new PlayerType[id + 1];
+            double[][] dashTables = new double[id + 1][];
+            double[][] driftTables = new double[id + 1][];
+            System.arraycopy(this.types, 0, types, 0, this.types.length);
+            System.arraycopy(this.dashTables, 0, dashTables, 0, this.dashTables.length);
+            System.arraycopy(this.driftTables, 0, driftTables, 0, this.driftTables.length);
+            this.types = types;
+            this.dashTables = dashTables;
+            this.driftTables = driftTables;
+        }
+        double[] drift = new double[HORIZON + 1];
+        for (int n = 0; n <= HORIZON; n++) {
+            drift[n] = BallTracker.travel(type.PLAYER_DECAY, n);
+        }
+        this.types[id] = type;
+        this.dashTables[id] = dashTable(type);
+        this.driftTables[id] = drift;
+        return id;
+    }
+}
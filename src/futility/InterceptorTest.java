@@ -0,0 +1,121 @@
+/** @file InterceptorTest.java
+ * Unit tests for the Interceptor class.
+ *
+ * @author Team F(utility)
+ */
+
+package futility;
+
+import static org.junit.Assert.*;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for the Interceptor class, against players simulated cycle by cycle the way the
+ * server moves them.
+ */
+public class InterceptorTest {
+    private static final PlayerType TYPE = ServerParams.DEFAULT.PLAYER_TYPE;
+    private static final double DECAY = ServerParams.DEFAULT.BALL_PARAMS.BALL_DECAY;
+
+    /**
+     * Simulates a player that turns toward a point whenever it would miss it by half its kickable
+     * radius, and otherwise dashes at it, and gets the first cycle the ball is within its kickable
+     * radius.
+     */
+    private static int simulate(double x, double y, double direction, double bx, double by, double bvx,
+            double bvy, double targetX, double targetY) {
+        double vx = 0.0, vy = 0.0;
+        for (int n = 0; n <= Interceptor.HORIZON; n++) {
+            if (Math.hypot(bx - x, by - y) <= TYPE.KICKABLE_RADIUS) {
+                return n;
+            }
+            double angle = Futil.atan2Deg(targetY - y, targetX - x);
+            double distance = Math.hypot(targetX - x, targetY - y);
+            double tolerance = Math.toDegrees(Math.asin(Math.min(1.0, 0.5 * TYPE.KICKABLE_RADIUS / distance)));
+            if (Math.abs(Futil.simplifyAngle(angle - direction)) > tolerance) {
+                direction = angle;
+            }
+            else if (distance > 0.1) {
+                vx += TYPE.DASH_ACCEL_MAX * Math.cos(Math.toRadians(direction));
+                vy += TYPE.DASH_ACCEL_MAX * Math.sin(Math.toRadians(direction));
+                double speed = Math.hypot(vx, vy);
+                if (speed > TYPE.PLAYER_SPEED_MAX) {
+                    vx *= TYPE.PLAYER_SPEED_MAX / speed;
+                    vy *= TYPE.PLAYER_SPEED_MAX / speed;
+                }
+            }
+            x += vx;
+            y += vy;
+            vx *= TYPE.PLAYER_DECAY;
+            vy *= TYPE.PLAYER_DECAY;
+            bx += bvx;
+            by += bvy;
+            bvx *= DECAY;
+            bvy *= DECAY;
+        }
+        return Interceptor.NEVER;
+    }
+
+    /**
+     * Tests that a still ball is reached after the dashes and turn it takes.
+     */
+    @Test
+    public void testStillBall() {
+        Interceptor interceptor = new Interceptor(ServerParams.DEFAULT);
+        double[] dash = Interceptor.dashTable(TYPE);
+        interceptor.setBall(10.0, 0.0, 0.0, 0.0);
+        int n = 0;
+        while (dash[n] + TYPE.KICKABLE_RADIUS < 10.0) {
+            n++;
+        }
+        assertEquals(n, interceptor.cycles(TYPE, 0.0, 0.0, 0.0, 0.0, 0.0));
+        assertEquals(n + 1, interceptor.cycles(TYPE, 0.0, 0.0, 0.0, 0.0, 180.0));
+        assertEquals(n + 1, interceptor.cycles(TYPE, 0.0, 0.0, 0.0, 0.0, Double.NaN));
+        assertEquals(0, interceptor.cycles(TYPE, 10.5, 0.0, 0.0, 0.0, 90.0));
+        interceptor.setBall(200.0, 0.0, 0.0, 0.0);
+        assertEquals(Interceptor.NEVER, interceptor.cycles(TYPE, 0.0, 0.0, 0.0, 0.0, 0.0));
+    }
+
+    /**
+     * Tests that a fast ball rolling past a player is met on its way, not after it stops.
+     */
+    @Test
+    public void testPassingBall() {
+        Interceptor interceptor = new Interceptor(ServerParams.DEFAULT);
+        interceptor.setBall(-20.0, 1.5, 2.7, 0.0);
+        int n = interceptor.cycles(TYPE, 0.0, 0.0, 0.0, 0.0, 90.0);
+        assertTrue(n > 0);
+        assertEquals(1.5, interceptor.ballY(n), 1e-9);
+        assertTrue(interceptor.ballX(n) < 0.0);
+    }
+
+    /**
+     * Tests that players simulated running at the point the interceptor gives reach the ball
+     * then, give or take a cycle.
+     */
+    @Test
+    public void testMatchesSimulation() {
+        Interceptor interceptor = new Interceptor(ServerParams.DEFAULT);
+        Random random = new Random(5L);
+        for (int trial = 0; trial < 200; trial++) {
+            double bx = random.nextDouble() * 60.0 - 30.0;
+            double by = random.nextDouble() * 40.0 - 20.0;
+            double speed = random.nextDouble() * 2.5;
+            double heading = random.nextDouble() * 2.0 * Math.PI;
+            double bvx = speed * Math.cos(heading);
+            double bvy = speed * Math.sin(heading);
+            double x = random.nextDouble() * 60.0 - 30.0;
+            double y = random.nextDouble() * 40.0 - 20.0;
+            double direction = random.nextDouble() * 360.0 - 180.0;
+            interceptor.setBall(bx, by, bvx, bvy);
+            int n = interceptor.cycles(TYPE, x, y, 0.0, 0.0, direction);
+            assertTrue(n != Interceptor.NEVER);
+            int simulated = simulate(x, y, direction, bx, by, bvx, bvy, interceptor.ballX(n), interceptor.ballY(n));
+            assertTrue(simulated != Interceptor.NEVER);
+            assertEquals(n, simulated, 1.0);
+        }
+    }
+}
@@ -0,0 +1,334 @@
+/** @file KickModel.java
+ * Models kicks, and plans the kicks that give the ball a velocity.
+ *
+ * @author Team F(utility)
+ */
+
+package futility;
+
+/**
+ * Models how a kick accelerates the ball, and finds the `kick` command that gives the ball a
+ * desired velocity. The server scales a kick's power by the kick power rate, reduced by a quarter
+ * at most for how far the ball is around from the front of the player's body, and by a quarter at
+ * most for how far it is into the kickable margin. The acceleration is capped at the ball's
+ * maximum, and added to the ball's velocity, whose speed is then capped too.
+ *
+ * So from a given state, one kick can give the ball any velocity within a disc around its current
+ * velocity, and the command for a velocity in it follows in closed form. When the velocity is
+ * outside the disc, the ball can first be kicked to a spot in the kickable area from which the
+ * second kick is stronger, such as right in front of the player. The spots are fixed in the
+ * player's body frame, so the rate of a kick from each is tabulated when the model is built.
+ * When the state is set, the fastest speed one or two kicks can reach in each of a number of
+ * directions is tabulated, along with the spot that reaches it, so that planners can then check
+ * and plan each of hundreds of targets in constant time.
+ */
+public final class KickModel {
+    /** Number of directions in which the fastest speeds are tabulated. */
+    public static final int DIRECTIONS = 72;
+
+    // Spots for the first of two kicks: distances into the kickable area and angles from the
+    // front of the body, and how far a spot is kept from the edges of the area
+    private static final int SPOT_DISTANCES = 3;
+    private static final int SPOT_ANGLES = 24;
+    private static final double SPOT_BUFFER = 0.1;
+
+    private final PlayerType type;
+    private final ServerParams params;
+    private final double powerMax;
+    private final double accelMax;
+    private final double speedMax;
+    private final double ballDecay;
+
+    // Spots in the body frame, and the most acceleration a kick from each can give
+    private final double[] spotX = new double[SPOT_DISTANCES * SPOT_ANGLES];
+    private final double[] spotY = new double[SPOT_DISTANCES * SPOT_ANGLES];
+    private final double[] spotReach = new double[SPOT_DISTANCES * SPOT_ANGLES];
+    private final double[] directionX = new double[DIRECTIONS];
+    private final double[] directionY = new double[DIRECTIONS];
+
+    // The state: the body's direction, the ball's velocity and how far one kick can change it
+    private double bodyDirection;
+    private double ballVx, ballVy;
+    private double rate, reach;
+    // Per spot, the velocity of a first kick to it in field coordinates, or NaN if no kick can
+    private final double[] firstVx = new double[SPOT_DISTANCES * SPOT_ANGLES];
+    private final double[] firstVy = new double[SPOT_DISTANCES * SPOT_ANGLES];
+    // The spots a first kick can reach, and the ball's velocity at each for the second kick
+    private final int[] feasibleSpot = new int[SPOT_DISTANCES * SPOT_ANGLES];
+    private final double[] secondVx = new double[SPOT_DISTANCES * SPOT_ANGLES];
+    private final double[] secondVy = new double[SPOT_DISTANCES * SPOT_ANGLES];
+    // Per direction, the fastest speed of one and of two kicks, and the spot of the first of two
+    private final double[] oneKickSpeed = new double[DIRECTIONS];
+    private final double[] twoKickSpeed = new double[DIRECTIONS];
+    private final int[] twoKickSpot = new int[DIRECTIONS];
+
+    // The first kick of the last plan
+    private double power, direction;
+
+    /**
+     * Builds a model of a player type's kicks.
+     *
+     * @param params the server parameters in effect
+     * @param type the kicking player's type
+     */
+    public KickModel(ServerParams params, PlayerType type) {
+        this.type = type;
+        this.params = params;
+        this.powerMax = params.PLAYER_PARAMS.POWER_MAX;
+        this.accelMax = params.BALL_PARAMS.BALL_ACCEL_MAX;
+        this.speedMax = params.BALL_PARAMS.BALL_SPEED_MAX;
+        this.ballDecay = params.BALL_PARAMS.BALL_DECAY;
+        double near = type.PLAYER_SIZE + params.BALL_PARAMS.BALL_SIZE + SPOT_BUFFER;
+        double far = type.KICKABLE_RADIUS - SPOT_BUFFER;
+        for (int i = 0; i < SPOT_DISTANCES; i++) {
+            double distance = near + (far - near) * i / Math.max(1, SPOT_DISTANCES - 1);
+            for (int j = 0; j < SPOT_ANGLES; j++) {
+                double angle = -180.0 + 360.0 * j / SPOT_ANGLES;
+                int spot = i * SPOT_ANGLES + j;
+                this.spotX[spot] = distance * Futil.cosDeg(angle);
+                this.spotY[spot] = distance * Futil.sinDeg(angle);
+                this.spotReach[spot] = Math.min(this.accelMax, this.powerMax
+                        * rate(type, params, distance, angle));
+            }
+        }
+        for (int k = 0; k < DIRECTIONS; k++) {
+            double angle = 360.0 * k / DIRECTIONS;
+            this.directionX[k] = Futil.cosDeg(angle);
+            this.directionY[k] = Futil.sinDeg(angle);
+        }
+    }
+
+    ///////////////////////////////////////////////////////////////////////////
+    // STATIC FUNCTIONS
+    ///////////////////////////////////////////////////////////////////////////
+    /**
+     * Gets the rate at which a kick's power accelerates the ball.
+     *
+     * @param type the kicking player's type
+     * @param params the server parameters in effect
+     * @param distance the distance from the player's center to the ball's
+     * @param angle the angle of the ball from the front of the player's body, in degrees
+     * @return the acceleration per unit of power, or 0 if the ball is out of reach
+     */
+    public static final double rate(PlayerType type, ServerParams params, double distance, double angle) {
+        double gap = Math.max(0.0, distance - type.PLAYER_SIZE - params.BALL_PARAMS.BALL_SIZE);
+        if (gap > type.KICKABLE_MARGIN) {
+            return 0.0;
+        }
+        double dirDiff = Math.abs(Futil.simplifyAngle(angle));
+        return type.KICK_POWER_RATE * (1.0 - 0.25 * dirDiff / 180.0 - 0.25 * gap / type.KICKABLE_MARGIN);
+    }
+
+    /**
+     * Gets the fastest speed along a direction within a disc of velocities.
+     *
+     * @param cx the x-component of the disc's center
+     * @param cy the y-component of the disc's center
+     * @param radius the disc's radius
+     * @param ux the x-component of the direction, a unit vector
+     * @param uy the y-component of the direction
+     * @return the speed, or 0 if no velocity along the direction is in the disc
+     */
+    private static final double fastestAlong(double cx, double cy, double radius, double ux, double uy) {
+        double along = cx * ux + cy * uy;
+        double across = cx * uy - cy * ux;
+        double discriminant = radius * radius - across * across;
+        return discriminant < 0.0 ? 0.0 : Math.max(0.0, along + Math.sqrt(discriminant));
+    }
+
+    ///////////////////////////////////////////////////////////////////////////
+    // METHODS
+    ///////////////////////////////////////////////////////////////////////////
+    /**
+     * Gets the player type this models.
+     *
+     * @return the player type
+     */
+    public final PlayerType getType() {
+        return this.type;
+    }
+
+    /**
+     * Gets the server parameters this models.
+     *
+     * @return the server parameters
+     */
+    public final ServerParams getParams() {
+        return this.params;
+    }
+
+    /**
+     * Sets the state of the kicking player and the ball, in field coordinates, and tabulates what
+     * one and two kicks can do from it.
+     *
+     * @param x the player's x-coordinate
+     * @param y the player's y-coordinate
+     * @param vx the x-component of the player's velocity
+     * @param vy the y-component of the player's velocity
+     * @param bodyDirection the direction of the player's body, in degrees
+     * @param ballX the ball's x-coordinate
+     * @param ballY the ball's y-coordinate
+     * @param ballVx the x-component of the ball's velocity
+     * @param ballVy the y-component of the ball's velocity
+     */
+    public final void setState(double x, double y, double vx, double vy, double bodyDirection, double ballX,
+            double ballY, double ballVx, double ballVy) {
+        if (Double.isNaN(vx) || Double.isNaN(vy)) {
+            vx = 0.0;
+            vy = 0.0;
+        }
+        if (Double.isNaN(ballVx) || Double.isNaN(ballVy)) {
+            ballVx = 0.0;
+            ballVy = 0.0;
+        }
+        this.bodyDirection = bodyDirection;
+        this.ballVx = ballVx;
+        this.ballVy = ballVy;
+        double dx = ballX - x;
+        double dy = ballY - y;
+        this.rate = rate(this.type, this.params, Math.hypot(dx, dy), Futil.atan2Deg(dy, dx) - bodyDirection);
+        this.reach = Math.min(this.accelMax, this.powerMax * this.rate);
+        // The spots move with the player, which coasts while it kicks
+        double cos = Futil.cosDeg(bodyDirection);
+        double sin = Futil.sinDeg(bodyDirection);
+        double nextX = x + vx - ballX;
+        double nextY = y + vy - ballY;
+        for (int spot = 0; spot < this.spotX.length; spot++) {
+            double fx = nextX + this.spotX[spot] * cos - this.spotY[spot] * sin;
+            double fy = nextY + this.spotX[spot] * sin + this.spotY[spot] * cos;
+            double kx = fx - ballVx;
+            double ky = fy - ballVy;
+            boolean feasible = kx * kx + ky * ky <= this.reach * this.reach && fx * fx + fy * fy <= this.speedMax * this.speedMax;
+            this.firstVx[spot] = feasible ? fx : Double.NaN;
+            this.firstVy[spot] = feasible ? fy : Double.NaN;
+        }
+        // Where each reachable spot leaves the ball's velocity for the second kick
+        int feasible = 0;
+        for (int spot = 0; spot < this.spotX.length; spot++) {
+            if (!Double.isNaN(this.firstVx[spot])) {
+                this.feasibleSpot[feasible] = spot;
+                this.secondVx[feasible] = this.firstVx[spot] * this.ballDecay;
+                this.secondVy[feasible] = this.firstVy[spot] * this.ballDecay;
+                feasible++;
+            }
+        }
+        for (int k = 0; k < DIRECTIONS; k++) {
+            double ux = this.directionX[k];
+            double uy = this.directionY[k];
+            this.oneKickSpeed[k] = Math.min(this.speedMax, fastestAlong(ballVx, ballVy, this.reach, ux, uy));
+            double best = 0.0;
+            int bestSpot = -1;
+            for (int f = 0; f < feasible; f++) {
+                int spot = this.feasibleSpot[f];
+                // Skip the square root when even the bound on the speed is no better
+                if (this.secondVx[f] * ux + this.secondVy[f] * uy + this.spotReach[spot] <= best) {
+                    continue;
+                }
+                double speed = fastestAlong(this.secondVx[f], this.secondVy[f], this.spotReach[spot], ux, uy);
+                if (speed > best) {
+                    best = speed;
+                    bestSpot = spot;
+                }
+            }
+            this.twoKickSpeed[k] = Math.min(this.speedMax, best);
+            this.twoKickSpot[k] = bestSpot;
+        }
+    }
+
+    /**
+     * Returns whether the ball can be kicked in the state that was set.
+     *
+     * @return true if the ball is within the kickable area
+     */
+    public final boolean isKickable() {
+        return this.rate > 0.0;
+    }
+
+    /**
+     * Gets the tabulated direction nearest to a direction.
+     *
+     * @param vx the x-component of the direction
+     * @param vy the y-component of the direction
+     * @return its index
+     */
+    private final int directionOf(double vx, double vy) {
+        double angle = Futil.atan2Deg(vy, vx);
+        int k = (int) Math.round((angle < 0.0 ? angle + 360.0 : angle) * DIRECTIONS / 360.0);
+        return k == DIRECTIONS ? 0 : k;
+    }
+
+    /**
+     * Gets the fastest speed the ball can be given along a direction, in one kick or two, to
+     * within the spacing of the tabulated directions.
+     *
+     * @param direction the direction, in degrees in field coordinates
+     * @return the speed
+     */
+    public final double fastest(double direction) {
+        int k = this.directionOf(Futil.cosDeg(direction), Futil.sinDeg(direction));
+        return Math.max(this.oneKickSpeed[k], this.twoKickSpeed[k]);
+    }
+
+    /**
+     * Plans the kicks that give the ball a velocity, and keeps the command of the first.
+     *
+     * @param vx the x-component of the velocity, in field coordinates
+     * @param vy the y-component of the velocity
+     * @return 1 if one kick gives the ball the velocity, 2 if a kick to a better spot first does,
+     *   and 0 if neither does, in which case the command is a full-power kick along the velocity
+     */
+    public final int plan(double vx, double vy) {
+        if (!this.isKickable()) {
+            this.power = 0.0;
+            this.direction = 0.0;
+            return 0;
+        }
+        double ax = vx - this.ballVx;
+        double ay = vy - this.ballVy;
+        if (ax * ax + ay * ay <= this.reach * this.reach && vx * vx + vy * vy <= this.speedMax * this.speedMax) {
+            this.command(ax, ay);
+            return 1;
+        }
+        int spot = this.twoKickSpot[this.directionOf(vx, vy)];
+        if (spot >= 0 && vx * vx + vy * vy <= this.speedMax * this.speedMax) {
+            double sx = vx - this.firstVx[spot] * this.ballDecay;
+            double sy = vy - this.firstVy[spot] * this.ballDecay;
+            if (sx * sx + sy * sy <= this.spotReach[spot] * this.spotReach[spot]) {
+                this.command(this.firstVx[spot] - this.ballVx, this.firstVy[spot] - this.ballVy);
+                return 2;
+            }
+        }
+        this.power = this.powerMax;
+        this.direction = Futil.simplifyAngle(Futil.atan2Deg(vy, vx) - this.bodyDirection);
+        return 0;
+    }
+
+    /**
+     * Sets the command for a kick that accelerates the ball.
+     *
+     * @param ax the x-component of the acceleration, in field coordinates
+     * @param ay the y-component of the acceleration
+     */
+    private final void command(double ax, double ay) {
+        this.power = Math.min(this.powerMax, Math.hypot(ax, ay) / this.rate);
+        this.direction = Futil.simplifyAngle(Futil.atan2Deg(ay, ax) - this.bodyDirection);
+    }
+
+    /**
+     * Gets the power of the first kick of the last plan.
+     *
+     * @return the power
+     */
+    public final double getPower() {
+        return this.power;
+    }
+
+    /**
+     * Gets the direction of the first kick of the last plan, relative to the player's body.
+     *
+     * @return the direction, in degrees
+     */
+    public final double getDirection() {
+        return this.direction;
+    }
+}
@@ -0,0 +1,88 @@
+/** @file KickModelTest.java
+ * Unit tests for the KickModel class.
+ *
+ * @author Team F(utility)
+ */
+
+package futility;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for the KickModel class, with kicks carried out the way the server carries them
+ * out. The player stands at the center spot facing along the x-axis.
+ */
+public class KickModelTest {
+    private static final ServerParams PARAMS = ServerParams.DEFAULT;
+    private static final PlayerType TYPE = PARAMS.PLAYER_TYPE;
+
+    /**
+     * Carries out a kick of a ball, returning its new velocity.
+     */
+    private static double[] kick(double ballX, double ballY, double ballVx, double ballVy, double power,
+            double direction) {
+        double rate = KickModel.rate(TYPE, PARAMS, Math.hypot(ballX, ballY), Futil.atan2Deg(ballY, ballX));
+        double accel = Math.min(power * rate, PARAMS.BALL_PARAMS.BALL_ACCEL_MAX);
+        double vx = ballVx + accel * Futil.cosDeg(direction);
+        double vy = ballVy + accel * Futil.sinDeg(direction);
+        double speed = Math.hypot(vx, vy);
+        double scale = speed > PARAMS.BALL_PARAMS.BALL_SPEED_MAX ? PARAMS.BALL_PARAMS.BALL_SPEED_MAX / speed : 1.0;
+        return new double[] {vx * scale, vy * scale};
+    }
+
+    /**
+     * Tests the rate of a kick's power.
+     */
+    @Test
+    public void testRate() {
+        double touching = TYPE.PLAYER_SIZE + PARAMS.BALL_PARAMS.BALL_SIZE;
+        assertEquals(TYPE.KICK_POWER_RATE, KickModel.rate(TYPE, PARAMS, touching, 0.0), 1e-12);
+        assertEquals(0.5 * TYPE.KICK_POWER_RATE,
+                KickModel.rate(TYPE, PARAMS, touching + TYPE.KICKABLE_MARGIN, 180.0), 1e-12);
+        assertEquals(0.0, KickModel.rate(TYPE, PARAMS, touching + TYPE.KICKABLE_MARGIN + 0.01, 0.0), 0.0);
+    }
+
+    /**
+     * Tests that a velocity within reach of one kick is given to the ball by the planned kick.
+     */
+    @Test
+    public void testOneKick() {
+        KickModel model = new KickModel(PARAMS, TYPE);
+        model.setState(0.0, 0.0, 0.0, 0.0, 0.0, 0.6, 0.3, 0.2, -0.1);
+        assertTrue(model.isKickable());
+        assertEquals(1, model.plan(-0.5, 1.2));
+        double[] v = kick(0.6, 0.3, 0.2, -0.1, model.getPower(), model.getDirection());
+        assertEquals(-0.5, v[0], 1e-6);
+        assertEquals(1.2, v[1], 1e-6);
+        assertTrue(model.fastest(112.6) >= 1.3);
+        model.setState(0.0, 0.0, 0.0, 0.0, 0.0, 3.0, 0.0, 0.0, 0.0);
+        assertFalse(model.isKickable());
+        assertEquals(0, model.plan(1.0, 0.0));
+    }
+
+    /**
+     * Tests that a fast kick of a ball behind the player is made by first kicking it to a better
+     * spot, and that the second kick then reaches the velocity.
+     */
+    @Test
+    public void testTwoKicks() {
+        KickModel model = new KickModel(PARAMS, TYPE);
+        double ballX = -0.9, ballY = 0.2;
+        model.setState(0.0, 0.0, 0.0, 0.0, 0.0, ballX, ballY, 0.0, 0.0);
+        double speed = PARAMS.BALL_PARAMS.BALL_SPEED_MAX;
+        assertTrue(model.fastest(0.0) >= speed - 1e-9);
+        assertEquals(2, model.plan(speed, 0.0));
+        double[] v = kick(ballX, ballY, 0.0, 0.0, model.getPower(), model.getDirection());
+        ballX += v[0];
+        ballY += v[1];
+        double ballVx = v[0] * PARAMS.BALL_PARAMS.BALL_DECAY;
+        double ballVy = v[1] * PARAMS.BALL_PARAMS.BALL_DECAY;
+        model.setState(0.0, 0.0, 0.0, 0.0, 0.0, ballX, ballY, ballVx, ballVy);
+        assertEquals(1, model.plan(speed, 0.0));
+        v = kick(ballX, ballY, ballVx, ballVy, model.getPower(), model.getDirection());
+        assertEquals(speed, v[0], 1e-6);
+        assertEquals(0.0, v[1], 1e-6);
+    }
+}
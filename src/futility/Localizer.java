@@ -0,0 +1,293 @@
+/** @file Localizer.java
+ * Self-localization from the flags and goals seen in a `see` message.
+ *
+ * @author Team F(utility)
+ */
+
+package futility;
+
+/**
+ * Estimates a player's position and body direction from every stationary object it sees at once,
+ * by weighted least squares. Each seen object is a point in the player's own frame (its distance
+ * along its direction) that must map onto the object's known position on the field. The rigid
+ * transformation that best maps all of them, weighting each by the inverse variance of the
+ * server's quantization of its distance and direction, has a closed form: the rotation comes from
+ * the weighted cross-covariance of the two point sets about their centroids, and the translation
+ * from the centroids. The cost is linear in the number of objects seen, with no iteration and no
+ * allocation.
+ *
+ * The confidence of an estimate reflects both how many objects were seen and how far they were,
+ * and how well they actually agreed: the expected error is scaled up when the residuals are
+ * larger than quantization alone explains.
+ */
+public final class Localizer {
+    /** The server's logarithmic distance quantization step for landmarks (quantize_step_l). */
+    public static final double QUANTIZE_STEP_L = 0.01;
+    /** The highest confidence an estimate is given. */
+    public static final double MAX_CONFIDENCE = 0.95;
+    /** Expected position error, in meters, at which confidence falls to 1/e of its maximum. */
+    public static final double CONFIDENCE_SCALE = 1.0;
+
+    // Field coordinates of the stationary objects, by ObjectIds index
+    private static final double[] FLAG_X = new double[Settings.STATIONARY_OBJECTS.length];
+    private static final double[] FLAG_Y = new double[Settings.STATIONARY_OBJECTS.length];
+    static {
+        for (int i = 0; i < Settings.STATIONARY_OBJECTS.length; i++) {
+            Point position = Settings.STATIONARY_OBJECTS[i].position.getPosition();
+            FLAG_X[i] = position.getX();
+            FLAG_Y[i] = position.getY();
+        }
+    }
+
+    // Half-widths of the rounding of distances (after the logarithmic step) and directions
+    private static final double DISTANCE_ROUNDING = 0.05;
+    private static final double DIRECTION_ROUNDING = Math.toRadians(0.5);
+    private static final double LOG_ROUNDING = Math.exp(QUANTIZE_STEP_L / 2.0) - 1.0;
+
+    // Observations in the player's frame
+    private final int[] index = new int[FLAG_X.length];
+    private final double[] px = new double[FLAG_X.length];
+    private final double[] py = new double[FLAG_X.length];
+    private final double[] weight = new double[FLAG_X.length];
+    private int count = 0;
+
+    // Latest estimate
+    private double x;
+    private double y;
+    private double direction;
+    private double error;
+    private double confidence;
+
+    ///////////////////////////////////////////////////////////////////////////
+    // STATIC FUNCTIONS
+    ///////////////////////////////////////////////////////////////////////////
+    /**
+     * Returns true if an ObjectIds index refers to a stationary object with a known position.
+     *
+     * @param index the index
+     * @return true if the index is of a flag or goal
+     */
+    public static final boolean isStationary(int index) {
+        return index >= 0 && index < FLAG_X.length;
+    }
+
+    /**
+     * Estimates the variance of the position of an object seen at a distance, from the rounding
+     * the server applies to its distance and direction. Rounding errors are uniform, so each
+     * half-width h contributes h * h / 3.
+     *
+     * @param distance the reported distance
+     * @return the variance, in square meters
+     */
+    public static final double variance(double distance) {
+        double radial = distance * LOG_ROUNDING + DISTANCE_ROUNDING;
+        double lateral = distance * DIRECTION_ROUNDING;
+        return (radial * radial + lateral * lateral) / 3.0;
+    }
+
+    /**
+     * Gets the confidence in a position estimate with an expected error.
+     *
+     * @param error the standard deviation of the estimate's position, in meters
+     * @return a confidence in [0, MAX_CONFIDENCE]
+     */
+    public static final double confidence(double error) {
+        return MAX_CONFIDENCE * Math.exp(-error / CONFIDENCE_SCALE);
+    }
+
+    ///////////////////////////////////////////////////////////////////////////
+    // METHODS
+    ///////////////////////////////////////////////////////////////////////////
+    /**
+     * Forgets every observation, such as at the start of a `see` message.
+     */
+    public final void reset() {
+        this.count = 0;
+    }
+
+    /**
+     * Records that a stationary object was seen. Later sightings of the same object replace
+     * earlier ones.
+     *
+     * @param index the object's ObjectIds index
+     * @param distance the reported distance
+     * @param direction the reported direction relative to the player's body, in degrees
+     */
+    public final void add(int index, double distance, double direction) {
+        if (!isStationary(index)) {
+            return;
+        }
+        int i = 0;
+        while (i < this.count && this.index[i] != index) {
+            i++;
+        }
+        if (i == this.count) {
+            this.count++;
+        }
+        this.index[i] = index;
+        this.px[i] = distance * Futil.cosDeg(direction);
+        this.py[i] = distance * Futil.sinDeg(direction);
+        this.weight[i] = 1.0 / variance(distance);
+    }
+
+    /**
+     * Gets the number of stationary objects recorded since the last reset.
+     *
+     * @return the number of observations
+     */
+    public final int count() {
+        return this.count;
+    }
+
+    /**
+     * Gets the x-coordinate of an observed object in the player's frame, along its body.
+     *
+     * @param i the observation, less than count()
+     * @return the coordinate, in meters
+     */
+    final double observedX(int i) {
+        return this.px[i];
+    }
+
+    /**
+     * Gets the y-coordinate of an observed object in the player's frame, to the right of its body,
+     * as the field's y-axis points down.
+     *
+     * @param i the observation, less than count()
+     * @return the coordinate, in meters
+     */
+    final double observedY(int i) {
+        return this.py[i];
+    }
+
+    /**
+     * Gets the known x-coordinate of an observed object on the field.
+     *
+     * @param i the observation, less than count()
+     * @return the coordinate, in meters
+     */
+    final double flagX(int i) {
+        return FLAG_X[this.index[i]];
+    }
+
+    /**
+     * Gets the known y-coordinate of an observed object on the field.
+     *
+     * @param i the observation, less than count()
+     * @return the coordinate, in meters
+     */
+    final double flagY(int i) {
+        return FLAG_Y[this.index[i]];
+    }
+
+    /**
+     * Gets the variance of an observed object's position.
+     *
+     * @param i the observation, less than count()
+     * @return the variance, in square meters
+     */
+    final double observedVariance(int i) {
+        return 1.0 / this.weight[i];
+    }
+
+    /**
+     * Estimates the position and direction that best explain the observations.
+     *
+     * @return false if fewer than two objects were seen, in which case there is no estimate
+     */
+    public final boolean solve() {
+        if (this.count < 2) {
+            return false;
+        }
+        // Weighted centroids of the observed points and of the known points
+        double w = 0.0, pcx = 0.0, pcy = 0.0, qcx = 0.0, qcy = 0.0;
+        for (int i = 0; i < this.count; i++) {
+            double wi = this.weight[i];
+            w += wi;
+            pcx += wi * this.px[i];
+            pcy += wi * this.py[i];
+            qcx += wi * FLAG_X[this.index[i]];
+            qcy += wi * FLAG_Y[this.index[i]];
+        }
+        pcx /= w;
+        pcy /= w;
+        qcx /= w;
+        qcy /= w;
+        // The rotation maximizing the weighted agreement of the centered points
+        double dot = 0.0, cross = 0.0, spread = 0.0;
+        for (int i = 0; i < this.count; i++) {
+            double ax = this.px[i] - pcx;
+            double ay = this.py[i] - pcy;
+            double bx = FLAG_X[this.index[i]] - qcx;
+            double by = FLAG_Y[this.index[i]] - qcy;
+            dot += this.weight[i] * (ax * bx + ay * by);
+            cross += this.weight[i] * (ax * by - ay * bx);
+            spread += this.weight[i] * (ax * ax + ay * ay);
+        }
+        if (spread <= 0.0) {
+            return false;
+        }
+        double cos = dot / Math.hypot(dot, cross);
+        double sin = cross / Math.hypot(dot, cross);
+        this.direction = Math.toDegrees(Math.atan2(sin, cos));
+        this.x = qcx - (cos * pcx - sin * pcy);
+        this.y = qcy - (sin * pcx + cos * pcy);
+        // Weighted residuals, relative to what quantization alone would explain
+        double chiSquare = 0.0;
+        for (int i = 0; i < this.count; i++) {
+            double rx = this.x + cos * this.px[i] - sin * this.py[i] - FLAG_X[this.index[i]];
+            double ry = this.y + sin * this.px[i] + cos * this.py[i] - FLAG_Y[this.index[i]];
+            chiSquare += this.weight[i] * (rx * rx + ry * ry);
+        }
+        int degrees = 2 * this.count - 3;
+        double scale = Math.max(1.0, chiSquare / degrees);
+        this.error = Math.sqrt(scale / w);
+        this.confidence = confidence(this.error);
+        return true;
+    }
+
+    /**
+     * Gets the estimated x-coordinate.
+     *
+     * @return the x-coordinate of the latest estimate
+     */
+    public final double getX() {
+        return this.x;
+    }
+
+    /**
+     * Gets the estimated y-coordinate.
+     *
+     * @return the y-coordinate of the latest estimate
+     */
+    public final double getY() {
+        return this.y;
+    }
+
+    /**
+     * Gets the estimated body direction.
+     *
+     * @return the direction of the latest estimate, in degrees in (-180, 180]
+     */
+    public final double getDirection() {
+        return this.direction;
+    }
+
+    /**
+     * Gets the expected error of the estimated position.
+     *
+     * @return the standard deviation of the latest estimate's position, in meters
+     */
+    public final double getError() {
+        return this.error;
+    }
+
+    /**
+     * Gets the confidence in the latest estimate.
+     *
+     * @return a confidence in [0, MAX_CONFIDENCE]
+     */
+    public final double getConfidence() {
+        return this.confidence;
+    }
+}
@@ -0,0 +1,76 @@
+/** @file LocalizerTest.java
+ * Unit tests for the Localizer class.
+ * 
+ * @author Team F(utility)
+ */
+
+package futility;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for the Localizer class.
+ */
+public class LocalizerTest {
+
+    /**
+     * Records what a player at a pose would see of every stationary object in front of it, with
+     * distances and directions quantized the way the server quantizes them.
+     */
+    private static Localizer see(double x, double y, double direction) {
+        Localizer localizer = new Localizer();
+        for (int i = 0; i < Settings.STATIONARY_OBJECTS.length; i++) {
+            Point flag = Settings.STATIONARY_OBJECTS[i].position.getPosition();
+            double dx = flag.getX() - x;
+            double dy = flag.getY() - y;
+            double relative = Futil.simplifyAngle(Math.toDegrees(Math.atan2(dy, dx)) - direction);
+            if (Math.abs(relative) <= 45.0) {
+                double distance = World.quantizeDistance(Math.hypot(dx, dy), World.QUANTIZE_STEP_L);
+                localizer.add(i, distance, Math.rint(relative));
+            }
+        }
+        return localizer;
+    }
+    
+    /**
+     * Tests that poses are recovered to within the precision of the server's quantization.
+     */
+    @Test
+    public void testSolve() {
+        double[][] poses = {{0, 0, 0}, {-30.2, 12.7, 160}, {41.0, -25.5, -95}, {-50, 30, -30}};
+        for (double[] pose : poses) {
+            Localizer localizer = see(pose[0], pose[1], pose[2]);
+            assertTrue(localizer.count() >= 2);
+            assertTrue(localizer.solve());
+            assertEquals(pose[0], localizer.getX(), 0.3);
+            assertEquals(pose[1], localizer.getY(), 0.3);
+            assertEquals(0.0, Futil.simplifyAngle(localizer.getDirection() - pose[2]), 0.5);
+            assertTrue(localizer.getConfidence() > 0.5);
+        }
+        assertFalse(new Localizer().solve());
+    }
+    
+    /**
+     * Tests that observations which disagree lower the confidence.
+     */
+    @Test
+    public void testConfidenceReflectsResiduals() {
+        Localizer localizer = see(10.0, -5.0, 20.0);
+        assertTrue(localizer.solve());
+        double confidence = localizer.getConfidence();
+        // Misreport the first object seen as 20 m further away
+        int index = -1;
+        for (int i = 0; i < Settings.STATIONARY_OBJECTS.length && index < 0; i++) {
+            Point flag = Settings.STATIONARY_OBJECTS[i].position.getPosition();
+            double relative = Futil.simplifyAngle(Math.toDegrees(Math.atan2(flag.getY() + 5.0, flag.getX() - 10.0)) - 20.0);
+            if (Math.abs(relative) <= 45.0) {
+                index = i;
+                localizer.add(i, flag.distanceTo(new Point(10.0, -5.0)) + 20.0, Math.rint(relative));
+            }
+        }
+        assertTrue(localizer.solve());
+        assertTrue(localizer.getConfidence() < confidence);
+    }
+}
@@ -6,8 +6,15 @@
 
 package futility;
 
+import java.util.ArrayList;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
 /**
- * Logging class.
+ * Logging class. Messages below the current verbosity cost only a comparison: the format-based
+ * methods defer building the message until the level is known to be enabled. Enabled messages
+ * are put on a bounded ring buffer and printed by a background thread, so an agent never waits
+ * on the console. If the buffer is full, messages are dropped and counted rather than blocking.
  */
 public final class Log {
 
@@ -17,13 +24,92 @@ public final class Log {
     public static int ERROR = 0;
     public static int NONE = -1;
     
+    private static final int CAPACITY = 8192;
+    private static final long SHUTDOWN_WAIT_MILLIS = 1000L;
+    private static final ArrayBlockingQueue<String> buffer = new ArrayBlockingQueue<String>(CAPACITY);
+    private static final AtomicLong dropped = new AtomicLong();
+    private static final Thread writer = new Thread(new Runnable() {
+        public void run() {
+            ArrayList<String> batch = new ArrayList<String>(CAPACITY);
+            while (true) {
+                try {
+                    batch.add(buffer.take());
+                }
+                catch (InterruptedException e) {
+                    return;
+                }
+                buffer.drainTo(batch);
+                write(batch);
+            }
+        }
+    }, "futility-log");
+    static {
+        writer.setDaemon(true);
+        writer.start();
+        // Print whatever is still buffered when the process exits, once the writer has finished
+        // the batch it is printing, so that nothing comes out of order
+        Runtime.getRuntime().addShutdownHook(new Thread(new Runnable() {
+            public void run() {
+                writer.interrupt();
+                try {
+                    writer.join(SHUTDOWN_WAIT_MILLIS);
+                }
+                catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                flush();
+            }
+        }, "futility-log-flush"));
+    }
+    
     /**
-     * Basic logging shortcut.
+     * Returns true if messages at the given verbosity are currently displayed.
+     * 
+     * @param verbosity a verbosity level
+     * @return true if the level is enabled
+     */
+    public static boolean isEnabled(int verbosity) {
+        return Settings.VERBOSITY >= verbosity;
+    }
+    
+    /**
+     * Basic logging shortcut; hands the message to the background writer.
      * 
      * @param message what to send to the standard output
      */
     private static void log(String message){
-    	 System.out.println(message);
+        if (!buffer.offer(message)) {
+            dropped.incrementAndGet();
+        }
+    }
+    
+    /**
+     * Prints a batch of messages taken from the buffer. Batches are printed one at a time, so
+     * that a flush never interleaves with the background writer.
+     */
+    private static synchronized void write(ArrayList<String> batch) {
+        StringBuilder out = new StringBuilder();
+        long numDropped = dropped.getAndSet(0);
+        if (numDropped > 0) {
+            out.append("ERROR: Dropped ").append(numDropped).append(" log messages.\n");
+        }
+        for (String message : batch) {
+            out.append(message).append('\n');
+        }
+        batch.clear();
+        System.out.print(out);
+        System.out.flush();
+    }
+    
+    /**
+     * Prints every buffered message now. Useful before the process exits.
+     */
+    public static void flush() {
+        ArrayList<String> batch = new ArrayList<String>();
+        buffer.drainTo(batch);
+        if (!batch.isEmpty() || dropped.get() > 0) {
+            write(batch);
+        }
     }
     
     /**
@@ -50,6 +136,20 @@ public final class Log {
         }
     }
     
+    /**
+     * Logs a formatted message with verbosity. The message is only formatted if the level is
+     * enabled, so arguments should be passed as-is rather than concatenated into the format.
+     * 
+     * @param verbosity the minimum verbosity level the message should display at
+     * @param format a format string, as for {@link String#format(String, Object...)}
+     * @param args the format arguments
+     */
+    public static void log(int verbosity, String format, Object... args) {
+        if (Settings.VERBOSITY >= verbosity) {
+            log(verbosity, String.format(format, args));
+        }
+    }
+    
     /**
      * Convenience method for calling {@link #log(int, String)} with 
      * the {@link #DEBUG} flag
@@ -59,6 +159,31 @@ public final class Log {
     	log(DEBUG, message);
     }
     
+    /**
+     * Logs a formatted message with the {@link #DEBUG} flag. Formats only if the level is enabled.
+     * 
+     * @param format a format string
+     * @param arg the format argument
+     */
+    public static void d(String format, Object arg) {
+        if (Settings.VERBOSITY >= DEBUG) {
+            log(DEBUG, String.format(format, arg));
+        }
+    }
+    
+    /**
+     * Logs a formatted message with the {@link #DEBUG} flag. Formats only if the level is enabled.
+     * 
+     * @param format a format string
+     * @param arg1 the first format argument
+     * @param arg2 the second format argument
+     */
+    public static void d(String format, Object arg1, Object arg2) {
+        if (Settings.VERBOSITY >= DEBUG) {
+            log(DEBUG, String.format(format, arg1, arg2));
+        }
+    }
+    
     /**
      * Convenience method for calling {@link #log(int, String)} with the {@link #INFO} flag
      * @param message the message to display
@@ -67,6 +192,31 @@ public final class Log {
     	log(INFO, message);
     }
     
+    /**
+     * Logs a formatted message with the {@link #INFO} flag. Formats only if the level is enabled.
+     * 
+     * @param format a format string
+     * @param arg the format argument
+     */
+    public static void i(String format, Object arg) {
+        if (Settings.VERBOSITY >= INFO) {
+            log(INFO, String.format(format, arg));
+        }
+    }
+    
+    /**
+     * Logs a formatted message with the {@link #INFO} flag. Formats only if the level is enabled.
+     * 
+     * @param format a format string
+     * @param arg1 the first format argument
+     * @param arg2 the second format argument
+     */
+    public static void i(String format, Object arg1, Object arg2) {
+        if (Settings.VERBOSITY >= INFO) {
+            log(INFO, String.format(format, arg1, arg2));
+        }
+    }
+    
     /**
      * Convenience method for calling {@link #log(int, String)} with the {@link #ERROR} flag
      * @param message the message to display
@@ -74,4 +224,29 @@ public final class Log {
     public static void e(String message){
     	log(ERROR, message);
     }
+    
+    /**
+     * Logs a formatted message with the {@link #ERROR} flag. Formats only if the level is enabled.
+     * 
+     * @param format a format string
+     * @param arg the format argument
+     */
+    public static void e(String format, Object arg) {
+        if (Settings.VERBOSITY >= ERROR) {
+            log(ERROR, String.format(format, arg));
+        }
+    }
+    
+    /**
+     * Logs a formatted message with the {@link #ERROR} flag. Formats only if the level is enabled.
+     * 
+     * @param format a format string
+     * @param arg1 the first format argument
+     * @param arg2 the second format argument
+     */
+    public static void e(String format, Object arg1, Object arg2) {
+        if (Settings.VERBOSITY >= ERROR) {
+            log(ERROR, String.format(format, arg1, arg2));
+        }
+    }
 }
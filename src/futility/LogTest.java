@@ -0,0 +1,55 @@
+/** @file LogTest.java
+ * `Log` tests.
+ *
+ * @author Team F(utility)
+ */
+
+package futility;
+
+import static org.junit.Assert.*;
+
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Container class for `Log` tests.
+ */
+public class LogTest {
+    private final int verbosity = Settings.VERBOSITY;
+
+    /**
+     * Counts how many times it is rendered.
+     */
+    private static class Counter {
+        int renders = 0;
+
+        public String toString() {
+            this.renders++;
+            return "counter";
+        }
+    }
+
+    @After
+    public void tearDown() {
+        Settings.VERBOSITY = this.verbosity;
+    }
+
+    /**
+     * Tests that formatted messages are only built when their level is enabled.
+     */
+    @Test
+    public void testFormatsLazily() {
+        Counter counter = new Counter();
+        Settings.VERBOSITY = Log.ERROR;
+        Log.d("Rendered %s", counter);
+        Log.i("Rendered %s and %s", counter, counter);
+        assertEquals(0, counter.renders);
+        assertFalse(Log.isEnabled(Log.DEBUG));
+
+        Settings.VERBOSITY = Log.DEBUG;
+        assertTrue(Log.isEnabled(Log.DEBUG));
+        Log.d("Rendered %s", counter);
+        assertEquals(1, counter.renders);
+        Log.flush();
+    }
+}
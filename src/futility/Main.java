@@ -6,6 +6,9 @@
 
 package futility;
 
+import java.io.IOException;
+import java.util.Arrays;
+
 /**
  * Contains start-up subroutines for initializing the game client according to
  * specified command-line parameters.
@@ -18,27 +21,48 @@ public class Main {
     * in the args.
     * 
     * The ability to activate multiple clients here is meant as a CPU-saving
-    * technique for development. When competing, use the separate spin-up
+    * technique for development: all of them share one JVM and either one
+    * selector thread (see AgentHost) or, with --threaded, one thread each
+    * (see ThreadedAgentHost). When competing, use the separate spin-up
     * script to ensure process isolation. 
     * 
     * @param args command-line arguments
     */
    public static void main(String[] args) {
        boolean customStart = false;
-       for (int i = 0; i < args.length; i++ )
-       {
-           // Depending on these settings, initialize one or more clients
-           if (args[i].equals("-c") || args[i].equals("--compete")) {
-               customStart = true;
-               startTeam(args);
-               startTeam(args, Settings.OTHER_TEAM_NAME);
+       boolean threaded = false;
+       AgentRuntime host = null;
+       for (int i = 0; i < args.length; i++ ) {
+           if (args[i].equals("-T") || args[i].equals("--threaded")) {
+               // Run each client on its own thread rather than behind a shared selector
+               threaded = true;
            }
-           else if (args[i].equals("-s") || args[i].equals("--start-team")) {
-               customStart = true;
-               startTeam(args);
+       }
+       try {
+           for (int i = 0; i < args.length; i++ )
+           {
+               // Depending on these settings, initialize one or more clients
+               if (args[i].equals("-c") || args[i].equals("--compete")) {
+                   customStart = true;
+                   host = threaded ? new ThreadedAgentHost() : new AgentHost();
+                   startTeam(host, args);
+                   startTeam(host, args, Settings.OTHER_TEAM_NAME);
+               }
+               else if (args[i].equals("-s") || args[i].equals("--start-team")) {
+                   customStart = true;
+                   host = threaded ? new ThreadedAgentHost() : new AgentHost();
+                   startTeam(host, args);
+               }
            }
        }
-       if (!customStart) {
+       catch (IOException e) {
+           Log.e("Could not start the agent host: " + e);
+           return;
+       }
+       if (customStart) {
+           host.run();
+       }
+       else {
            initClient(args);
        }
    }
@@ -55,38 +79,48 @@ public class Main {
    }
    
    /**
-    * Initialize a client for a specific team.
+    * Initializes a client in a shared agent runtime.
     * 
+    * @param host the runtime to run the client in
     * @param args arguments to treat as if they were command-line arguments
-    * @param teamName a team name to override any other defaults
+    * @param teamName a team name to override any other defaults, or null
+    * @throws IOException if the client could not be added to the host
     */
-   public static final void initClient(String[] args, String teamName) {
+   public static final void initClient(AgentRuntime host, String[] args, String teamName) throws IOException {
        Client client = new Client(args);
-       client.player.team.name = teamName;
-       client.init();
-       client.playForever();
+       if (teamName != null) {
+           client.player.team.name = teamName;
+       }
+       host.add(client);
    }
    
    /**
-    * Starts a team of clients with the given arguments.
+    * Starts a team of clients with the given arguments in a shared agent runtime. The last client
+    * started is the team's goalie.
     * 
+    * @param host the runtime to run the clients in
     * @param args command-line arguments to pass to the created clients
+    * @throws IOException if a client could not be added to the host
     */
-   public static final void startTeam(String[] args) {
-       for (int i=0; i<=10; i++) {
-           initClient(args);
-       }
+   public static final void startTeam(AgentRuntime host, String[] args) throws IOException {
+       startTeam(host, args, null);
    }
    
    /**
-    * Starts a team of clients with arguments and a team name.
+    * Starts a team of clients with arguments and a team name in a shared agent runtime. The last
+    * client started is the team's goalie.
     * 
+    * @param host the runtime to run the clients in
     * @param args command-line arguments to pass to the created clients
-    * @param teamName a team name to override all others
+    * @param teamName a team name to override all others, or null
+    * @throws IOException if a client could not be added to the host
     */
-   public static final void startTeam(String[] args, String teamName) {
-       for (int i=0; i<=10; i++) {
-           initClient(args, teamName);
+   public static final void startTeam(AgentRuntime host, String[] args, String teamName) throws IOException {
+       String[] goalieArgs = Arrays.copyOf(args, args.length + 1);
+       goalieArgs[args.length] = "--goalie";
+       for (int i=0; i<10; i++) {
+           initClient(host, args, teamName);
        }
+       initClient(host, goalieArgs, teamName);
    }
 }
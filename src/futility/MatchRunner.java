@@ -0,0 +1,344 @@
+/** @file MatchRunner.java
+ * Plays batches of matches concurrently and aggregates their results.
+ *
+ * @author Team F(utility)
+ */
+
+package futility;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Plays many matches between Settings.TEAM_NAME and Settings.OTHER_TEAM_NAME at once, so that a
+ * strategy change can be judged by its effect across hundreds of games. Each match is either
+ * simulated in memory (see Simulator) or played over UDP against a lockstep StandInServer on a
+ * port of its own, with its 22 clients assigned to that port and hosted by an AgentHost. Every
+ * match gets its own noise seed, and the scores, possession and missed cycles of all matches are
+ * aggregated into means with 95% confidence intervals.
+ *
+ * Run it with `java futility.MatchRunner [matches] [--cycles n] [--concurrency n] [--seed n]
+ * [--standin]`.
+ */
+public class MatchRunner {
+    public static final int DEFAULT_MATCHES = 20;
+    private static final long JOIN_TIMEOUT_MILLIS = 10000;
+
+    /** How each match is played. */
+    public static enum Mode {
+        /** In memory, by a Simulator. */
+        SIMULATED,
+        /** Over UDP, against a lockstep StandInServer. */
+        STANDIN
+    }
+
+    private final Mode mode;
+    private final int cycles;
+    private final int concurrency;
+
+    /**
+     * Primary constructor.
+     *
+     * @param mode how to play each match
+     * @param cycles how many cycles each match lasts
+     * @param concurrency how many matches to play at once
+     */
+    public MatchRunner(Mode mode, int cycles, int concurrency) {
+        this.mode = mode;
+        this.cycles = cycles;
+        this.concurrency = concurrency;
+    }
+
+    ///////////////////////////////////////////////////////////////////////////
+    // STATIC FUNCTIONS
+    ///////////////////////////////////////////////////////////////////////////
+    /**
+     * Plays a batch of matches and prints the aggregated results.
+     *
+     * @param args an optional number of matches, `--cycles n`, `--concurrency n`, `--seed n` for
+     *             the first match's seed, and `--standin` to play over UDP
+     */
+    public static void main(String[] args) {
+        int matches = DEFAULT_MATCHES;
+        int cycles = Simulator.DEFAULT_CYCLES;
+        int concurrency = Runtime.getRuntime().availableProcessors();
+        long seed = 0L;
+        Mode mode = Mode.SIMULATED;
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--cycles")) {
+                cycles = Integer.parseInt(args[++i]);
+            }
+            else if (args[i].equals("--concurrency")) {
+                concurrency = Integer.parseInt(args[++i]);
+            }
+            else if (args[i].equals("--seed")) {
+                seed = Long.parseLong(args[++i]);
+            }
+            else if (args[i].equals("--standin")) {
+                mode = Mode.STANDIN;
+            }
+            else {
+                matches = Integer.parseInt(args[i]);
+            }
+        }
+        Summary summary = new MatchRunner(mode, cycles, concurrency).run(matches, seed);
+        System.out.println(summary.render());
+    }
+
+    ///////////////////////////////////////////////////////////////////////////
+    // METHODS
+    ///////////////////////////////////////////////////////////////////////////
+    /**
+     * Plays a batch of matches, with consecutive seeds.
+     *
+     * @param matches how many matches to play
+     * @param firstSeed the first match's seed
+     * @return the aggregated results
+     */
+    public final Summary run(int matches, long firstSeed) {
+        ExecutorService workers = Executors.newFixedThreadPool(this.concurrency);
+        List<Future<Outcome>> futures = new ArrayList<Future<Outcome>>(matches);
+        long start = System.nanoTime();
+        for (int i = 0; i < matches; i++) {
+            final long seed = firstSeed + i;
+            futures.add(workers.submit(new Callable<Outcome>() {
+                public Outcome call() throws Exception {
+                    return play(seed);
+                }
+            }));
+        }
+        Summary summary = new Summary(this.cycles);
+        try {
+            for (Future<Outcome> future : futures) {
+                try {
+                    summary.add(future.get());
+                }
+                catch (ExecutionException e) {
+                    Log.e("Match failed: " + e.getCause());
+                    summary.failures++;
+                }
+            }
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        finally {
+            workers.shutdownNow();
+        }
+        summary.elapsedNanos = System.nanoTime() - start;
+        return summary;
+    }
+
+    /**
+     * Plays one match.
+     *
+     * @param seed the match's noise seed
+     * @return the match's outcome
+     * @throws IOException if a stand-in server cannot be started
+     * @throws InterruptedException if interrupted while waiting for a stand-in match
+     */
+    public final Outcome play(long seed) throws IOException, InterruptedException {
+        if (this.mode == Mode.STANDIN) {
+            return this.playStandIn(seed);
+        }
+        return this.playSimulated(seed);
+    }
+
+    /**
+     * Plays one match in memory. Matches already run concurrently, so each is simulated on a
+     * single thread.
+     *
+     * @param seed the match's noise seed
+     * @return the match's outcome
+     */
+    private final Outcome playSimulated(long seed) {
+        Simulator simulator = new Simulator(1, seed);
+        try {
+            Simulator.Result result = simulator.play(this.cycles);
+            return new Outcome(seed, simulator.world(), simulator.clients(), result.elapsedNanos);
+        }
+        finally {
+            simulator.close();
+        }
+    }
+
+    /**
+     * Plays one match over UDP against a stand-in server on a free port.
+     *
+     * @param seed the match's noise seed
+     * @return the match's outcome
+     * @throws IOException if the server or a client cannot be started
+     * @throws InterruptedException if interrupted while waiting for the match
+     */
+    private final Outcome playStandIn(long seed) throws IOException, InterruptedException {
+        StandInServer server = new StandInServer(0, true, seed);
+        new Thread(server, "futility-stand-in-server-" + seed).start();
+        AgentHost host = new AgentHost(2);
+        new Thread(host, "futility-agent-host-" + seed).start();
+        List<Client> clients = new ArrayList<Client>(22);
+        try {
+            String port = Integer.toString(server.getPort());
+            for (String team : new String[] {Settings.TEAM_NAME, Settings.OTHER_TEAM_NAME}) {
+                for (int i = 1; i <= 11; i++) {
+                    String[] args = i < 11
+                            ? new String[] {"--synch", "--team", team, "--port", port}
+                            : new String[] {"--synch", "--team", team, "--port", port, "--goalie"};
+                    Client client = new Client(args);
+                    host.add(client);
+                    clients.add(client);
+                }
+            }
+            long deadline = System.currentTimeMillis() + JOIN_TIMEOUT_MILLIS;
+            while (server.world().agents().size() < clients.size()) {
+                if (System.currentTimeMillis() > deadline) {
+                    throw new IOException("Only " + server.world().agents().size() + " players joined");
+                }
+                Thread.sleep(10);
+            }
+            // Give the players a moment to take their positions
+            Thread.sleep(200);
+            long start = System.nanoTime();
+            server.kickOff();
+            long timeout = this.cycles * StandInServer.LOCKSTEP_TIMEOUT_NANOS / 1000000 + JOIN_TIMEOUT_MILLIS;
+            if (!server.awaitTime(this.cycles, timeout)) {
+                throw new IOException("Match stalled at time step " + server.time());
+            }
+            return new Outcome(seed, server.world(), clients, System.nanoTime() - start);
+        }
+        finally {
+            for (Client client : clients) {
+                client.quit();
+            }
+            host.stop();
+            server.stop();
+        }
+    }
+
+    /**
+     * The outcome of one match.
+     */
+    public static final class Outcome {
+        /** The match's noise seed. */
+        public final long seed;
+        /** Goals scored by the left team, Settings.TEAM_NAME. */
+        public final int leftScore;
+        /** Goals scored by the right team, Settings.OTHER_TEAM_NAME. */
+        public final int rightScore;
+        /** The fraction of possession the left team had. */
+        public final double leftPossession;
+        /** Time steps skipped by all players together. */
+        public final long missedCycles;
+        /** Time spent playing the match, in nanoseconds. */
+        public final long elapsedNanos;
+
+        /**
+         * Takes the outcome of a match from its world and clients.
+         *
+         * @param seed the match's noise seed
+         * @param world the world the match was played in
+         * @param clients every player's client
+         * @param elapsedNanos time spent playing the match, in nanoseconds
+         */
+        Outcome(long seed, World world, List<? extends Client> clients, long elapsedNanos) {
+            this.seed = seed;
+            this.leftScore = world.score(Settings.LEFT_SIDE);
+            this.rightScore = world.score(Settings.RIGHT_SIDE);
+            int left = world.possession(Settings.LEFT_SIDE);
+            int total = left + world.possession(Settings.RIGHT_SIDE);
+            this.leftPossession = total > 0 ? (double) left / total : 0.5;
+            long missed = 0;
+            for (Client client : clients) {
+                missed += client.player.brain.metrics.missedCycles();
+            }
+            this.missedCycles = missed;
+            this.elapsedNanos = elapsedNanos;
+        }
+    }
+
+    /**
+     * Aggregated results of a batch of matches, from the left team's point of view.
+     */
+    public static final class Summary {
+        /** How many cycles each match lasted. */
+        public final int cycles;
+        /** Every match's outcome, in the order the matches were started. */
+        public final List<Outcome> outcomes = new ArrayList<Outcome>();
+        /** Goals scored minus goals conceded. */
+        public final Statistic goalDifference = new Statistic();
+        /** Goals scored. */
+        public final Statistic goalsFor = new Statistic();
+        /** Goals conceded. */
+        public final Statistic goalsAgainst = new Statistic();
+        /** Points per match: 1 for a win, 0.5 for a draw and 0 for a loss. */
+        public final Statistic points = new Statistic();
+        /** The fraction of possession. */
+        public final Statistic possession = new Statistic();
+        /** Time steps skipped by all players together. */
+        public final Statistic missedCycles = new Statistic();
+        /** How many matches failed to complete. */
+        public int failures = 0;
+        /** Time spent playing the whole batch, in nanoseconds. */
+        public long elapsedNanos = 0;
+
+        /**
+         * Primary constructor.
+         *
+         * @param cycles how many cycles each match lasts
+         */
+        Summary(int cycles) {
+            this.cycles = cycles;
+        }
+
+        /**
+         * Adds a match's outcome.
+         *
+         * @param outcome the outcome
+         */
+        final void add(Outcome outcome) {
+            this.outcomes.add(outcome);
+            int difference = outcome.leftScore - outcome.rightScore;
+            this.goalDifference.add(difference);
+            this.goalsFor.add(outcome.leftScore);
+            this.goalsAgainst.add(outcome.rightScore);
+            this.points.add(difference > 0 ? 1.0 : difference == 0 ? 0.5 : 0.0);
+            this.possession.add(outcome.leftPossession);
+            this.missedCycles.add(outcome.missedCycles);
+        }
+
+        /**
+         * Renders the aggregated results, with 95% confidence intervals.
+         *
+         * @return a multi-line summary
+         */
+        public final String render() {
+            int wins = 0;
+            int draws = 0;
+            for (Outcome outcome : this.outcomes) {
+                if (outcome.leftScore > outcome.rightScore) {
+                    wins++;
+                }
+                else if (outcome.leftScore == outcome.rightScore) {
+                    draws++;
+                }
+            }
+            StringBuilder s = new StringBuilder();
+            s.append(String.format("%d matches of %d cycles in %.1f s (%d failed)%n", this.outcomes.size(),
+                    this.cycles, this.elapsedNanos / 1e9, this.failures));
+            s.append(String.format("%s vs %s: %d won, %d drawn, %d lost%n", Settings.TEAM_NAME,
+                    Settings.OTHER_TEAM_NAME, wins, draws, this.outcomes.size() - wins - draws));
+            s.append(String.format("  points         %s%n", this.points.render()));
+            s.append(String.format("  goal diff      %s%n", this.goalDifference.render()));
+            s.append(String.format("  goals for      %s%n", this.goalsFor.render()));
+            s.append(String.format("  goals against  %s%n", this.goalsAgainst.render()));
+            s.append(String.format("  possession     %s%n", this.possession.render()));
+            s.append(String.format("  missed cycles  %s", this.missedCycles.render()));
+            return s.toString();
+        }
+    }
+}
@@ -0,0 +1,221 @@
+/** @file ObjectIds.java
+ * Registry mapping ObjectIds to small integer indices.
+ *
+ * @author Team F(utility)
+ */
+
+package futility;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Maps ObjectIds such as "(f r t 30)" to small integer indices, so field objects can be stored in
+ * a dense array. Lookups walk a byte-wise trie, which recognizes an id straight from the bytes of
+ * a message without hashing or allocating. Every registry starts with the stationary objects (at
+ * the same indices as {@link Settings#STATIONARY_OBJECTS}) and the ball; other ids, such as
+ * players, are added as they are first seen.
+ */
+public final class ObjectIds {
+    /** Maximum number of distinct ids a registry can hold. */
+    public static final int CAPACITY = 256;
+    /** Index of the ball, which is reported as both (b) and (B). */
+    public static final int BALL = Settings.STATIONARY_OBJECTS.length;
+
+    /** Shared read-only registry of the stationary objects and the ball. New ids cannot be
+     *  registered in it, so it is safe to read from any thread. */
+    public static final ObjectIds STATIONARY = new ObjectIds().freeze();
+
+    private static final int NONE = -1;
+
+    // Trie nodes, stored as first-child / next-sibling lists. Node 0 is the root.
+    private byte[] label = new byte[1024];
+    private int[] child = new int[1024];
+    private int[] sibling = new int[1024];
+    private int[] value = new int[1024];
+    private int numNodes = 1;
+
+    // Per-index data
+    private final String[] names = new String[CAPACITY];
+    private final boolean[] unique = new boolean[CAPACITY];
+    private int numIds = 0;
+    private boolean frozen = false;  // whether new ids are refused
+
+    ///////////////////////////////////////////////////////////////////////////
+    // CONSTRUCTORS
+    ///////////////////////////////////////////////////////////////////////////
+    /**
+     * Builds a registry holding the stationary objects and the ball.
+     */
+    public ObjectIds() {
+        this.child[0] = NONE;
+        this.sibling[0] = NONE;
+        this.value[0] = NONE;
+        for (int i = 0; i < Settings.STATIONARY_OBJECTS.length; i++) {
+            this.intern(Settings.STATIONARY_OBJECTS[i].id);
+        }
+        this.intern(Ball.ID);
+        this.alias("(B)", BALL);
+        // Goals as named by older protocol versions
+        this.alias("(goal l)", this.find("(g l)"));
+        this.alias("(goal r)", this.find("(g r)"));
+    }
+
+    ///////////////////////////////////////////////////////////////////////////
+    // LOOKUPS
+    ///////////////////////////////////////////////////////////////////////////
+    /**
+     * Gets the index of an id without registering it.
+     *
+     * @param id an ObjectId
+     * @return the id's index, or -1 if it is unknown
+     */
+    public final int find(String id) {
+        int node = 0;
+        for (int i = 0; i < id.length() && node != NONE; i++) {
+            node = this.findChild(node, (byte) id.charAt(i));
+        }
+        return node == NONE ? NONE : this.value[node];
+    }
+
+    /**
+     * Gets the index of an id, registering it if it is new.
+     *
+     * @param id an ObjectId
+     * @return the id's index, or -1 if the registry is full
+     * @throws UnsupportedOperationException if the id is new and the registry is read-only
+     */
+    public final int intern(String id) {
+        int index = this.find(id);
+        if (index != NONE) {
+            return index;
+        }
+        if (this.frozen) {
+            throw new UnsupportedOperationException("Cannot register " + id + " in a read-only registry.");
+        }
+        if (this.numIds == CAPACITY) {
+            return NONE;
+        }
+        index = this.numIds++;
+        this.names[index] = id;
+        this.unique[index] = Futil.isUniqueFieldObject(id);
+        this.alias(id, index);
+        return index;
+    }
+
+    /**
+     * Gets the index of the id held in a range of a buffer, registering it if it is new. Only new
+     * ids allocate.
+     *
+     * @param buffer a buffer holding the id
+     * @param start index of the id's opening parenthesis
+     * @param end index following the id's closing parenthesis
+     * @return the id's index, or -1 if the registry is full
+     * @throws UnsupportedOperationException if the id is new and the registry is read-only
+     */
+    public final int intern(ByteBuffer buffer, int start, int end) {
+        int node = 0;
+        for (int i = start; i < end && node != NONE; i++) {
+            node = this.findChild(node, buffer.get(i));
+        }
+        if (node != NONE && this.value[node] != NONE) {
+            return this.value[node];
+        }
+        char[] chars = new char[end - start];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = (char) (buffer.get(start + i) & 0xff);
+        }
+        return this.intern(new String(chars));
+    }
+
+    /**
+     * Gets the canonical id for an index.
+     *
+     * @param index an index returned by this registry
+     * @return the canonical ObjectId, e.g. "(b)" for the ball
+     */
+    public final String name(int index) {
+        return this.names[index];
+    }
+
+    /**
+     * Returns true if the id at an index identifies a unique field object.
+     *
+     * @param index an index returned by this registry
+     * @return true if the id is specific enough to identify a unique field object
+     * @see Futil#isUniqueFieldObject(String)
+     */
+    public final boolean isUnique(int index) {
+        return this.unique[index];
+    }
+
+    /**
+     * Gets the number of ids in this registry.
+     *
+     * @return the number of ids
+     */
+    public final int size() {
+        return this.numIds;
+    }
+
+    ///////////////////////////////////////////////////////////////////////////
+    // TRIE
+    ///////////////////////////////////////////////////////////////////////////
+    /**
+     * Makes this registry refuse new ids, so that it can be shared between threads.
+     *
+     * @return this registry
+     */
+    private final ObjectIds freeze() {
+        this.frozen = true;
+        return this;
+    }
+
+    /**
+     * Returns the child of a node with the given label, or -1.
+     */
+    private final int findChild(int node, byte b) {
+        int c = this.child[node];
+        while (c != NONE && this.label[c] != b) {
+            c = this.sibling[c];
+        }
+        return c;
+    }
+
+    /**
+     * Makes an id resolve to an existing index.
+     */
+    private final void alias(String id, int index) {
+        int node = 0;
+        for (int i = 0; i < id.length(); i++) {
+            byte b = (byte) id.charAt(i);
+            int c = this.findChild(node, b);
+            if (c == NONE) {
+                c = this.addNode(b);
+                this.sibling[c] = this.child[node];
+                this.child[node] = c;
+            }
+            node = c;
+        }
+        this.value[node] = index;
+    }
+
+    /**
+     * Allocates a new trie node.
+     */
+    private final int addNode(byte b) {
+        if (this.numNodes == this.label.length) {
+            int length = this.label.length * 2;
+            this.label = Arrays.copyOf(this.label, length);
+            this.child = Arrays.copyOf(this.child, length);
+            this.sibling = Arrays.copyOf(this.sibling, length);
+            this.value = Arrays.copyOf(this.value, length);
+        }
+        int node = this.numNodes++;
+        this.label[node] = b;
+        this.child[node] = NONE;
+        this.sibling[node] = NONE;
+        this.value[node] = NONE;
+        return node;
+    }
+}
@@ -0,0 +1,423 @@
+/** @file ParticleFilter.java
+ * Self-localization that carries a player's pose from cycle to cycle.
+ *
+ * @author Team F(utility)
+ */
+
+package futility;
+
+/**
+ * Estimates a player's position and body direction with a cloud of weighted guesses, or
+ * particles, so that a pose can still be kept when too few flags are seen for the Localizer to
+ * fix it, such as when facing the edge of the field. Each cycle every particle is moved by the
+ * player's own `turn` and by the velocity its `sense_body` reports (which already includes the
+ * acceleration of its `dash` and the server's noise), and then weighted by how well it explains
+ * every flag and goal seen.
+ *
+ * Particles are stored in flat arrays of primitives, and each sighting is applied to all of them
+ * by a single loop of multiplications and additions over those arrays, with the sines and cosines
+ * of their directions computed once per cycle. The number of particles shrinks when they agree
+ * closely and grows when they are spread out, and is capped so that no cycle evaluates more than
+ * UPDATE_BUDGET sightings in all.
+ */
+public final class ParticleFilter {
+    /** The fewest particles kept. */
+    public static final int MIN_PARTICLES = 50;
+    /** The most particles kept. */
+    public static final int MAX_PARTICLES = 500;
+    /** The most particle-sighting likelihoods evaluated in one correction. */
+    public static final int UPDATE_BUDGET = 8000;
+    /** Spread of the particles, in meters, at which MAX_PARTICLES are kept. */
+    public static final double SPREAD_FOR_MAX_PARTICLES = 5.0;
+
+    // Variance, in square meters, added to each sighting's for what the motion model misses
+    private static final double MODEL_VARIANCE = 0.25;
+    // Standard deviations of the noise added to each particle each cycle
+    private static final double POSITION_NOISE = 0.05;
+    private static final double DIRECTION_NOISE = Math.toRadians(1.0);
+    private static final double TURN_NOISE = 0.1;
+    // Standard deviation of the directions of new particles
+    private static final double INITIAL_DIRECTION_SPREAD = Math.toRadians(3.0);
+    // Log-likelihood per sighting below which even the best particle cannot explain what is seen
+    private static final double LOST_LOG_LIKELIHOOD = -8.0;
+    // The server keeps players within the field's margin
+    private static final double MIN_X = Settings.PHYSICAL_BOUNDARY.getLeft();
+    private static final double MAX_X = Settings.PHYSICAL_BOUNDARY.getRight();
+    private static final double MIN_Y = Settings.PHYSICAL_BOUNDARY.getTop();
+    private static final double MAX_Y = Settings.PHYSICAL_BOUNDARY.getBottom();
+
+    // Particles, of which the first `size` are in use
+    private double[] x = new double[MAX_PARTICLES];
+    private double[] y = new double[MAX_PARTICLES];
+    private double[] direction = new double[MAX_PARTICLES];  // radians
+    private final double[] cos = new double[MAX_PARTICLES];
+    private final double[] sin = new double[MAX_PARTICLES];
+    private final double[] weight = new double[MAX_PARTICLES];
+    private int size = 0;
+    private boolean scattered = false;  // whether the particles are placed yet
+    // Resampled particles, swapped with the particles in use
+    private double[] nextX = new double[MAX_PARTICLES];
+    private double[] nextY = new double[MAX_PARTICLES];
+    private double[] nextDirection = new double[MAX_PARTICLES];
+
+    // Motion since the last prediction
+    private double moment = 0.0;
+    private boolean turned = false;
+    private double speed = 0.0;
+    // Standard deviation of the movement noise, as a fraction of the speed (player_rand)
+    private double speedNoise = ServerParams.DEFAULT.PLAYER_PARAMS.PLAYER_RAND;
+
+    // Latest estimate
+    private double estimateX;
+    private double estimateY;
+    private double estimateDirection;
+    private double error = Double.POSITIVE_INFINITY;
+
+    private long seed;
+
+    /**
+     * Creates a filter with no particles, using the default seed.
+     */
+    public ParticleFilter() {
+        this(0x5DEECE66DL);
+    }
+
+    /**
+     * Creates a filter with no particles.
+     *
+     * @param seed the seed for the filter's noise; filters given the same seed and the same
+     *             inputs produce the same estimates
+     */
+    public ParticleFilter(long seed) {
+        this.seed = seed == 0L ? 1L : seed;
+    }
+
+    ///////////////////////////////////////////////////////////////////////////
+    // STATIC FUNCTIONS
+    ///////////////////////////////////////////////////////////////////////////
+    /**
+     * Gets how many particles to keep for a spread and a number of sightings.
+     *
+     * @param spread the spread of the particles, in meters
+     * @param sightings how many objects were seen
+     * @return the number of particles, in [MIN_PARTICLES, MAX_PARTICLES]
+     */
+    public static final int particlesFor(double spread, int sightings) {
+        double fraction = Math.min(1.0, spread / SPREAD_FOR_MAX_PARTICLES);
+        int count = MIN_PARTICLES + (int) ((MAX_PARTICLES - MIN_PARTICLES) * fraction);
+        count = Math.min(count, UPDATE_BUDGET / Math.max(1, sightings));
+        return Math.max(MIN_PARTICLES, Math.min(MAX_PARTICLES, count));
+    }
+
+    ///////////////////////////////////////////////////////////////////////////
+    // METHODS
+    ///////////////////////////////////////////////////////////////////////////
+    /**
+     * Sets the server parameters the player moves by, such as those the server sends in
+     * `server_param`. The particles are kept, and moved with them from now on.
+     *
+     * @param params the server parameters
+     */
+    public final void setParams(ServerParams params) {
+        this.speedNoise = params.PLAYER_PARAMS.PLAYER_RAND;
+    }
+
+    /**
+     * Returns whether the filter has particles, which it has once it is initialized.
+     *
+     * @return true if the filter can predict and correct
+     */
+    public final boolean isInitialized() {
+        return this.size > 0;
+    }
+
+    /**
+     * Gets the number of particles in use.
+     *
+     * @return the number of particles
+     */
+    public final int size() {
+        return this.size;
+    }
+
+    /**
+     * Restarts the filter from a pose, such as one fixed by the Localizer. A pose can be fixed
+     * every cycle, so the particles are only scattered around it, as predicted since, when they
+     * are next needed for a correction.
+     *
+     * @param x the x-coordinate
+     * @param y the y-coordinate
+     * @param direction the body direction, in degrees
+     * @param spread the standard deviation of the position, in meters
+     */
+    public final void initialize(double x, double y, double direction, double spread) {
+        this.size = particlesFor(spread, 0);
+        this.scattered = false;
+        this.estimateX = x;
+        this.estimateY = y;
+        this.estimateDirection = direction;
+        this.error = spread;
+    }
+
+    /**
+     * Scatters the particles around the estimate, with its expected error.
+     */
+    private final void scatter() {
+        double radians = Math.toRadians(this.estimateDirection);
+        for (int i = 0; i < this.size; i++) {
+            this.x[i] = this.estimateX + this.error * this.gaussian();
+            this.y[i] = this.estimateY + this.error * this.gaussian();
+            this.direction[i] = radians + INITIAL_DIRECTION_SPREAD * this.gaussian();
+        }
+        this.scattered = true;
+    }
+
+    /**
+     * Forgets every particle, such as when they can no longer explain what is seen.
+     */
+    public final void clear() {
+        this.size = 0;
+        this.scattered = false;
+        this.error = Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Restarts the filter where a `move` command puts the player, keeping its direction.
+     *
+     * @param x the x-coordinate moved to
+     * @param y the y-coordinate moved to
+     */
+    public final void move(double x, double y) {
+        this.estimateX = x;
+        this.estimateY = y;
+        this.speed = 0.0;
+        if (this.size > 0) {
+            this.error = POSITION_NOISE;
+            this.scattered = false;
+        }
+    }
+
+    /**
+     * Records a `turn` command. The server executes only the first command of a cycle, so later
+     * turns before the next prediction are ignored.
+     *
+     * @param moment the moment sent
+     */
+    public final void turn(double moment) {
+        if (!this.turned) {
+            this.moment = moment;
+            this.turned = true;
+        }
+    }
+
+    /**
+     * Moves every particle by the last cycle's motion, as reported by a `sense_body`. The player
+     * moved by its velocity before the velocity decayed, and its turn was slowed by its inertia
+     * at the speed it had at the start of the cycle.
+     *
+     * @param speed the reported speed
+     * @param speedDirection the reported direction of the speed, relative to the body, in degrees
+     * @param decay the player's speed decay
+     * @param inertiaMoment the player's inertia moment
+     */
+    public final void predict(double speed, double speedDirection, double decay, double inertiaMoment) {
+        double turn = this.turned ? Math.toRadians(this.moment / (1.0 + inertiaMoment * this.speed)) : 0.0;
+        double turnNoise = DIRECTION_NOISE + TURN_NOISE * Math.abs(turn);
+        double distance = speed / decay;
+        double distanceNoise = POSITION_NOISE + this.speedNoise * distance;
+        double offset = Math.toRadians(speedDirection);
+        if (this.scattered) {
+            for (int i = 0; i < this.size; i++) {
+                double heading = this.direction[i] + turn + turnNoise * this.gaussian();
+                double travel = distance + distanceNoise * this.gaussian();
+                this.direction[i] = heading;
+                this.x[i] = Math.max(MIN_X, Math.min(MAX_X, this.x[i] + travel * Math.cos(heading + offset)));
+                this.y[i] = Math.max(MIN_Y, Math.min(MAX_Y, this.y[i] + travel * Math.sin(heading + offset)));
+            }
+        }
+        if (this.size > 0) {
+            double heading = Math.toRadians(this.estimateDirection) + turn + offset;
+            this.estimateX = Math.max(MIN_X, Math.min(MAX_X, this.estimateX + distance * Math.cos(heading)));
+            this.estimateY = Math.max(MIN_Y, Math.min(MAX_Y, this.estimateY + distance * Math.sin(heading)));
+            this.estimateDirection = Futil.simplifyAngle(this.estimateDirection + Math.toDegrees(turn));
+            this.error = Math.hypot(this.error, distanceNoise);
+        }
+        this.speed = speed;
+        this.moment = 0.0;
+        this.turned = false;
+    }
+
+    /**
+     * Weights every particle by the objects seen, updates the estimate, and resamples the
+     * particles in proportion to their weights, as many as the new spread calls for. If nothing
+     * was seen, the predicted estimate stands. If not even the best particle explains what was
+     * seen, the filter is lost and is cleared.
+     *
+     * @param localizer the objects seen in the latest `see`
+     * @return false if the filter has no particles, in which case there is no estimate
+     */
+    public final boolean correct(Localizer localizer) {
+        int sightings = Math.min(localizer.count(), UPDATE_BUDGET / Math.max(1, this.size));
+        if (this.size == 0 || sightings == 0) {
+            return this.size > 0;
+        }
+        if (!this.scattered) {
+            this.scatter();
+        }
+        final int n = this.size;
+        final double[] x = this.x, y = this.y, cos = this.cos, sin = this.sin, weight = this.weight;
+        for (int i = 0; i < n; i++) {
+            cos[i] = Math.cos(this.direction[i]);
+            sin[i] = Math.sin(this.direction[i]);
+            weight[i] = 0.0;
+        }
+        // Log-likelihoods, one sighting at a time over every particle
+        for (int j = 0; j < sightings; j++) {
+            double px = localizer.observedX(j);
+            double py = localizer.observedY(j);
+            double fx = localizer.flagX(j);
+            double fy = localizer.flagY(j);
+            double scale = -0.5 / (localizer.observedVariance(j) + MODEL_VARIANCE);
+            for (int i = 0; i < n; i++) {
+                double rx = x[i] + cos[i] * px - sin[i] * py - fx;
+                double ry = y[i] + sin[i] * px + cos[i] * py - fy;
+                weight[i] += scale * (rx * rx + ry * ry);
+            }
+        }
+        double best = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < n; i++) {
+            best = Math.max(best, weight[i]);
+        }
+        if (best < LOST_LOG_LIKELIHOOD * sightings) {
+            this.clear();
+            return false;
+        }
+        // Weighted means of the positions and of the directions' unit vectors
+        double total = 0.0, mx = 0.0, my = 0.0, mc = 0.0, ms = 0.0;
+        for (int i = 0; i < n; i++) {
+            double w = Math.exp(weight[i] - best);
+            weight[i] = w;
+            total += w;
+            mx += w * x[i];
+            my += w * y[i];
+            mc += w * cos[i];
+            ms += w * sin[i];
+        }
+        mx /= total;
+        my /= total;
+        double variance = 0.0;
+        for (int i = 0; i < n; i++) {
+            double dx = x[i] - mx;
+            double dy = y[i] - my;
+            variance += weight[i] * (dx * dx + dy * dy);
+        }
+        this.estimateX = mx;
+        this.estimateY = my;
+        this.estimateDirection = Futil.atan2Deg(ms, mc);
+        this.error = Math.sqrt(variance / total);
+        this.resample(total, particlesFor(this.error, localizer.count()));
+        return true;
+    }
+
+    /**
+     * Draws a new set of particles in proportion to their weights, by low-variance (systematic)
+     * resampling: one random offset, then evenly spaced picks along the cumulative weights.
+     *
+     * @param total the sum of the weights
+     * @param count how many particles to draw
+     */
+    private final void resample(double total, int count) {
+        double step = total / count;
+        double target = step * this.uniform();
+        double cumulative = this.weight[0];
+        int i = 0;
+        for (int k = 0; k < count; k++) {
+            while (cumulative < target && i < this.size - 1) {
+                i++;
+                cumulative += this.weight[i];
+            }
+            this.nextX[k] = this.x[i];
+            this.nextY[k] = this.y[i];
+            this.nextDirection[k] = this.direction[i];
+            target += step;
+        }
+        double[] swap = this.x;
+        this.x = this.nextX;
+        this.nextX = swap;
+        swap = this.y;
+        this.y = this.nextY;
+        this.nextY = swap;
+        swap = this.direction;
+        this.direction = this.nextDirection;
+        this.nextDirection = swap;
+        this.size = count;
+    }
+
+    /**
+     * Gets the estimated x-coordinate.
+     *
+     * @return the x-coordinate of the latest estimate
+     */
+    public final double getX() {
+        return this.estimateX;
+    }
+
+    /**
+     * Gets the estimated y-coordinate.
+     *
+     * @return the y-coordinate of the latest estimate
+     */
+    public final double getY() {
+        return this.estimateY;
+    }
+
+    /**
+     * Gets the estimated body direction.
+     *
+     * @return the direction of the latest estimate, in degrees in (-180, 180]
+     */
+    public final double getDirection() {
+        return this.estimateDirection;
+    }
+
+    /**
+     * Gets the expected error of the estimated position.
+     *
+     * @return the spread of the particles' positions, in meters, or infinity if the filter has
+     *         no particles
+     */
+    public final double getError() {
+        return this.error;
+    }
+
+    /**
+     * Gets the confidence in the latest estimate, on the same scale as the Localizer's.
+     *
+     * @return a confidence in [0, Localizer.MAX_CONFIDENCE]
+     */
+    public final double getConfidence() {
+        return Localizer.confidence(this.error);
+    }
+
+    /**
+     * Draws a uniform random number with an xorshift generator, which is cheaper than
+     * java.util.Random and keeps the filter reproducible from its seed.
+     *
+     * @return a number in [0, 1)
+     */
+    private final double uniform() {
+        this.seed ^= this.seed >>> 12;
+        this.seed ^= this.seed << 25;
+        this.seed ^= this.seed >>> 27;
+        return ((this.seed * 0x2545F4914F6CDD1DL) >>> 11) * 0x1.0p-53;
+    }
+
+    /**
+     * Draws an approximately normal random number, as the sum of three uniform ones.
+     *
+     * @return a number with mean 0 and standard deviation 1, within +/- 3
+     */
+    private final double gaussian() {
+        return 2.0 * (this.uniform() + this.uniform() + this.uniform() - 1.5);
+    }
+}
@@ -0,0 +1,75 @@
+/** @file ParticleFilterTest.java
+ * Unit tests for the ParticleFilter class.
+ *
+ * @author Team F(utility)
+ */
+
+package futility;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for the ParticleFilter class.
+ */
+public class ParticleFilterTest {
+
+    /**
+     * Records what a player at a pose would see of one stationary object, with its distance and
+     * direction quantized the way the server quantizes them.
+     */
+    private static Localizer see(double x, double y, double direction, int index) {
+        Localizer localizer = new Localizer();
+        Point flag = Settings.STATIONARY_OBJECTS[index].position.getPosition();
+        double dx = flag.getX() - x;
+        double dy = flag.getY() - y;
+        double relative = Futil.simplifyAngle(Math.toDegrees(Math.atan2(dy, dx)) - direction);
+        double distance = World.quantizeDistance(Math.hypot(dx, dy), World.QUANTIZE_STEP_L);
+        localizer.add(index, distance, Math.rint(relative));
+        return localizer;
+    }
+
+    /**
+     * Tests that a player running along the edge of the field is tracked while it sees a single
+     * flag at a time, which the Localizer alone cannot fix a pose from.
+     */
+    @Test
+    public void testTracksWithOneFlag() {
+        double decay = ServerParams.DEFAULT.PLAYER_TYPE.PLAYER_DECAY;
+        double inertia = ServerParams.DEFAULT.PLAYER_TYPE.INERTIA_MOMENT;
+        ParticleFilter filter = new ParticleFilter(7L);
+        double x = -40.0, y = -32.0, direction = 0.0;
+        filter.initialize(x + 1.0, y - 1.0, direction, 2.0);
+        for (int cycle = 0; cycle < 60; cycle++) {
+            x += 0.6;
+            filter.predict(World.quantize(0.6 * decay, 0.01), 0.0, decay, inertia);
+            int flag = cycle % Settings.STATIONARY_OBJECTS.length;
+            assertTrue(filter.correct(see(x, y, direction, flag)));
+        }
+        assertEquals(x, filter.getX(), 0.5);
+        assertEquals(y, filter.getY(), 0.5);
+        assertEquals(direction, filter.getDirection(), 3.0);
+        assertTrue(filter.getConfidence() > 0.5);
+    }
+
+    /**
+     * Tests that the number of particles follows their spread within the per-cycle budget, and
+     * that a filter that cannot explain what is seen gives up.
+     */
+    @Test
+    public void testParticleCountAndLoss() {
+        assertEquals(ParticleFilter.MIN_PARTICLES, ParticleFilter.particlesFor(0.0, 1));
+        assertEquals(ParticleFilter.MAX_PARTICLES, ParticleFilter.particlesFor(100.0, 2));
+        assertTrue(ParticleFilter.particlesFor(100.0, 40) * 40 <= ParticleFilter.UPDATE_BUDGET);
+        ParticleFilter filter = new ParticleFilter();
+        assertFalse(filter.isInitialized());
+        filter.initialize(0.0, 0.0, 0.0, 4.0);
+        int wide = filter.size();
+        assertTrue(filter.correct(see(0.0, 0.0, 0.0, 0)));
+        assertTrue(filter.correct(see(0.0, 0.0, 0.0, 1)));
+        assertTrue(filter.size() < wide);
+        assertFalse(filter.correct(see(30.0, 20.0, 90.0, 2)));
+        assertFalse(filter.isInitialized());
+    }
+}
@@ -0,0 +1,530 @@
+/** @file PassEvaluator.java
+ * Chooses where to kick the ball by simulating passes and shots.
+ *
+ * @author Team F(utility)
+ */
+
+package futility;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Scores candidate kicks from a player that has the ball, and picks the best. The candidates are
+ * shots across the opponent goal's mouth, passes to each tracked teammate, and kicks into rings
+ * of open space around the ball. Each is kicked as fast as it needs to be to arrive with some
+ * speed left, no faster than the KickModel allows in its direction.
+ *
+ * A candidate is scored by Monte Carlo: the ball's travel is simulated several times with the
+ * server's kick and ball noise, and in each the first team with a player that could have reached
+ * the ball by then, from the PlayerTracker's tracks, wins it. A ball kept by a teammate is worth
+ * the position it is received at, nearer the opponent goal being better; a ball lost to an
+ * opponent or over a line costs more the nearer it is to this team's goal; a goal is worth 1.
+ * The score is the mean over the samples.
+ *
+ * Candidates are simulated in parallel, in tasks of a few each on a ForkJoinPool shared by every
+ * evaluator in the process. The tasks and their scratch space are made with the evaluator and
+ * reused, so evaluating allocates nothing. Each candidate's samples are drawn from its own seed,
+ * so with NO_DEADLINE the results do not depend on how the tasks are scheduled or how fast they
+ * run. Given a deadline, which live play takes from the wall clock, tasks stop starting
+ * candidates and samples once it passes, and the evaluation returns the best of those it had
+ * time for.
+ *
+ * The tasks only query the tracker with PlayerTracker.within(), which is safe from several
+ * threads while no other thread updates the tracker; evaluate() returns only once every task is
+ * done, so a tracker updated by the thread calling evaluate() is never updated during a query.
+ */
+public final class PassEvaluator {
+    /** Shared by every evaluator, with a thread for each processor. */
+    public static final ForkJoinPool POOL = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+    /** A deadline that never passes, so every candidate is scored from all its samples. */
+    public static final long NO_DEADLINE = Long.MAX_VALUE;
+    /** Returned when no candidate was evaluated. */
+    public static final int NONE = -1;
+    /** The most candidates evaluated at once. */
+    public static final int MAX_CANDIDATES = 64;
+    /** The samples of each candidate's travel. */
+    public static final int SAMPLES = 16;
+    /** The most cycles a sample is followed for. */
+    public static final int HORIZON = 50;
+
+    // Shots are aimed at this many points across the goal's mouth, within this much of the posts
+    private static final int SHOTS = 5;
+    private static final double POST_MARGIN = 1.0;
+    // Passes into open space are aimed at these distances, in this many directions each
+    private static final double[] RING_DISTANCES = {8.0, 15.0, 25.0};
+    private static final int RING_DIRECTIONS = 16;
+    // Teammates nearer or farther than these are not passed to
+    private static final double PASS_MIN = 3.0;
+    private static final double PASS_MAX = 40.0;
+    // Speed a pass is kicked to still have at its target
+    private static final double ARRIVAL_SPEED = 0.8;
+    // Distance from the opponent goal within which a position is worth more for being near it
+    private static final double SHOOTING_RANGE = 25.0;
+    // Weight of losing the ball, relative to keeping it at the same position
+    private static final double LOSS_WEIGHT = 0.5;
+    // Weight of a ball that no one reaches within the horizon
+    private static final double UNRESOLVED_WEIGHT = 0.5;
+    // Fewest samples for a candidate cut short by the deadline to be scored
+    private static final int MIN_SAMPLES = 4;
+    // Candidates each task simulates
+    private static final int LEAF = 4;
+
+    private final ForkJoinPool pool;
+    private final double ballDecay;
+    private final double ballRand;
+    private final double kickRand;
+    private final double speedMax;
+    private final double goalHalfWidth;
+    // How far a player of the default type can be from where the ball is after n cycles, and reach it
+    private final double[] reach = new double[HORIZON + 1];
+
+    // The current evaluation's ball, the opponent goal's x-coordinate, and the tracks
+    private double ballX, ballY, goalX;
+    private PlayerTracker tracker;
+    private long deadline = NO_DEADLINE;
+    private long seed = 1L;
+
+    // A task for each LEAF candidates, and the task that runs them all
+    private final Rollouts[] leaves = new Rollouts[(MAX_CANDIDATES + LEAF - 1) / LEAF];
+    private final Evaluation evaluation = new Evaluation(this.leaves);
+
+    // The candidates, and the score and the number of samples of each
+    private int count = 0;
+    private final double[] targetX = new double[MAX_CANDIDATES];
+    private final double[] targetY = new double[MAX_CANDIDATES];
+    private final double[] velocityX = new double[MAX_CANDIDATES];
+    private final double[] velocityY = new double[MAX_CANDIDATES];
+    private final boolean[] shot = new boolean[MAX_CANDIDATES];
+    private final double[] score = new double[MAX_CANDIDATES];
+    private final int[] samples = new int[MAX_CANDIDATES];
+
+    /**
+     * Constructs an evaluator for the given server parameters, on the shared pool.
+     *
+     * @param params the server parameters in effect
+     */
+    public PassEvaluator(ServerParams params) {
+        this(params, POOL);
+    }
+
+    /**
+     * Primary constructor.
+     *
+     * @param params the server parameters in effect
+     * @param pool the pool to simulate candidates on
+     */
+    public PassEvaluator(ServerParams params, ForkJoinPool pool) {
+        this.pool = pool;
+        this.ballDecay = params.BALL_PARAMS.BALL_DECAY;
+        this.ballRand = params.BALL_PARAMS.BALL_RAND;
+        this.kickRand = params.PLAYER_TYPE.KICK_RAND;
+        this.speedMax = params.BALL_PARAMS.BALL_SPEED_MAX;
+        this.goalHalfWidth = params.GOAL_HEIGHT / 2.0;
+        // Opponents react a cycle late, having to see the kick first
+        double[] dash = Interceptor.dashTable(params.PLAYER_TYPE);
+        this.reach[0] = params.PLAYER_TYPE.KICKABLE_RADIUS;
+        for (int n = 1; n <= HORIZON; n++) {
+            this.reach[n] = dash[n - 1] + params.PLAYER_TYPE.KICKABLE_RADIUS;
+        }
+        for (int i = 0; i < this.leaves.length; i++) {
+            this.leaves[i] = new Rollouts(this, i * LEAF);
+        }
+    }
+
+    ///////////////////////////////////////////////////////////////////////////
+    // STATIC FUNCTIONS
+    ///////////////////////////////////////////////////////////////////////////
+    /**
+     * Gets what having the ball at a position is worth, from 0 at this team's goal line to 1 at
+     * the opponent goal. Positions within shooting range are worth more the nearer they are to
+     * the goal.
+     *
+     * @param x the position's x-coordinate
+     * @param y the position's y-coordinate
+     * @param goalX the x-coordinate of the opponent goal
+     * @return the position's worth, in [0, 1]
+     */
+    public static final double value(double x, double y, double goalX) {
+        double sign = goalX > 0.0 ? 1.0 : -1.0;
+        double progress = Math.max(0.0, Math.min(1.0, (sign * x + Settings.FIELD_WIDTH / 2.0) / Settings.FIELD_WIDTH));
+        double range = Math.max(0.0, 1.0 - Math.hypot(goalX - x, y) / SHOOTING_RANGE);
+        return 0.6 * progress + 0.4 * range;
+    }
+
+    /**
+     * Advances an xorshift generator.
+     *
+     * @param seed the generator's state
+     * @return its next state
+     */
+    private static final long next(long seed) {
+        seed ^= seed >>> 12;
+        seed ^= seed << 25;
+        seed ^= seed >>> 27;
+        return seed;
+    }
+
+    /**
+     * Gets a uniform random number in [-1, 1) from an xorshift generator's state.
+     *
+     * @param seed the generator's state
+     * @return the number
+     */
+    private static final double uniform(long seed) {
+        return ((seed * 0x2545F4914F6CDD1DL) >>> 11) * 0x1.0p-52 - 1.0;
+    }
+
+    ///////////////////////////////////////////////////////////////////////////
+    // METHODS
+    ///////////////////////////////////////////////////////////////////////////
+    /**
+     * Evaluates kicks of the ball from a player that can kick it, and picks the best. The
+     * tracker must not be updated until this returns.
+     *
+     * @param tracker the tracked players
+     * @param kicks a kick model set to the kicking player's current state
+     * @param ballX the ball's x-coordinate
+     * @param ballY the ball's y-coordinate
+     * @param goalX the x-coordinate of the opponent goal
+     * @param deadline the System.nanoTime() after which no more candidates are started, or
+     *   NO_DEADLINE for results that depend only on the inputs
+     * @return the best candidate, or NONE if the ball is not kickable or none was scored in time
+     */
+    public final int evaluate(PlayerTracker tracker, KickModel kicks, double ballX, double ballY, double goalX,
+            long deadline) {
+        this.count = 0;
+        if (!kicks.isKickable()) {
+            return NONE;
+        }
+        this.tracker = tracker;
+        this.ballX = ballX;
+        this.ballY = ballY;
+        this.goalX = goalX;
+        this.deadline = deadline;
+        this.seed = next(this.seed + 0x9E3779B97F4A7C15L);
+        this.addCandidates(kicks);
+        if (this.count > LEAF && this.pool != null) {
+            for (Rollouts leaf : this.leaves) {
+                leaf.reinitialize();
+            }
+            this.evaluation.reinitialize();
+            this.pool.invoke(this.evaluation);
+        }
+        else {
+            for (Rollouts leaf : this.leaves) {
+                leaf.score();
+            }
+        }
+        this.tracker = null;
+        int best = NONE;
+        for (int i = 0; i < this.count; i++) {
+            if (!Double.isNaN(this.score[i]) && (best == NONE || this.score[i] > this.score[best])) {
+                best = i;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Adds the shots, the passes to teammates, and the passes into open space.
+     *
+     * @param kicks a kick model set to the kicking player's current state
+     */
+    private final void addCandidates(KickModel kicks) {
+        Rectangle field = Settings.FIELD;
+        double spread = this.goalHalfWidth - POST_MARGIN;
+        for (int i = 0; i < SHOTS; i++) {
+            double y = -spread + 2.0 * spread * i / (SHOTS - 1);
+            this.add(kicks, this.goalX, y, true);
+        }
+        for (int i = 0; i < this.tracker.size(); i++) {
+            if (this.tracker.getTeam(i) == PlayerTracker.TEAMMATE) {
+                double distance = Math.hypot(this.tracker.getX(i) - this.ballX, this.tracker.getY(i) - this.ballY);
+                if (distance >= PASS_MIN && distance <= PASS_MAX) {
+                    this.add(kicks, this.tracker.getX(i), this.tracker.getY(i), false);
+                }
+            }
+        }
+        for (double distance : RING_DISTANCES) {
+            for (int i = 0; i < RING_DIRECTIONS; i++) {
+                double direction = 360.0 * i / RING_DIRECTIONS;
+                double x = this.ballX + distance * Futil.cosDeg(direction);
+                double y = this.ballY + distance * Futil.sinDeg(direction);
+                if (x > field.getLeft() && x < field.getRight() && y > field.getTop() && y < field.getBottom()) {
+                    this.add(kicks, x, y, false);
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds a candidate kick toward a target, if there is room. A shot is kicked as fast as it
+     * can be; a pass just fast enough to arrive with ARRIVAL_SPEED, from the ball's decay.
+     *
+     * @param kicks a kick model set to the kicking player's current state
+     * @param x the target's x-coordinate
+     * @param y the target's y-coordinate
+     * @param isShot whether the kick is a shot
+     */
+    private final void add(KickModel kicks, double x, double y, boolean isShot) {
+        if (this.count == MAX_CANDIDATES) {
+            return;
+        }
+        double dx = x - this.ballX, dy = y - this.ballY;
+        double distance = Math.hypot(dx, dy);
+        if (distance < 1e-6) {
+            return;
+        }
+        double fastest = kicks.fastest(Futil.atan2Deg(dy, dx));
+        double speed = isShot ? fastest : Math.min(fastest, distance * (1.0 - this.ballDecay) + ARRIVAL_SPEED);
+        if (speed <= 0.0) {
+            return;
+        }
+        int i = this.count++;
+        this.targetX[i] = x;
+        this.targetY[i] = y;
+        this.velocityX[i] = speed * dx / distance;
+        this.velocityY[i] = speed * dy / distance;
+        this.shot[i] = isShot;
+    }
+
+    /**
+     * Checks whether the deadline has passed.
+     *
+     * @return true if it has
+     */
+    private final boolean expired() {
+        return this.deadline != NO_DEADLINE && System.nanoTime() > this.deadline;
+    }
+
+    /**
+     * Scores a range of candidates in turn, leaving any not started by the deadline unscored.
+     *
+     * @param from the first candidate
+     * @param to the candidate after the last
+     * @param found scratch space for the tracker's queries, of the task scoring the range
+     */
+    private final void simulate(int from, int to, int[] found) {
+        for (int i = from; i < to; i++) {
+            this.score[i] = Double.NaN;
+            this.samples[i] = 0;
+        }
+        for (int i = from; i < to; i++) {
+            if (this.expired()) {
+                return;
+            }
+            this.rollout(i, found);
+        }
+    }
+
+    /**
+     * Scores a candidate by simulating the ball's travel SAMPLES times, or as many as there is
+     * time for. Only candidate i's score and samples are written, so candidates can be scored
+     * concurrently.
+     *
+     * @param i the candidate
+     * @param found scratch space for the tracker's queries
+     */
+    private final void rollout(int i, int[] found) {
+        long seed = next(this.seed ^ ((i + 1) * 0xBF58476D1CE4E5B9L));
+        double kickNoise = this.kickRand * Math.hypot(this.velocityX[i], this.velocityY[i]) / this.speedMax;
+        double total = 0.0;
+        int s = 0;
+        for (; s < SAMPLES; s++) {
+            if ((s & 3) == 3 && this.expired()) {
+                break;
+            }
+            seed = next(seed);
+            double vx = this.velocityX[i] + kickNoise * uniform(seed);
+            seed = next(seed);
+            double vy = this.velocityY[i] + kickNoise * uniform(seed);
+            double x = this.ballX, y = this.ballY;
+            double reward = Double.NaN;
+            for (int n = 1; n <= HORIZON && Double.isNaN(reward); n++) {
+                double noise = this.ballRand * Math.sqrt(vx * vx + vy * vy);
+                seed = next(seed);
+                vx += noise * uniform(seed);
+                seed = next(seed);
+                vy += noise * uniform(seed);
+                x += vx;
+                y += vy;
+                vx *= this.ballDecay;
+                vy *= this.ballDecay;
+                reward = this.outcome(x, y, n, found);
+            }
+            total += Double.isNaN(reward) ? UNRESOLVED_WEIGHT * value(x, y, this.goalX) : reward;
+        }
+        this.samples[i] = s;
+        this.score[i] = s >= MIN_SAMPLES ? total / s : Double.NaN;
+    }
+
+    /**
+     * Decides what becomes of the ball at a position after n cycles: a goal, over a line, won by
+     * an opponent, kept by a teammate, or still loose. Ties go to the opponents.
+     *
+     * @param x the ball's x-coordinate
+     * @param y the ball's y-coordinate
+     * @param n the cycles since the kick
+     * @param found scratch space for the tracker's queries
+     * @return the reward, or NaN if the ball is still loose
+     */
+    private final double outcome(double x, double y, int n, int[] found) {
+        Rectangle field = Settings.FIELD;
+        if (x < field.getLeft() || x > field.getRight() || y < field.getTop() || y > field.getBottom()) {
+            if (Math.abs(y) < this.goalHalfWidth && (x < field.getLeft() || x > field.getRight())) {
+                return (x > 0.0) == (this.goalX > 0.0) ? 1.0 : -1.0;
+            }
+            return -LOSS_WEIGHT * (1.0 - value(x, y, this.goalX));
+        }
+        if (this.tracker.within(PlayerTracker.OPPONENT, x, y, this.reach[n], found) > 0) {
+            return -LOSS_WEIGHT * (1.0 - value(x, y, this.goalX));
+        }
+        if (this.tracker.within(PlayerTracker.TEAMMATE, x, y, this.reach[n], found) > 0) {
+            return value(x, y, this.goalX);
+        }
+        return Double.NaN;
+    }
+
+    /**
+     * Gets the number of candidates of the last evaluation.
+     *
+     * @return the number of candidates
+     */
+    public final int size() {
+        return this.count;
+    }
+
+    /**
+     * Gets a candidate's target x-coordinate.
+     *
+     * @param i the candidate
+     * @return the x-coordinate
+     */
+    public final double getTargetX(int i) {
+        return this.targetX[i];
+    }
+
+    /**
+     * Gets a candidate's target y-coordinate.
+     *
+     * @param i the candidate
+     * @return the y-coordinate
+     */
+    public final double getTargetY(int i) {
+        return this.targetY[i];
+    }
+
+    /**
+     * Gets the x-component of the velocity a candidate kicks the ball to.
+     *
+     * @param i the candidate
+     * @return the x-component
+     */
+    public final double getVelocityX(int i) {
+        return this.velocityX[i];
+    }
+
+    /**
+     * Gets the y-component of the velocity a candidate kicks the ball to.
+     *
+     * @param i the candidate
+     * @return the y-component
+     */
+    public final double getVelocityY(int i) {
+        return this.velocityY[i];
+    }
+
+    /**
+     * Gets whether a candidate is a shot at goal.
+     *
+     * @param i the candidate
+     * @return true if it is a shot
+     */
+    public final boolean isShot(int i) {
+        return this.shot[i];
+    }
+
+    /**
+     * Gets a candidate's score, the mean reward of its samples.
+     *
+     * @param i the candidate
+     * @return the score, or NaN if the deadline passed before it was scored
+     */
+    public final double getScore(int i) {
+        return this.score[i];
+    }
+
+    /**
+     * Gets the number of samples a candidate was scored from.
+     *
+     * @param i the candidate
+     * @return the number of samples
+     */
+    public final int getSamples(int i) {
+        return this.samples[i];
+    }
+
+    /**
+     * Scores up to LEAF candidates, from a fixed first one up to however many there are.
+     */
+    private static final class Rollouts extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final PassEvaluator evaluator;
+        private final int from;
+        // Scratch space for the tracker's queries
+        private final int[] found = new int[1];
+
+        /**
+         * Primary constructor.
+         *
+         * @param evaluator the evaluator whose candidates are scored
+         * @param from the first candidate the task scores
+         */
+        Rollouts(PassEvaluator evaluator, int from) {
+            this.evaluator = evaluator;
+            this.from = from;
+        }
+
+        /**
+         * Scores the task's candidates.
+         */
+        final void score() {
+            int to = Math.min(this.from + LEAF, this.evaluator.count);
+            if (this.from < to) {
+                this.evaluator.simulate(this.from, to, this.found);
+            }
+        }
+
+        /**
+         * Scores the task's candidates on the pool.
+         */
+        protected void compute() {
+            this.score();
+        }
+    }
+
+    /**
+     * Runs every Rollouts task on the pool, and waits for them.
+     */
+    private static final class Evaluation extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final Rollouts[] leaves;
+
+        /**
+         * Primary constructor.
+         *
+         * @param leaves the tasks
+         */
+        Evaluation(Rollouts[] leaves) {
+            this.leaves = leaves;
+        }
+
+        /**
+         * Forks the tasks, and joins them.
+         */
+        protected void compute() {
+            invokeAll(this.leaves);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+/** @file PassEvaluatorTest.java
+ * Unit tests for the PassEvaluator class.
+ *
+ * @author Team F(utility)
+ */
+
+package futility;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for the PassEvaluator class. The kicker faces along the x-axis with the ball at its
+ * feet, attacking the goal at positive x.
+ */
+public class PassEvaluatorTest {
+    private static final ServerParams PARAMS = ServerParams.DEFAULT;
+    private static final double GOAL_X = Settings.FIELD_WIDTH / 2.0;
+
+    /**
+     * Makes a tracker that has seen players at the given positions from the center spot.
+     */
+    private static PlayerTracker track(int[] teams, double[][] positions) {
+        PlayerTracker tracker = new PlayerTracker();
+        for (int i = 0; i < teams.length; i++) {
+            tracker.see(teams[i], i + 1, Math.hypot(positions[i][0], positions[i][1]),
+                    Futil.atan2Deg(positions[i][1], positions[i][0]));
+        }
+        tracker.update(0, 0.0, 0.0, 0.0, 0.0, 180.0);
+        return tracker;
+    }
+
+    /**
+     * Makes a kick model for a kicker just behind the ball.
+     */
+    private static KickModel kicks(double ballX, double ballY) {
+        KickModel kicks = new KickModel(PARAMS, PARAMS.PLAYER_TYPE);
+        kicks.setState(ballX - 0.5, ballY, 0.0, 0.0, 0.0, ballX, ballY, 0.0, 0.0);
+        return kicks;
+    }
+
+    /**
+     * Finds the candidate aimed at a point.
+     */
+    private static int find(PassEvaluator evaluator, double x, double y) {
+        for (int i = 0; i < evaluator.size(); i++) {
+            if (Math.hypot(evaluator.getTargetX(i) - x, evaluator.getTargetY(i) - y) < 1e-6) {
+                return i;
+            }
+        }
+        return PassEvaluator.NONE;
+    }
+
+    /**
+     * Tests that positions are worth more toward the opponent goal, from either side.
+     */
+    @Test
+    public void testValue() {
+        assertEquals(0.0, PassEvaluator.value(-GOAL_X, 30.0, GOAL_X), 1e-9);
+        assertEquals(1.0, PassEvaluator.value(GOAL_X, 0.0, GOAL_X), 1e-9);
+        assertEquals(1.0, PassEvaluator.value(-GOAL_X, 0.0, -GOAL_X), 1e-9);
+        assertTrue(PassEvaluator.value(30.0, 0.0, GOAL_X) > PassEvaluator.value(30.0, 20.0, GOAL_X));
+        assertTrue(PassEvaluator.value(10.0, 0.0, GOAL_X) > PassEvaluator.value(0.0, 0.0, GOAL_X));
+    }
+
+    /**
+     * Tests that an unguarded goal within range is shot at, and scores.
+     */
+    @Test
+    public void testOpenGoal() {
+        PassEvaluator evaluator = new PassEvaluator(PARAMS);
+        PlayerTracker tracker = track(new int[0], new double[0][]);
+        int best = evaluator.evaluate(tracker, kicks(40.0, 0.0), 40.0, 0.0, GOAL_X, PassEvaluator.NO_DEADLINE);
+        assertTrue(best != PassEvaluator.NONE);
+        assertTrue(evaluator.isShot(best));
+        assertEquals(1.0, evaluator.getScore(best), 1e-9);
+        assertEquals(PassEvaluator.SAMPLES, evaluator.getSamples(best));
+    }
+
+    /**
+     * Tests that a pass through a line of opponents is lost, and that a pass to an open teammate
+     * is preferred to it.
+     */
+    @Test
+    public void testPassAroundOpponents() {
+        PassEvaluator evaluator = new PassEvaluator(PARAMS);
+        int o = PlayerTracker.OPPONENT;
+        PlayerTracker tracker = track(new int[] {o, o, o, o, PlayerTracker.TEAMMATE},
+                new double[][] {{10.0, -5.0}, {10.0, 0.0}, {10.0, 5.0}, {20.0, 0.0}, {5.0, 20.0}});
+        int best = evaluator.evaluate(tracker, kicks(0.0, 0.0), 0.0, 0.0, GOAL_X, PassEvaluator.NO_DEADLINE);
+        assertTrue(best != PassEvaluator.NONE);
+        assertFalse(evaluator.isShot(best));
+        int through = find(evaluator, 15.0, 0.0);
+        assertTrue(through != PassEvaluator.NONE);
+        assertTrue(evaluator.getScore(through) < 0.0);
+        int teammate = find(evaluator, tracker.getX(4), tracker.getY(4));
+        assertTrue(teammate != PassEvaluator.NONE);
+        assertTrue(evaluator.getScore(teammate) > 0.0);
+        assertTrue(evaluator.getScore(best) >= evaluator.getScore(teammate));
+    }
+
+    /**
+     * Tests that the scores do not depend on whether candidates are simulated in parallel, and
+     * that nothing is scored once the deadline has passed.
+     */
+    @Test
+    public void testParallelAndDeadline() {
+        PassEvaluator parallel = new PassEvaluator(PARAMS);
+        PassEvaluator sequential = new PassEvaluator(PARAMS, null);
+        int o = PlayerTracker.OPPONENT;
+        PlayerTracker tracker = track(new int[] {o, o, PlayerTracker.TEAMMATE, PlayerTracker.TEAMMATE},
+                new double[][] {{8.0, 3.0}, {15.0, -10.0}, {12.0, 12.0}, {-10.0, -5.0}});
+        KickModel kicks = kicks(0.0, 0.0);
+        int best = parallel.evaluate(tracker, kicks, 0.0, 0.0, GOAL_X, PassEvaluator.NO_DEADLINE);
+        assertEquals(best, sequential.evaluate(tracker, kicks, 0.0, 0.0, GOAL_X, PassEvaluator.NO_DEADLINE));
+        assertEquals(parallel.size(), sequential.size());
+        for (int i = 0; i < parallel.size(); i++) {
+            assertEquals(parallel.getScore(i), sequential.getScore(i), 0.0);
+        }
+        assertEquals(PassEvaluator.NONE, parallel.evaluate(tracker, kicks, 0.0, 0.0, GOAL_X, System.nanoTime() - 1L));
+        assertTrue(Double.isNaN(parallel.getScore(0)));
+    }
+}
@@ -103,6 +103,16 @@ public class Player extends MobileObject {
         return "Player " + String.valueOf(this.number) + " on team " + this.team.name;
     }
     
+    /**
+     * Returns the same as render(), so that a player can be passed to a `%s` in a log format,
+     * which is only rendered if the message is logged.
+     * 
+     * @return a string describing this player
+     */
+    public String toString() {
+        return this.render();
+    }
+    
     /**
      * Returns the estimated velocity of this Player.
      * 
@@ -116,4 +126,20 @@ public class Player extends MobileObject {
             return super.velocity();
         }
     }
+    
+    /**
+     * Stores the estimated velocity of this Player in a given vector.
+     * 
+     * @param out the vector to store the velocity in
+     * @return out
+     */
+    public VelocityVector velocity(VelocityVector out) {
+        if (this.hasBrain()) {
+            out.set(this.brain.velocity);
+            return out;
+        }
+        else {
+            return super.velocity(out);
+        }
+    }
 }
@@ -0,0 +1,645 @@
+/** @file PlayerTracker.java
+ * Tracks of every other player, kept across partial and anonymous sightings.
+ *
+ * @author Team F(utility)
+ */
+
+package futility;
+
+import java.util.Arrays;
+
+/**
+ * Keeps a track of each other player on the field, whether it was seen as `(p "team" 7)`, as
+ * `(p "team")`, or as an anonymous `(p)` or `(P)`. Sightings are collected during a `see` and
+ * then matched to tracks all at once: a sighting naming a team and uniform number goes to that
+ * player's track, and every other sighting goes to the nearest compatible track within a gate of
+ * three standard deviations, closest pairs first. Sightings left over start new tracks. Tracks
+ * learn their team and number from the sightings matched to them.
+ *
+ * Unseen tracks are predicted forward with their estimated velocity while their uncertainty
+ * grows. A track is dropped when it has not been seen for EXPIRE_CYCLES, or when it should have
+ * been seen in the player's view cone and was not.
+ *
+ * Tracks are stored in arrays of primitives, indexed 0 to size() - 1, so that queries such as
+ * the nearest opponent to the ball are a single pass over a few arrays. Tracks are also indexed
+ * in a SpatialGrid, by index and team, for queries of the players near a point or in a cone.
+ * Indices are only valid until the next update().
+ *
+ * A tracker is updated by one thread. The getters, find(), within(), inCone() and the nearest()
+ * of one track only read it, so other threads may call them at the same time as long as no
+ * update() is running, as PassEvaluator's tasks do. The nearest() of k tracks uses the grid's
+ * scratch space, so only one thread may call it at a time.
+ */
+public final class PlayerTracker {
+    /** The most tracks kept: every player on both teams. */
+    public static final int CAPACITY = 22;
+    /** Team code of a player on this player's team. */
+    public static final int TEAMMATE = 1;
+    /** Team code of a player on the other team. */
+    public static final int OPPONENT = -1;
+    /** Team code of a player whose team is unknown, or of any player in a query. */
+    public static final int UNKNOWN = 0;
+    /** How many cycles a track is kept without being seen. */
+    public static final int EXPIRE_CYCLES = 50;
+
+    // Most sightings in one `see`, allowing for duplicates
+    private static final int MAX_SIGHTINGS = 32;
+    // Squared normalized distance within which a sighting can match a track (three deviations)
+    private static final double GATE = 9.0;
+    // Variance a track's position gains for every cycle it is unseen, per square of the top speed;
+    // a quarter of a square meter for a player of the default type
+    private static final double PROCESS_VARIANCE = 0.25
+            / (ServerParams.DEFAULT.PLAYER_TYPE.PLAYER_SPEED_MAX * ServerParams.DEFAULT.PLAYER_TYPE.PLAYER_SPEED_MAX);
+    // How much of each residual is attributed to velocity, and how velocity fades when unseen
+    private static final double VELOCITY_GAIN = 0.3;
+    private static final double VELOCITY_FADE = 0.6;
+    // Rounding of the directions of players, as for the ball
+    private static final double DIRECTION_ROUNDING = Math.toRadians(0.5);
+
+    // Tracks
+    private final double[] x = new double[CAPACITY];
+    private final double[] y = new double[CAPACITY];
+    private final double[] vx = new double[CAPACITY];
+    private final double[] vy = new double[CAPACITY];
+    private final double[] variance = new double[CAPACITY];
+    private final int[] team = new int[CAPACITY];
+    private final int[] number = new int[CAPACITY];
+    private final int[] seen = new int[CAPACITY];
+    private final boolean[] expired = new boolean[CAPACITY];
+    private int size = 0;
+    private int time = -1;
+    // Fastest a tracked player of any type can run
+    private double speedMax = ServerParams.DEFAULT.PLAYER_TYPE.PLAYER_SPEED_MAX;
+    // Half-width of the logarithmic rounding of the distances of players, as for the ball
+    private double logRounding = Math.exp(ServerParams.DEFAULT.QUANTIZE_STEP / 2.0) - 1.0;
+    private final SpatialGrid grid = new SpatialGrid(CAPACITY);
+
+    // Sightings since the last update
+    private final int[] sightingTeam = new int[MAX_SIGHTINGS];
+    private final int[] sightingNumber = new int[MAX_SIGHTINGS];
+    private final double[] sightingDistance = new double[MAX_SIGHTINGS];
+    private final double[] sightingDirection = new double[MAX_SIGHTINGS];
+    private final double[] sightingX = new double[MAX_SIGHTINGS];
+    private final double[] sightingY = new double[MAX_SIGHTINGS];
+    private final double[] sightingVariance = new double[MAX_SIGHTINGS];
+    private final int[] match = new int[MAX_SIGHTINGS];
+    private int sightings = 0;
+
+    // Candidate pairs, each a cost's float bits above a sighting and track index
+    private final long[] pairs = new long[MAX_SIGHTINGS * CAPACITY];
+    private final boolean[] taken = new boolean[CAPACITY];
+
+    ///////////////////////////////////////////////////////////////////////////
+    // STATIC FUNCTIONS
+    ///////////////////////////////////////////////////////////////////////////
+    /**
+     * Gets the team code of a player's ObjectId, without allocating.
+     *
+     * @param id the ObjectId, such as `(p "futility" 7)`
+     * @param ourTeam the name of this player's team
+     * @return TEAMMATE, OPPONENT, or UNKNOWN if the id does not name a team
+     */
+    public static final int teamOf(String id, String ourTeam) {
+        if (id.length() < 5 || id.charAt(3) != '"') {
+            return UNKNOWN;
+        }
+        boolean ours = id.startsWith(ourTeam, 4) && id.length() > 4 + ourTeam.length()
+                && id.charAt(4 + ourTeam.length()) == '"';
+        return ours ? TEAMMATE : OPPONENT;
+    }
+
+    /**
+     * Gets the uniform number in a player's ObjectId, without allocating.
+     *
+     * @param id the ObjectId, such as `(p "futility" 7 goalie)`
+     * @return the number, or 0 if the id does not give one
+     */
+    public static final int numberOf(String id) {
+        int i = id.indexOf('"', 4);
+        if (i < 0) {
+            return 0;
+        }
+        int number = 0;
+        for (i += 2; i < id.length() && Character.isDigit(id.charAt(i)); i++) {
+            number = 10 * number + id.charAt(i) - '0';
+        }
+        return number;
+    }
+
+    /**
+     * Gets half of the width of the view cone for a view width reported in `sense_body`.
+     *
+     * @param viewWidth "narrow", "normal" or "wide", or null if unknown
+     * @return the half-width, in degrees
+     */
+    public static final double visibleAngle(String viewWidth) {
+        if ("narrow".equals(viewWidth)) {
+            return 22.5;
+        }
+        if ("wide".equals(viewWidth)) {
+            return 90.0;
+        }
+        return 45.0;
+    }
+
+    ///////////////////////////////////////////////////////////////////////////
+    // METHODS
+    ///////////////////////////////////////////////////////////////////////////
+    /**
+     * Sets the server parameters, such as those the server sends in `server_param`, from which
+     * the rounding of the players' reported distances is taken.
+     *
+     * @param params the server parameters
+     */
+    public final void setParams(ServerParams params) {
+        this.logRounding = Math.exp(params.QUANTIZE_STEP / 2.0) - 1.0;
+    }
+
+    /**
+     * Sets the player types the tracked players may be of, such as those the server sends. The
+     * fastest of them bounds tracks' velocities and how far unseen tracks may have gone. Until
+     * then, players are assumed to be no faster than the default type.
+     *
+     * @param types the player types in use
+     */
+    public final void setPlayerTypes(PlayerTypes types) {
+        this.speedMax = types.speedMax();
+    }
+
+    /**
+     * Records a sighting of a player from the current `see`.
+     *
+     * @param team the player's team code, or UNKNOWN
+     * @param number the player's uniform number, or 0 if unknown
+     * @param distance the reported distance
+     * @param direction the reported direction relative to the seeing player's body, in degrees
+     */
+    public final void see(int team, int number, double distance, double direction) {
+        if (this.sightings == MAX_SIGHTINGS) {
+            return;
+        }
+        int s = this.sightings++;
+        this.sightingTeam[s] = team;
+        this.sightingNumber[s] = number;
+        this.sightingDistance[s] = distance;
+        this.sightingDirection[s] = direction;
+    }
+
+    /**
+     * Predicts every track to a time step, matches the sightings recorded since the last update
+     * to tracks, and drops tracks that have expired.
+     *
+     * @param time the time step of the sightings
+     * @param selfX the seeing player's x-coordinate
+     * @param selfY the seeing player's y-coordinate
+     * @param selfDirection the seeing player's body direction, in degrees
+     * @param selfVariance the variance of the seeing player's position, in square meters
+     * @param visibleAngle half of the width of the seeing player's view cone, in degrees
+     */
+    public final void update(int time, double selfX, double selfY, double selfDirection, double selfVariance,
+            double visibleAngle) {
+        this.predict(time);
+        for (int s = 0; s < this.sightings; s++) {
+            double distance = this.sightingDistance[s];
+            double angle = Math.toRadians(selfDirection + this.sightingDirection[s]);
+            this.sightingX[s] = selfX + distance * Math.cos(angle);
+            this.sightingY[s] = selfY + distance * Math.sin(angle);
+            double radial = distance * this.logRounding + 0.05;
+            double lateral = distance * DIRECTION_ROUNDING;
+            this.sightingVariance[s] = (radial * radial + lateral * lateral) / 3.0 + selfVariance;
+        }
+        this.associate();
+        for (int s = 0; s < this.sightings; s++) {
+            if (this.match[s] >= 0) {
+                this.correct(this.match[s], s);
+            }
+            else if (this.size < CAPACITY) {
+                this.start(this.size++, s);
+            }
+            else {
+                this.start(this.stalest(), s);
+            }
+        }
+        this.expire(selfX, selfY, selfDirection, visibleAngle);
+        for (int i = 0; i < CAPACITY; i++) {
+            if (i < this.size) {
+                this.grid.put(i, this.x[i], this.y[i], this.team[i]);
+            }
+            else {
+                this.grid.remove(i);
+            }
+        }
+        this.sightings = 0;
+    }
+
+    /**
+     * Moves every track forward to a time step, with its velocity fading and its uncertainty
+     * growing.
+     *
+     * @param time the time step
+     */
+    private final void predict(int time) {
+        int dt = this.time < 0 ? 0 : time - this.time;
+        this.time = time;
+        if (dt <= 0) {
+            return;
+        }
+        double fade = Math.pow(VELOCITY_FADE, dt);
+        double travel = (1.0 - fade) / (1.0 - VELOCITY_FADE);
+        for (int i = 0; i < this.size; i++) {
+            this.x[i] += travel * this.vx[i];
+            this.y[i] += travel * this.vy[i];
+            this.vx[i] *= fade;
+            this.vy[i] *= fade;
+            this.variance[i] += PROCESS_VARIANCE * this.speedMax * this.speedMax * dt;
+        }
+    }
+
+    /**
+     * Matches sightings to tracks: by identity where a sighting names a team and number that a
+     * track has, and otherwise greedily by normalized distance, within the gate.
+     */
+    private final void associate() {
+        Arrays.fill(this.taken, 0, this.size, false);
+        Arrays.fill(this.match, 0, this.sightings, -1);
+        for (int s = 0; s < this.sightings; s++) {
+            if (this.sightingTeam[s] != UNKNOWN && this.sightingNumber[s] != 0) {
+                int t = this.find(this.sightingTeam[s], this.sightingNumber[s]);
+                if (t >= 0 && !this.taken[t]) {
+                    this.match[s] = t;
+                    this.taken[t] = true;
+                }
+            }
+        }
+        int numPairs = 0;
+        for (int s = 0; s < this.sightings; s++) {
+            if (this.match[s] >= 0) {
+                continue;
+            }
+            for (int t = 0; t < this.size; t++) {
+                if (this.taken[t] || !this.isCompatible(t, s)) {
+                    continue;
+                }
+                double dx = this.sightingX[s] - this.x[t];
+                double dy = this.sightingY[s] - this.y[t];
+                double cost = (dx * dx + dy * dy) / (this.variance[t] + this.sightingVariance[s]);
+                if (cost <= GATE) {
+                    // Non-negative floats order like their bits
+                    this.pairs[numPairs++] = ((long) Float.floatToIntBits((float) cost) << 32) | (s * CAPACITY + t);
+                }
+            }
+        }
+        Arrays.sort(this.pairs, 0, numPairs);
+        for (int k = 0; k < numPairs; k++) {
+            int pair = (int) this.pairs[k];
+            int s = pair / CAPACITY;
+            int t = pair % CAPACITY;
+            if (this.match[s] < 0 && !this.taken[t]) {
+                this.match[s] = t;
+                this.taken[t] = true;
+            }
+        }
+    }
+
+    /**
+     * Returns whether a sighting could be of a track's player, given what each says of its team
+     * and number.
+     *
+     * @param t the track
+     * @param s the sighting
+     * @return false if they name different teams or numbers
+     */
+    private final boolean isCompatible(int t, int s) {
+        int team = this.sightingTeam[s];
+        int number = this.sightingNumber[s];
+        return (team == UNKNOWN || this.team[t] == UNKNOWN || team == this.team[t])
+                && (number == 0 || this.number[t] == 0 || number == this.number[t]);
+    }
+
+    /**
+     * Corrects a track with a sighting matched to it.
+     *
+     * @param t the track
+     * @param s the sighting
+     */
+    private final void correct(int t, int s) {
+        double gain = this.variance[t] / (this.variance[t] + this.sightingVariance[s]);
+        double rx = this.sightingX[s] - this.x[t];
+        double ry = this.sightingY[s] - this.y[t];
+        this.x[t] += gain * rx;
+        this.y[t] += gain * ry;
+        double elapsed = Math.max(1, this.time - this.seen[t]);
+        this.vx[t] += VELOCITY_GAIN * rx / elapsed;
+        this.vy[t] += VELOCITY_GAIN * ry / elapsed;
+        double speed = Math.hypot(this.vx[t], this.vy[t]);
+        if (speed > this.speedMax) {
+            this.vx[t] *= this.speedMax / speed;
+            this.vy[t] *= this.speedMax / speed;
+        }
+        this.variance[t] *= 1.0 - gain;
+        this.seen[t] = this.time;
+        this.identify(t, s);
+    }
+
+    /**
+     * Starts a track at a sighting.
+     *
+     * @param t the track's index
+     * @param s the sighting
+     */
+    private final void start(int t, int s) {
+        this.x[t] = this.sightingX[s];
+        this.y[t] = this.sightingY[s];
+        this.vx[t] = 0.0;
+        this.vy[t] = 0.0;
+        this.variance[t] = this.sightingVariance[s];
+        this.team[t] = UNKNOWN;
+        this.number[t] = 0;
+        this.seen[t] = this.time;
+        this.expired[t] = false;
+        this.identify(t, s);
+    }
+
+    /**
+     * Gives a track the team and number a sighting names. If that makes it the track of a player
+     * already tracked elsewhere, the other track is dropped.
+     *
+     * @param t the track
+     * @param s the sighting
+     */
+    private final void identify(int t, int s) {
+        if (this.sightingTeam[s] != UNKNOWN) {
+            this.team[t] = this.sightingTeam[s];
+        }
+        if (this.sightingNumber[s] != 0) {
+            this.number[t] = this.sightingNumber[s];
+        }
+        if (this.team[t] != UNKNOWN && this.number[t] != 0) {
+            for (int i = 0; i < this.size; i++) {
+                if (i != t && this.team[i] == this.team[t] && this.number[i] == this.number[t]) {
+                    this.expired[i] = true;
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the track seen longest ago.
+     *
+     * @return its index
+     */
+    private final int stalest() {
+        int stalest = 0;
+        for (int i = 1; i < this.size; i++) {
+            if (this.seen[i] < this.seen[stalest]) {
+                stalest = i;
+            }
+        }
+        return stalest;
+    }
+
+    /**
+     * Drops tracks that have not been seen for too long, that another track turned out to be, or
+     * that were not seen this cycle although they should have been well within the view cone.
+     *
+     * @param selfX the seeing player's x-coordinate
+     * @param selfY the seeing player's y-coordinate
+     * @param selfDirection the seeing player's body direction, in degrees
+     * @param visibleAngle half of the width of the view cone, in degrees
+     */
+    private final void expire(double selfX, double selfY, double selfDirection, double visibleAngle) {
+        int i = 0;
+        while (i < this.size) {
+            boolean drop = this.expired[i] || this.time - this.seen[i] > EXPIRE_CYCLES;
+            if (!drop && this.seen[i] != this.time) {
+                double dx = this.x[i] - selfX;
+                double dy = this.y[i] - selfY;
+                double distance = Math.hypot(dx, dy);
+                double margin = Math.toDegrees(Math.atan2(3.0 * Math.sqrt(this.variance[i]), distance));
+                double angle = Math.abs(Futil.simplifyAngle(Futil.atan2Deg(dy, dx) - selfDirection));
+                drop = angle + margin < visibleAngle;
+            }
+            if (drop) {
+                this.size--;
+                this.move(this.size, i);
+            }
+            else {
+                i++;
+            }
+        }
+    }
+
+    /**
+     * Copies a track over another.
+     *
+     * @param from the track to copy
+     * @param to the track to overwrite
+     */
+    private final void move(int from, int to) {
+        this.x[to] = this.x[from];
+        this.y[to] = this.y[from];
+        this.vx[to] = this.vx[from];
+        this.vy[to] = this.vy[from];
+        this.variance[to] = this.variance[from];
+        this.team[to] = this.team[from];
+        this.number[to] = this.number[from];
+        this.seen[to] = this.seen[from];
+        this.expired[to] = this.expired[from];
+    }
+
+    /**
+     * Gets the number of tracks.
+     *
+     * @return the number of tracks
+     */
+    public final int size() {
+        return this.size;
+    }
+
+    /**
+     * Counts the tracks of a team's players.
+     *
+     * @param team TEAMMATE or OPPONENT, or UNKNOWN for every track
+     * @return the number of tracks
+     */
+    public final int count(int team) {
+        if (team == UNKNOWN) {
+            return this.size;
+        }
+        int count = 0;
+        for (int i = 0; i < this.size; i++) {
+            if (this.team[i] == team) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Gets the track of a player.
+     *
+     * @param team the player's team code
+     * @param number the player's uniform number
+     * @return the track's index, or -1 if the player is not tracked
+     */
+    public final int find(int team, int number) {
+        for (int i = 0; i < this.size; i++) {
+            if (this.team[i] == team && this.number[i] == number) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Gets the track of a team's player nearest to a point, such as the ball.
+     *
+     * @param team TEAMMATE or OPPONENT, or UNKNOWN for players of either team or of none known
+     * @param x the point's x-coordinate
+     * @param y the point's y-coordinate
+     * @return the track's index, or -1 if no such player is tracked
+     */
+    public final int nearest(int team, double x, double y) {
+        int nearest = -1;
+        double best = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < this.size; i++) {
+            if (team != UNKNOWN && this.team[i] != team) {
+                continue;
+            }
+            double dx = this.x[i] - x;
+            double dy = this.y[i] - y;
+            double d = dx * dx + dy * dy;
+            if (d < best) {
+                best = d;
+                nearest = i;
+            }
+        }
+        return nearest;
+    }
+
+    /**
+     * Finds the tracks of a team's players nearest to a point.
+     *
+     * @param team TEAMMATE or OPPONENT, or UNKNOWN for every track
+     * @param x the point's x-coordinate
+     * @param y the point's y-coordinate
+     * @param k the most tracks to find
+     * @param out the array to write the tracks' indices into, nearest first
+     * @return the number of tracks found
+     */
+    public final int nearest(int team, double x, double y, int k, int[] out) {
+        return this.grid.nearest(x, y, k, team, out);
+    }
+
+    /**
+     * Finds the tracks of a team's players within a distance of a point.
+     *
+     * @param team TEAMMATE or OPPONENT, or UNKNOWN for every track
+     * @param x the point's x-coordinate
+     * @param y the point's y-coordinate
+     * @param radius the distance
+     * @param out the array to write the tracks' indices into, in no particular order
+     * @return the number of tracks found
+     */
+    public final int within(int team, double x, double y, double radius, int[] out) {
+        return this.grid.within(x, y, radius, team, out);
+    }
+
+    /**
+     * Finds the tracks of a team's players within a distance of a point and an angle of a
+     * direction from it, such as the players that could block a pass.
+     *
+     * @param team TEAMMATE or OPPONENT, or UNKNOWN for every track
+     * @param x the point's x-coordinate
+     * @param y the point's y-coordinate
+     * @param direction the direction, in degrees
+     * @param halfAngle the angle, in degrees
+     * @param range the distance
+     * @param out the array to write the tracks' indices into, in no particular order
+     * @return the number of tracks found
+     */
+    public final int inCone(int team, double x, double y, double direction, double halfAngle, double range,
+            int[] out) {
+        return this.grid.inCone(x, y, direction, halfAngle, range, team, out);
+    }
+
+    /**
+     * Gets a track's x-coordinate.
+     *
+     * @param i the track
+     * @return the x-coordinate
+     */
+    public final double getX(int i) {
+        return this.x[i];
+    }
+
+    /**
+     * Gets a track's y-coordinate.
+     *
+     * @param i the track
+     * @return the y-coordinate
+     */
+    public final double getY(int i) {
+        return this.y[i];
+    }
+
+    /**
+     * Gets the x-component of a track's velocity.
+     *
+     * @param i the track
+     * @return the velocity's x-component, in meters per cycle
+     */
+    public final double getVelocityX(int i) {
+        return this.vx[i];
+    }
+
+    /**
+     * Gets the y-component of a track's velocity.
+     *
+     * @param i the track
+     * @return the velocity's y-component, in meters per cycle
+     */
+    public final double getVelocityY(int i) {
+        return this.vy[i];
+    }
+
+    /**
+     * Gets the expected error of a track's position.
+     *
+     * @param i the track
+     * @return the standard deviation of the position, in meters
+     */
+    public final double getError(int i) {
+        return Math.sqrt(this.variance[i]);
+    }
+
+    /**
+     * Gets a track's team code.
+     *
+     * @param i the track
+     * @return TEAMMATE, OPPONENT, or UNKNOWN
+     */
+    public final int getTeam(int i) {
+        return this.team[i];
+    }
+
+    /**
+     * Gets a track's uniform number.
+     *
+     * @param i the track
+     * @return the number, or 0 if unknown
+     */
+    public final int getNumber(int i) {
+        return this.number[i];
+    }
+
+    /**
+     * Gets the time step a track was last seen.
+     *
+     * @param i the track
+     * @return the time step
+     */
+    public final int getLastSeen(int i) {
+        return this.seen[i];
+    }
+}
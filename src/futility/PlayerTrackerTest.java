@@ -0,0 +1,83 @@
+/** @file PlayerTrackerTest.java
+ * Unit tests for the PlayerTracker class.
+ *
+ * @author Team F(utility)
+ */
+
+package futility;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for the PlayerTracker class. Players are seen from the center spot, facing along the
+ * x-axis with the normal view width.
+ */
+public class PlayerTrackerTest {
+
+    /**
+     * Tests that team codes and uniform numbers are read from ObjectIds.
+     */
+    @Test
+    public void testIdentity() {
+        assertEquals(PlayerTracker.TEAMMATE, PlayerTracker.teamOf("(p \"futility\" 7)", "futility"));
+        assertEquals(PlayerTracker.OPPONENT, PlayerTracker.teamOf("(p \"futility2\" 7 goalie)", "futility"));
+        assertEquals(PlayerTracker.UNKNOWN, PlayerTracker.teamOf("(p)", "futility"));
+        assertEquals(PlayerTracker.UNKNOWN, PlayerTracker.teamOf("(P)", "futility"));
+        assertEquals(11, PlayerTracker.numberOf("(p \"futility2\" 11 goalie)"));
+        assertEquals(0, PlayerTracker.numberOf("(p \"futility2\")"));
+        assertEquals(0, PlayerTracker.numberOf("(p)"));
+    }
+
+    /**
+     * Tests that a player seen anonymously after being identified keeps its track and identity.
+     */
+    @Test
+    public void testAnonymousSightingsKeepIdentity() {
+        PlayerTracker tracker = new PlayerTracker();
+        tracker.see(PlayerTracker.OPPONENT, 7, 10.0, 0.0);
+        tracker.see(PlayerTracker.TEAMMATE, 3, 10.0, 30.0);
+        tracker.update(0, 0.0, 0.0, 0.0, 0.0, 45.0);
+        for (int time = 1; time <= 5; time++) {
+            tracker.see(PlayerTracker.UNKNOWN, 0, 10.0 + 0.5 * time, 0.0);
+            tracker.see(PlayerTracker.TEAMMATE, 0, 10.0, 30.0);
+            tracker.update(time, 0.0, 0.0, 0.0, 0.0, 45.0);
+        }
+        assertEquals(2, tracker.size());
+        int opponent = tracker.find(PlayerTracker.OPPONENT, 7);
+        assertTrue(opponent >= 0);
+        assertEquals(12.5, tracker.getX(opponent), 0.5);
+        assertEquals(0.0, tracker.getY(opponent), 0.5);
+        assertTrue(tracker.getVelocityX(opponent) > 0.0);
+        assertTrue(tracker.find(PlayerTracker.TEAMMATE, 3) >= 0);
+        assertEquals(opponent, tracker.nearest(PlayerTracker.OPPONENT, 20.0, 5.0));
+        int[] found = new int[PlayerTracker.CAPACITY];
+        assertEquals(2, tracker.nearest(PlayerTracker.UNKNOWN, 20.0, 5.0, 5, found));
+        assertEquals(opponent, found[0]);
+        assertEquals(1, tracker.within(PlayerTracker.TEAMMATE, 0.0, 0.0, 11.0, found));
+        assertEquals(0, tracker.inCone(PlayerTracker.OPPONENT, 0.0, 0.0, 30.0, 15.0, 20.0, found));
+        assertEquals(1, tracker.count(PlayerTracker.OPPONENT));
+    }
+
+    /**
+     * Tests that unseen tracks are kept while out of view, and dropped when they should have
+     * been seen or have not been seen for too long.
+     */
+    @Test
+    public void testExpiry() {
+        PlayerTracker tracker = new PlayerTracker();
+        tracker.see(PlayerTracker.OPPONENT, 7, 10.0, 0.0);
+        tracker.see(PlayerTracker.OPPONENT, 8, 10.0, 40.0);
+        tracker.update(0, 0.0, 0.0, 0.0, 0.0, 45.0);
+        // Turned away from both
+        tracker.update(1, 0.0, 0.0, 180.0, 0.0, 45.0);
+        assertEquals(2, tracker.size());
+        // Facing #7 again, which is gone, while #8 is at the edge of the view
+        tracker.update(2, 0.0, 0.0, 0.0, 0.0, 45.0);
+        assertEquals(1, tracker.size());
+        assertTrue(tracker.find(PlayerTracker.OPPONENT, 8) >= 0);
+        tracker.update(3 + PlayerTracker.EXPIRE_CYCLES, 0.0, 0.0, 180.0, 0.0, 45.0);
+        assertEquals(0, tracker.size());
+    }
+}
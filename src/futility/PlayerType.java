@@ -0,0 +1,192 @@
+/** @file PlayerType.java
+ * Parameters of a heterogeneous player type.
+ * 
+ * @author Team F(utility)
+ */
+
+package futility;
+
+/**
+ * Immutable parameters of one heterogeneous player type, as sent by the server in `player_type`
+ * messages, together with constants derived from them. Type 0 is the default player type, whose
+ * values match the server parameters.
+ */
+public final class PlayerType {
+    public final int    ID;
+    public final double PLAYER_SPEED_MAX;
+    public final double STAMINA_INC_MAX;
+    public final double PLAYER_DECAY;
+    public final double INERTIA_MOMENT;
+    public final double DASH_POWER_RATE;
+    public final double PLAYER_SIZE;
+    public final double KICKABLE_MARGIN;
+    public final double KICK_RAND;
+    public final double EXTRA_STAMINA;
+    public final double EFFORT_MAX;
+    public final double EFFORT_MIN;
+    public final double KICK_POWER_RATE;
+    public final double FOUL_DETECT_PROBABILITY;
+    public final double CATCHABLE_AREA_L_STRETCH;
+    
+    // Derived constants
+    /** Distance from the player's center within which the ball can be kicked. */
+    public final double KICKABLE_RADIUS;
+    /** Acceleration of a full-power dash at maximum effort. */
+    public final double DASH_ACCEL_MAX;
+    /** Highest speed this type can actually reach by dashing, which may be below its speed limit. */
+    public final double REAL_SPEED_MAX;
+    /** Acceleration given to the ball by a full-power kick from point blank. */
+    public final double KICK_ACCEL_MAX;
+    
+    /**
+     * Builds the default player type for the given server parameters.
+     * 
+     * @param params the server parameters in effect
+     */
+    public PlayerType(ServerParams params) {
+        this(new Builder(params), params);
+    }
+    
+    /**
+     * Builds a player type from the values in the given Builder.
+     * 
+     * @param builder the parameter values to use
+     * @param params the server parameters in effect
+     */
+    public PlayerType(Builder builder, ServerParams params) {
+        ID                       = builder.ID;
+        PLAYER_SPEED_MAX         = builder.PLAYER_SPEED_MAX;
+        STAMINA_INC_MAX          = builder.STAMINA_INC_MAX;
+        PLAYER_DECAY             = builder.PLAYER_DECAY;
+        INERTIA_MOMENT           = builder.INERTIA_MOMENT;
+        DASH_POWER_RATE          = builder.DASH_POWER_RATE;
+        PLAYER_SIZE              = builder.PLAYER_SIZE;
+        KICKABLE_MARGIN          = builder.KICKABLE_MARGIN;
+        KICK_RAND                = builder.KICK_RAND;
+        EXTRA_STAMINA            = builder.EXTRA_STAMINA;
+        EFFORT_MAX               = builder.EFFORT_MAX;
+        EFFORT_MIN               = builder.EFFORT_MIN;
+        KICK_POWER_RATE          = builder.KICK_POWER_RATE;
+        FOUL_DETECT_PROBABILITY  = builder.FOUL_DETECT_PROBABILITY;
+        CATCHABLE_AREA_L_STRETCH = builder.CATCHABLE_AREA_L_STRETCH;
+        
+        KICKABLE_RADIUS = PLAYER_SIZE + KICKABLE_MARGIN + params.BALL_PARAMS.BALL_SIZE;
+        DASH_ACCEL_MAX = Math.min(params.PLAYER_PARAMS.PLAYER_ACCEL_MAX,
+                params.PLAYER_PARAMS.DASH_POWER_MAX * DASH_POWER_RATE * EFFORT_MAX);
+        // Speed converges to accel / (1 - decay) when dashing every cycle
+        REAL_SPEED_MAX = Math.min(PLAYER_SPEED_MAX, DASH_ACCEL_MAX / (1.0 - PLAYER_DECAY));
+        KICK_ACCEL_MAX = Math.min(params.BALL_PARAMS.BALL_ACCEL_MAX,
+                params.PLAYER_PARAMS.POWER_MAX * KICK_POWER_RATE);
+    }
+    
+    /**
+     * Parses a `player_type` message.
+     * 
+     * @param message the `player_type` message received from the server
+     * @param params the server parameters in effect
+     * @return the player type described by the message
+     */
+    public static PlayerType parse(String message, ServerParams params) {
+        Builder builder = new Builder(params);
+        String parts[] = message.split("\\(");
+        for ( String i : parts ) // for each structured argument:
+        {
+            // Clean the string, and break it down into the base arguments.
+            String nMsg = i.split("\\)")[0].trim();
+            if ( nMsg.isEmpty() ) continue;
+            builder.dataParser(nMsg.split("\\s"));
+        }
+        return new PlayerType(builder, params);
+    }
+    
+    /** @class Builder
+     * Default values for a player type are stored here, taken from the server parameters where
+     * the server sends them. The parsing routine overrides them with the values of a specific type.
+     */
+    public static class Builder
+    {
+        private int    ID                       = 0;
+        private double PLAYER_SPEED_MAX;
+        private double STAMINA_INC_MAX;
+        private double PLAYER_DECAY;
+        private double INERTIA_MOMENT           = 5.0;
+        private double DASH_POWER_RATE;
+        private double PLAYER_SIZE;
+        private double KICKABLE_MARGIN;
+        private double KICK_RAND                = 0.1;
+        private double EXTRA_STAMINA            = 50.0;
+        private double EFFORT_MAX               = 1.0;
+        private double EFFORT_MIN               = 0.6;
+        private double KICK_POWER_RATE;
+        private double FOUL_DETECT_PROBABILITY  = 0.5;
+        private double CATCHABLE_AREA_L_STRETCH = 1.0;
+        
+        /**
+         * Builds a Builder holding the values of the default player type.
+         * 
+         * @param params the server parameters in effect
+         */
+        public Builder(ServerParams params) {
+            PLAYER_SPEED_MAX = params.PLAYER_PARAMS.PLAYER_SPEED_MAX;
+            STAMINA_INC_MAX  = params.PLAYER_PARAMS.STAMINA_INC_MAX;
+            PLAYER_DECAY     = params.PLAYER_PARAMS.PLAYER_DECAY;
+            DASH_POWER_RATE  = params.DASH_POWER_RATE;
+            PLAYER_SIZE      = params.PLAYER_PARAMS.PLAYER_SIZE;
+            KICKABLE_MARGIN  = params.PLAYER_PARAMS.KICKABLE_MARGIN;
+            KICK_POWER_RATE  = params.KICK_POWER_RATE;
+        }
+        
+        /**
+         * Takes a string array of the form: Name Value <br>
+         * Where Name is the name of a player type parameter as specified by the server,
+         * and Value is the given value for that parameter. Unknown names are ignored.
+         * 
+         * @param args String array containing a parameter and its value.
+         */
+        public void dataParser(String[] args)
+        {
+            try
+            {
+                String name = args[0];
+                if ( name.equals("id") )
+                    ID = Integer.parseInt(args[1]);
+                else if ( name.equals("player_speed_max") )
+                    PLAYER_SPEED_MAX = Double.parseDouble(args[1]);
+                else if ( name.equals("stamina_inc_max") )
+                    STAMINA_INC_MAX = Double.parseDouble(args[1]);
+                else if ( name.equals("player_decay") )
+                    PLAYER_DECAY = Double.parseDouble(args[1]);
+                else if ( name.equals("inertia_moment") )
+                    INERTIA_MOMENT = Double.parseDouble(args[1]);
+                else if ( name.equals("dash_power_rate") )
+                    DASH_POWER_RATE = Double.parseDouble(args[1]);
+                else if ( name.equals("player_size") )
+                    PLAYER_SIZE = Double.parseDouble(args[1]);
+                else if ( name.equals("kickable_margin") )
+                    KICKABLE_MARGIN = Double.parseDouble(args[1]);
+                else if ( name.equals("kick_rand") )
+                    KICK_RAND = Double.parseDouble(args[1]);
+                else if ( name.equals("extra_stamina") )
+                    EXTRA_STAMINA = Double.parseDouble(args[1]);
+                else if ( name.equals("effort_max") )
+                    EFFORT_MAX = Double.parseDouble(args[1]);
+                else if ( name.equals("effort_min") )
+                    EFFORT_MIN = Double.parseDouble(args[1]);
+                else if ( name.equals("kick_power_rate") )
+                    KICK_POWER_RATE = Double.parseDouble(args[1]);
+                else if ( name.equals("foul_detect_probability") )
+                    FOUL_DETECT_PROBABILITY = Double.parseDouble(args[1]);
+                else if ( name.equals("catchable_area_l_stretch") )
+                    CATCHABLE_AREA_L_STRETCH = Double.parseDouble(args[1]);
+            }
+            catch ( ArrayIndexOutOfBoundsException ae )
+            {
+                Log.e("Malformed player type parameter; no value specified");
+            }
+            catch ( NumberFormatException nfe )
+            {
+                Log.d("Player type parameter NaN.");
+            }
+        }
+    }
+}
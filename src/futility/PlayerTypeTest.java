@@ -0,0 +1,61 @@
+/** @file PlayerTypeTest.java
+ * `PlayerType` and `PlayerTypes` tests.
+ *
+ * @author Team F(utility)
+ */
+
+package futility;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+/**
+ * Container class for `PlayerType` tests.
+ */
+public class PlayerTypeTest {
+    private static final String PLAYER_TYPE =
+        "(player_type (id 3)(player_speed_max 1.05)(stamina_inc_max 50.12)(player_decay 0.45)"
+        + "(inertia_moment 6.2)(dash_power_rate 0.0052)(player_size 0.3)(kickable_margin 0.83)"
+        + "(kick_rand 0.23)(extra_stamina 78.3)(effort_max 0.93)(effort_min 0.53)"
+        + "(kick_power_rate 0.027)(foul_detect_probability 0.5)(catchable_area_l_stretch 1.12))";
+
+    /**
+     * Tests that every field of a `player_type` message is read and derived constants are set.
+     */
+    @Test
+    public void testParsePlayerType() {
+        ServerParams params = ServerParams.DEFAULT;
+        PlayerType type = PlayerType.parse(PLAYER_TYPE, params);
+        assertEquals(3, type.ID);
+        assertEquals(0.45, type.PLAYER_DECAY, 1e-9);
+        assertEquals(6.2, type.INERTIA_MOMENT, 1e-9);
+        assertEquals(0.0052, type.DASH_POWER_RATE, 1e-9);
+        assertEquals(0.83, type.KICKABLE_MARGIN, 1e-9);
+        assertEquals(0.93, type.EFFORT_MAX, 1e-9);
+        assertEquals(1.12, type.CATCHABLE_AREA_L_STRETCH, 1e-9);
+        assertEquals(0.3 + 0.83 + params.BALL_PARAMS.BALL_SIZE, type.KICKABLE_RADIUS, 1e-9);
+        // 100 * 0.0052 * 0.93 / (1 - 0.45) is below the speed limit
+        assertEquals(100 * 0.0052 * 0.93 / 0.55, type.REAL_SPEED_MAX, 1e-9);
+        assertEquals(2.7, type.KICK_ACCEL_MAX, 1e-9);
+    }
+
+    /**
+     * Tests that the type table resolves received types and falls back to the default type.
+     */
+    @Test
+    public void testPlayerTypes() {
+        ServerParams params = ServerParams.DEFAULT;
+        PlayerTypes types = PlayerTypes.parse("(player_param (player_types 18)(subs_max 3)(pt_max 1))", params);
+        assertEquals(18, types.PLAYER_TYPES);
+        assertSame(params.PLAYER_TYPE, types.get(3));
+        PlayerTypes withType = types.with(PlayerType.parse(PLAYER_TYPE, params));
+        assertEquals(3, withType.get(3).ID);
+        assertSame(params.PLAYER_TYPE, types.get(3));
+        assertSame(params.PLAYER_TYPE, withType.get(17));
+        PlayerTypes withFast = withType.with(PlayerType.parse(PLAYER_TYPE.replace("(id 3)(player_speed_max 1.05)",
+                "(id 4)(player_speed_max 1.2)"), params));
+        assertEquals(params.PLAYER_TYPE.PLAYER_SPEED_MAX, withType.speedMax(), 1e-9);
+        assertEquals(1.2, withFast.speedMax(), 1e-9);
+    }
+}
@@ -0,0 +1,132 @@
+/** @file PlayerTypes.java
+ * Table of the heterogeneous player types in use.
+ * 
+ * @author Team F(utility)
+ */
+
+package futility;
+
+import java.util.Arrays;
+
+/**
+ * Immutable table of the heterogeneous player types sent by the server, indexed by type id. The
+ * server announces the table's size in `player_param` and then sends each type in a `player_type`
+ * message; {@link #with(PlayerType)} returns a new table including a newly received type. Types
+ * that have not been received resolve to the default type.
+ */
+public final class PlayerTypes {
+    public final int PLAYER_TYPES;
+    public final int SUBS_MAX;
+    public final int PT_MAX;
+    public final boolean ALLOW_MULT_DEFAULT_TYPE;
+    
+    private final PlayerType[] types;
+    
+    /**
+     * Builds a table holding only the default type of the given server parameters.
+     * 
+     * @param params the server parameters in effect
+     */
+    public PlayerTypes(ServerParams params) {
+        this(1, 3, 1, false, new PlayerType[] { params.PLAYER_TYPE });
+    }
+    
+    /**
+     * Builds a table from its values.
+     */
+    private PlayerTypes(int playerTypes, int subsMax, int ptMax, boolean allowMultDefaultType,
+                        PlayerType[] types) {
+        this.PLAYER_TYPES = playerTypes;
+        this.SUBS_MAX = subsMax;
+        this.PT_MAX = ptMax;
+        this.ALLOW_MULT_DEFAULT_TYPE = allowMultDefaultType;
+        this.types = types;
+    }
+    
+    /**
+     * Parses a `player_param` message into an empty table of the announced size. The ranges the
+     * server draws heterogeneous types from are not kept, since each type is sent in full.
+     * 
+     * @param message the `player_param` message received from the server
+     * @param params the server parameters in effect
+     * @return a table holding only the default type
+     */
+    public static PlayerTypes parse(String message, ServerParams params) {
+        int playerTypes = 1, subsMax = 3, ptMax = 1;
+        boolean allowMultDefaultType = false;
+        String parts[] = message.split("\\(");
+        for ( String i : parts ) // for each structured argument:
+        {
+            // Clean the string, and break it down into the base arguments.
+            String nMsg = i.split("\\)")[0].trim();
+            if ( nMsg.isEmpty() ) continue;
+            String nArgs[] = nMsg.split("\\s");
+            
+            try {
+                if ( nArgs[0].equals("player_types") )
+                    playerTypes = Integer.parseInt(nArgs[1]);
+                else if ( nArgs[0].equals("subs_max") )
+                    subsMax = Integer.parseInt(nArgs[1]);
+                else if ( nArgs[0].equals("pt_max") )
+                    ptMax = Integer.parseInt(nArgs[1]);
+                else if ( nArgs[0].equals("allow_mult_default_type") )
+                    allowMultDefaultType = Double.parseDouble(nArgs[1]) != 0.0;
+            }
+            catch ( ArrayIndexOutOfBoundsException e ) {
+                Log.e("Malformed player parameter; no value specified");
+            }
+            catch ( NumberFormatException e ) {
+                Log.d("Player parameter NaN.");
+            }
+        }
+        PlayerType[] types = new PlayerType[Math.max(1, playerTypes)];
+        types[0] = params.PLAYER_TYPE;
+        return new PlayerTypes(playerTypes, subsMax, ptMax, allowMultDefaultType, types);
+    }
+    
+    /**
+     * Returns a table that also holds the given type, replacing any type with the same id.
+     * 
+     * @param type a player type
+     * @return the new table
+     */
+    public PlayerTypes with(PlayerType type) {
+        if (type.ID < 0) {
+            Log.e("Invalid player type id " + type.ID + ".");
+            return this;
+        }
+        PlayerType[] types = Arrays.copyOf(this.types, Math.max(this.types.length, type.ID + 1));
+        types[type.ID] = type;
+        return new PlayerTypes(Math.max(this.PLAYER_TYPES, types.length), this.SUBS_MAX,
+                this.PT_MAX, this.ALLOW_MULT_DEFAULT_TYPE, types);
+    }
+    
+    /**
+     * Gets the top speed of the fastest type in the table, which bounds how fast any player whose
+     * type is unknown can run.
+     * 
+     * @return the speed
+     */
+    public double speedMax() {
+        double speedMax = 0.0;
+        for (PlayerType type : this.types) {
+            if (type != null) {
+                speedMax = Math.max(speedMax, type.PLAYER_SPEED_MAX);
+            }
+        }
+        return speedMax;
+    }
+    
+    /**
+     * Gets a player type by id.
+     * 
+     * @param id a player type id
+     * @return the type with that id, or the default type if it is unknown
+     */
+    public PlayerType get(int id) {
+        if (id >= 0 && id < this.types.length && this.types[id] != null) {
+            return this.types[id];
+        }
+        return this.types[0];
+    }
+}
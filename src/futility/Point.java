@@ -63,7 +63,7 @@ public class Point {
                 return -90.0;
             }
         }
-        double angle = Math.toDegrees(Math.atan(dy/dx));
+        double angle = Futil.atanDeg(dy/dx);
         if (dx > 0) {
             return angle;
         }
@@ -179,7 +179,19 @@ public class Point {
      * @return the midpoint between this point and the other
      */
     public final Point midpointTo(Point p) {
-        return new Point( (this.x + p.getX()) / 2.0, (this.y + p.getY()) / 2.0);
+        return this.midpointTo(p, new Point());
+    }
+    
+    /**
+     * Stores the midpoint between this point and another in a given point.
+     * 
+     * @param p the other point
+     * @param out the point to store the midpoint in
+     * @return out
+     */
+    public final Point midpointTo(Point p, Point out) {
+        out.update( (this.x + p.getX()) / 2.0, (this.y + p.getY()) / 2.0);
+        return out;
     }
     
     /**
@@ -24,9 +24,7 @@ public class PositionEstimate extends Estimate {
      * @param estimate the estimate to copy
      */
     public PositionEstimate(PositionEstimate estimate) {
-        this.position.update(estimate.getPosition());
-        this.initialConfidence = estimate.getInitialConfidence();
-        this.timeEstimated = estimate.getTimeEstimated();
+        this.copy(estimate);
     }
     
     /**
@@ -132,6 +130,17 @@ public class PositionEstimate extends Estimate {
         return this.position.render() + " with " + Double.toString(this.getConfidence(time)) + " confidence.";
     }
     
+    /**
+     * Copies an existing estimate into this one.
+     * 
+     * @param estimate the estimate to copy
+     */
+    public final void copy(PositionEstimate estimate) {
+        this.position.update(estimate.getPosition());
+        this.initialConfidence = estimate.getInitialConfidence();
+        this.timeEstimated = estimate.getTimeEstimated();
+    }
+    
     /**
      * Updates the estimate.
      * 
@@ -152,13 +161,12 @@ public class PositionEstimate extends Estimate {
      * @param time the time of the estimate
      */
     public final void update(double x, double y, double confidence, int time) {
-        Point oldPosition = new Point(this.position.getX(), this.position.getY());
+        double distance = Math.hypot(x - this.position.getX(), y - this.position.getY());
         this.initialConfidence = confidence;
         this.timeEstimated = time;
         this.position.update(x, y);
-        double distance = this.position.distanceTo(oldPosition);
-        if (distance > 10) {
-            Log.i("Updated position by " + Double.toString(distance));
+        if (distance > 10 && Log.isEnabled(Log.INFO)) {
+            Log.i("Updated position by %f", distance);
         }
     }
 }
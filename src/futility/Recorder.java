@@ -0,0 +1,327 @@
+/** @file Recorder.java
+ * Binary log of the datagrams exchanged with the soccer server.
+ *
+ * @author Team F(utility)
+ */
+
+package futility;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+
+/**
+ * Appends every datagram a client receives or sends to a compact binary file. The file starts
+ * with the magic bytes `FREC`, a format version and the wall-clock time recording started, in
+ * milliseconds. Each entry then holds the nanoseconds since recording started, a direction byte,
+ * the datagram's length and its raw bytes, big-endian throughout.
+ *
+ * Entries are staged in a large direct buffer, so recording a datagram is a memory copy. A full
+ * buffer is handed to a background thread, shared by every recorder, which writes it to the file
+ * while the next of a few buffers is filled; the receive and send threads never wait on the
+ * disk. If the writer falls so far behind that every buffer is full, datagrams are dropped and
+ * counted rather than waited on, and the count is reported when the recorder is closed. Recorders
+ * still open when the process exits are closed by a shutdown hook.
+ */
+public final class Recorder {
+    public static final byte RECEIVED = 0;
+    public static final byte SENT = 1;
+
+    private static final int MAGIC = 0x46524543;  // "FREC"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 4 + 4 + 8;
+    private static final int ENTRY_HEADER_SIZE = 8 + 1 + 2;
+    private static final int BUFFER_SIZE = 256 * 1024;
+    private static final int BUFFERS = 4;
+
+    private static final List<Recorder> open = new ArrayList<Recorder>();
+    // Recorders that have handed full buffers to the writer
+    private static final ArrayBlockingQueue<Recorder> ready = new ArrayBlockingQueue<Recorder>(1024);
+    private static final Thread writer = new Thread(new Runnable() {
+        public void run() {
+            while (true) {
+                try {
+                    ready.take().writeFull();
+                }
+                catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+    }, "futility-recorder");
+
+    static {
+        writer.setDaemon(true);
+        writer.start();
+        Runtime.getRuntime().addShutdownHook(new Thread("futility-recorder-close") {
+            public void run() {
+                Recorder.closeAll();
+            }
+        });
+    }
+
+    private final File file;
+    private final FileChannel channel;
+    private final long startNanos;
+    // Buffers ready to be filled, and filled buffers waiting to be written, in order
+    private final ArrayBlockingQueue<ByteBuffer> free = new ArrayBlockingQueue<ByteBuffer>(BUFFERS);
+    private final ArrayBlockingQueue<ByteBuffer> full = new ArrayBlockingQueue<ByteBuffer>(BUFFERS);
+    // Held while writing to the file, so buffers are written one at a time in order
+    private final Object writeLock = new Object();
+    // The buffer being filled
+    private ByteBuffer buffer;
+    private long dropped = 0;
+    private boolean closed = false;
+
+    /**
+     * Creates a recording, replacing any existing file.
+     *
+     * @param file the file to record into
+     * @throws IOException if the file cannot be opened
+     */
+    public Recorder(File file) throws IOException {
+        this.file = file;
+        RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        raf.setLength(0);
+        this.channel = raf.getChannel();
+        this.startNanos = System.nanoTime();
+        for (int i = 1; i < BUFFERS; i++) {
+            this.free.add(ByteBuffer.allocateDirect(BUFFER_SIZE));
+        }
+        this.buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        this.buffer.putInt(MAGIC);
+        this.buffer.putInt(VERSION);
+        this.buffer.putLong(System.currentTimeMillis());
+        synchronized (open) {
+            open.add(this);
+        }
+    }
+
+    ///////////////////////////////////////////////////////////////////////////
+    // STATIC FUNCTIONS
+    ///////////////////////////////////////////////////////////////////////////
+    /**
+     * Creates a recording with a unique name in a directory.
+     *
+     * @param directory the directory to record into, which is created if needed
+     * @param prefix the start of the file name, such as the team name
+     * @return the new recorder
+     * @throws IOException if the file cannot be created
+     */
+    public static Recorder create(File directory, String prefix) throws IOException {
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Could not create recording directory " + directory);
+        }
+        // File.createTempFile() rejects prefixes shorter than three characters
+        String name = prefix + "-";
+        while (name.length() < 3) {
+            name += "-";
+        }
+        return new Recorder(File.createTempFile(name, ".frec", directory));
+    }
+
+    /**
+     * Reads every entry of a recording.
+     *
+     * @param file the recording
+     * @return the entries, in the order they were recorded
+     * @throws IOException if the file cannot be read or is not a recording
+     */
+    public static List<Entry> read(File file) throws IOException {
+        RandomAccessFile raf = new RandomAccessFile(file, "r");
+        try {
+            ByteBuffer data = raf.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, raf.length());
+            if (data.remaining() < HEADER_SIZE || data.getInt() != MAGIC || data.getInt() != VERSION) {
+                throw new IOException(file + " is not a recording");
+            }
+            data.getLong();
+            List<Entry> entries = new ArrayList<Entry>();
+            while (data.remaining() >= ENTRY_HEADER_SIZE) {
+                long nanos = data.getLong();
+                byte direction = data.get();
+                int length = data.getShort() & 0xFFFF;
+                if (data.remaining() < length) {
+                    break;  // Truncated by a crash
+                }
+                byte[] bytes = new byte[length];
+                data.get(bytes);
+                entries.add(new Entry(nanos, direction, bytes));
+            }
+            return entries;
+        }
+        finally {
+            raf.close();
+        }
+    }
+
+    /**
+     * Closes every recorder that is still open.
+     */
+    static void closeAll() {
+        List<Recorder> recorders;
+        synchronized (open) {
+            recorders = new ArrayList<Recorder>(open);
+        }
+        for (Recorder recorder : recorders) {
+            recorder.close();
+        }
+    }
+
+    ///////////////////////////////////////////////////////////////////////////
+    // METHODS
+    ///////////////////////////////////////////////////////////////////////////
+    /**
+     * Gets the file being recorded into.
+     *
+     * @return the recording's file
+     */
+    public final File getFile() {
+        return this.file;
+    }
+
+    /**
+     * Gets the number of datagrams dropped because every buffer was waiting to be written.
+     *
+     * @return the number of datagrams
+     */
+    public final synchronized long getDropped() {
+        return this.dropped;
+    }
+
+    /**
+     * Records a datagram, without waiting on the file. The message's position is left unchanged.
+     *
+     * @param direction either RECEIVED or SENT
+     * @param message a buffer whose remaining bytes hold the datagram
+     */
+    public final synchronized void record(byte direction, ByteBuffer message) {
+        if (this.closed) {
+            return;
+        }
+        int length = message.remaining();
+        if (this.buffer.remaining() < ENTRY_HEADER_SIZE + length && !this.handOff()) {
+            this.dropped++;
+            return;
+        }
+        int position = message.position();
+        this.buffer.putLong(System.nanoTime() - this.startNanos);
+        this.buffer.put(direction);
+        this.buffer.putShort((short) length);
+        this.buffer.put(message);
+        message.position(position);
+    }
+
+    /**
+     * Writes every staged entry to the file, waiting until it is written.
+     */
+    public final synchronized void flush() {
+        if (this.closed) {
+            return;
+        }
+        // Once the writer is caught up, there is always a free buffer to hand this one off for
+        this.writeFull();
+        this.handOff();
+        this.writeFull();
+    }
+
+    /**
+     * Flushes and closes the recording. Later datagrams are ignored.
+     */
+    public final synchronized void close() {
+        if (this.closed) {
+            return;
+        }
+        this.flush();
+        this.closed = true;
+        if (this.dropped > 0) {
+            System.err.println("recording dropped " + this.dropped + " datagrams");
+        }
+        try {
+            this.channel.close();
+        }
+        catch (IOException e) {
+            System.err.println("recording closing error " + e);
+        }
+        synchronized (open) {
+            open.remove(this);
+        }
+    }
+
+    /**
+     * Hands the buffer being filled to the writer, and starts filling a free one.
+     *
+     * @return false if no buffer is free, in which case nothing is handed off
+     */
+    private final boolean handOff() {
+        ByteBuffer next = this.free.poll();
+        if (next == null) {
+            return false;
+        }
+        this.buffer.flip();
+        this.full.add(this.buffer);
+        this.buffer = next;
+        // If the queue is full, this buffer is written along with the next one handed off
+        ready.offer(this);
+        return true;
+    }
+
+    /**
+     * Writes every filled buffer to the channel, and frees it.
+     */
+    private final void writeFull() {
+        synchronized (this.writeLock) {
+            ByteBuffer written;
+            while ((written = this.full.poll()) != null) {
+                try {
+                    while (written.hasRemaining()) {
+                        this.channel.write(written);
+                    }
+                }
+                catch (IOException e) {
+                    System.err.println("recording writing error " + e);
+                }
+                written.clear();
+                this.free.add(written);
+            }
+        }
+    }
+
+    /**
+     * A recorded datagram.
+     */
+    public static final class Entry {
+        /** Nanoseconds between the start of recording and this datagram. */
+        public final long nanos;
+        /** Either RECEIVED or SENT. */
+        public final byte direction;
+        /** The datagram's raw bytes. */
+        public final byte[] bytes;
+
+        /**
+         * Primary constructor.
+         *
+         * @param nanos nanoseconds between the start of recording and the datagram
+         * @param direction either RECEIVED or SENT
+         * @param bytes the datagram's raw bytes
+         */
+        public Entry(long nanos, byte direction, byte[] bytes) {
+            this.nanos = nanos;
+            this.direction = direction;
+            this.bytes = bytes;
+        }
+
+        /**
+         * Renders the datagram as text, without its trailing NUL.
+         *
+         * @return the datagram's text
+         */
+        public final String render() {
+            return Futil.decode(ByteBuffer.wrap(this.bytes));
+        }
+    }
+}
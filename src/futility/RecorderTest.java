@@ -0,0 +1,84 @@
+/** @file RecorderTest.java
+ * Unit tests for the Recorder class.
+ * 
+ * @author Team F(utility)
+ */
+
+package futility;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for the Recorder class.
+ */
+public class RecorderTest {
+
+    /**
+     * Tests that recorded datagrams are read back in order, byte for byte.
+     */
+    @Test
+    public void testRoundTrip() throws IOException {
+        File file = File.createTempFile("futility", ".frec");
+        file.deleteOnExit();
+        Recorder recorder = new Recorder(file);
+        ByteBuffer received = ByteBuffer.wrap("(see 0 ((b) 10 0))\0".getBytes("US-ASCII"));
+        ByteBuffer sent = ByteBuffer.wrap("(turn 30)\0".getBytes("US-ASCII"));
+        recorder.record(Recorder.RECEIVED, received);
+        recorder.record(Recorder.SENT, sent);
+        assertEquals(0, received.position());
+        recorder.close();
+        recorder.record(Recorder.SENT, sent);
+        
+        List<Recorder.Entry> entries = Recorder.read(file);
+        assertEquals(2, entries.size());
+        assertEquals(Recorder.RECEIVED, entries.get(0).direction);
+        assertEquals("(see 0 ((b) 10 0))", entries.get(0).render());
+        assertEquals(Recorder.SENT, entries.get(1).direction);
+        assertEquals(10, entries.get(1).bytes.length);
+        assertTrue(entries.get(1).nanos >= entries.get(0).nanos);
+    }
+
+    /**
+     * Tests that datagrams filling several buffers are all written, in order.
+     */
+    @Test
+    public void testManyBuffers() throws IOException {
+        File file = File.createTempFile("futility", ".frec");
+        file.deleteOnExit();
+        Recorder recorder = new Recorder(file);
+        ByteBuffer message = ByteBuffer.allocate(1000);
+        int count = 600;
+        for (int i = 0; i < count; i++) {
+            message.clear();
+            message.putInt(i);
+            message.position(0);
+            recorder.record(Recorder.RECEIVED, message);
+        }
+        recorder.close();
+        assertEquals(0, recorder.getDropped());
+        List<Recorder.Entry> entries = Recorder.read(file);
+        assertEquals(count, entries.size());
+        for (int i = 0; i < count; i++) {
+            assertEquals(i, ByteBuffer.wrap(entries.get(i).bytes).getInt());
+        }
+    }
+
+    /**
+     * Tests that a recording can be created for a team with a one-letter name.
+     */
+    @Test
+    public void testShortPrefix() throws IOException {
+        File directory = new File(System.getProperty("java.io.tmpdir"));
+        Recorder recorder = Recorder.create(directory, "a");
+        recorder.getFile().deleteOnExit();
+        assertTrue(recorder.getFile().getName().startsWith("a-"));
+        recorder.close();
+    }
+}
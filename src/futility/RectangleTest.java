@@ -47,7 +47,8 @@ public class RectangleTest {
 	 */
 	@Test
 	public void testContains() {
-		Rectangle rect = new Rectangle(4, 4, 1, 1);
+		// Server coordinates: y grows downward, so the top is the smaller y
+		Rectangle rect = new Rectangle(1, 4, 4, 1);
 		FieldObject[] objects = {
 				new MobileObject(1.1, 1.1),
 				new MobileObject(1.1, 2.1),
@@ -62,14 +63,14 @@ public class RectangleTest {
 				true,
 				true,
 				false,
+				false,
 				true,
-				true,
-				true,
+				false,
 				false,
 				true,
 		};
 		
-		for(int i = 0; i <= objects.length; i++) {
+		for(int i = 0; i < objects.length; i++) {
 			assertEquals(expectations[i], rect.contains(objects[i]));
 		}
 	}
@@ -0,0 +1,247 @@
+/** @file Replay.java
+ * Offline replay of recorded server traffic through a brain.
+ *
+ * @author Team F(utility)
+ */
+
+package futility;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Feeds the messages of a recording (see Recorder) into a fresh brain as fast as possible, with
+ * each message stamped with its recorded time so that timing-dependent decisions come out the
+ * same. Commands the brain sends are captured by a FakeClient rather than sent, and compared
+ * against the commands recorded after the same message.
+ *
+ * Run it with `java futility.Replay <recording.frec> [client arguments...]`.
+ */
+public class Replay {
+    private final List<Recorder.Entry> entries;
+
+    /**
+     * Primary constructor.
+     *
+     * @param entries the recorded datagrams, in order
+     */
+    public Replay(List<Recorder.Entry> entries) {
+        this.entries = entries;
+    }
+
+    ///////////////////////////////////////////////////////////////////////////
+    // STATIC FUNCTIONS
+    ///////////////////////////////////////////////////////////////////////////
+    /**
+     * Loads a replay from a recording.
+     *
+     * @param file the recording
+     * @return the replay
+     * @throws IOException if the recording cannot be read
+     */
+    public static Replay load(File file) throws IOException {
+        return new Replay(Recorder.read(file));
+    }
+
+    /**
+     * Replays a recording and prints how the brain's commands compare.
+     *
+     * @param args the recording, followed by any arguments for the client
+     */
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.err.println("usage: futility.Replay <recording.frec> [client arguments...]");
+            System.exit(2);
+        }
+        Replay replay;
+        try {
+            replay = Replay.load(new File(args[0]));
+        }
+        catch (IOException e) {
+            System.err.println("recording reading error " + e);
+            System.exit(2);
+            return;
+        }
+        Result result;
+        if (args.length > 1) {
+            String[] clientArgs = new String[args.length - 1];
+            System.arraycopy(args, 1, clientArgs, 0, clientArgs.length);
+            result = replay.run(clientArgs);
+        }
+        else {
+            result = replay.run();
+        }
+        System.out.println(result.render());
+        System.exit(result.divergences == 0 ? 0 : 1);
+    }
+
+    ///////////////////////////////////////////////////////////////////////////
+    // METHODS
+    ///////////////////////////////////////////////////////////////////////////
+    /**
+     * Gets the client arguments the recorded agent was most likely started with, judging from the
+     * `init` command it sent.
+     *
+     * @return the team name and goalie arguments
+     */
+    public final String[] clientArgs() {
+        for (Recorder.Entry entry : this.entries) {
+            if (entry.direction == Recorder.SENT) {
+                String init = entry.render();
+                if (!init.startsWith("(init ")) {
+                    break;
+                }
+                String team = init.substring(6).split("[\\s()]+")[0];
+                if (init.contains("(goalie)")) {
+                    return new String[] {"--team", team, "--goalie"};
+                }
+                return new String[] {"--team", team};
+            }
+        }
+        return new String[0];
+    }
+
+    /**
+     * Replays the recording with the client arguments found in it.
+     *
+     * @return the outcome of the replay
+     */
+    public final Result run() {
+        return this.run(this.clientArgs());
+    }
+
+    /**
+     * Replays the recording through a brain whose client was given the arguments.
+     *
+     * @param args the client's arguments
+     * @return the outcome of the replay
+     */
+    public final Result run(String[] args) {
+        FakeClient client = new FakeClient(args);
+        Result result = new Result(client);
+        ByteBuffer buffer = ByteBuffer.allocateDirect(Settings.MSG_SIZE);
+        List<String> expected = new ArrayList<String>();
+        String cause = "(start)";
+        client.init();
+        for (Recorder.Entry entry : this.entries) {
+            if (entry.direction == Recorder.SENT) {
+                expected.add(entry.render());
+                continue;
+            }
+            result.compare(cause, expected);
+            expected.clear();
+            cause = entry.render();
+            buffer.clear();
+            buffer.put(entry.bytes, 0, Math.min(entry.bytes.length, buffer.capacity()));
+            buffer.flip();
+            long start = System.nanoTime();
+            client.player.brain.parseMessage(buffer, entry.nanos / 1000000);
+            result.elapsedNanos += System.nanoTime() - start;
+            result.received++;
+        }
+        result.compare(cause, expected);
+        return result;
+    }
+
+    /**
+     * A client that never touches the network. Commands are captured instead of sent.
+     */
+    public static class FakeClient extends Client {
+        /** Every command sent so far, without its trailing NUL. */
+        public final ArrayList<String> sent = new ArrayList<String>();
+        /** Whether to capture commands; turn off to replay indefinitely without growing. */
+        public boolean capturing = true;
+
+        /**
+         * Primary constructor.
+         *
+         * @param args the same arguments a client would be passed
+         */
+        public FakeClient(String[] args) {
+            super(args);
+            // Replays must come out the same however fast they run
+            this.player.brain.setPassBudget(0L);
+        }
+
+        /**
+         * Does nothing, as there is no server to connect to.
+         */
+        protected void connect() {
+        }
+
+        /**
+         * Captures a command rather than sending it.
+         *
+         * @param message buffer whose remaining bytes hold the command
+         */
+        protected void sendMessage(ByteBuffer message) {
+            if (this.capturing) {
+                this.sent.add(Futil.decode(message));
+            }
+            message.position(message.limit());
+        }
+    }
+
+    /**
+     * The outcome of a replay.
+     */
+    public static class Result {
+        /** The client whose brain parsed the recording. */
+        public final FakeClient client;
+        /** How many received messages were replayed. */
+        public int received = 0;
+        /** How many messages the brain responded to differently than recorded. */
+        public int divergences = 0;
+        /** Time spent parsing messages and responding, in nanoseconds. */
+        public long elapsedNanos = 0;
+        /** A description of the first divergence, or null if there was none. */
+        public String firstDivergence = null;
+        private int compared = 0;
+
+        /**
+         * Primary constructor.
+         *
+         * @param client the client whose brain parses the recording
+         */
+        Result(FakeClient client) {
+            this.client = client;
+        }
+
+        /**
+         * Compares the commands sent since the last comparison with the recorded ones.
+         *
+         * @param cause the message the commands were sent in response to
+         * @param expected the commands recorded in response to the message
+         */
+        final void compare(String cause, List<String> expected) {
+            List<String> actual = this.client.sent.subList(this.compared, this.client.sent.size());
+            if (!actual.equals(expected)) {
+                if (this.divergences == 0) {
+                    this.firstDivergence = String.format("after %s%n  recorded %s%n  replayed %s",
+                            cause, expected, actual);
+                }
+                this.divergences++;
+            }
+            this.compared = this.client.sent.size();
+        }
+
+        /**
+         * Renders a summary of the replay.
+         *
+         * @return the summary
+         */
+        public final String render() {
+            double seconds = this.elapsedNanos / 1e9;
+            String summary = String.format("Replayed %d messages in %.1f ms (%.0f messages/s); %d diverged",
+                    this.received, seconds * 1000, seconds > 0 ? this.received / seconds : 0.0,
+                    this.divergences);
+            if (this.firstDivergence != null) {
+                summary += String.format("%nFirst divergence %s", this.firstDivergence);
+            }
+            return summary;
+        }
+    }
+}
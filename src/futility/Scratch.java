@@ -0,0 +1,21 @@
+/** @file Scratch.java
+ * Reusable scratch registers for allocation-free math.
+ * 
+ * @author Team F(utility)
+ */
+
+package futility;
+
+/**
+ * Mutable temporaries that math routines write their results into instead of allocating. Each
+ * brain owns one, so a scratch is only ever used by one thread. A value held in a register is
+ * overwritten by the next routine that uses the same register; copy it if it must survive.
+ */
+public final class Scratch {
+    public final PositionEstimate estimate = new PositionEstimate();
+    public final VelocityVector velocity = new VelocityVector();
+    public final AccelerationVector acceleration = new AccelerationVector();
+    public final Point point = new Point();
+    public final Vector2D vector = new Vector2D();
+    public final int[] tracks = new int[PlayerTracker.CAPACITY];
+}
@@ -0,0 +1,318 @@
+/** @file SeeParser.java
+ * Single-pass tokenizer for `see` messages.
+ *
+ * @author Team F(utility)
+ */
+
+package futility;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Walks the raw bytes of a `see` message exactly once, yielding one object at a time. The object's
+ * id is resolved to an index by an {@link ObjectIds} registry and its numeric fields are parsed
+ * straight into a reusable array, so no substrings, regular expressions or boxed values are
+ * created while parsing.
+ *
+ * Usage:
+ * <pre>
+ * if (parser.reset(buffer)) {
+ *     while (parser.next()) {
+ *         int index = parser.objectIndex();
+ *         ...
+ *     }
+ * }
+ * </pre>
+ */
+public final class SeeParser {
+    private static final int MAX_ARGS = 8;
+    private static final byte[] SEE_PREFIX = {'(', 's', 'e', 'e', ' '};
+
+    private final ObjectIds ids;
+    private ByteBuffer buffer;
+    private int pos;
+    private int limit;
+    private int time = -1;
+
+    // The object most recently yielded by next()
+    private int idStart;
+    private int idEnd;
+    private final double[] args = new double[MAX_ARGS];
+    private int numArgs;
+    private boolean tackling;
+    private boolean kicking;
+
+    ///////////////////////////////////////////////////////////////////////////
+    // CONSTRUCTORS
+    ///////////////////////////////////////////////////////////////////////////
+    /**
+     * Primary constructor.
+     *
+     * @param ids the registry used to resolve object ids
+     */
+    public SeeParser(ObjectIds ids) {
+        this.ids = ids;
+    }
+
+    ///////////////////////////////////////////////////////////////////////////
+    // STATIC FUNCTIONS
+    ///////////////////////////////////////////////////////////////////////////
+    /**
+     * Returns true if the buffer's remaining bytes hold a `see` message.
+     *
+     * @param buffer a raw message from the soccer server
+     * @return true if the message is a `see` message
+     */
+    public static final boolean isSee(ByteBuffer buffer) {
+        int i = skipWhitespace(buffer, buffer.position(), buffer.limit());
+        if (buffer.limit() - i < SEE_PREFIX.length) {
+            return false;
+        }
+        for (int j = 0; j < SEE_PREFIX.length; j++) {
+            if (buffer.get(i + j) != SEE_PREFIX[j]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the index of the first non-whitespace byte at or after the given index.
+     */
+    private static final int skipWhitespace(ByteBuffer buffer, int i, int limit) {
+        while (i < limit) {
+            byte b = buffer.get(i);
+            if (b != ' ' && b != '\t' && b != '\n' && b != '\r') {
+                break;
+            }
+            i++;
+        }
+        return i;
+    }
+
+    ///////////////////////////////////////////////////////////////////////////
+    // PARSING
+    ///////////////////////////////////////////////////////////////////////////
+    /**
+     * Prepares to parse the `see` message held in the buffer's remaining bytes. The buffer's
+     * position and limit are not modified. Reading stops at the first NUL byte, if any.
+     *
+     * @param buffer a raw `see` message
+     * @return true if the message header was parsed successfully
+     */
+    public final boolean reset(ByteBuffer buffer) {
+        this.buffer = buffer;
+        this.limit = buffer.limit();
+        this.numArgs = 0;
+        this.time = -1;
+        if (!isSee(buffer)) {
+            this.pos = this.limit;
+            return false;
+        }
+        this.pos = skipWhitespace(buffer, buffer.position(), this.limit) + SEE_PREFIX.length;
+        this.pos = skipWhitespace(buffer, this.pos, this.limit);
+        int start = this.pos;
+        int t = 0;
+        while (this.pos < this.limit) {
+            byte b = buffer.get(this.pos);
+            if (b < '0' || b > '9') {
+                break;
+            }
+            t = t * 10 + (b - '0');
+            this.pos++;
+        }
+        if (this.pos == start) {
+            Log.e("`see` message is missing its time step.");
+            this.pos = this.limit;
+            return false;
+        }
+        this.time = t;
+        return true;
+    }
+
+    /**
+     * Advances to the next object in the message.
+     *
+     * @return true if another object was read, false at the end of the message
+     */
+    public final boolean next() {
+        this.numArgs = 0;
+        this.tackling = false;
+        this.kicking = false;
+        this.pos = skipWhitespace(this.buffer, this.pos, this.limit);
+        if (this.pos >= this.limit || this.buffer.get(this.pos) != '(') {
+            // Either the closing ')' of the message or a trailing NUL
+            this.pos = this.limit;
+            return false;
+        }
+        this.pos = skipWhitespace(this.buffer, this.pos + 1, this.limit);
+        if (this.pos >= this.limit || this.buffer.get(this.pos) != '(') {
+            Log.e("Malformed object in `see` message at index %d.", this.pos);
+            this.pos = this.limit;
+            return false;
+        }
+        // Object id, e.g. (f r t 30) or (p "futility" 7 goalie)
+        this.idStart = this.pos;
+        while (this.pos < this.limit && this.buffer.get(this.pos) != ')') {
+            this.pos++;
+        }
+        if (this.pos >= this.limit) {
+            Log.e("Unterminated object id in `see` message.");
+            return false;
+        }
+        this.pos++;
+        this.idEnd = this.pos;
+        // Object arguments
+        while (true) {
+            this.pos = skipWhitespace(this.buffer, this.pos, this.limit);
+            if (this.pos >= this.limit) {
+                Log.e("Unterminated object in `see` message.");
+                return false;
+            }
+            byte b = this.buffer.get(this.pos);
+            if (b == ')') {
+                this.pos++;
+                return true;
+            }
+            if (b == 't' || b == 'k') {
+                this.tackling |= b == 't';
+                this.kicking |= b == 'k';
+                this.skipToken();
+            }
+            else if (this.numArgs < MAX_ARGS && ((b >= '0' && b <= '9') || b == '-' || b == '+' || b == '.')) {
+                this.args[this.numArgs++] = this.parseNumber();
+            }
+            else {
+                this.skipToken();
+            }
+        }
+    }
+
+    /**
+     * Parses the decimal number starting at the current position.
+     */
+    private final double parseNumber() {
+        boolean negative = false;
+        byte b = this.buffer.get(this.pos);
+        if (b == '-' || b == '+') {
+            negative = b == '-';
+            this.pos++;
+        }
+        double value = 0.0;
+        while (this.pos < this.limit && (b = this.buffer.get(this.pos)) >= '0' && b <= '9') {
+            value = value * 10.0 + (b - '0');
+            this.pos++;
+        }
+        if (this.pos < this.limit && this.buffer.get(this.pos) == '.') {
+            this.pos++;
+            double scale = 0.1;
+            while (this.pos < this.limit && (b = this.buffer.get(this.pos)) >= '0' && b <= '9') {
+                value += (b - '0') * scale;
+                scale *= 0.1;
+                this.pos++;
+            }
+        }
+        if (this.pos < this.limit && ((b = this.buffer.get(this.pos)) == 'e' || b == 'E')) {
+            this.pos++;
+            boolean negativeExponent = false;
+            if (this.pos < this.limit && ((b = this.buffer.get(this.pos)) == '-' || b == '+')) {
+                negativeExponent = b == '-';
+                this.pos++;
+            }
+            int exponent = 0;
+            while (this.pos < this.limit && (b = this.buffer.get(this.pos)) >= '0' && b <= '9') {
+                exponent = exponent * 10 + (b - '0');
+                this.pos++;
+            }
+            value *= Math.pow(10.0, negativeExponent ? -exponent : exponent);
+        }
+        this.skipToken();
+        return negative ? -value : value;
+    }
+
+    /**
+     * Advances the current position past the rest of the current token.
+     */
+    private final void skipToken() {
+        while (this.pos < this.limit) {
+            byte b = this.buffer.get(this.pos);
+            if (b == ' ' || b == ')' || b == '(' || b == '\t' || b == '\n' || b == '\r') {
+                return;
+            }
+            this.pos++;
+        }
+    }
+
+    ///////////////////////////////////////////////////////////////////////////
+    // ID RESOLUTION
+    ///////////////////////////////////////////////////////////////////////////
+    /**
+     * Gets the index of the current object's id, registering the id if it is new. Only
+     * previously-unseen ids allocate.
+     *
+     * @return the id's index in this parser's registry, or -1 if the registry is full
+     */
+    public final int objectIndex() {
+        return this.ids.intern(this.buffer, this.idStart, this.idEnd);
+    }
+
+    /**
+     * Gets the canonical id of the current object, e.g. "(f r t 30)". As elsewhere, "(B)" is
+     * reported as "(b)" so the ball is associated with a single field object.
+     *
+     * @return the canonical id of the current object, or null if the registry is full
+     */
+    public final String id() {
+        int index = this.objectIndex();
+        return index < 0 ? null : this.ids.name(index);
+    }
+
+    ///////////////////////////////////////////////////////////////////////////
+    // GETTERS
+    ///////////////////////////////////////////////////////////////////////////
+    /**
+     * Gets the soccer server time step of the message.
+     *
+     * @return the time step, or -1 if the header could not be parsed
+     */
+    public final int time() {
+        return this.time;
+    }
+
+    /**
+     * Gets the number of numeric arguments of the current object.
+     *
+     * @return the number of numeric arguments
+     */
+    public final int numArgs() {
+        return this.numArgs;
+    }
+
+    /**
+     * Gets a numeric argument of the current object.
+     *
+     * @param i index of the argument, in the order sent by the server
+     * @return the argument's value
+     */
+    public final double arg(int i) {
+        return this.args[i];
+    }
+
+    /**
+     * Returns true if the current object was flagged as tackling.
+     *
+     * @return true if the current object is tackling
+     */
+    public final boolean isTackling() {
+        return this.tackling;
+    }
+
+    /**
+     * Returns true if the current object was flagged as kicking.
+     *
+     * @return true if the current object is kicking
+     */
+    public final boolean isKicking() {
+        return this.kicking;
+    }
+}
@@ -0,0 +1,126 @@
+/** @file SeeParserTest.java
+ * `SeeParser` tests.
+ *
+ * @author Team F(utility)
+ */
+
+package futility;
+
+import static org.junit.Assert.*;
+
+import java.nio.ByteBuffer;
+
+import org.junit.Test;
+
+/**
+ * Container class for `SeeParser` tests.
+ */
+public class SeeParserTest {
+
+    /**
+     * Wraps a message the way the client receives it, including trailing NULs.
+     */
+    private static ByteBuffer wrap(String message) {
+        byte[] bytes = (message + "\0\0\0").getBytes();
+        return ByteBuffer.wrap(bytes);
+    }
+
+    /**
+     * Tests that the time step and every object of a `see` message are read.
+     */
+    @Test
+    public void testParseSee() {
+        SeeParser parser = new SeeParser(new ObjectIds());
+        assertTrue(parser.reset(wrap("(see 142 ((f c) 12.2 -3) ((b) 5.5 10 -0.12 2.5) ((G) 40))")));
+        assertEquals(142, parser.time());
+
+        assertTrue(parser.next());
+        assertEquals("(f c)", parser.id());
+        assertEquals(2, parser.numArgs());
+        assertEquals(12.2, parser.arg(0), 1e-9);
+        assertEquals(-3.0, parser.arg(1), 1e-9);
+
+        assertTrue(parser.next());
+        assertEquals("(b)", parser.id());
+        assertEquals(4, parser.numArgs());
+        assertEquals(5.5, parser.arg(0), 1e-9);
+        assertEquals(-0.12, parser.arg(2), 1e-9);
+        assertEquals(2.5, parser.arg(3), 1e-9);
+
+        assertTrue(parser.next());
+        assertEquals("(G)", parser.id());
+        assertEquals(1, parser.numArgs());
+        assertEquals(40.0, parser.arg(0), 1e-9);
+
+        assertFalse(parser.next());
+    }
+
+    /**
+     * Tests player ids, optional arguments and the kicking / tackling flags.
+     */
+    @Test
+    public void testParsePlayer() {
+        SeeParser parser = new SeeParser(new ObjectIds());
+        parser.reset(wrap("(see 7 ((p \"futility\" 3 goalie) 10 20 0.1 1e-2 45 30 15 k))"));
+        assertTrue(parser.next());
+        assertEquals("(p \"futility\" 3 goalie)", parser.id());
+        assertEquals(7, parser.numArgs());
+        assertEquals(0.01, parser.arg(3), 1e-12);
+        assertEquals(15.0, parser.arg(6), 1e-9);
+        assertTrue(parser.isKicking());
+        assertFalse(parser.isTackling());
+        assertFalse(parser.next());
+    }
+
+    /**
+     * Tests that ids resolve to stable indices, and that (B) is treated as the ball.
+     */
+    @Test
+    public void testObjectIndices() {
+        ObjectIds ids = new ObjectIds();
+        SeeParser parser = new SeeParser(ids);
+        parser.reset(wrap("(see 1 ((f r t 30) 1 2) ((B) 3) ((p \"adversary\" 7) 4 5))"));
+        parser.next();
+        assertEquals(ids.find("(f r t 30)"), parser.objectIndex());
+        parser.next();
+        assertEquals(ObjectIds.BALL, parser.objectIndex());
+        assertEquals(Ball.ID, parser.id());
+        parser.next();
+        int player = parser.objectIndex();
+        assertTrue(player > ObjectIds.BALL);
+        parser.reset(wrap("(see 2 ((p \"adversary\" 7) 4 5))"));
+        parser.next();
+        assertEquals(player, parser.objectIndex());
+        assertEquals("(p \"adversary\" 7)", parser.id());
+    }
+
+    /**
+     * Tests that the shared registry finds the stationary objects but refuses new ids.
+     */
+    @Test
+    public void testSharedIdsAreReadOnly() {
+        assertEquals(ObjectIds.BALL, ObjectIds.STATIONARY.intern("(B)"));
+        int size = ObjectIds.STATIONARY.size();
+        try {
+            ObjectIds.STATIONARY.intern("(p \"adversary\" 7)");
+            fail();
+        }
+        catch (UnsupportedOperationException e) {
+            assertEquals(size, ObjectIds.STATIONARY.size());
+        }
+    }
+
+    /**
+     * Tests that other messages are rejected.
+     */
+    @Test
+    public void testRejectsOtherMessages() {
+        SeeParser parser = new SeeParser(new ObjectIds());
+        assertFalse(SeeParser.isSee(wrap("(sense_body 10 (view_mode high normal))")));
+        assertFalse(parser.reset(wrap("(hear 10 referee play_on)")));
+        assertFalse(parser.next());
+        assertTrue(SeeParser.isSee(wrap("(see 0)")));
+        assertTrue(parser.reset(wrap("(see 0)")));
+        assertFalse(parser.next());
+    }
+}
@@ -0,0 +1,115 @@
+/** @file ServerParams.java
+ * Immutable snapshot of the parameters sent by the server on connection.
+ * 
+ * @author Team F(utility)
+ */
+
+package futility;
+
+/**
+ * Immutable snapshot of the server parameters a client received. Each brain holds a reference to
+ * the snapshot for its own connection, so agents sharing a process never race on global state,
+ * and hot-path code only reads final fields. Clients that receive identical `server_param`
+ * messages share a single snapshot.
+ */
+public final class ServerParams {
+    /** The known default server parameters, used until `server_param` is received. */
+    public static final ServerParams DEFAULT = new ServerParams();
+    
+    public final ServerParams_Ball   BALL_PARAMS;
+    public final ServerParams_Player PLAYER_PARAMS;
+    public final double              DASH_POWER_RATE;
+    public final double              GOAL_HEIGHT;
+    public final double              KICK_POWER_RATE;
+    /** The step of the logarithmic rounding of distances to moving objects. */
+    public final double              QUANTIZE_STEP;
+    /** The default player type, as described by these parameters. */
+    public final PlayerType          PLAYER_TYPE;
+    
+    // The most recently parsed message and its snapshot
+    private static String lastMessage = null;
+    private static ServerParams lastParams = null;
+    
+    /**
+     * Default constructor; builds a snapshot of the known default values.
+     */
+    private ServerParams() {
+        this(new ServerParams_Ball.Builder(), new ServerParams_Player.Builder(), 0.006, Settings.GOAL_HEIGHT, 0.027,
+                0.1);
+    }
+    
+    /**
+     * Builds a snapshot from the given values.
+     * 
+     * @param ball ball parameter values
+     * @param player player parameter values
+     * @param dashPowerRate the dash power rate
+     * @param goalHeight the height of the goal
+     * @param kickPowerRate the kick power rate
+     * @param quantizeStep the quantization step of distances to moving objects
+     */
+    private ServerParams(ServerParams_Ball.Builder ball, ServerParams_Player.Builder player,
+                         double dashPowerRate, double goalHeight, double kickPowerRate, double quantizeStep) {
+        this.BALL_PARAMS = new ServerParams_Ball(ball);
+        this.PLAYER_PARAMS = new ServerParams_Player(player);
+        this.DASH_POWER_RATE = dashPowerRate;
+        this.GOAL_HEIGHT = goalHeight;
+        this.KICK_POWER_RATE = kickPowerRate;
+        this.QUANTIZE_STEP = quantizeStep;
+        this.PLAYER_TYPE = new PlayerType(this);
+    }
+    
+    /**
+     * Parses a `server_param` message. Parsing the same message again returns the same snapshot.
+     * 
+     * @param message the parameters message received from the server
+     * @return a snapshot of the parameters
+     */
+    public static synchronized ServerParams parse(String message) {
+        if (message.equals(lastMessage)) {
+            return lastParams;
+        }
+        ServerParams_Ball.Builder ball = new ServerParams_Ball.Builder();
+        ServerParams_Player.Builder player = new ServerParams_Player.Builder();
+        double dashPowerRate = DEFAULT.DASH_POWER_RATE;
+        double goalHeight = DEFAULT.GOAL_HEIGHT;
+        double kickPowerRate = DEFAULT.KICK_POWER_RATE;
+        double quantizeStep = DEFAULT.QUANTIZE_STEP;
+        String parts[] = message.split("\\(");
+        for ( String i : parts ) // for each structured argument:
+        {
+        	// Clean the string, and break it down into the base arguments.
+        	String nMsg = i.split("\\)")[0].trim();
+        	if ( nMsg.isEmpty() ) continue;
+        	String nArgs[] = nMsg.split("\\s");
+        	
+        	try {
+        	    // Check for specific argument types; ignore unknown arguments.
+        	    if (nArgs[0].startsWith("dash_power_rate")) 
+        	        dashPowerRate = Double.parseDouble(nArgs[1]);
+        	    else if ( nArgs[0].startsWith("goal_width") )
+        	        goalHeight = Double.parseDouble(nArgs[1]);
+        	    else if ( nArgs[0].equals("kick_power_rate") )
+        	        kickPowerRate = Double.parseDouble(nArgs[1]);
+        	    else if ( nArgs[0].equals("quantize_step") )
+        	        quantizeStep = Double.parseDouble(nArgs[1]);
+        	    // Ball arguments:
+        	    else if ( nArgs[0].startsWith("ball") )
+        	        ball.dataParser(nArgs);
+        	    // Player arguments:
+        	    else if ( nArgs[0].startsWith("player") || nArgs[0].startsWith("min")
+        	            || nArgs[0].startsWith("max") )
+        	        player.dataParser(nArgs);
+        	}
+        	catch ( ArrayIndexOutOfBoundsException e ) {
+        	    Log.e("Malformed server parameter; no value specified");
+        	}
+        	catch ( NumberFormatException e ) {
+        	    Log.d("Server parameter NaN.");
+        	}
+        }
+        lastMessage = message;
+        lastParams = new ServerParams(ball, player, dashPowerRate, goalHeight, kickPowerRate, quantizeStep);
+        return lastParams;
+    }
+}
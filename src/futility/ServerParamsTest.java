@@ -0,0 +1,32 @@
+/** @file ServerParamsTest.java
+ * `ServerParams` tests.
+ *
+ * @author Team F(utility)
+ */
+
+package futility;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+/**
+ * Container class for `ServerParams` tests.
+ */
+public class ServerParamsTest {
+
+    /**
+     * Tests that parameters the agent's estimators depend on are read from `server_param`, and
+     * keep their defaults otherwise.
+     */
+    @Test
+    public void testParse() {
+        ServerParams params = ServerParams.parse("(server_param (player_decay 0.4)(player_rand 0.05)"
+                + "(quantize_step 0.2)(quantize_step_l 0.02))");
+        assertEquals(0.05, params.PLAYER_PARAMS.PLAYER_RAND, 1e-9);
+        assertEquals(0.4, params.PLAYER_PARAMS.PLAYER_DECAY, 1e-9);
+        assertEquals(0.2, params.QUANTIZE_STEP, 1e-9);
+        assertEquals(0.1, ServerParams.DEFAULT.QUANTIZE_STEP, 1e-9);
+        assertEquals(0.1, ServerParams.DEFAULT.PLAYER_PARAMS.PLAYER_RAND, 1e-9);
+    }
+}
@@ -22,18 +22,28 @@ public class ServerParams_Ball {
     public final double BALL_STUCK_AREA;
     
     /**
-     * Default Constructor; builds a Params_Ball data stamp based on the values
-     *  in the Builder subclass.
+     * Default Constructor; builds a Params_Ball data stamp holding the known
+     *  default values.
      */
     public ServerParams_Ball()
     {
-    	BALL_SIZE       = Builder.BALL_SIZE;
-    	BALL_DECAY      = Builder.BALL_DECAY;
-    	BALL_RAND       = Builder.BALL_RAND;
-    	BALL_WEIGHT     = Builder.BALL_WEIGHT;
-    	BALL_SPEED_MAX  = Builder.BALL_SPEED_MAX;
-    	BALL_ACCEL_MAX  = Builder.BALL_ACCEL_MAX;
-    	BALL_STUCK_AREA = Builder.BALL_STUCK_AREA;
+    	this(new Builder());
+    }
+    
+    /**
+     * Builds a Params_Ball data stamp based on the values in the given Builder.
+     * 
+     * @param builder the parameter values to use
+     */
+    public ServerParams_Ball(Builder builder)
+    {
+    	BALL_SIZE       = builder.BALL_SIZE;
+    	BALL_DECAY      = builder.BALL_DECAY;
+    	BALL_RAND       = builder.BALL_RAND;
+    	BALL_WEIGHT     = builder.BALL_WEIGHT;
+    	BALL_SPEED_MAX  = builder.BALL_SPEED_MAX;
+    	BALL_ACCEL_MAX  = builder.BALL_ACCEL_MAX;
+    	BALL_STUCK_AREA = builder.BALL_STUCK_AREA;
     }
 	
 	/** @class Builder
@@ -41,19 +51,20 @@ public class ServerParams_Ball {
 	 * setters and parsing routines allow for safe modification without
 	 * affecting parameters that may already be in use. <br> <br>
 	 * To make use of the new parameter data, initialize the parent Parameter
-	 * object.
+	 * object with this Builder. Each Builder is independent, so agents
+	 * sharing a process never see each other's partial updates.
 	 */
 	public static class Builder
 	{
 		// KNOWN DEFAULT VALUES
 		// These can be changed by calling individual setters or dataParser()
-		private static double BALL_SIZE       = 0.085;
-		private static double BALL_DECAY      = 0.94;
-		private static double BALL_RAND       = 0.05;
-		private static double BALL_WEIGHT     = 0.2;
-		private static double BALL_SPEED_MAX  = 3.0;
-		private static double BALL_ACCEL_MAX  = 2.7;
-		private static double BALL_STUCK_AREA = 3.0;		
+		private double BALL_SIZE       = 0.085;
+		private double BALL_DECAY      = 0.94;
+		private double BALL_RAND       = 0.05;
+		private double BALL_WEIGHT     = 0.2;
+		private double BALL_SPEED_MAX  = 3.0;
+		private double BALL_ACCEL_MAX  = 2.7;
+		private double BALL_STUCK_AREA = 3.0;		
 		
 		///////////////////////////////////////////////////////////////////////
 		// PARSING
@@ -66,7 +77,7 @@ public class ServerParams_Ball {
 		 * 
 		 * @param args String array containing a parameter and its value.
 		 */
-		public static void dataParser(String[] args)
+		public void dataParser(String[] args)
 		{
 			try
 			{
@@ -114,7 +125,7 @@ public class ServerParams_Ball {
 		 * 
 		 * @param ball_size The size of the ball
 		 */
-		public static void set_size(double ball_size) {
+		public void set_size(double ball_size) {
 			BALL_SIZE = ball_size;
 		}
 		
@@ -123,42 +134,42 @@ public class ServerParams_Ball {
 		 * 
 		 * @param ball_decay velocity decay of the ball
 		 */
-		public static void set_decay(double ball_decay) {
+		public void set_decay(double ball_decay) {
 			BALL_DECAY = ball_decay;
 		}
 		
 		/**
 		 * @param ball_rand Ball rand flag (unknown purpose)
 		 */
-		public static void set_rand(double ball_rand) {
+		public void set_rand(double ball_rand) {
 			BALL_RAND = ball_rand;
 		}
 		
 		/**
 		 * @param ball_weight Weight of the ball
 		 */
-		public static void set_weight(double ball_weight) {
+		public void set_weight(double ball_weight) {
 			BALL_WEIGHT = ball_weight;
 		}
 		
 		/**
 		 * @param ball_speed_max Maximum velocity of the ball
 		 */
-		public static void set_speed_max(double ball_speed_max) {
+		public void set_speed_max(double ball_speed_max) {
 			BALL_SPEED_MAX = ball_speed_max;
 		}
 		
 		/**
 		 * @param ball_accel_max Maximum acceleration of the ball
 		 */
-		public static void set_accel_max(double ball_accel_max) {
+		public void set_accel_max(double ball_accel_max) {
 			BALL_ACCEL_MAX = ball_accel_max;
 		}
 		
 		/**
 		 * @param ball_stuck_area "stuck" region size of the ball
 		 */
-		public static void set_stuck_area(double ball_stuck_area) {
+		public void set_stuck_area(double ball_stuck_area) {
 			BALL_STUCK_AREA = ball_stuck_area;
 		}
 	}
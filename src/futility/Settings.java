@@ -18,7 +18,8 @@ import futility.Settings;
  */
 public class Settings {
 	// Client initialization settings:
-    public static int VERBOSITY = Log.ERROR;
+    // Verbosity may change at run time and is volatile, since several agents may share a process.
+    public static volatile int VERBOSITY = Log.ERROR;
     public static final boolean DEBUG = false;
     public static final String HOSTNAME = "localhost";
     public static final int INIT_PORT = 6000;
@@ -30,7 +31,7 @@ public class Settings {
     public static final String OTHER_TEAM_NAME = "adversary";
     
     // Field geometry for a standard field
-    public static double GOAL_HEIGHT = 14.02;
+    public static final double GOAL_HEIGHT = 14.02;  // default; see ServerParams for the value in use
     public static final double FIELD_WIDTH = 105.0;
     public static final double FIELD_HEIGHT = 68.0;
     public static final double FIELD_BUFFER = 5.0;
@@ -41,13 +42,8 @@ public class Settings {
     public static final char LEFT_SIDE = 'l';
     public static final char RIGHT_SIDE = 'r';
     
-    // Server parameters
-    public static ServerParams_Ball   BALL_PARAMS   = new ServerParams_Ball();
-    public static ServerParams_Player PLAYER_PARAMS = new ServerParams_Player();
-    public static double              DASH_POWER_RATE = 0.006;
+    // Server parameters (those sent by the server are kept per connection in ServerParams)
     public static final double        EFFORT_DEC    = 0.05;
-    public static final double        PLAYER_ACCEL_MAX = 1.0;
-    public static final double        PLAYER_SPEED_MAX = 1.0;
     public static final double        TEAM_FAR_LENGTH = 40.0;
     public static final double        TEAM_TOO_FAR_LENGTH = 60.0;
     
@@ -64,6 +60,7 @@ public class Settings {
     public class Commands {
         public static final String BYE = "bye";
         public static final String DASH = "dash";
+        public static final String DONE = "done";
         public static final String INIT = "init";
         public static final String KICK = "kick";
         public static final String TURN = "turn";
@@ -76,27 +73,8 @@ public class Settings {
         NONE
     }
     
-    /**
-     * Gets the dash power rate.
-     * 
-     * @return the dash power rate
-     */
-    public static double getDashPowerRate() {
-        return DASH_POWER_RATE;
-    }
-    
-    /**
-     * Sets the dash power rate.
-     * 
-     * @param rate the dash power rate
-     */
-    public static void setDashPowerRate(double rate) {
-        DASH_POWER_RATE = rate;
-    }
-    
-
 	/**
-	 * Gets the height of the goal.
+	 * Gets the default height of the goal.
 	 * 
 	 * @return the goal's height.
 	 */
@@ -104,24 +82,6 @@ public class Settings {
 		return GOAL_HEIGHT;
 	}
 	
-	/**
-	 * Sets the height of the goal.
-	 * 
-	 * @param height the height of the goal.
-	 */
-	public static void setGoalHeight(double height) {
-		GOAL_HEIGHT = height;
-	}
-
-	/**
-	 * Rebuilds all server parameter data stamps according to each object's Builder settings.
-	 */
-    public static void rebuildParams()
-    {
-    	BALL_PARAMS = new ServerParams_Ball();
-    	PLAYER_PARAMS = new ServerParams_Player();
-    }
-	
 	// playing field
     public static Rectangle FIELD = new Rectangle(-FIELD_HEIGHT / 2.0, FIELD_WIDTH / 2.0, FIELD_HEIGHT / 2.0, -FIELD_WIDTH / 2.0);
     
@@ -256,59 +216,6 @@ public class Settings {
     	  // Player 11
     };
     
-    // Groupings of stationary flags
-    public static final String[][] BOUNDARY_FLAG_GROUPS = {
-            // top boundary flags
-            {
-                "(f t l 50)",
-                "(f t l 40)",
-                "(f t l 30)",
-                "(f t l 20)",
-                "(f t l 10)",
-                "(f t 0)",
-                "(f t r 10)",
-                "(f t r 20)",
-                "(f t r 30)",
-                "(f t r 40)",
-                "(f t r 50)"
-            },
-            // right boundary flags
-            {
-                "(f r t 30)",
-                "(f r t 20)",
-                "(f r t 10)",
-                "(f r 0)",
-                "(f r b 10)",
-                "(f r b 20)",
-                "(f r b 30)"
-            },
-            // bottom boundary flags
-            {
-                "(f b l 50)",
-                "(f b l 40)",
-                "(f b l 30)",
-                "(f b l 20)",
-                "(f b l 10)",
-                "(f b 0)",
-                "(f b r 10)",
-                "(f b r 20)",
-                "(f b r 30)",
-                "(f b r 40)",
-                "(f b r 50)"
-            },
-            // left boundary flags
-            {
-                "(f l t 30)",
-                "(f l t 20)",
-                "(f l t 10)",
-                "(f l 0)",
-                "(f l b 10)",
-                "(f l b 20)",
-                "(f l b 30)"
-            },
-            
-    };
-    
     /**
      * List of known stationary objects.
      * Although they could theoretically be parsed on the fly, we think it's
@@ -350,9 +257,9 @@ public class Settings {
         new StationaryObject("(f l b 20)", PHYSICAL_BOUNDARY.getLeft(), 20.0),
         new StationaryObject("(f l b 10)", PHYSICAL_BOUNDARY.getLeft(), 10.0),
         new StationaryObject("(f l 0)", PHYSICAL_BOUNDARY.getLeft(), 0.0),
-        new StationaryObject("(f l t 10)", PHYSICAL_BOUNDARY.getLeft(), 10.0),
-        new StationaryObject("(f l t 20)", PHYSICAL_BOUNDARY.getLeft(), 20.0),
-        new StationaryObject("(f l t 30)", PHYSICAL_BOUNDARY.getLeft(), 30.0),
+        new StationaryObject("(f l t 10)", PHYSICAL_BOUNDARY.getLeft(), -10.0),
+        new StationaryObject("(f l t 20)", PHYSICAL_BOUNDARY.getLeft(), -20.0),
+        new StationaryObject("(f l t 30)", PHYSICAL_BOUNDARY.getLeft(), -30.0),
         
         // Field corner flags
         new StationaryObject("(f l t)", FIELD.getLeft(), FIELD.getTop()),
@@ -374,10 +281,10 @@ public class Settings {
         new StationaryObject("(f p r b)", PENALTY_AREA_RIGHT.getLeft(), PENALTY_AREA_RIGHT.getBottom()),
         
         // Goalpost flags
-        new StationaryObject("(f g l t)", FIELD.getLeft(), GOAL_HEIGHT / 2),
-        new StationaryObject("(f g l b)", FIELD.getLeft(), -GOAL_HEIGHT / 2),
-        new StationaryObject("(f g r t)", FIELD.getRight(), GOAL_HEIGHT / 2),
-        new StationaryObject("(f g r b)", FIELD.getRight(), -GOAL_HEIGHT / 2),
+        new StationaryObject("(f g l t)", FIELD.getLeft(), -GOAL_HEIGHT / 2),
+        new StationaryObject("(f g l b)", FIELD.getLeft(), GOAL_HEIGHT / 2),
+        new StationaryObject("(f g r t)", FIELD.getRight(), -GOAL_HEIGHT / 2),
+        new StationaryObject("(f g r b)", FIELD.getRight(), GOAL_HEIGHT / 2),
         
         // Goals
         new StationaryObject("(g l)", FIELD.getLeft(), 0.0),
@@ -0,0 +1,326 @@
+/** @file Simulator.java
+ * Headless in-memory match simulator.
+ *
+ * @author Team F(utility)
+ */
+
+package futility;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Plays a full 11-a-side match between two teams of brains without any sockets or waiting. Each
+ * cycle the World is stepped on the calling thread, then every player perceives the new cycle and
+ * decides on its commands in parallel on a fork-join pool: its `sense_body`, any referee `hear`
+ * and its `see` are written straight into its own buffer and parsed by its brain, whose commands
+ * are handed straight back to the World. Messages are stamped with simulated time, so a match
+ * plays out the same however fast it runs.
+ *
+ * Run it with `java futility.Simulator [cycles] [--threads n] [--seed n]`.
+ */
+public class Simulator {
+    public static final int DEFAULT_CYCLES = 6000;
+
+    private final World world;
+    private final ForkJoinPool pool;
+    private final ArrayList<SimulatedClient> clients = new ArrayList<SimulatedClient>();
+    private boolean kickedOff = false;
+
+    /**
+     * Creates a match with a thread per available processor.
+     */
+    public Simulator() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates a match with the default noise seed.
+     *
+     * @param threads how many threads players perceive and decide on
+     */
+    public Simulator(int threads) {
+        this(threads, 0L);
+    }
+
+    /**
+     * Creates a match between Settings.TEAM_NAME and Settings.OTHER_TEAM_NAME, and connects every
+     * player to it.
+     *
+     * @param threads how many threads players perceive and decide on
+     * @param seed the seed for the world's movement noise; matches with the same seed play out
+     *             the same
+     */
+    public Simulator(int threads, long seed) {
+        this.world = new World(ServerParams.DEFAULT, seed);
+        this.pool = new ForkJoinPool(threads);
+        this.addTeam(Settings.TEAM_NAME);
+        this.addTeam(Settings.OTHER_TEAM_NAME);
+    }
+
+    ///////////////////////////////////////////////////////////////////////////
+    // STATIC FUNCTIONS
+    ///////////////////////////////////////////////////////////////////////////
+    /**
+     * Plays a match and prints the result.
+     *
+     * @param args an optional number of cycles, `--threads n` to limit the threads used, and
+     *             `--seed n` to vary the match
+     */
+    public static void main(String[] args) {
+        int cycles = DEFAULT_CYCLES;
+        int threads = Runtime.getRuntime().availableProcessors();
+        long seed = 0L;
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--threads")) {
+                threads = Integer.parseInt(args[++i]);
+            }
+            else if (args[i].equals("--seed")) {
+                seed = Long.parseLong(args[++i]);
+            }
+            else {
+                cycles = Integer.parseInt(args[i]);
+            }
+        }
+        Simulator simulator = new Simulator(threads, seed);
+        try {
+            System.out.println(simulator.play(cycles).render());
+        }
+        finally {
+            simulator.close();
+        }
+    }
+
+    ///////////////////////////////////////////////////////////////////////////
+    // METHODS
+    ///////////////////////////////////////////////////////////////////////////
+    /**
+     * Gets the simulated match.
+     *
+     * @return the world being simulated
+     */
+    public final World world() {
+        return this.world;
+    }
+
+    /**
+     * Gets the simulated players' clients, such as for inspecting their brains.
+     *
+     * @return the clients, with Settings.TEAM_NAME's first
+     */
+    public final ArrayList<? extends Client> clients() {
+        return this.clients;
+    }
+
+    /**
+     * Plays cycles of the match as fast as possible. The first call lets the players take their
+     * positions and then kicks off; later calls carry on where the last one stopped.
+     *
+     * @param cycles how many cycles to play
+     * @return the result of the match so far
+     */
+    public final Result play(int cycles) {
+        long start = System.nanoTime();
+        if (!this.kickedOff) {
+            this.perceive();
+            this.world.kickOff();
+            this.kickedOff = true;
+        }
+        for (int i = 0; i < cycles; i++) {
+            this.world.step();
+            this.perceive();
+        }
+        return new Result(this.world, cycles, System.nanoTime() - start);
+    }
+
+    /**
+     * Stops the simulator's threads.
+     */
+    public final void close() {
+        this.pool.shutdown();
+    }
+
+    /**
+     * Connects a team of ten outfield players and a goalie.
+     *
+     * @param team the team's name
+     */
+    private final void addTeam(String team) {
+        for (int i = 1; i <= 11; i++) {
+            String[] args = i < 11 ? new String[] {"--team", team} : new String[] {"--team", team, "--goalie"};
+            SimulatedClient client = new SimulatedClient(args, this.world);
+            client.init();
+            client.deliverInit();
+            this.clients.add(client);
+        }
+    }
+
+    /**
+     * Has every player perceive the current cycle and respond to it, in parallel.
+     */
+    private final void perceive() {
+        this.pool.invoke(new Perceive(this.clients, 0, this.clients.size()));
+    }
+
+    /**
+     * Has a range of players perceive the current cycle, splitting it until each task has one
+     * player.
+     */
+    private static final class Perceive extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final ArrayList<SimulatedClient> clients;
+        private final int from;
+        private final int to;
+
+        /**
+         * Primary constructor.
+         *
+         * @param clients every player's client
+         * @param from the index of the first player in the range
+         * @param to the index after the last player in the range
+         */
+        Perceive(ArrayList<SimulatedClient> clients, int from, int to) {
+            this.clients = clients;
+            this.from = from;
+            this.to = to;
+        }
+
+        /**
+         * Perceives the range's cycle, forking half of it if it has more than one player.
+         */
+        protected void compute() {
+            if (this.to - this.from <= 1) {
+                for (int i = this.from; i < this.to; i++) {
+                    this.clients.get(i).perceive();
+                }
+                return;
+            }
+            int middle = (this.from + this.to) >>> 1;
+            invokeAll(new Perceive(this.clients, this.from, middle), new Perceive(this.clients, middle, this.to));
+        }
+    }
+
+    /**
+     * A client whose messages come from and go to a World in the same process.
+     */
+    static final class SimulatedClient extends Client {
+        private final World world;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(Settings.MSG_SIZE);
+        private World.Agent agent = null;
+
+        /**
+         * Primary constructor.
+         *
+         * @param args the same arguments a client would be passed
+         * @param world the world to play in
+         */
+        SimulatedClient(String[] args, World world) {
+            super(args);
+            this.world = world;
+            // A match must play out the same however fast it runs
+            this.player.brain.setPassBudget(0L);
+        }
+
+        /**
+         * Does nothing, as there is no server to connect to.
+         */
+        protected void connect() {
+        }
+
+        /**
+         * Passes a command to the world. The `init` command joins the world.
+         *
+         * @param message buffer whose remaining bytes hold the command
+         */
+        protected void sendMessage(ByteBuffer message) {
+            if (this.agent != null) {
+                this.world.command(this.agent, message);
+                return;
+            }
+            String command = Futil.decode(message);
+            message.position(message.limit());
+            if (command.startsWith("(init ")) {
+                this.agent = this.world.join(command);
+            }
+        }
+
+        /**
+         * Has the brain parse the world's reply to `init`.
+         */
+        final void deliverInit() {
+            this.world.writeInit(this.agent, this.buffer);
+            this.player.brain.parseMessage(this.buffer, 0);
+        }
+
+        /**
+         * Has the brain parse this cycle's messages, stamped with the cycle's simulated time.
+         */
+        final void perceive() {
+            if (this.agent == null || this.agent.hasLeft()) {
+                return;
+            }
+            long received = (long) this.world.time() * StandInServer.CYCLE_MILLIS;
+            this.world.writeSenseBody(this.agent, this.buffer);
+            this.player.brain.parseMessage(this.buffer, received);
+            if (this.world.writeHear(this.buffer)) {
+                this.player.brain.parseMessage(this.buffer, received);
+            }
+            this.world.writeSee(this.agent, this.buffer);
+            this.player.brain.parseMessage(this.buffer, received);
+        }
+    }
+
+    /**
+     * The outcome of playing part of a match.
+     */
+    public static final class Result {
+        /** The score of the left team, Settings.TEAM_NAME. */
+        public final int leftScore;
+        /** The score of the right team, Settings.OTHER_TEAM_NAME. */
+        public final int rightScore;
+        /** How many cycles were played. */
+        public final int cycles;
+        /** Time spent playing them, in nanoseconds. */
+        public final long elapsedNanos;
+
+        /**
+         * Primary constructor.
+         *
+         * @param world the world the match was played in
+         * @param cycles how many cycles were played
+         * @param elapsedNanos time spent playing them, in nanoseconds
+         */
+        Result(World world, int cycles, long elapsedNanos) {
+            this.leftScore = world.score(Settings.LEFT_SIDE);
+            this.rightScore = world.score(Settings.RIGHT_SIDE);
+            this.cycles = cycles;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        /**
+         * Gets how much faster than real time the cycles were played.
+         *
+         * @return the speed-up over 100 ms cycles
+         */
+        public final double speedup() {
+            if (this.elapsedNanos <= 0) {
+                return 0.0;
+            }
+            return this.cycles * StandInServer.CYCLE_MILLIS * 1e6 / this.elapsedNanos;
+        }
+
+        /**
+         * Renders the score and speed.
+         *
+         * @return the summary
+         */
+        public final String render() {
+            double seconds = this.elapsedNanos / 1e9;
+            return String.format("%s %d - %d %s after %d cycles in %.1f s (%.0f cycles/s, %.0fx real time)",
+                    Settings.TEAM_NAME, this.leftScore, this.rightScore, Settings.OTHER_TEAM_NAME,
+                    this.cycles, seconds, seconds > 0 ? this.cycles / seconds : 0.0, this.speedup());
+        }
+    }
+}
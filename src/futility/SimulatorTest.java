@@ -0,0 +1,94 @@
+/** @file SimulatorTest.java
+ * Tests for the `Simulator` class.
+ *
+ * @author Team F(utility)
+ */
+
+package futility;
+
+import static org.junit.Assert.*;
+
+import java.nio.ByteBuffer;
+
+import org.junit.Test;
+
+/**
+ * Tests of whole matches played by the headless `Simulator`.
+ */
+public class SimulatorTest {
+
+    /**
+     * Tests that 22 players join, take the field and localize themselves.
+     */
+    @Test
+    public void testMatchIsPlayed() {
+        Simulator simulator = new Simulator(2);
+        try {
+            Simulator.Result result = simulator.play(100);
+            assertEquals(100, result.cycles);
+            assertEquals(100, simulator.world().time());
+            assertEquals(22, simulator.world().agents().size());
+            double error = 0.0;
+            for (Client client : simulator.clients()) {
+                Player player = client.player;
+                Point truth = simulator.world().positionOf(player.team.name, player.number);
+                assertNotNull(truth);
+                assertTrue(Settings.PHYSICAL_BOUNDARY.getLeft() <= truth.getX()
+                        && truth.getX() <= Settings.PHYSICAL_BOUNDARY.getRight());
+                error += truth.distanceTo(player.position.getPosition());
+            }
+            assertTrue(error / 22 < 3.0);
+        }
+        finally {
+            simulator.close();
+        }
+    }
+
+    /**
+     * Tests that a match plays out the same however many threads it is played on.
+     */
+    @Test
+    public void testMatchIsDeterministic() {
+        Simulator sequential = new Simulator(1);
+        Simulator parallel = new Simulator(4);
+        try {
+            sequential.play(300);
+            parallel.play(300);
+            assertEquals(sequential.world().ballPosition().render(), parallel.world().ballPosition().render());
+            for (int i = 0; i < sequential.world().agents().size(); i++) {
+                World.Agent agent = sequential.world().agents().get(i);
+                assertEquals(sequential.world().positionOf(agent.team, agent.unum).render(),
+                        parallel.world().positionOf(agent.team, agent.unum).render());
+            }
+        }
+        finally {
+            sequential.close();
+            parallel.close();
+        }
+    }
+
+    /**
+     * Tests that commands parsed from their bytes are read just as they are from strings.
+     */
+    @Test
+    public void testCommandBytes() {
+        World world = new World();
+        String[] commands = {"(dash 80.5 -30)", "(turn -1.25e1)", "(kick 100 .5)", "(move -10.0 +2)",
+                "(dash 12345678901234567890)", "(turn_neck 30)", "(dash)", "(kick 1x)", "(dash 1e)"};
+        for (String command : commands) {
+            World.Agent expected = world.join("(init Strings)");
+            World.Agent actual = world.join("(init Bytes)");
+            ByteBuffer bytes = ByteBuffer.wrap((command + "\0").getBytes());
+            assertEquals(command, world.command(expected, command), world.command(actual, bytes));
+            assertEquals(bytes.limit(), bytes.position());
+            assertEquals(command, expected.command, actual.command);
+            assertEquals(command, expected.arg1, actual.arg1, 0.0);
+            assertEquals(command, expected.arg2, actual.arg2, 0.0);
+            assertTrue(actual.commanded);
+            world.command(expected, "(bye)");
+            world.command(actual, ByteBuffer.wrap("(bye)".getBytes()));
+            assertTrue(actual.left);
+        }
+        assertTrue(world.agents().isEmpty());
+    }
+}
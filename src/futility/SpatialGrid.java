@@ -0,0 +1,376 @@
+/** @file SpatialGrid.java
+ * A fixed grid of cells over the field for finding objects near a point.
+ *
+ * @author Team F(utility)
+ */
+
+package futility;
+
+import java.util.Arrays;
+
+/**
+ * Indexes up to a fixed number of objects, identified by integers from 0, by the square cell of
+ * the physical boundary they are in. Each cell keeps a doubly linked list of its objects in
+ * arrays, so moving an object is constant time and only touches the lists when it crosses into
+ * another cell. Objects outside the boundary are kept in the nearest edge cell.
+ *
+ * Queries visit only the cells that could hold an answer, and write the ids they find into an
+ * array the caller provides, so that nothing is allocated after construction. Each object has a
+ * tag, such as a team code, that queries can filter on; a query tag of 0 matches every object.
+ *
+ * A grid is written by one thread. within() and inCone() only read it, so other threads may call
+ * them at the same time as long as no thread is writing; nearest() uses the grid's own scratch
+ * space, so only one thread may call it at a time.
+ */
+public final class SpatialGrid {
+    /** Narrowest cell the default constructor uses, in meters. */
+    public static final double MIN_CELL_SIZE = 5.0;
+
+    private final double left;
+    private final double top;
+    private final double cellSize;
+    private final int columns;
+    private final int rows;
+
+    // First object of each cell's list, or -1
+    private final int[] head;
+    // Per object: the cell it is in (-1 if absent), its neighbors in that cell's list, its tag
+    // and its position
+    private final int[] cell;
+    private final int[] next;
+    private final int[] previous;
+    private final int[] tag;
+    private final double[] x;
+    private final double[] y;
+    private int size = 0;
+
+    // Squared distances of the objects found so far by nearest()
+    private final double[] nearestDistance;
+
+    ///////////////////////////////////////////////////////////////////////////
+    // STATIC FUNCTIONS
+    ///////////////////////////////////////////////////////////////////////////
+    /**
+     * Gets the width of square cells that divide a rectangle into about as many cells as there
+     * are objects, so that sparse objects are not spread over many empty cells.
+     *
+     * @param bounds the rectangle
+     * @param capacity the number of objects
+     * @return the width, at least MIN_CELL_SIZE
+     */
+    public static final double cellSizeFor(Rectangle bounds, int capacity) {
+        double area = (bounds.getRight() - bounds.getLeft()) * (bounds.getBottom() - bounds.getTop());
+        return Math.max(MIN_CELL_SIZE, Math.sqrt(area / Math.max(1, capacity)));
+    }
+
+    ///////////////////////////////////////////////////////////////////////////
+    // METHODS
+    ///////////////////////////////////////////////////////////////////////////
+    /**
+     * Constructs an empty grid over the physical boundary, with cells sized for about one object
+     * each when it is full but no narrower than MIN_CELL_SIZE.
+     *
+     * @param capacity the number of object ids
+     */
+    public SpatialGrid(int capacity) {
+        this(capacity, Settings.PHYSICAL_BOUNDARY, cellSizeFor(Settings.PHYSICAL_BOUNDARY, capacity));
+    }
+
+    /**
+     * Constructs an empty grid over a rectangle.
+     *
+     * @param capacity the number of object ids
+     * @param bounds the rectangle to divide into cells
+     * @param cellSize the width of a cell, in meters
+     */
+    public SpatialGrid(int capacity, Rectangle bounds, double cellSize) {
+        this.left = bounds.getLeft();
+        this.top = bounds.getTop();
+        this.cellSize = cellSize;
+        this.columns = Math.max(1, (int) Math.ceil((bounds.getRight() - bounds.getLeft()) / cellSize));
+        this.rows = Math.max(1, (int) Math.ceil((bounds.getBottom() - bounds.getTop()) / cellSize));
+        this.head = new int[this.columns * this.rows];
+        this.cell = new int[capacity];
+        this.next = new int[capacity];
+        this.previous = new int[capacity];
+        this.tag = new int[capacity];
+        this.x = new double[capacity];
+        this.y = new double[capacity];
+        this.nearestDistance = new double[capacity];
+        Arrays.fill(this.head, -1);
+        Arrays.fill(this.cell, -1);
+    }
+
+    /**
+     * Gets the number of object ids the grid holds.
+     *
+     * @return the capacity
+     */
+    public final int capacity() {
+        return this.cell.length;
+    }
+
+    /**
+     * Gets the number of objects in the grid.
+     *
+     * @return the number of objects
+     */
+    public final int size() {
+        return this.size;
+    }
+
+    /**
+     * Returns whether an object is in the grid.
+     *
+     * @param id the object's id
+     * @return true if the object has been put and not removed since
+     */
+    public final boolean contains(int id) {
+        return this.cell[id] >= 0;
+    }
+
+    /**
+     * Puts an object in the grid, or moves it if it is already there.
+     *
+     * @param id the object's id
+     * @param x the object's x-coordinate
+     * @param y the object's y-coordinate
+     * @param tag the object's tag, which queries can filter on
+     */
+    public final void put(int id, double x, double y, int tag) {
+        this.x[id] = x;
+        this.y[id] = y;
+        this.tag[id] = tag;
+        int c = this.row(y) * this.columns + this.column(x);
+        if (c == this.cell[id]) {
+            return;
+        }
+        if (this.cell[id] >= 0) {
+            this.unlink(id);
+        }
+        else {
+            this.size++;
+        }
+        this.cell[id] = c;
+        this.previous[id] = -1;
+        this.next[id] = this.head[c];
+        if (this.head[c] >= 0) {
+            this.previous[this.head[c]] = id;
+        }
+        this.head[c] = id;
+    }
+
+    /**
+     * Removes an object from the grid, if it is there.
+     *
+     * @param id the object's id
+     */
+    public final void remove(int id) {
+        if (this.cell[id] < 0) {
+            return;
+        }
+        this.unlink(id);
+        this.cell[id] = -1;
+        this.size--;
+    }
+
+    /**
+     * Removes every object from the grid.
+     */
+    public final void clear() {
+        Arrays.fill(this.head, -1);
+        Arrays.fill(this.cell, -1);
+        this.size = 0;
+    }
+
+    /**
+     * Takes an object out of its cell's list.
+     *
+     * @param id the object's id
+     */
+    private final void unlink(int id) {
+        if (this.previous[id] >= 0) {
+            this.next[this.previous[id]] = this.next[id];
+        }
+        else {
+            this.head[this.cell[id]] = this.next[id];
+        }
+        if (this.next[id] >= 0) {
+            this.previous[this.next[id]] = this.previous[id];
+        }
+    }
+
+    /**
+     * Gets the column of the cell an x-coordinate falls in, clamped to the grid.
+     *
+     * @param x the x-coordinate
+     * @return the column
+     */
+    private final int column(double x) {
+        int column = (int) Math.floor((x - this.left) / this.cellSize);
+        return column < 0 ? 0 : (column >= this.columns ? this.columns - 1 : column);
+    }
+
+    /**
+     * Gets the row of the cell a y-coordinate falls in, clamped to the grid.
+     *
+     * @param y the y-coordinate
+     * @return the row
+     */
+    private final int row(double y) {
+        int row = (int) Math.floor((y - this.top) / this.cellSize);
+        return row < 0 ? 0 : (row >= this.rows ? this.rows - 1 : row);
+    }
+
+    /**
+     * Finds the objects within a distance of a point, in no particular order.
+     *
+     * @param x the point's x-coordinate
+     * @param y the point's y-coordinate
+     * @param radius the distance
+     * @param tag the tag of the objects to find, or 0 for any
+     * @param out the array to write the ids found into; if it is full, the rest are not found
+     * @return the number of ids written
+     */
+    public final int within(double x, double y, double radius, int tag, int[] out) {
+        return this.inCone(x, y, 0.0, 180.0, radius, tag, out);
+    }
+
+    /**
+     * Finds the objects within a distance of a point and within an angle of a direction from it,
+     * in no particular order.
+     *
+     * @param x the point's x-coordinate
+     * @param y the point's y-coordinate
+     * @param direction the direction of the cone's axis, in degrees
+     * @param halfAngle half of the cone's width, in degrees; 180 or more for a full circle
+     * @param range the distance
+     * @param tag the tag of the objects to find, or 0 for any
+     * @param out the array to write the ids found into; if it is full, the rest are not found
+     * @return the number of ids written
+     */
+    public final int inCone(double x, double y, double direction, double halfAngle, double range, int tag,
+            int[] out) {
+        boolean circle = halfAngle >= 180.0;
+        double ux = circle ? 0.0 : Math.cos(Math.toRadians(direction));
+        double uy = circle ? 0.0 : Math.sin(Math.toRadians(direction));
+        double cos = circle ? -1.0 : Math.cos(Math.toRadians(halfAngle));
+        double range2 = range * range;
+        int count = 0;
+        int lastRow = this.row(y + range);
+        int lastColumn = this.column(x + range);
+        for (int row = this.row(y - range); row <= lastRow; row++) {
+            for (int column = this.column(x - range); column <= lastColumn; column++) {
+                for (int i = this.head[row * this.columns + column]; i >= 0; i = this.next[i]) {
+                    if (tag != 0 && this.tag[i] != tag) {
+                        continue;
+                    }
+                    double dx = this.x[i] - x;
+                    double dy = this.y[i] - y;
+                    double d2 = dx * dx + dy * dy;
+                    if (d2 > range2) {
+                        continue;
+                    }
+                    // Within the cone when the projection on its axis is at least d cos(halfAngle)
+                    double along = dx * ux + dy * uy;
+                    if (!circle && (along < 0.0 ? cos >= 0.0 || along * along > d2 * cos * cos
+                            : cos > 0.0 && along * along < d2 * cos * cos)) {
+                        continue;
+                    }
+                    if (count == out.length) {
+                        return count;
+                    }
+                    out[count++] = i;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Finds the objects nearest to a point, searching rings of cells outward from the point's
+     * cell until no closer object can remain.
+     *
+     * @param x the point's x-coordinate
+     * @param y the point's y-coordinate
+     * @param k the most objects to find; at most the capacity
+     * @param tag the tag of the objects to find, or 0 for any
+     * @param out the array to write the ids found into, nearest first
+     * @return the number of ids written, k unless fewer objects have the tag
+     */
+    public final int nearest(double x, double y, int k, int tag, int[] out) {
+        k = Math.min(k, Math.min(out.length, this.nearestDistance.length));
+        if (k <= 0) {
+            return 0;
+        }
+        int column = this.column(x);
+        int row = this.row(y);
+        int rings = Math.max(Math.max(column, this.columns - 1 - column), Math.max(row, this.rows - 1 - row));
+        // Distance from the point to the nearest side of its cell
+        double fx = x - this.left - column * this.cellSize;
+        double fy = y - this.top - row * this.cellSize;
+        double inset = Math.max(0.0, Math.min(Math.min(fx, this.cellSize - fx), Math.min(fy, this.cellSize - fy)));
+        int count = 0;
+        for (int ring = 0; ring <= rings; ring++) {
+            // Every cell in this ring is at least ring - 1 cells and the inset from the point
+            if (count == k && ring > 0) {
+                double bound = (ring - 1) * this.cellSize + inset;
+                if (bound * bound > this.nearestDistance[k - 1]) {
+                    break;
+                }
+            }
+            for (int c = column - ring; c <= column + ring; c++) {
+                count = this.nearestInCell(c, row - ring, x, y, k, tag, out, count);
+                if (ring > 0) {
+                    count = this.nearestInCell(c, row + ring, x, y, k, tag, out, count);
+                }
+            }
+            for (int r = row - ring + 1; r < row + ring; r++) {
+                count = this.nearestInCell(column - ring, r, x, y, k, tag, out, count);
+                count = this.nearestInCell(column + ring, r, x, y, k, tag, out, count);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Merges the objects in one cell into the nearest found so far.
+     *
+     * @param column the cell's column, which may be outside the grid
+     * @param row the cell's row, which may be outside the grid
+     * @param x the point's x-coordinate
+     * @param y the point's y-coordinate
+     * @param k the most objects to find
+     * @param tag the tag of the objects to find, or 0 for any
+     * @param out the ids found so far, nearest first
+     * @param count the number of ids found so far
+     * @return the number of ids found
+     */
+    private final int nearestInCell(int column, int row, double x, double y, int k, int tag, int[] out,
+            int count) {
+        if (column < 0 || column >= this.columns || row < 0 || row >= this.rows) {
+            return count;
+        }
+        for (int i = this.head[row * this.columns + column]; i >= 0; i = this.next[i]) {
+            if (tag != 0 && this.tag[i] != tag) {
+                continue;
+            }
+            double dx = this.x[i] - x;
+            double dy = this.y[i] - y;
+            double d2 = dx * dx + dy * dy;
+            if (count == k && d2 >= this.nearestDistance[k - 1]) {
+                continue;
+            }
+            // Insert in order, dropping the farthest if full
+            int j = count == k ? k - 1 : count++;
+            while (j > 0 && this.nearestDistance[j - 1] > d2) {
+                this.nearestDistance[j] = this.nearestDistance[j - 1];
+                out[j] = out[j - 1];
+                j--;
+            }
+            this.nearestDistance[j] = d2;
+            out[j] = i;
+        }
+        return count;
+    }
+}
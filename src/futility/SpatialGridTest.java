@@ -0,0 +1,132 @@
+/** @file SpatialGridTest.java
+ * Unit tests for the SpatialGrid class.
+ *
+ * @author Team F(utility)
+ */
+
+package futility;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for the SpatialGrid class, against a scan over every object.
+ */
+public class SpatialGridTest {
+    private static final int CAPACITY = 60;
+
+    private final double[] x = new double[CAPACITY];
+    private final double[] y = new double[CAPACITY];
+    private final int[] tag = new int[CAPACITY];
+    private final boolean[] present = new boolean[CAPACITY];
+
+    /**
+     * Puts, moves and removes random objects, some of them outside the physical boundary.
+     */
+    private SpatialGrid scatter(Random random) {
+        SpatialGrid grid = new SpatialGrid(CAPACITY);
+        Rectangle bounds = Settings.PHYSICAL_BOUNDARY;
+        for (int step = 0; step < 4 * CAPACITY; step++) {
+            int id = random.nextInt(CAPACITY);
+            if (random.nextInt(5) == 0) {
+                grid.remove(id);
+                this.present[id] = false;
+                continue;
+            }
+            this.x[id] = bounds.getLeft() - 5.0 + random.nextDouble() * (bounds.getRight() - bounds.getLeft() + 10.0);
+            this.y[id] = bounds.getTop() - 5.0 + random.nextDouble() * (bounds.getBottom() - bounds.getTop() + 10.0);
+            this.tag[id] = random.nextInt(3) - 1;
+            this.present[id] = true;
+            grid.put(id, this.x[id], this.y[id], this.tag[id]);
+        }
+        return grid;
+    }
+
+    /**
+     * Tests that the objects within a radius and within a cone are those a scan finds.
+     */
+    @Test
+    public void testWithinAndInCone() {
+        Random random = new Random(17L);
+        SpatialGrid grid = this.scatter(random);
+        int count = 0;
+        for (int i = 0; i < CAPACITY; i++) {
+            if (this.present[i]) {
+                count++;
+            }
+        }
+        assertEquals(count, grid.size());
+        int[] out = new int[CAPACITY];
+        double[] halfAngles = {10.0, 45.0, 90.0, 135.0, 180.0};
+        for (int query = 0; query < 200; query++) {
+            double px = random.nextDouble() * 120.0 - 60.0;
+            double py = random.nextDouble() * 80.0 - 40.0;
+            double direction = random.nextDouble() * 360.0 - 180.0;
+            double halfAngle = halfAngles[query % halfAngles.length];
+            double range = random.nextDouble() * 40.0;
+            int queryTag = random.nextInt(3) - 1;
+            int found = grid.inCone(px, py, direction, halfAngle, range, queryTag, out);
+            boolean[] expected = new boolean[CAPACITY];
+            int numExpected = 0;
+            for (int i = 0; i < CAPACITY; i++) {
+                double dx = this.x[i] - px;
+                double dy = this.y[i] - py;
+                double angle = Math.abs(Futil.simplifyAngle(Math.toDegrees(Math.atan2(dy, dx)) - direction));
+                if (this.present[i] && (queryTag == 0 || this.tag[i] == queryTag)
+                        && Math.hypot(dx, dy) <= range && angle <= halfAngle) {
+                    expected[i] = true;
+                    numExpected++;
+                }
+            }
+            assertEquals(numExpected, found);
+            for (int k = 0; k < found; k++) {
+                assertTrue(expected[out[k]]);
+            }
+            if (halfAngle == 180.0) {
+                assertEquals(found, grid.within(px, py, range, queryTag, out));
+            }
+        }
+    }
+
+    /**
+     * Tests that the nearest objects are found in order, and that a full output array stops a
+     * query.
+     */
+    @Test
+    public void testNearest() {
+        Random random = new Random(23L);
+        SpatialGrid grid = this.scatter(random);
+        int[] out = new int[CAPACITY];
+        Integer[] order = new Integer[CAPACITY];
+        for (int query = 0; query < 200; query++) {
+            final double px = random.nextDouble() * 140.0 - 70.0;
+            final double py = random.nextDouble() * 100.0 - 50.0;
+            int k = 1 + random.nextInt(8);
+            int found = grid.nearest(px, py, k, 0, out);
+            int numPresent = 0;
+            for (int i = 0; i < CAPACITY; i++) {
+                if (this.present[i]) {
+                    order[numPresent++] = i;
+                }
+            }
+            Arrays.sort(order, 0, numPresent, new java.util.Comparator<Integer>() {
+                public int compare(Integer a, Integer b) {
+                    return Double.compare(Math.hypot(x[a] - px, y[a] - py), Math.hypot(x[b] - px, y[b] - py));
+                }
+            });
+            assertEquals(Math.min(k, numPresent), found);
+            for (int j = 0; j < found; j++) {
+                assertEquals(Math.hypot(this.x[order[j]] - px, this.y[order[j]] - py),
+                        Math.hypot(this.x[out[j]] - px, this.y[out[j]] - py), 1e-9);
+            }
+        }
+        assertEquals(2, grid.within(0.0, 0.0, 200.0, 0, new int[2]));
+        grid.clear();
+        assertEquals(0, grid.size());
+        assertEquals(0, grid.nearest(0.0, 0.0, 3, 0, out));
+    }
+}
@@ -0,0 +1,404 @@
+/** @file StandInServer.java
+ * Lightweight in-process replacement for rcssserver.
+ *
+ * @author Team F(utility)
+ */
+
+package futility;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.ArrayList;
+import java.util.Iterator;
+
+/**
+ * A stand-in soccer server that speaks enough of the rcssserver UDP protocol for clients to play:
+ * it answers `init` from a port dedicated to each player, sends `sense_body` every cycle and `see`
+ * every 150 ms of simulated time, announces referee decisions with `hear`, and passes `dash`,
+ * `turn`, `kick`, `move`, `done` and `bye` on to a World, which simulates the match (see World
+ * for what is and is not modelled).
+ *
+ * In real-time mode a cycle lasts 100 ms, as on the real server. In lockstep mode a cycle ends as
+ * soon as every player has finished responding (or a timeout expires), so matches run as fast
+ * as the clients can respond. As in rcssserver's synch mode, a player signals that it is finished
+ * with `(done)` (see Client's `--synch` option); players that never send it are taken to be
+ * finished after any command. `see` then follows `sense_body` every cycle, since the brain only
+ * responds to a lone `sense_body` when `see`s arrive well into the cycle.
+ */
+public class StandInServer implements Runnable {
+    public static final int CYCLE_MILLIS = 100;
+    public static final int SEE_MILLIS = 150;
+    public static final long LOCKSTEP_TIMEOUT_NANOS = 50000000L;
+
+    private final World world;
+    private final boolean lockstep;
+    private final Selector selector;
+    private final DatagramChannel initChannel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(Settings.MSG_SIZE);
+    private final ArrayList<Connection> connections = new ArrayList<Connection>();
+    private volatile boolean running = true;
+    private long simMillis = 0;
+
+    /**
+     * Creates a server listening for `init` messages on a port.
+     *
+     * @param port the port to listen on, or 0 for any free port
+     * @param lockstep whether to run cycles as fast as the clients respond
+     * @throws IOException if the port cannot be bound
+     */
+    public StandInServer(int port, boolean lockstep) throws IOException {
+        this(port, lockstep, 0L);
+    }
+
+    /**
+     * Creates a server listening for `init` messages on a port.
+     *
+     * @param port the port to listen on, or 0 for any free port
+     * @param lockstep whether to run cycles as fast as the clients respond
+     * @param seed the seed for the world's movement noise
+     * @throws IOException if the port cannot be bound
+     */
+    public StandInServer(int port, boolean lockstep, long seed) throws IOException {
+        this.world = new World(ServerParams.DEFAULT, seed);
+        this.lockstep = lockstep;
+        this.selector = Selector.open();
+        this.initChannel = DatagramChannel.open();
+        this.initChannel.bind(new InetSocketAddress(port));
+        this.initChannel.configureBlocking(false);
+        this.initChannel.register(this.selector, SelectionKey.OP_READ);
+    }
+
+    ///////////////////////////////////////////////////////////////////////////
+    // STATIC FUNCTIONS
+    ///////////////////////////////////////////////////////////////////////////
+    /**
+     * Starts a stand-in server on a daemon thread.
+     *
+     * @param port the port to listen on, or 0 for any free port
+     * @param lockstep whether to run cycles as fast as the clients respond
+     * @return the running server
+     * @throws IOException if the port cannot be bound
+     */
+    public static StandInServer start(int port, boolean lockstep) throws IOException {
+        StandInServer server = new StandInServer(port, lockstep);
+        Thread thread = new Thread(server, "futility-stand-in-server");
+        thread.setDaemon(true);
+        thread.start();
+        return server;
+    }
+
+    /**
+     * Runs a stand-in server until the process is killed. Play starts when Enter is pressed.
+     *
+     * @param args an optional port, and `--lockstep` to run cycles as fast as clients respond
+     */
+    public static void main(String[] args) {
+        int port = Settings.INIT_PORT;
+        boolean lockstep = false;
+        for (String arg : args) {
+            if (arg.equals("--lockstep")) {
+                lockstep = true;
+            }
+            else {
+                port = Integer.parseInt(arg);
+            }
+        }
+        try {
+            StandInServer server = StandInServer.start(port, lockstep);
+            System.out.println("Stand-in server listening on port " + server.getPort()
+                    + "; press Enter to kick off.");
+            new BufferedReader(new InputStreamReader(System.in)).readLine();
+            server.kickOff();
+            while (true) {
+                Thread.sleep(Long.MAX_VALUE);
+            }
+        }
+        catch (IOException e) {
+            System.err.println("Could not start the stand-in server: " + e);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    ///////////////////////////////////////////////////////////////////////////
+    // METHODS
+    ///////////////////////////////////////////////////////////////////////////
+    /**
+     * Gets the port the server listens for `init` messages on.
+     *
+     * @return the port
+     */
+    public final int getPort() {
+        return this.initChannel.socket().getLocalPort();
+    }
+
+    /**
+     * Gets the simulated match.
+     *
+     * @return the world the server simulates
+     */
+    public final World world() {
+        return this.world;
+    }
+
+    /**
+     * Gets the current time step.
+     *
+     * @return the time step, which starts advancing at kick-off
+     */
+    public final int time() {
+        return this.world.time();
+    }
+
+    /**
+     * Starts play at the beginning of the next cycle.
+     */
+    public final void kickOff() {
+        this.world.kickOff();
+    }
+
+    /**
+     * Blocks until the server reaches a time step.
+     *
+     * @param time the time step to wait for
+     * @param timeoutMillis how long to wait at most
+     * @return whether the time step was reached
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public final boolean awaitTime(int time, long timeoutMillis) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        synchronized (this) {
+            while (this.world.time() < time) {
+                long wait = deadline - System.currentTimeMillis();
+                if (wait <= 0 || !this.running) {
+                    return false;
+                }
+                this.wait(wait);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Gets the true position of a player, such as for checking a client's beliefs.
+     *
+     * @param team the player's team name
+     * @param unum the player's uniform number
+     * @return the player's position, or null if no such player is connected
+     */
+    public final Point positionOf(String team, int unum) {
+        return this.world.positionOf(team, unum);
+    }
+
+    /**
+     * Runs the server until {@link #stop()} is called.
+     */
+    public void run() {
+        long start = System.nanoTime();
+        long cycleStarted = start;
+        try {
+            while (this.running) {
+                long nextCycle = (this.simMillis / CYCLE_MILLIS + 1) * CYCLE_MILLIS;
+                // In lockstep, every cycle has a `see` for the brain to respond to
+                long nextSee = this.lockstep ? nextCycle : (this.simMillis / SEE_MILLIS + 1) * SEE_MILLIS;
+                long next = Math.min(nextCycle, nextSee);
+                // In lockstep, the next event is always a cycle, due once every player is done
+                long deadline = this.lockstep ? cycleStarted + LOCKSTEP_TIMEOUT_NANOS : start + next * 1000000L;
+                // Handle messages until the next event is due
+                do {
+                    this.poll(deadline - System.nanoTime());
+                } while (this.running && System.nanoTime() < deadline
+                        && !(this.lockstep && this.world.allDone()));
+                this.simMillis = next;
+                if (next == nextCycle) {
+                    this.step();
+                    cycleStarted = System.nanoTime();
+                }
+                if (next == nextSee) {
+                    for (Connection connection : this.connections) {
+                        this.world.writeSee(connection.agent, this.buffer);
+                        this.send(connection);
+                    }
+                }
+            }
+        }
+        catch (IOException e) {
+            Log.e("Stand-in server failed: " + e);
+        }
+        finally {
+            this.close();
+        }
+    }
+
+    /**
+     * Stops the server and closes its channels.
+     */
+    public void stop() {
+        this.running = false;
+        this.selector.wakeup();
+    }
+
+    /**
+     * Closes every channel.
+     */
+    private final void close() {
+        try {
+            for (Connection connection : this.connections) {
+                connection.channel.close();
+            }
+            this.initChannel.close();
+            this.selector.close();
+        }
+        catch (IOException e) {
+            System.err.println("socket closing error " + e);
+        }
+        synchronized (this) {
+            this.notifyAll();
+        }
+    }
+
+    /**
+     * Waits for and handles incoming messages.
+     *
+     * @param nanos how long to wait at most; nothing is waited for if this is not positive
+     */
+    private final void poll(long nanos) throws IOException {
+        if (nanos <= 0) {
+            this.selector.selectNow();
+        }
+        else {
+            this.selector.select(Math.max(1, nanos / 1000000));
+        }
+        Iterator<SelectionKey> keys = this.selector.selectedKeys().iterator();
+        while (keys.hasNext()) {
+            SelectionKey key = keys.next();
+            keys.remove();
+            if (!key.isValid() || !key.isReadable()) {
+                continue;
+            }
+            DatagramChannel channel = (DatagramChannel) key.channel();
+            while (true) {
+                this.buffer.clear();
+                SocketAddress sender = channel.receive(this.buffer);
+                if (sender == null) {
+                    break;
+                }
+                this.buffer.flip();
+                String message = Futil.decode(this.buffer);
+                if (channel == this.initChannel) {
+                    this.handleInit(sender, message);
+                }
+                else {
+                    this.handleCommand((Connection) key.attachment(), message);
+                }
+                if (!channel.isOpen()) {
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Connects a new player, replying from a port dedicated to it.
+     *
+     * @param sender the player's address
+     * @param message the player's `init` message
+     */
+    private final void handleInit(SocketAddress sender, String message) throws IOException {
+        if (!message.startsWith("(init ")) {
+            return;
+        }
+        DatagramChannel channel = DatagramChannel.open();
+        channel.bind(new InetSocketAddress(0));
+        World.Agent agent = this.world.join(message);
+        Connection connection = new Connection(channel, sender, agent);
+        this.world.writeInit(agent, this.buffer);
+        this.send(connection);
+        if (agent == null) {
+            channel.close();
+            return;
+        }
+        channel.configureBlocking(false);
+        channel.register(this.selector, SelectionKey.OP_READ, connection);
+        this.connections.add(connection);
+    }
+
+    /**
+     * Passes a player's command on to the world.
+     *
+     * @param connection the player's connection
+     * @param message the command
+     */
+    private final void handleCommand(Connection connection, String message) throws IOException {
+        if (!this.world.command(connection.agent, message)) {
+            this.buffer.clear();
+            Futil.putAscii(this.buffer, "(error illegal_command_form)");
+            this.buffer.put((byte) 0);
+            this.buffer.flip();
+            this.send(connection);
+        }
+        if (connection.agent.hasLeft()) {
+            this.connections.remove(connection);
+            connection.channel.close();
+        }
+    }
+
+    /**
+     * Simulates one cycle and sends each player its `sense_body`, followed by any referee
+     * announcement.
+     */
+    private final void step() throws IOException {
+        this.world.step();
+        synchronized (this) {
+            this.notifyAll();
+        }
+        for (Connection connection : this.connections) {
+            this.world.writeSenseBody(connection.agent, this.buffer);
+            this.send(connection);
+            if (this.world.writeHear(this.buffer)) {
+                this.send(connection);
+            }
+        }
+    }
+
+    /**
+     * Sends the message in the send buffer to a player.
+     *
+     * @param connection the player's connection
+     */
+    private final void send(Connection connection) throws IOException {
+        if (connection.channel.isOpen()) {
+            connection.channel.send(this.buffer, connection.address);
+        }
+    }
+
+    /**
+     * A connected player.
+     */
+    private static final class Connection {
+        final DatagramChannel channel;
+        final SocketAddress address;
+        final World.Agent agent;
+
+        /**
+         * Primary constructor.
+         *
+         * @param channel the channel dedicated to the player
+         * @param address the player's address
+         * @param agent the player on the field, or null if it could not join
+         */
+        Connection(DatagramChannel channel, SocketAddress address, World.Agent agent) {
+            this.channel = channel;
+            this.address = address;
+            this.agent = agent;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+/** @file StandInServerTest.java
+ * Tests for the `StandInServer` class.
+ * 
+ * @author Team F(utility)
+ */
+
+package futility;
+
+import static org.junit.Assert.*;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * End-to-end tests of a client playing against a lockstep `StandInServer`.
+ */
+public class StandInServerTest {
+    StandInServer server;
+    ThreadedAgentHost host;
+    Client client;
+    
+    @Before
+    public void setUp() throws Exception {
+        this.server = StandInServer.start(0, true);
+        String[] args = {"--synch", "--team", "futility", "--port", Integer.toString(this.server.getPort())};
+        this.client = new Client(args);
+        this.host = new ThreadedAgentHost();
+        this.host.add(this.client);
+        new Thread(this.host).start();
+    }
+    
+    @After
+    public void tearDown() {
+        this.host.stop();
+        this.server.stop();
+    }
+    
+    /**
+     * Tests that distances are quantized the way the server quantizes them.
+     */
+    @Test
+    public void testQuantizeDistance() {
+        assertEquals(47.9, World.quantizeDistance(47.93, 0.01), 1e-9);
+        assertEquals(10.0, World.quantizeDistance(10.2, 0.1), 1e-9);
+        assertEquals(0.0, World.quantizeDistance(0.0, 0.1), 1e-9);
+    }
+    
+    /**
+     * Tests that a client connects, plays in lockstep, and localizes itself from the server's
+     * `see` messages.
+     */
+    @Test
+    public void testClientPlaysInLockstep() throws Exception {
+        // Kick off as soon as the player joins, since lockstep cycles before kick-off are not paced
+        for (int i = 0; i < 300 && this.server.world().agents().isEmpty(); i++) {
+            Thread.sleep(10);
+        }
+        this.server.kickOff();
+        assertTrue(this.server.awaitTime(50, 10000));
+        Brain brain = this.client.player.brain;
+        assertEquals(1, this.client.player.number);
+        assertTrue(brain.time >= 40);
+        assertTrue(brain.metrics.cycles() >= 40);
+        Point actual = this.server.positionOf("futility", 1);
+        Point believed = this.client.player.position.getPosition();
+        assertEquals(actual.getX(), believed.getX(), 5.0);
+        assertEquals(actual.getY(), believed.getY(), 5.0);
+    }
+}
@@ -36,6 +36,20 @@ public class StationaryObject extends FieldObject {
         this.position = new PositionEstimate(x, y, 1.0, -1);
     }
     
+    /**
+     * Looks up the position of a known stationary object.
+     * 
+     * @param id the object's ObjectId
+     * @return a new estimate of the object's position, or null if the id is not a known stationary object
+     */
+    protected static final PositionEstimate knownPosition(String id) {
+        int index = ObjectIds.STATIONARY.find(id);
+        if (index < 0 || index >= Settings.STATIONARY_OBJECTS.length) {
+            return null;
+        }
+        return new PositionEstimate(Settings.STATIONARY_OBJECTS[index].position);
+    }
+    
     /**
      * Returns true if this is a stationary object.
      * 
@@ -0,0 +1,110 @@
+/** @file Statistic.java
+ * Running mean and confidence interval of a sampled quantity.
+ *
+ * @author Team F(utility)
+ */
+
+package futility;
+
+/**
+ * Accumulates samples of a quantity, such as the goal difference of each match played, and
+ * estimates its mean with a 95% confidence interval. The mean and variance are updated with
+ * Welford's method, so samples are not stored and no precision is lost to large sums. The
+ * interval uses Student's t distribution, which matters for the small sample counts a batch of
+ * matches often has.
+ */
+public final class Statistic {
+    // Two-sided 95% critical values of Student's t distribution for 1 to 30 degrees of freedom
+    private static final double[] T_95 = {
+        12.706, 4.303, 3.182, 2.776, 2.571, 2.447, 2.365, 2.306, 2.262, 2.228,
+        2.201, 2.179, 2.160, 2.145, 2.131, 2.120, 2.110, 2.101, 2.093, 2.086,
+        2.080, 2.074, 2.069, 2.064, 2.060, 2.056, 2.052, 2.048, 2.045, 2.042
+    };
+
+    private long count = 0;
+    private double mean = 0.0;
+    private double squares = 0.0;  // sum of squared differences from the mean
+
+    ///////////////////////////////////////////////////////////////////////////
+    // STATIC FUNCTIONS
+    ///////////////////////////////////////////////////////////////////////////
+    /**
+     * Gets the critical value of Student's t distribution for a two-sided 95% interval.
+     *
+     * @param degrees the degrees of freedom, at least 1
+     * @return the critical value
+     */
+    public static final double t95(long degrees) {
+        if (degrees <= T_95.length) {
+            return T_95[(int) Math.max(1, degrees) - 1];
+        }
+        // Within 0.002 of the exact value beyond the table
+        return 1.96 + 2.4 / degrees;
+    }
+
+    ///////////////////////////////////////////////////////////////////////////
+    // METHODS
+    ///////////////////////////////////////////////////////////////////////////
+    /**
+     * Adds a sample.
+     *
+     * @param value the sample
+     */
+    public final void add(double value) {
+        this.count++;
+        double delta = value - this.mean;
+        this.mean += delta / this.count;
+        this.squares += delta * (value - this.mean);
+    }
+
+    /**
+     * Gets the number of samples.
+     *
+     * @return the number of samples
+     */
+    public final long count() {
+        return this.count;
+    }
+
+    /**
+     * Gets the mean of the samples.
+     *
+     * @return the sample mean, or 0 if there are no samples
+     */
+    public final double mean() {
+        return this.mean;
+    }
+
+    /**
+     * Gets the standard deviation of the samples.
+     *
+     * @return the sample standard deviation, or 0 if there are fewer than two samples
+     */
+    public final double standardDeviation() {
+        if (this.count < 2) {
+            return 0.0;
+        }
+        return Math.sqrt(this.squares / (this.count - 1));
+    }
+
+    /**
+     * Gets the half-width of the 95% confidence interval of the mean.
+     *
+     * @return the half-width, or infinity if there are fewer than two samples
+     */
+    public final double confidence95() {
+        if (this.count < 2) {
+            return Double.POSITIVE_INFINITY;
+        }
+        return t95(this.count - 1) * this.standardDeviation() / Math.sqrt(this.count);
+    }
+
+    /**
+     * Renders the mean and its 95% confidence interval.
+     *
+     * @return the rendering, e.g. "0.85 +/- 0.42"
+     */
+    public final String render() {
+        return String.format("%.3f +/- %.3f", this.mean, this.confidence95());
+    }
+}
@@ -0,0 +1,45 @@
+/** @file StatisticTest.java
+ * Unit tests for the Statistic class.
+ * 
+ * @author Team F(utility)
+ */
+
+package futility;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for the Statistic class.
+ */
+public class StatisticTest {
+
+    /**
+     * Tests the mean, standard deviation and confidence interval of a small sample.
+     */
+    @Test
+    public void testConfidenceInterval() {
+        Statistic statistic = new Statistic();
+        assertTrue(Double.isInfinite(statistic.confidence95()));
+        double[] samples = {2, 4, 4, 4, 5, 5, 7, 9};
+        for (double sample : samples) {
+            statistic.add(sample);
+        }
+        assertEquals(8, statistic.count());
+        assertEquals(5.0, statistic.mean(), 1e-12);
+        assertEquals(Math.sqrt(32.0 / 7.0), statistic.standardDeviation(), 1e-12);
+        assertEquals(2.365 * Math.sqrt(32.0 / 7.0) / Math.sqrt(8), statistic.confidence95(), 1e-12);
+    }
+    
+    /**
+     * Tests that critical values approach the normal distribution's beyond the table.
+     */
+    @Test
+    public void testT95() {
+        assertEquals(12.706, Statistic.t95(1), 1e-9);
+        assertEquals(2.042, Statistic.t95(30), 1e-9);
+        assertEquals(2.021, Statistic.t95(40), 0.002);
+        assertEquals(1.980, Statistic.t95(120), 0.002);
+    }
+}
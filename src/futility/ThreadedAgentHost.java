@@ -0,0 +1,112 @@
+/** @file ThreadedAgentHost.java
+ * Runs many player agents inside a single process, one thread each.
+ *
+ * @author Team F(utility)
+ */
+
+package futility;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+
+/**
+ * Hosts any number of clients in one process by running each client's blocking
+ * {@link Client#playForever()} loop on its own thread. Virtual threads are used when the Java
+ * runtime provides them, so the per-agent cost is a small heap-allocated stack rather than an OS
+ * thread; on older runtimes ordinary threads are used instead.
+ */
+public class ThreadedAgentHost implements AgentRuntime {
+    private static final Method START_VIRTUAL_THREAD = findStartVirtualThread();
+
+    private final ArrayList<Client> clients = new ArrayList<Client>();
+    private final ArrayList<Thread> threads = new ArrayList<Thread>();
+
+    /**
+     * Looks up Thread.startVirtualThread, which only exists in Java 21 and later.
+     *
+     * @return the method, or null if virtual threads are not available
+     */
+    private static Method findStartVirtualThread() {
+        try {
+            return Thread.class.getMethod("startVirtualThread", Runnable.class);
+        }
+        catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Returns true if agents are run on virtual threads.
+     *
+     * @return true if virtual threads are available
+     */
+    public static boolean usesVirtualThreads() {
+        return START_VIRTUAL_THREAD != null;
+    }
+
+    /**
+     * Starts a task on a virtual thread if possible, or an ordinary thread otherwise.
+     *
+     * @param task the task to run
+     * @param name a name for the thread, if it is an ordinary thread
+     * @return the started thread
+     */
+    private static Thread start(Runnable task, String name) {
+        if (START_VIRTUAL_THREAD != null) {
+            try {
+                return (Thread) START_VIRTUAL_THREAD.invoke(null, task);
+            }
+            catch (Exception e) {
+                Log.e("Could not start a virtual thread: " + e);
+            }
+        }
+        Thread thread = new Thread(task, name);
+        thread.start();
+        return thread;
+    }
+
+    /**
+     * Connects a client to the server. Its thread is started by {@link #run()}.
+     *
+     * @param client the client to run
+     */
+    public void add(Client client) {
+        client.init();
+        this.clients.add(client);
+    }
+
+    /**
+     * Starts one thread per client and waits for all of them to finish.
+     */
+    public void run() {
+        Log.i("Running " + this.clients.size() + " agents on " +
+              (usesVirtualThreads() ? "virtual" : "platform") + " threads.");
+        for (int i = 0; i < this.clients.size(); i++) {
+            final Client client = this.clients.get(i);
+            this.threads.add(start(new Runnable() {
+                public void run() {
+                    client.playForever();
+                }
+            }, "agent-" + i));
+        }
+        for (Thread thread : this.threads) {
+            try {
+                thread.join();
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Disconnects every client from the server, which ends their threads. Each client's `bye` is
+     * sent under the client's send lock, so it cannot interleave with a command its thread is sending.
+     */
+    public void stop() {
+        for (Client client : this.clients) {
+            client.quit();
+        }
+    }
+}
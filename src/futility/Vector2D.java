@@ -109,11 +109,10 @@ public class Vector2D {
      * 
      * @param dir direction in radians of the other vector
      * @param mag magnitude of the other vector
+     * @return the result as a new vector
      */
     public final Vector2D addPolar(double dir, double mag) {
-        double x = mag * Math.cos(dir);
-        double y = mag * Math.sin(dir);
-        return new Vector2D(x, y).add(this);
+        return new Vector2D(this.x, this.y).addPolarInPlace(dir, mag);
     }
     
     /**
@@ -135,6 +134,105 @@ public class Vector2D {
         return new Vector2D(this.x + that.getX(), this.y + that.getY());
     }
     
+    ///////////////////////////////////////////////////////////////////////////
+    // IN-PLACE OPERATIONS
+    ///////////////////////////////////////////////////////////////////////////
+    // These modify this vector and return it, so that calls can be chained without allocating.
+    /**
+     * Sets this vector's coordinates.
+     * 
+     * @param x the x-coordinate
+     * @param y the y-coordinate
+     * @return this vector
+     */
+    public final Vector2D set(double x, double y) {
+        this.x = x;
+        this.y = y;
+        return this;
+    }
+    
+    /**
+     * Copies another vector's coordinates to this vector.
+     * 
+     * @param that the vector to copy
+     * @return this vector
+     */
+    public final Vector2D set(Vector2D that) {
+        return this.set(that.x, that.y);
+    }
+    
+    /**
+     * Sets this vector using polar coordinates.
+     * 
+     * @param dir direction in radians
+     * @param mag magnitude
+     * @return this vector
+     */
+    public final Vector2D setPolar(double dir, double mag) {
+        return this.set(mag * Math.cos(dir), mag * Math.sin(dir));
+    }
+    
+    /**
+     * Adds Cartesian offsets to this vector.
+     * 
+     * @param dx offset to add to the x-coordinate
+     * @param dy offset to add to the y-coordinate
+     * @return this vector
+     */
+    public final Vector2D addInPlace(double dx, double dy) {
+        this.x += dx;
+        this.y += dy;
+        return this;
+    }
+    
+    /**
+     * Adds another vector to this vector.
+     * 
+     * @param that the vector to add
+     * @return this vector
+     */
+    public final Vector2D addInPlace(Vector2D that) {
+        return this.addInPlace(that.x, that.y);
+    }
+    
+    /**
+     * Adds a polar vector to this vector.
+     * 
+     * @param dir direction in radians of the other vector
+     * @param mag magnitude of the other vector
+     * @return this vector
+     */
+    public final Vector2D addPolarInPlace(double dir, double mag) {
+        return this.addInPlace(mag * Math.cos(dir), mag * Math.sin(dir));
+    }
+    
+    /**
+     * Multiplies this vector by a scalar.
+     * 
+     * @param k the scalar
+     * @return this vector
+     */
+    public final Vector2D scaleInPlace(double k) {
+        this.x *= k;
+        this.y *= k;
+        return this;
+    }
+    
+    /**
+     * Scales this vector down, if necessary, so its magnitude is at most the given limit.
+     * 
+     * @param max the largest allowed magnitude
+     * @return this vector
+     */
+    public final Vector2D clampInPlace(double max) {
+        double ratio = this.magnitude() / max;
+        if (ratio > 1.0) {
+            this.x /= ratio;
+            this.y /= ratio;
+        }
+        return this;
+    }
+    
     /**
      * Resets this vector.
      */
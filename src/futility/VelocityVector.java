@@ -28,7 +28,6 @@ public class VelocityVector extends Vector2D {
      */
     public VelocityVector(double magnitude) {
         super(magnitude);
-        this.normalize();
     }
     
     /**
@@ -39,31 +38,18 @@ public class VelocityVector extends Vector2D {
      */
     public VelocityVector(double x, double y) {
         super(x, y);
-        this.normalize();
     }
     
     ///////////////////////////////////////////////////////////////////////////
     // METHODS
     ///////////////////////////////////////////////////////////////////////////
     /**
-     * Normalizes this vector's magnitude.
-     */
-    private final void normalize() {
-        double ratio = this.magnitude() / Settings.PLAYER_SPEED_MAX;
-        if (ratio > 1.0) {
-            this.setX(this.getX() / ratio);
-            this.setY(this.getY() / ratio);
-        }
-    }
-    
-    /**
-     * Updates this vector using polar coordinates.
+     * Normalizes this vector's magnitude to a player type's top speed. Call after in-place
+     * operations that may exceed it.
      * 
-     * @param dir direction in radians
-     * @param mag magnitude
+     * @param type the type of the player moving at this velocity
      */
-    public final void setPolar(double dir, double mag) {
-        this.setX(mag * Math.cos(dir));
-        this.setY(mag * Math.sin(dir));
+    public final void normalize(PlayerType type) {
+        this.clampInPlace(type.PLAYER_SPEED_MAX);
     }
 }
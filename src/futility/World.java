@@ -0,0 +1,920 @@
+/** @file World.java
+ * Simulated soccer field shared by the stand-in server and the headless simulator.
+ *
+ * @author Team F(utility)
+ */
+
+package futility;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * The true state of a simulated match: the ball, the players and the referee. It executes the
+ * players' `dash`, `turn`, `kick` and `move` commands, moves every object with the default server
+ * and player type parameters (decay, speed limits, dash power rate, inertia moment, kickable
+ * margin and kick power rate), and writes the `init`, `sense_body`, `see` and `hear` messages each
+ * player would receive, with distances quantized the way the server quantizes them.
+ *
+ * As on the server, every moving object's velocity is perturbed each cycle by noise proportional
+ * to its speed, drawn from a seeded generator so that a world replays exactly from its seed. The
+ * referee announces kick-off, goals and the kick-off after each goal. Collisions, offsides, fouls
+ * and kick-ins are not modelled; a ball that leaves the field is dropped on the center spot.
+ *
+ * Messages may be written for several players at once from different threads, and players may
+ * queue their own commands concurrently, as long as no cycle is being stepped at the same time.
+ */
+public class World {
+    public static final int GOAL_PAUSE_CYCLES = 20;
+    public static final double QUANTIZE_STEP = 0.1;
+    public static final double QUANTIZE_STEP_L = 0.01;
+    public static final double PLAYER_RAND = 0.1;
+    private static final double VISIBLE_ANGLE = 45.0;  // half of the normal view width
+    private static final double UNUM_FAR_LENGTH = 20.0;
+    private static final double EPS = 1.0e-10;
+    private static final String[] COMMAND_NAMES = {Settings.Commands.DASH, Settings.Commands.TURN,
+            Settings.Commands.KICK, Settings.Commands.DONE, Settings.Commands.MOVE, Settings.Commands.BYE};
+
+    private final ServerParams params;
+    private final PlayerType type;
+    private final ArrayList<Agent> agents = new ArrayList<Agent>();
+    private final ArrayList<String> teams = new ArrayList<String>(2);
+    private final Random random;
+    private final Body ball = new Body();
+    private final int[] score = new int[2];
+    private final int[] possession = new int[2];
+    private int lastKicker = -1;
+    private volatile boolean kickOffRequested = false;
+    private volatile int time = 0;
+    private volatile String playMode = "before_kick_off";
+    private String referee = null;
+    private int pause = 0;
+
+    /**
+     * Creates an empty field with the default parameters and noise seed.
+     */
+    public World() {
+        this(ServerParams.DEFAULT, 0L);
+    }
+
+    /**
+     * Creates an empty field.
+     *
+     * @param params the server parameters to simulate
+     * @param seed the seed for movement noise
+     */
+    public World(ServerParams params, long seed) {
+        this.params = params;
+        this.type = params.PLAYER_TYPE;
+        this.random = new Random(seed);
+    }
+
+    ///////////////////////////////////////////////////////////////////////////
+    // STATIC FUNCTIONS
+    ///////////////////////////////////////////////////////////////////////////
+    /**
+     * Quantizes a value the way the server does.
+     *
+     * @param value the value
+     * @param step the quantization step
+     * @return the nearest multiple of the step
+     */
+    public static final double quantize(double value, double step) {
+        return Math.rint(value / step) * step;
+    }
+
+    /**
+     * Quantizes a distance the way the server does in `see` messages: logarithmically, then to
+     * one decimal place.
+     *
+     * @param distance the true distance
+     * @param step QUANTIZE_STEP for moving objects, or QUANTIZE_STEP_L for landmarks
+     * @return the distance the server would report
+     */
+    public static final double quantizeDistance(double distance, double step) {
+        return quantize(Math.exp(quantize(Math.log(distance + EPS), step)), 0.1);
+    }
+
+    ///////////////////////////////////////////////////////////////////////////
+    // STATE
+    ///////////////////////////////////////////////////////////////////////////
+    /**
+     * Gets the current time step.
+     *
+     * @return the time step, which starts advancing at kick-off
+     */
+    public final int time() {
+        return this.time;
+    }
+
+    /**
+     * Gets the current play mode.
+     *
+     * @return the play mode, e.g. "play_on"
+     */
+    public final String playMode() {
+        return this.playMode;
+    }
+
+    /**
+     * Gets the referee's announcement from the last cycle.
+     *
+     * @return the new play mode, or null if it did not change
+     */
+    public final String referee() {
+        return this.referee;
+    }
+
+    /**
+     * Gets the number of goals a side has scored.
+     *
+     * @param side Settings.LEFT_SIDE or Settings.RIGHT_SIDE
+     * @return the side's score
+     */
+    public final int score(char side) {
+        return this.score[side == Settings.LEFT_SIDE ? 0 : 1];
+    }
+
+    /**
+     * Gets how many cycles of play a side has had possession for, judged by which side last
+     * kicked the ball.
+     *
+     * @param side Settings.LEFT_SIDE or Settings.RIGHT_SIDE
+     * @return the number of `play_on` cycles since kick-off that the side had possession for
+     */
+    public final synchronized int possession(char side) {
+        return this.possession[side == Settings.LEFT_SIDE ? 0 : 1];
+    }
+
+    /**
+     * Gets the players on the field. The list must not be modified.
+     *
+     * @return the players, in the order they joined
+     */
+    public final List<Agent> agents() {
+        return this.agents;
+    }
+
+    /**
+     * Gets the true position of a player, such as for checking a client's beliefs.
+     *
+     * @param team the player's team name
+     * @param unum the player's uniform number
+     * @return the player's position, or null if no such player is on the field
+     */
+    public final synchronized Point positionOf(String team, int unum) {
+        for (Agent agent : this.agents) {
+            if (agent.team.equals(team) && agent.unum == unum) {
+                return new Point(agent.body.x, agent.body.y);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Gets the true position of the ball.
+     *
+     * @return the ball's position
+     */
+    public final synchronized Point ballPosition() {
+        return new Point(this.ball.x, this.ball.y);
+    }
+
+    /**
+     * Starts play at the beginning of the next cycle.
+     */
+    public final void kickOff() {
+        this.kickOffRequested = true;
+    }
+
+    /**
+     * Returns whether every player has finished responding in the current cycle. Players that
+     * have sent `(done)` are finished once they send it again; others once they send any command.
+     *
+     * @return whether every player has finished
+     */
+    public final boolean allDone() {
+        if (this.agents.isEmpty()) {
+            return false;
+        }
+        for (Agent agent : this.agents) {
+            if (agent.synch ? !agent.done : !agent.commanded) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    ///////////////////////////////////////////////////////////////////////////
+    // COMMANDS
+    ///////////////////////////////////////////////////////////////////////////
+    /**
+     * Adds a player in response to its `init` message.
+     *
+     * @param message the player's `init` message
+     * @return the new player, or null if its team is full or there are already two teams
+     */
+    public final synchronized Agent join(String message) {
+        if (!message.startsWith("(init ")) {
+            return null;
+        }
+        String team = message.substring(6).split("[\\s()]+")[0];
+        int side = this.teams.indexOf(team);
+        if (side < 0 && this.teams.size() < 2) {
+            this.teams.add(team);
+            side = this.teams.size() - 1;
+        }
+        int unum = 1;
+        for (Agent agent : this.agents) {
+            if (agent.team.equals(team)) {
+                unum++;
+            }
+        }
+        if (side < 0 || unum > 11) {
+            return null;
+        }
+        char sideChar = side == 0 ? Settings.LEFT_SIDE : Settings.RIGHT_SIDE;
+        Agent agent = new Agent(team, sideChar, unum, message.contains("(goalie)"));
+        // Players wait off the field until they move into position
+        agent.body.x = (sideChar == Settings.LEFT_SIDE ? -1 : 1) * 3.0 * unum;
+        agent.body.y = Settings.FIELD.getTop() - 3.0;
+        agent.stamina = this.params.PLAYER_PARAMS.STAMINA_MAX;
+        this.agents.add(agent);
+        return agent;
+    }
+
+    /**
+     * Handles a player's command. Body commands are queued until the end of the cycle, and only
+     * the first one in a cycle counts.
+     *
+     * @param agent the player
+     * @param message the command
+     * @return false if the command was malformed
+     */
+    public final boolean command(Agent agent, String message) {
+        String[] parts = message.split("[\\s()]+");
+        if (parts.length < 2) {
+            return false;
+        }
+        String command = parts[1];
+        if (!this.accept(agent, command)) {
+            return true;
+        }
+        try {
+            agent.arg1 = parts.length > 2 ? Double.parseDouble(parts[2]) : 0.0;
+            agent.arg2 = parts.length > 3 ? Double.parseDouble(parts[3]) : 0.0;
+            agent.command = command;
+        }
+        catch (NumberFormatException e) {
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Handles a player's command straight from the bytes it sent, without decoding it to a
+     * string first. Otherwise the same as `command(Agent, String)`.
+     *
+     * @param agent the player
+     * @param message the buffer holding the command, which is consumed
+     * @return false if the command was malformed
+     */
+    public final boolean command(Agent agent, ByteBuffer message) {
+        int limit = message.limit();
+        int start = skipDelimiters(message, message.position(), limit);
+        int end = tokenEnd(message, start, limit);
+        message.position(limit);
+        if (start == end) {
+            return false;
+        }
+        String command = commandName(message, start, end);
+        if (!this.accept(agent, command)) {
+            return true;
+        }
+        double arg1 = 0.0;
+        double arg2 = 0.0;
+        start = skipDelimiters(message, end, limit);
+        end = tokenEnd(message, start, limit);
+        if (start < end) {
+            arg1 = parseNumber(message, start, end);
+            start = skipDelimiters(message, end, limit);
+            end = tokenEnd(message, start, limit);
+            if (start < end) {
+                arg2 = parseNumber(message, start, end);
+            }
+        }
+        if (Double.isNaN(arg1) || Double.isNaN(arg2)) {
+            return false;
+        }
+        agent.arg1 = arg1;
+        agent.arg2 = arg2;
+        agent.command = command;
+        return true;
+    }
+
+    /**
+     * Notes that a player has sent a command, and handles `done` and `bye`.
+     *
+     * @param agent the player
+     * @param command the command's name, or null if it is not one the world knows
+     * @return true if the command is a body command that should be queued
+     */
+    private final boolean accept(Agent agent, String command) {
+        agent.commanded = true;
+        if (Settings.Commands.DONE.equals(command)) {
+            agent.synch = true;
+            agent.done = true;
+            return false;
+        }
+        if (Settings.Commands.BYE.equals(command)) {
+            synchronized (this) {
+                this.agents.remove(agent);
+            }
+            agent.left = true;
+            return false;
+        }
+        if (agent.command != null) {
+            return false;
+        }
+        return Settings.Commands.DASH.equals(command) || Settings.Commands.TURN.equals(command)
+                || Settings.Commands.KICK.equals(command) || Settings.Commands.MOVE.equals(command);
+    }
+
+    /**
+     * Finds the command constant spelled by a token.
+     *
+     * @param buffer the buffer holding the token
+     * @param start the token's first index
+     * @param end the index just past the token
+     * @return the matching `Settings.Commands` constant, or null if there is none
+     */
+    private static final String commandName(ByteBuffer buffer, int start, int end) {
+        String[] names = COMMAND_NAMES;
+        for (int i = 0; i < names.length; i++) {
+            if (spells(buffer, start, end, names[i])) {
+                return names[i];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Tests whether a token is spelled the same as a string.
+     *
+     * @param buffer the buffer holding the token
+     * @param start the token's first index
+     * @param end the index just past the token
+     * @param name the string to compare against
+     * @return true if they match
+     */
+    private static final boolean spells(ByteBuffer buffer, int start, int end, String name) {
+        if (end - start != name.length()) {
+            return false;
+        }
+        for (int i = 0; i < name.length(); i++) {
+            if (buffer.get(start + i) != name.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Tests whether a byte separates the tokens of a command.
+     *
+     * @param b the byte
+     * @return true if it is whitespace, a parenthesis or the terminating NUL
+     */
+    private static final boolean isDelimiter(byte b) {
+        return b == ' ' || b == '(' || b == ')' || b == '\t' || b == '\n' || b == '\r' || b == 0;
+    }
+
+    /**
+     * Finds the start of the next token.
+     *
+     * @param buffer the buffer holding the command
+     * @param pos the index to start from
+     * @param limit the end of the command
+     * @return the token's first index, or the index of the terminating NUL or the limit if none
+     */
+    private static final int skipDelimiters(ByteBuffer buffer, int pos, int limit) {
+        byte b;
+        while (pos < limit && (b = buffer.get(pos)) != 0 && isDelimiter(b)) {
+            pos++;
+        }
+        return pos;
+    }
+
+    /**
+     * Finds the end of a token.
+     *
+     * @param buffer the buffer holding the command
+     * @param pos the token's first index
+     * @param limit the end of the command
+     * @return the index just past the token
+     */
+    private static final int tokenEnd(ByteBuffer buffer, int pos, int limit) {
+        while (pos < limit && !isDelimiter(buffer.get(pos))) {
+            pos++;
+        }
+        return pos;
+    }
+
+    /**
+     * Parses a decimal number in the way `SeeParser` does, but strictly, since the token comes
+     * from a player rather than the server.
+     *
+     * @param buffer the buffer holding the number
+     * @param start the token's first index
+     * @param end the index just past the token
+     * @return the number, or NaN if the token is not one
+     */
+    private static final double parseNumber(ByteBuffer buffer, int start, int end) {
+        int pos = start;
+        boolean negative = false;
+        byte b = buffer.get(pos);
+        if (b == '-' || b == '+') {
+            negative = b == '-';
+            pos++;
+        }
+        long mantissa = 0L;
+        int digits = 0;
+        int decimals = 0;
+        while (pos < end && (b = buffer.get(pos)) >= '0' && b <= '9') {
+            mantissa = mantissa * 10L + (b - '0');
+            digits++;
+            pos++;
+        }
+        if (pos < end && buffer.get(pos) == '.') {
+            pos++;
+            while (pos < end && (b = buffer.get(pos)) >= '0' && b <= '9') {
+                mantissa = mantissa * 10L + (b - '0');
+                digits++;
+                decimals++;
+                pos++;
+            }
+        }
+        if (digits == 0 || digits > 18) {
+            return digits == 0 ? Double.NaN : parseSlowly(buffer, start, end);
+        }
+        int exponent = 0;
+        if (pos < end && ((b = buffer.get(pos)) == 'e' || b == 'E')) {
+            pos++;
+            boolean negativeExponent = false;
+            if (pos < end && ((b = buffer.get(pos)) == '-' || b == '+')) {
+                negativeExponent = b == '-';
+                pos++;
+            }
+            int exponentDigits = 0;
+            while (pos < end && (b = buffer.get(pos)) >= '0' && b <= '9' && exponentDigits < 4) {
+                exponent = exponent * 10 + (b - '0');
+                exponentDigits++;
+                pos++;
+            }
+            if (exponentDigits == 0) {
+                return Double.NaN;
+            }
+            exponent = negativeExponent ? -exponent : exponent;
+        }
+        if (pos != end) {
+            return Double.NaN;
+        }
+        double value = mantissa;
+        exponent -= decimals;
+        if (exponent < 0) {
+            value /= Math.pow(10.0, -exponent);
+        }
+        else if (exponent > 0) {
+            value *= Math.pow(10.0, exponent);
+        }
+        return negative ? -value : value;
+    }
+
+    /**
+     * Parses a number too long for `parseNumber` through `Double.parseDouble`.
+     *
+     * @param buffer the buffer holding the number
+     * @param start the token's first index
+     * @param end the index just past the token
+     * @return the number, or NaN if the token is not one
+     */
+    private static final double parseSlowly(ByteBuffer buffer, int start, int end) {
+        StringBuilder token = new StringBuilder(end - start);
+        for (int i = start; i < end; i++) {
+            token.append((char) buffer.get(i));
+        }
+        try {
+            return Double.parseDouble(token.toString());
+        }
+        catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+
+    /**
+     * Simulates one cycle: updates the play mode, executes the queued commands, moves every
+     * object, and checks for goals.
+     */
+    public final synchronized void step() {
+        this.referee = null;
+        if (this.playMode.equals("before_kick_off")) {
+            if (this.kickOffRequested) {
+                this.announce("play_on");
+            }
+        }
+        else if (this.playMode.startsWith("goal_")) {
+            if (--this.pause <= 0) {
+                // The side that conceded kicks off
+                this.ball.reset();
+                this.announce(this.playMode.charAt(5) == Settings.LEFT_SIDE ? "kick_off_r" : "kick_off_l");
+            }
+        }
+        else if (this.playMode.startsWith("kick_off_")) {
+            this.announce("play_on");
+        }
+        boolean playOn = this.playMode.equals("play_on");
+        for (Agent agent : this.agents) {
+            this.execute(agent, playOn);
+        }
+        Rectangle bounds = Settings.PHYSICAL_BOUNDARY;
+        for (Agent agent : this.agents) {
+            agent.body.step(this.type.PLAYER_DECAY, this.type.PLAYER_SPEED_MAX, PLAYER_RAND, this.random);
+            // Like the server, keep players within the field's margin
+            agent.body.x = Math.max(bounds.getLeft(), Math.min(bounds.getRight(), agent.body.x));
+            agent.body.y = Math.max(bounds.getTop(), Math.min(bounds.getBottom(), agent.body.y));
+        }
+        this.ball.step(this.params.BALL_PARAMS.BALL_DECAY, this.params.BALL_PARAMS.BALL_SPEED_MAX,
+                this.params.BALL_PARAMS.BALL_RAND, this.random);
+        if (playOn && this.lastKicker >= 0) {
+            this.possession[this.lastKicker]++;
+        }
+        Rectangle field = Settings.FIELD;
+        if (Math.abs(this.ball.x) > field.getRight() && Math.abs(this.ball.y) < this.params.GOAL_HEIGHT / 2.0) {
+            if (playOn) {
+                int scorer = this.ball.x > 0 ? 0 : 1;
+                this.score[scorer]++;
+                this.pause = GOAL_PAUSE_CYCLES;
+                this.announce("goal_" + (scorer == 0 ? Settings.LEFT_SIDE : Settings.RIGHT_SIDE) + "_" + this.score[scorer]);
+            }
+            this.ball.stop();
+        }
+        else if (this.ball.x < field.getLeft() || this.ball.x > field.getRight()
+                || this.ball.y < field.getTop() || this.ball.y > field.getBottom()) {
+            this.ball.reset();
+        }
+        if (!this.playMode.equals("before_kick_off")) {
+            this.time++;
+        }
+    }
+
+    /**
+     * Changes the play mode and has the referee announce it.
+     *
+     * @param playMode the new play mode
+     */
+    private final void announce(String playMode) {
+        this.playMode = playMode;
+        this.referee = playMode;
+    }
+
+    /**
+     * Executes a player's queued command, then readies it for the next cycle.
+     *
+     * @param agent the player
+     * @param playOn whether the ball is in play
+     */
+    private final void execute(Agent agent, boolean playOn) {
+        ServerParams_Player p = this.params.PLAYER_PARAMS;
+        Body body = agent.body;
+        if (Settings.Commands.DASH.equals(agent.command)) {
+            double power = Math.max(p.DASH_POWER_MIN, Math.min(p.DASH_POWER_MAX, agent.arg1));
+            double angle = Math.max(p.DASH_ANGLE_MIN, Math.min(p.DASH_ANGLE_MAX, agent.arg2));
+            power = Math.signum(power) * Math.min(Math.abs(power), agent.stamina);
+            agent.stamina -= Math.abs(power);
+            double accel = Math.min(Math.abs(power) * this.type.DASH_POWER_RATE, p.PLAYER_ACCEL_MAX);
+            double direction = agent.direction + angle + (power < 0 ? 180.0 : 0.0);
+            body.ax += accel * Futil.cosDeg(direction);
+            body.ay += accel * Futil.sinDeg(direction);
+            agent.dashes++;
+        }
+        else if (Settings.Commands.TURN.equals(agent.command)) {
+            double moment = Math.max(p.MOMENT_MIN, Math.min(p.MOMENT_MAX, agent.arg1));
+            double speed = Math.hypot(body.vx, body.vy);
+            agent.direction = Futil.simplifyAngle(agent.direction + moment / (1.0 + this.type.INERTIA_MOMENT * speed));
+            agent.turns++;
+        }
+        else if (Settings.Commands.KICK.equals(agent.command)) {
+            if (!this.playMode.startsWith("goal_")) {
+                this.kick(agent, agent.arg1, agent.arg2);
+            }
+            agent.kicks++;
+        }
+        else if (Settings.Commands.MOVE.equals(agent.command) && !playOn) {
+            // Each team gives positions as if it were the left team
+            double sign = agent.side == Settings.LEFT_SIDE ? 1.0 : -1.0;
+            body.x = sign * agent.arg1;
+            body.y = sign * agent.arg2;
+            body.vx = body.vy = body.ax = body.ay = 0.0;
+            agent.moves++;
+        }
+        agent.stamina = Math.min(p.STAMINA_MAX, agent.stamina + this.type.STAMINA_INC_MAX);
+        agent.command = null;
+        agent.commanded = false;
+        agent.done = false;
+    }
+
+    /**
+     * Accelerates the ball if it is within a player's kickable area.
+     *
+     * @param agent the kicking player
+     * @param power the kick power
+     * @param angle the kick direction relative to the player's body
+     */
+    private final void kick(Agent agent, double power, double angle) {
+        ServerParams_Player p = this.params.PLAYER_PARAMS;
+        double dx = this.ball.x - agent.body.x;
+        double dy = this.ball.y - agent.body.y;
+        double gap = Math.hypot(dx, dy) - this.type.PLAYER_SIZE - this.params.BALL_PARAMS.BALL_SIZE;
+        if (gap > this.type.KICKABLE_MARGIN) {
+            return;
+        }
+        power = Math.max(p.POWER_MIN, Math.min(p.POWER_MAX, power));
+        double dirDiff = Math.abs(Futil.simplifyAngle(Futil.atan2Deg(dy, dx) - agent.direction));
+        double rate = this.type.KICK_POWER_RATE
+                * (1.0 - 0.25 * dirDiff / 180.0 - 0.25 * Math.max(0.0, gap) / this.type.KICKABLE_MARGIN);
+        double accel = Math.min(Math.abs(power) * rate, this.params.BALL_PARAMS.BALL_ACCEL_MAX);
+        double direction = agent.direction + angle + (power < 0 ? 180.0 : 0.0);
+        this.lastKicker = agent.side == Settings.LEFT_SIDE ? 0 : 1;
+        this.ball.ax += accel * Futil.cosDeg(direction);
+        this.ball.ay += accel * Futil.sinDeg(direction);
+    }
+
+    ///////////////////////////////////////////////////////////////////////////
+    // MESSAGES
+    ///////////////////////////////////////////////////////////////////////////
+    /**
+     * Writes the reply to a player's `init` message. Like every message writer, this clears the
+     * buffer and leaves it flipped, holding the NUL-terminated message.
+     *
+     * @param agent the player, or null if it could not join
+     * @param out the buffer to write into
+     */
+    public final void writeInit(Agent agent, ByteBuffer out) {
+        out.clear();
+        if (agent == null) {
+            Futil.putAscii(out, "(error no_more_team_or_player_or_goalie)");
+        }
+        else {
+            Futil.putAscii(out, "(init ");
+            out.put((byte) agent.side);
+            out.put((byte) ' ');
+            Futil.putDouble(out, agent.unum);
+            out.put((byte) ' ');
+            Futil.putAscii(out, this.playMode);
+            out.put((byte) ')');
+        }
+        finish(out);
+    }
+
+    /**
+     * Writes the referee's announcement from the last cycle as a `hear` message.
+     *
+     * @param out the buffer to write into
+     * @return false if there was no announcement, in which case nothing was written
+     */
+    public final boolean writeHear(ByteBuffer out) {
+        String referee = this.referee;
+        if (referee == null) {
+            return false;
+        }
+        out.clear();
+        Futil.putAscii(out, "(hear ");
+        Futil.putDouble(out, this.time);
+        Futil.putAscii(out, " referee ");
+        Futil.putAscii(out, referee);
+        out.put((byte) ')');
+        finish(out);
+        return true;
+    }
+
+    /**
+     * Writes a player's `sense_body` message.
+     *
+     * @param agent the player
+     * @param out the buffer to write into
+     */
+    public final void writeSenseBody(Agent agent, ByteBuffer out) {
+        out.clear();
+        Futil.putAscii(out, "(sense_body ");
+        Futil.putDouble(out, this.time);
+        Futil.putAscii(out, " (view_mode high normal) (stamina ");
+        Futil.putDouble(out, Math.rint(agent.stamina));
+        Futil.putAscii(out, " 1 ");
+        Futil.putDouble(out, this.params.PLAYER_PARAMS.STAMINA_CAPACITY);
+        Futil.putAscii(out, ") (speed ");
+        double speed = Math.hypot(agent.body.vx, agent.body.vy);
+        Futil.putDouble(out, quantize(speed, 0.01));
+        out.put((byte) ' ');
+        double direction = speed > 0 ? Futil.atan2Deg(agent.body.vy, agent.body.vx) : agent.direction;
+        Futil.putDouble(out, Math.rint(Futil.simplifyAngle(direction - agent.direction)));
+        Futil.putAscii(out, ") (head_angle 0) (kick ");
+        Futil.putDouble(out, agent.kicks);
+        Futil.putAscii(out, ") (dash ");
+        Futil.putDouble(out, agent.dashes);
+        Futil.putAscii(out, ") (turn ");
+        Futil.putDouble(out, agent.turns);
+        Futil.putAscii(out, ") (say 0) (turn_neck 0) (catch 0) (move ");
+        Futil.putDouble(out, agent.moves);
+        Futil.putAscii(out, ") (change_view 0))");
+        finish(out);
+    }
+
+    /**
+     * Writes a player's `see` message, listing every object within its view cone.
+     *
+     * @param agent the player
+     * @param out the buffer to write into
+     */
+    public final void writeSee(Agent agent, ByteBuffer out) {
+        out.clear();
+        Futil.putAscii(out, "(see ");
+        Futil.putDouble(out, this.time);
+        for (StationaryObject object : Settings.STATIONARY_OBJECTS) {
+            Point position = object.position.getPosition();
+            this.putSeen(agent, out, object.id, position.getX(), position.getY(), null, QUANTIZE_STEP_L);
+        }
+        this.putSeen(agent, out, "(b)", this.ball.x, this.ball.y, this.ball, QUANTIZE_STEP);
+        for (int i = 0; i < this.agents.size(); i++) {
+            Agent other = this.agents.get(i);
+            if (other == agent) {
+                continue;
+            }
+            double distance = Math.hypot(other.body.x - agent.body.x, other.body.y - agent.body.y);
+            String name;
+            if (distance <= UNUM_FAR_LENGTH) {
+                name = other.name;
+            }
+            else if (distance <= Settings.TEAM_FAR_LENGTH) {
+                name = other.teamName;
+            }
+            else {
+                name = "(p)";
+            }
+            this.putSeen(agent, out, name, other.body.x, other.body.y, other.body, QUANTIZE_STEP);
+        }
+        out.put((byte) ')');
+        finish(out);
+    }
+
+    /**
+     * Appends one object to a `see` message if it is within the player's view cone.
+     *
+     * @param agent the seeing player
+     * @param out the buffer holding the message
+     * @param name the object's name
+     * @param x the object's x-coordinate
+     * @param y the object's y-coordinate
+     * @param body the object's motion, or null for landmarks
+     * @param step the distance quantization step
+     */
+    private final void putSeen(Agent agent, ByteBuffer out, String name, double x, double y, Body body, double step) {
+        double dx = x - agent.body.x;
+        double dy = y - agent.body.y;
+        double distance = Math.hypot(dx, dy);
+        double direction = Futil.simplifyAngle(Futil.atan2Deg(dy, dx) - agent.direction);
+        if (Math.abs(direction) > VISIBLE_ANGLE || out.remaining() < 64) {
+            return;
+        }
+        Futil.putAscii(out, " (");
+        Futil.putAscii(out, name);
+        out.put((byte) ' ');
+        Futil.putDouble(out, quantizeDistance(distance, step));
+        out.put((byte) ' ');
+        Futil.putDouble(out, Math.rint(direction));
+        if (body != null && distance > EPS) {
+            // Relative motion, as the server reports it
+            double ex = dx / distance;
+            double ey = dy / distance;
+            double vx = body.vx - agent.body.vx;
+            double vy = body.vy - agent.body.vy;
+            out.put((byte) ' ');
+            Futil.putDouble(out, quantize(vx * ex + vy * ey, 0.01));
+            out.put((byte) ' ');
+            Futil.putDouble(out, quantize(Math.toDegrees((vy * ex - vx * ey) / distance), 0.1));
+        }
+        out.put((byte) ')');
+    }
+
+    /**
+     * Terminates a message and readies the buffer for reading.
+     *
+     * @param out the buffer holding the message
+     */
+    private static final void finish(ByteBuffer out) {
+        out.put((byte) 0);
+        out.flip();
+    }
+
+    /**
+     * The position and motion of a ball or player. Accelerations accumulate during a cycle and are
+     * applied at its end.
+     */
+    static final class Body {
+        double x, y, vx, vy, ax, ay;
+
+        /**
+         * Applies the accumulated acceleration and noise, moves, and decays the velocity.
+         *
+         * @param decay the velocity decay
+         * @param speedMax the speed limit
+         * @param rand the noise, as a fraction of the speed
+         * @param random the noise source
+         */
+        final void step(double decay, double speedMax, double rand, Random random) {
+            this.vx += this.ax;
+            this.vy += this.ay;
+            if (rand > 0.0 && (this.vx != 0.0 || this.vy != 0.0)) {
+                double noise = rand * Math.hypot(this.vx, this.vy);
+                this.vx += noise * (2.0 * random.nextDouble() - 1.0);
+                this.vy += noise * (2.0 * random.nextDouble() - 1.0);
+            }
+            double speed = Math.hypot(this.vx, this.vy);
+            if (speed > speedMax) {
+                this.vx *= speedMax / speed;
+                this.vy *= speedMax / speed;
+            }
+            this.x += this.vx;
+            this.y += this.vy;
+            this.vx *= decay;
+            this.vy *= decay;
+            this.ax = 0.0;
+            this.ay = 0.0;
+        }
+
+        /**
+         * Stops the body where it is.
+         */
+        final void stop() {
+            this.vx = this.vy = this.ax = this.ay = 0.0;
+        }
+
+        /**
+         * Puts the body at rest on the center spot.
+         */
+        final void reset() {
+            this.stop();
+            this.x = this.y = 0.0;
+        }
+    }
+
+    /**
+     * A player on the field.
+     */
+    public static final class Agent {
+        public final String team;
+        public final char side;
+        public final int unum;
+        public final boolean goalie;
+        final String name;
+        final String teamName;
+        final Body body = new Body();
+        double direction;
+        double stamina;
+        volatile boolean commanded = false;
+        volatile boolean done = false;
+        volatile boolean left = false;
+        boolean synch = false;
+        volatile String command = null;
+        double arg1, arg2;
+        int dashes, turns, kicks, moves;
+
+        /**
+         * Primary constructor.
+         *
+         * @param team the player's team name
+         * @param side the player's side
+         * @param unum the player's uniform number
+         * @param goalie whether the player is a goalie
+         */
+        Agent(String team, char side, int unum, boolean goalie) {
+            this.team = team;
+            this.side = side;
+            this.unum = unum;
+            this.goalie = goalie;
+            this.name = "(p \"" + team + "\" " + unum + (goalie ? " goalie)" : ")");
+            this.teamName = "(p \"" + team + "\")";
+            this.direction = side == Settings.LEFT_SIDE ? 0.0 : 180.0;
+        }
+
+        /**
+         * Returns whether the player has said `bye`.
+         *
+         * @return whether the player left
+         */
+        public final boolean hasLeft() {
+            return this.left;
+        }
+    }
+}